@@ -4,6 +4,8 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.infinispan.commons.api.BasicCache;
 import org.infinispan.commons.util.CloseableIterator;
@@ -339,8 +341,78 @@
     */
    Set<Object> getListeners();
 
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * The function is applied by the client: the entry is read along with its version and the result is only written
+    * if the entry was not modified in the meantime, otherwise the function is applied again to the new value. Use
+    * {@link #compute(Object, String)} to apply a function on the server, under the lock of the key.
+    */
+   @Override
+   V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * The function is applied by the client, see {@link #compute(Object, BiFunction)}.
+    */
+   @Override
+   V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * The function is applied by the client, see {@link #compute(Object, BiFunction)}.
+    */
+   @Override
+   V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction);
+
+   /**
+    * {@inheritDoc}
+    * <p/>
+    * The function is applied by the client, see {@link #compute(Object, BiFunction)}.
+    */
+   @Override
+   V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction);
+
+   /**
+    * Same as {@link #compute(Object, BiFunction)}, except that the function is registered in the server under the
+    * given name, and applied by the primary owner of the key while holding the lock on the key. The key and value it
+    * receives are unmarshalled with the server marshaller, and only the resulting value is sent back.
+    *
+    * @throws org.infinispan.client.hotrod.exceptions.HotRodClientException if no function is registered under that name
+    */
+   V compute(K key, String functionName);
+
+   /**
+    * Same as {@link #computeIfPresent(Object, BiFunction)}, with a function registered in the server, see
+    * {@link #compute(Object, String)}.
+    */
+   V computeIfPresent(K key, String functionName);
+
+   /**
+    * Same as {@link #computeIfAbsent(Object, Function)}, with a function registered in the server, see
+    * {@link #compute(Object, String)}. The function receives the key and {@code null}.
+    */
+   V computeIfAbsent(K key, String functionName);
+
+   /**
+    * Same as {@link #merge(Object, Object, BiFunction)}, with a function registered in the server, see
+    * {@link #compute(Object, String)}.
+    */
+   V merge(K key, V value, String functionName);
+
    /**
     * Executes a remote script passing a set of named parameters
     */
    <T> T execute(String scriptName, Map<String, ?> params);
+
+   /**
+    * Executes a remote script scoped to a single key, passing a set of named parameters. The script is sent to the
+    * primary owner of the key, where it runs while holding the lock on the key, and its reads through the cache
+    * binding never go to other nodes.
+    *
+    * @param key the key the script operates on
+    */
+   <T> T execute(String scriptName, Map<String, ?> params, Object key);
 }
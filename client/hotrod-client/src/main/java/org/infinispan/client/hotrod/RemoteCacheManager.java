@@ -8,6 +8,9 @@
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.client.hotrod.configuration.Configuration;
@@ -151,6 +154,7 @@ public class RemoteCacheManager implements BasicCacheContainer {
    private Marshaller marshaller;
    protected TransportFactory transportFactory;
    private ExecutorService asyncExecutorService;
+   private ExecutorService bulkExecutorService;
    protected ClientListenerNotifier listenerNotifier;
 
    /**
@@ -573,6 +577,10 @@ public void start() {
          asyncExecutorService = executorFactory.getExecutor(configuration.asyncExecutorFactory().properties());
       }
 
+      if (bulkExecutorService == null) {
+         bulkExecutorService = createBulkExecutorService();
+      }
+
       listenerNotifier = ClientListenerNotifier.create(codec, marshaller);
       transportFactory.start(codec, configuration, defaultCacheTopologyId, listenerNotifier);
 
@@ -599,10 +607,29 @@ public void stop() {
          listenerNotifier.stop();
          transportFactory.destroy();
          asyncExecutorService.shutdownNow();
+         bulkExecutorService.shutdownNow();
+         bulkExecutorService = null;
       }
       started = false;
    }
 
+   /**
+    * Creates the executor sending the operations of putAll and getAll that target different servers concurrently. It is
+    * separate from the async executor, as the async operations block on it. No task is ever queued: when all the
+    * threads are busy, or once the executor is shut down, the calling thread sends the operation itself.
+    */
+   private ExecutorService createBulkExecutorService() {
+      int poolSize = new ConfigurationProperties(configuration.asyncExecutorFactory().properties())
+            .getDefaultExecutorFactoryPoolSize();
+      AtomicInteger counter = new AtomicInteger();
+      return new ThreadPoolExecutor(0, poolSize, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), r -> {
+               Thread th = new Thread(r, "HotRod-client-bulk-" + counter.getAndIncrement());
+               th.setDaemon(true);
+               return th;
+            }, (r, e) -> r.run());
+   }
+
    public boolean isStarted() {
       return started;
    }
@@ -669,7 +696,7 @@ private void startRemoteCache(RemoteCacheHolder remoteCacheHolder, AtomicInteger
       OperationsFactory operationsFactory = new OperationsFactory(
             transportFactory, remoteCache.getName(), topologyId, remoteCacheHolder.forceReturnValue,
             codec, listenerNotifier);
-      remoteCache.init(marshaller, asyncExecutorService, operationsFactory, configuration.keySizeEstimate(), configuration.valueSizeEstimate());
+      remoteCache.init(marshaller, asyncExecutorService, bulkExecutorService, operationsFactory, configuration.keySizeEstimate(), configuration.valueSizeEstimate());
    }
 
    public Marshaller getMarshaller() {
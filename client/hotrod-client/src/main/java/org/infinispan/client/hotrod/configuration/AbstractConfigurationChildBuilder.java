@@ -145,6 +145,11 @@ public ConfigurationBuilder maxRetries(int retriesPerServer) {
       return builder.maxRetries(retriesPerServer);
    }
 
+   @Override
+   public ConfigurationBuilder readPolicy(ReadPolicy readPolicy) {
+      return builder.readPolicy(readPolicy);
+   }
+
    @Override
    public ConfigurationBuilder withProperties(Properties properties) {
       return builder.withProperties(properties);
@@ -64,6 +64,7 @@ public class ConfigurationBuilder implements ConfigurationChildBuilder, Builder<
    private int valueSizeEstimate = ConfigurationProperties.DEFAULT_VALUE_SIZE;
    private int maxRetries = ConfigurationProperties.DEFAULT_MAX_RETRIES;
    private final NearCacheConfigurationBuilder nearCache;
+   private ReadPolicy readPolicy = ReadPolicy.PRIMARY_OWNER;
 
    public ConfigurationBuilder() {
       this.classLoader = new WeakReference<ClassLoader>(Thread.currentThread().getContextClassLoader());
@@ -252,6 +253,12 @@ public ConfigurationBuilder maxRetries(int maxRetries) {
       return this;
    }
 
+   @Override
+   public ConfigurationBuilder readPolicy(ReadPolicy readPolicy) {
+      this.readPolicy = readPolicy;
+      return this;
+   }
+
    @Override
    public ConfigurationBuilder withProperties(Properties properties) {
       TypedProperties typed = TypedProperties.toTypedProperties(properties);
@@ -283,6 +290,9 @@ public ConfigurationBuilder withProperties(Properties properties) {
       }
       this.valueSizeEstimate(typed.getIntProperty(ConfigurationProperties.VALUE_SIZE_ESTIMATE, valueSizeEstimate));
       this.maxRetries(typed.getIntProperty(ConfigurationProperties.MAX_RETRIES, maxRetries));
+      if (typed.containsKey(ConfigurationProperties.READ_POLICY)) {
+         this.readPolicy(ReadPolicy.valueOf(typed.getProperty(ConfigurationProperties.READ_POLICY).trim().toUpperCase()));
+      }
       return this;
    }
 
@@ -295,6 +305,9 @@ public void validate() {
       if (maxRetries < 0) {
          throw log.invalidMaxRetries(maxRetries);
       }
+      if (readPolicy == null) {
+         throw log.invalidReadPolicy();
+      }
    }
 
    @Override
@@ -310,11 +323,11 @@ public Configuration create() {
       if (marshaller == null) {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
                consistentHashImpl, forceReturnValues, keySizeEstimate, marshallerClass, pingOnStartup, protocolVersion, servers, socketTimeout, security.create(), tcpNoDelay, tcpKeepAlive, transportFactory,
-               valueSizeEstimate, maxRetries, nearCache.create());
+               valueSizeEstimate, maxRetries, nearCache.create(), readPolicy);
       } else {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
                consistentHashImpl, forceReturnValues, keySizeEstimate, marshaller, pingOnStartup, protocolVersion, servers, socketTimeout, security.create(), tcpNoDelay, tcpKeepAlive, transportFactory,
-               valueSizeEstimate, maxRetries, nearCache.create());
+               valueSizeEstimate, maxRetries, nearCache.create(), readPolicy);
       }
    }
 
@@ -358,6 +371,7 @@ public ConfigurationBuilder read(Configuration template) {
       this.valueSizeEstimate = template.valueSizeEstimate();
       this.maxRetries = template.maxRetries();
       this.nearCache.read(template.nearCache());
+      this.readPolicy = template.readPolicy();
       return this;
    }
 }
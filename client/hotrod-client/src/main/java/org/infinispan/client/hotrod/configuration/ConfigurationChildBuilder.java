@@ -156,6 +156,12 @@ public interface ConfigurationChildBuilder {
     */
    ConfigurationBuilder maxRetries(int maxRetries);
 
+   /**
+    * Selects which owner of a key the read operations on that key are sent to. Writes are always sent to the primary
+    * owner. It defaults to {@link ReadPolicy#PRIMARY_OWNER}.
+    */
+   ConfigurationBuilder readPolicy(ReadPolicy readPolicy);
+
    /**
     * Configures this builder using the specified properties
     */
@@ -1,19 +1,46 @@
 package org.infinispan.client.hotrod.configuration;
 
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
+
 public class NearCacheConfiguration {
    // TODO: Consider an option to configure key equivalence function for near cache (e.g. for byte arrays)
    private final NearCacheMode mode;
    private final int maxEntries;
+   private final long maxBytes;
+   private final EntrySizeCalculator<Object, Object> sizeCalculator;
 
    public NearCacheConfiguration(NearCacheMode mode, int maxEntries) {
+      this(mode, maxEntries, -1, null);
+   }
+
+   public NearCacheConfiguration(NearCacheMode mode, int maxEntries, long maxBytes,
+         EntrySizeCalculator<Object, Object> sizeCalculator) {
       this.mode = mode;
       this.maxEntries = maxEntries;
+      this.maxBytes = maxBytes;
+      this.sizeCalculator = sizeCalculator;
    }
 
    public int maxEntries() {
       return maxEntries;
    }
 
+   /**
+    * Maximum amount of memory, in bytes, that the near cache can hold, or a negative value if the near cache is
+    * bounded by number of entries instead.
+    */
+   public long maxBytes() {
+      return maxBytes;
+   }
+
+   /**
+    * Calculator used to weigh near cache entries when the near cache is bounded by memory, or null if the default
+    * estimation based on marshalled sizes should be used.
+    */
+   public EntrySizeCalculator<Object, Object> sizeCalculator() {
+      return sizeCalculator;
+   }
+
    public NearCacheMode mode() {
       return mode;
    }
@@ -23,6 +50,8 @@ public String toString() {
       return "NearCacheConfiguration{" +
             "mode=" + mode +
             ", maxEntries=" + maxEntries +
+            ", maxBytes=" + maxBytes +
+            ", sizeCalculator=" + sizeCalculator +
             '}';
    }
 }
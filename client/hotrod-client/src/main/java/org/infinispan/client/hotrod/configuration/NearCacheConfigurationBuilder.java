@@ -3,6 +3,7 @@
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 
 public class NearCacheConfigurationBuilder extends AbstractConfigurationChildBuilder
       implements Builder<NearCacheConfiguration> {
@@ -10,6 +11,8 @@ public class NearCacheConfigurationBuilder extends AbstractConfigurationChildBui
 
    private NearCacheMode mode = NearCacheMode.DISABLED;
    private Integer maxEntries = null; // undefined
+   private Long maxBytes = null; // undefined
+   private EntrySizeCalculator<Object, Object> sizeCalculator;
 
    protected NearCacheConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -20,6 +23,25 @@ public NearCacheConfigurationBuilder maxEntries(int maxEntries) {
       return this;
    }
 
+   /**
+    * Bounds the near cache by the approximate amount of memory its entries use, rather than by number of entries.
+    * When the near cache is full, newly fetched entries are only admitted if they have been requested frequently
+    * enough, so that one-off reads do not push frequently read entries out of the near cache.
+    */
+   public NearCacheConfigurationBuilder maxBytes(long maxBytes) {
+      this.maxBytes = maxBytes;
+      return this;
+   }
+
+   /**
+    * Calculator used to weigh the key and value of each entry when the near cache is bounded by
+    * {@link #maxBytes(long)}. If not set, sizes are estimated from the marshalled size of keys and values.
+    */
+   public NearCacheConfigurationBuilder sizeCalculator(EntrySizeCalculator<Object, Object> sizeCalculator) {
+      this.sizeCalculator = sizeCalculator;
+      return this;
+   }
+
    public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
       this.mode = mode;
       return this;
@@ -27,19 +49,22 @@ public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
 
    @Override
    public void validate() {
-      if (mode.enabled() && maxEntries == null)
+      if (mode.enabled() && maxEntries == null && maxBytes == null)
          throw log.nearCacheMaxEntriesUndefined();
    }
 
    @Override
    public NearCacheConfiguration create() {
-      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries.intValue());
+      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries.intValue(),
+            maxBytes == null ? -1 : maxBytes.longValue(), sizeCalculator);
    }
 
    @Override
    public Builder<?> read(NearCacheConfiguration template) {
       mode = template.mode();
       maxEntries = template.maxEntries();
+      maxBytes = template.maxBytes() < 0 ? null : template.maxBytes();
+      sizeCalculator = template.sizeCalculator();
       return this;
    }
 }
@@ -0,0 +1,38 @@
+package org.infinispan.client.hotrod.configuration;
+
+/**
+ * Decides which of the owners of a key the read operations on that key are sent to. Write operations are always sent
+ * to the primary owner of the key, regardless of the policy.
+ *
+ * @since 8.0
+ */
+public enum ReadPolicy {
+
+   /**
+    * Reads are sent to the primary owner of the key.
+    */
+   PRIMARY_OWNER,
+
+   /**
+    * Reads are sent to a randomly chosen owner of the key.
+    */
+   RANDOM_OWNER,
+
+   /**
+    * Reads are sent to the owner of the key with the fewest requests in flight from this client. Ties are resolved in
+    * favour of the primary owner.
+    */
+   LEAST_OUTSTANDING_REQUESTS,
+
+   /**
+    * Reads are sent to the owner of the key with the lowest average response time, weighted by the number of requests
+    * in flight from this client. Owners that have not responded yet are preferred, so that their response time can be
+    * measured.
+    */
+   LOWEST_LATENCY;
+
+   public boolean primaryOnly() {
+      return this == PRIMARY_OWNER;
+   }
+
+}
@@ -30,9 +30,11 @@ public V get(Object key) {
    public VersionedValue<V> getVersioned(K key) {
       VersionedValue<V> nearValue = nearcache.get(key);
       if (nearValue == null) {
+         // Read the stamp before going remote, so that the value is not cached if it got invalidated meanwhile
+         long stamp = nearcache.invalidationStamp(key);
          VersionedValue<V> remoteValue = super.getVersioned(key);
          if (remoteValue != null)
-            nearcache.putIfAbsent(key, remoteValue);
+            nearcache.putIfAbsent(key, remoteValue, stamp);
 
          return remoteValue;
       }
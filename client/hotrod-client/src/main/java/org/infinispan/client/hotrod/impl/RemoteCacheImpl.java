@@ -3,16 +3,22 @@
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.MetadataValue;
@@ -24,7 +30,10 @@
 import org.infinispan.client.hotrod.event.ClientListenerNotifier;
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
 import org.infinispan.client.hotrod.exceptions.RemoteCacheManagerNotStartedException;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
+import org.infinispan.client.hotrod.impl.consistenthash.SegmentConsistentHash;
 import org.infinispan.client.hotrod.impl.operations.*;
+import org.infinispan.client.hotrod.impl.iteration.ParallelRemoteCloseableIterator;
 import org.infinispan.client.hotrod.impl.iteration.RemoteCloseableIterator;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
@@ -46,6 +55,7 @@
    private final String name;
    private final RemoteCacheManager remoteCacheManager;
    private volatile ExecutorService executorService;
+   private volatile ExecutorService bulkExecutorService;
    private OperationsFactory operationsFactory;
    private int estimateKeySize;
    private int estimateValueSize;
@@ -58,9 +68,11 @@ public RemoteCacheImpl(RemoteCacheManager rcm, String name) {
       this.remoteCacheManager = rcm;
    }
 
-   public void init(Marshaller marshaller, ExecutorService executorService, OperationsFactory operationsFactory, int estimateKeySize, int estimateValueSize) {
+   public void init(Marshaller marshaller, ExecutorService executorService, ExecutorService bulkExecutorService,
+                    OperationsFactory operationsFactory, int estimateKeySize, int estimateValueSize) {
       this.marshaller = marshaller;
       this.executorService = executorService;
+      this.bulkExecutorService = bulkExecutorService;
       this.operationsFactory = operationsFactory;
       this.estimateKeySize = estimateKeySize;
       this.estimateValueSize = estimateValueSize;
@@ -174,6 +186,15 @@ public Entry<Object, Object> next() {
             }
          };
       }
+      ConsistentHash consistentHash = operationsFactory.getConsistentHash();
+      if (consistentHash instanceof SegmentConsistentHash) {
+         // iterate over the segments of each server directly on the server, in parallel
+         Map<SocketAddress, Set<Integer>> segmentsByOwner = ParallelRemoteCloseableIterator.segmentsByPrimaryOwner((SegmentConsistentHash) consistentHash, segments);
+         if (segmentsByOwner.size() > 1) {
+            return ParallelRemoteCloseableIterator.start(operationsFactory, filterConverterFactory, segmentsByOwner.values(), batchSize, marshaller,
+                  remoteCacheManager.getConfiguration().socketTimeout());
+         }
+      }
       RemoteCloseableIterator remoteCloseableIterator = new RemoteCloseableIterator(operationsFactory, filterConverterFactory, segments, batchSize, marshaller);
       remoteCloseableIterator.start();
       return remoteCloseableIterator;
@@ -211,8 +232,8 @@ public void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit li
       for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
          byteMap.put(obj2bytes(entry.getKey(),  true), obj2bytes(entry.getValue(), false));
       }
-      PutAllOperation op = operationsFactory.newPutAllOperation(byteMap, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
-      op.execute();
+      List<PutAllOperation> ops = operationsFactory.newPutAllOperations(byteMap, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      executeInParallel(ops);
    }
 
    @Override
@@ -300,6 +321,111 @@ public V replace(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxI
       return MarshallerUtil.bytes2obj(marshaller, bytes);
    }
 
+   @Override
+   public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      assertFunction(remappingFunction);
+      while (true) {
+         VersionedValue<V> versioned = getVersioned(key);
+         V newValue = remappingFunction.apply(key, versioned == null ? null : versioned.getValue());
+         if (replaceVersioned(key, versioned, newValue))
+            return newValue;
+      }
+   }
+
+   @Override
+   public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      assertFunction(remappingFunction);
+      while (true) {
+         VersionedValue<V> versioned = getVersioned(key);
+         if (versioned == null)
+            return null;
+         V newValue = remappingFunction.apply(key, versioned.getValue());
+         if (replaceVersioned(key, versioned, newValue))
+            return newValue;
+      }
+   }
+
+   @Override
+   public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+      assertFunction(mappingFunction);
+      while (true) {
+         VersionedValue<V> versioned = getVersioned(key);
+         if (versioned != null)
+            return versioned.getValue();
+         V newValue = mappingFunction.apply(key);
+         if (replaceVersioned(key, null, newValue))
+            return newValue;
+      }
+   }
+
+   @Override
+   public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+      if (value == null) {
+         throw new NullPointerException("Null values are not supported!");
+      }
+      assertFunction(remappingFunction);
+      while (true) {
+         VersionedValue<V> versioned = getVersioned(key);
+         V newValue = versioned == null ? value : remappingFunction.apply(versioned.getValue(), value);
+         if (replaceVersioned(key, versioned, newValue))
+            return newValue;
+      }
+   }
+
+   /**
+    * Replaces the value read by {@link #getVersioned(Object)} unless it was modified in the meantime. A {@code null}
+    * versioned value stands for a missing entry, and a {@code null} new value removes the entry.
+    */
+   private boolean replaceVersioned(K key, VersionedValue<V> versioned, V newValue) {
+      if (versioned == null) {
+         return newValue == null || withFlags(Flag.FORCE_RETURN_VALUE).putIfAbsent(key, newValue) == null;
+      } else if (newValue == null) {
+         return removeWithVersion(key, versioned.getVersion());
+      } else {
+         return replaceWithVersion(key, newValue, versioned.getVersion());
+      }
+   }
+
+   @Override
+   public V compute(K key, String functionName) {
+      return compute(key, ComputeOperation.COMPUTE, functionName, null);
+   }
+
+   @Override
+   public V computeIfPresent(K key, String functionName) {
+      return compute(key, ComputeOperation.COMPUTE_IF_PRESENT, functionName, null);
+   }
+
+   @Override
+   public V computeIfAbsent(K key, String functionName) {
+      return compute(key, ComputeOperation.COMPUTE_IF_ABSENT, functionName, null);
+   }
+
+   @Override
+   public V merge(K key, V value, String functionName) {
+      if (value == null) {
+         throw new NullPointerException("Null values are not supported!");
+      }
+      return compute(key, ComputeOperation.MERGE, functionName, value);
+   }
+
+   private V compute(K key, byte mode, String functionName, V value) {
+      assertRemoteCacheManagerIsStarted();
+      assertFunction(functionName);
+      applyDefaultExpirationFlags(defaultLifespan, defaultMaxIdleTime);
+      byte[] valueBytes = value == null ? new byte[0] : obj2bytes(value, false);
+      ComputeOperation op = operationsFactory.newComputeOperation(obj2bytes(key, true), mode, functionName,
+            valueBytes, defaultLifespan, MILLISECONDS, defaultMaxIdleTime, MILLISECONDS);
+      byte[] bytes = op.execute();
+      return MarshallerUtil.bytes2obj(marshaller, bytes);
+   }
+
+   private static void assertFunction(Object function) {
+      if (function == null) {
+         throw new NullPointerException("Null functions are not supported!");
+      }
+   }
+
    @Override
    public NotifyingFuture<V> putAsync(final K key, final V value, final long lifespan, final TimeUnit lifespanUnit, final long maxIdle, final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
@@ -475,17 +601,50 @@ public Map<K, V> getAll(Set<? extends K> keys) {
       for (K key : keys) {
          byteKeys.add(obj2bytes(key, true));
       }
-      GetAllOperation op = operationsFactory.newGetAllOperation(byteKeys);
-      Map<byte[], byte[]> result = op.execute();
+      List<GetAllOperation> ops = operationsFactory.newGetAllOperations(byteKeys);
       Map<K,V> toReturn = new HashMap<K,V>();
-      for (Map.Entry<byte[], byte[]> entry : result.entrySet()) {
-         V value = MarshallerUtil.bytes2obj(marshaller, entry.getValue());
-         K key = MarshallerUtil.bytes2obj(marshaller, entry.getKey());
-         toReturn.put(key, value);
+      for (Map<byte[], byte[]> result : executeInParallel(ops)) {
+         for (Map.Entry<byte[], byte[]> entry : result.entrySet()) {
+            V value = MarshallerUtil.bytes2obj(marshaller, entry.getValue());
+            K key = MarshallerUtil.bytes2obj(marshaller, entry.getKey());
+            toReturn.put(key, value);
+         }
       }
       return Collections.unmodifiableMap(toReturn);
    }
 
+   /**
+    * Executes operations targeting different servers concurrently. The last one runs in the calling thread. The other
+    * ones run on the bulk executor rather than the async executor, since the async putAll and getAll block on them.
+    */
+   private <T> List<T> executeInParallel(List<? extends RetryOnFailureOperation<T>> ops) {
+      List<Future<T>> futures = new ArrayList<Future<T>>(ops.size() - 1);
+      for (final RetryOnFailureOperation<T> op : ops.subList(0, ops.size() - 1)) {
+         futures.add(bulkExecutorService.submit(new Callable<T>() {
+            @Override
+            public T call() {
+               return op.execute();
+            }
+         }));
+      }
+      List<T> results = new ArrayList<T>(ops.size());
+      results.add(ops.get(ops.size() - 1).execute());
+      for (Future<T> future : futures) {
+         try {
+            results.add(future.get());
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HotRodClientException(e);
+         } catch (ExecutionException e) {
+            if (e.getCause() instanceof HotRodClientException) {
+               throw (HotRodClientException) e.getCause();
+            }
+            throw new HotRodClientException(e.getCause());
+         }
+      }
+      return results;
+   }
+
    @Override
    public Map<K, V> getBulk() {
       return getBulk(0);
@@ -702,6 +861,11 @@ public Set<K> keySet() {
 
 	@Override
 	public <T> T execute(String taskName, Map<String, ?> params) {
+		return execute(taskName, params, null);
+	}
+
+	@Override
+	public <T> T execute(String taskName, Map<String, ?> params, Object key) {
 		assertRemoteCacheManagerIsStarted();
 		Map<String, byte[]> marshalledParams = new HashMap<>();
 		if (params != null) {
@@ -709,7 +873,8 @@ public <T> T execute(String taskName, Map<String, ?> params) {
    			marshalledParams.put(entry.getKey(), obj2bytes(entry.getValue(), false));
    		}
 		}
-		ExecuteOperation op = operationsFactory.newExecuteOperation(taskName, marshalledParams);
+		byte[] routingKey = key == null ? null : obj2bytes(key, true);
+		ExecuteOperation op = operationsFactory.newExecuteOperation(taskName, marshalledParams, routingKey);
 		return MarshallerUtil.bytes2obj(marshaller, op.execute());
 	}
 }
@@ -42,6 +42,13 @@ public SocketAddress getServer(byte[] key) {
       return segmentOwners[segmentId][0];
    }
 
+   /**
+    * Returns all the owners of a key, the primary owner first.
+    */
+   public SocketAddress[] getOwners(byte[] key) {
+      return segmentOwners[getSegment(key)];
+   }
+
    public int getSegment(Object key) {
       // The result must always be positive, so we make sure the dividend is positive first
       return getNormalizedHash(key) / segmentSize;
@@ -0,0 +1,247 @@
+package org.infinispan.client.hotrod.impl.iteration;
+
+import net.jcip.annotations.NotThreadSafe;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.impl.consistenthash.SegmentConsistentHash;
+import org.infinispan.client.hotrod.impl.operations.OperationsFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.CloseableIterator;
+
+import java.net.SocketAddress;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Iterates over the entries of a distributed cache by splitting the segments by their primary owner and iterating over
+ * each group directly on its owner. The servers only need to retrieve their local entries, and the iterations on the
+ * different servers are consumed concurrently, each by its own thread.
+ * <p/>
+ * The threads belong to the iterator, so a slow or forgotten iteration never holds the threads of the client's async
+ * executor. They stop once their group is exhausted, when the iterator is closed, or when the entries they fetched have
+ * not been consumed for longer than the idle timeout, in which case the iteration fails.
+ * <p/>
+ * Each group of segments is iterated by its own {@link RemoteCloseableIterator}, so the segments of a group that fail
+ * are retried like in the case of a single iteration.
+ *
+ * @since 8.0
+ */
+@NotThreadSafe
+public class ParallelRemoteCloseableIterator implements CloseableIterator<Entry<Object, Object>> {
+
+   private static final Log log = LogFactory.getLog(ParallelRemoteCloseableIterator.class);
+
+   /**
+    * Marks the end of the iteration of a group of segments.
+    */
+   private static final Entry<Object, Object> END = new SimpleEntry<>(null, null);
+
+   private static final String THREAD_NAME = "HotRod-client-iteration";
+   private static final AtomicInteger counter = new AtomicInteger(0);
+
+   /**
+    * How often a thread waiting for space in the queue checks whether the iteration was closed.
+    */
+   private static final long POLL_INTERVAL_MILLIS = 100;
+
+   private final List<RemoteCloseableIterator> iterators;
+   private final ExecutorService executorService;
+   private final BlockingQueue<Entry<Object, Object>> queue;
+   private final long idleTimeoutMillis;
+   private volatile Throwable failure;
+   private volatile boolean closed;
+   private int running;
+   private Entry<Object, Object> next;
+
+   private ParallelRemoteCloseableIterator(List<RemoteCloseableIterator> iterators, int batchSize, long idleTimeoutMillis) {
+      this.iterators = iterators;
+      this.executorService = Executors.newFixedThreadPool(iterators.size(), new ThreadFactory() {
+         @Override
+         public Thread newThread(Runnable r) {
+            Thread th = new Thread(r, THREAD_NAME + "-" + counter.getAndIncrement());
+            th.setDaemon(true);
+            return th;
+         }
+      });
+      this.queue = new ArrayBlockingQueue<>(Math.max(1, batchSize) * iterators.size() + iterators.size());
+      this.idleTimeoutMillis = idleTimeoutMillis;
+   }
+
+   /**
+    * Splits the segments by their primary owner.
+    *
+    * @param segments the segments to iterate, or null for all the segments
+    * @return the segments owned by each server, which is empty if there is no consistent hash
+    */
+   public static Map<SocketAddress, Set<Integer>> segmentsByPrimaryOwner(SegmentConsistentHash hash, Set<Integer> segments) {
+      Map<SocketAddress, Set<Integer>> result = new HashMap<>();
+      if (hash == null) {
+         return result;
+      }
+      SocketAddress[][] owners = hash.getSegmentOwners();
+      for (int segment = 0; segment < hash.getNumSegments(); segment++) {
+         if (segments != null && !segments.contains(segment)) continue;
+         Set<Integer> ownedSegments = result.get(owners[segment][0]);
+         if (ownedSegments == null) {
+            ownedSegments = new HashSet<>();
+            result.put(owners[segment][0], ownedSegments);
+         }
+         ownedSegments.add(segment);
+      }
+      return result;
+   }
+
+   /**
+    * Creates an iterator over the given groups of segments, which is started right away.
+    *
+    * @param idleTimeoutMillis how long the fetched entries may wait to be consumed before the iteration is abandoned
+    */
+   public static ParallelRemoteCloseableIterator start(OperationsFactory operationsFactory, String filterConverterFactory,
+                                                       Iterable<Set<Integer>> segmentGroups, int batchSize,
+                                                       Marshaller marshaller, long idleTimeoutMillis) {
+      List<RemoteCloseableIterator> iterators = new ArrayList<>();
+      for (Set<Integer> segments : segmentGroups) {
+         iterators.add(new RemoteCloseableIterator(operationsFactory, filterConverterFactory, segments, batchSize, marshaller));
+      }
+      ParallelRemoteCloseableIterator iterator = new ParallelRemoteCloseableIterator(iterators, batchSize, idleTimeoutMillis);
+      iterator.start();
+      return iterator;
+   }
+
+   private void start() {
+      running = iterators.size();
+      for (final RemoteCloseableIterator iterator : iterators) {
+         executorService.submit(new Runnable() {
+            @Override
+            public void run() {
+               consume(iterator);
+            }
+         });
+      }
+      // the threads terminate as soon as their group is consumed
+      executorService.shutdown();
+   }
+
+   private void consume(RemoteCloseableIterator iterator) {
+      boolean started = false;
+      try {
+         iterator.start();
+         started = true;
+         while (!isStopped() && iterator.hasNext()) {
+            if (!offer(iterator.next())) {
+               break;
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } catch (Throwable t) {
+         if (!isStopped()) {
+            log.debugf(t, "Error iterating over the entries of a group of segments");
+            failure = t;
+         }
+      } finally {
+         if (started) {
+            try {
+               iterator.close();
+            } catch (Throwable t) {
+               log.debugf(t, "Error closing the iteration of a group of segments");
+            }
+         }
+         try {
+            offer(END);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+   }
+
+   /**
+    * Waits for space in the queue, unless the iteration is closed, failed or no longer consumed.
+    *
+    * @return {@code true} if the entry was queued, {@code false} if the iteration was stopped
+    */
+   private boolean offer(Entry<Object, Object> entry) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + idleTimeoutMillis;
+      while (!closed) {
+         if (queue.offer(entry, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+            return true;
+         }
+         if (failure != null) {
+            return false;
+         }
+         if (System.currentTimeMillis() > deadline) {
+            log.debugf("The entries of the iteration were not consumed for %d milliseconds, abandoning it", idleTimeoutMillis);
+            failure = new HotRodClientException("The iteration was abandoned as its entries were not consumed for "
+                  + idleTimeoutMillis + " milliseconds");
+            return false;
+         }
+      }
+      return false;
+   }
+
+   private boolean isStopped() {
+      return closed || failure != null;
+   }
+
+   @Override
+   public boolean hasNext() {
+      while (next == null && running > 0 && !closed) {
+         Throwable t = failure;
+         if (t != null) {
+            // the other groups are stopping as well, there is no need to wait for them
+            close();
+            throw t instanceof HotRodClientException ? (HotRodClientException) t : new HotRodClientException(t);
+         }
+         Entry<Object, Object> entry;
+         try {
+            entry = queue.take();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HotRodClientException(e);
+         }
+         if (entry == END) {
+            running--;
+         } else {
+            next = entry;
+         }
+      }
+      return next != null;
+   }
+
+   @Override
+   public Entry<Object, Object> next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      Entry<Object, Object> entry = next;
+      next = null;
+      return entry;
+   }
+
+   /**
+    * Stops the iterations that are still running. Each of them is closed by the thread that consumes it, since the
+    * transport of an iteration can't be used concurrently.
+    */
+   @Override
+   public void close() {
+      if (closed) return;
+      closed = true;
+      next = null;
+      // unblock the consumers waiting for space in the queue
+      queue.clear();
+      executorService.shutdownNow();
+   }
+}
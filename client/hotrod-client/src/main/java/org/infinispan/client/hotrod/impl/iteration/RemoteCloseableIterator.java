@@ -124,7 +124,7 @@ private void restartIteration(Set<Integer> missedSegments) {
    private void start(Set<Integer> fromSegments) {
       IterationStartResponse startResponse = startInternal(fromSegments);
 
-      this.segmentKeyTracker = KeyTrackerFactory.create(startResponse.getSegmentConsistentHash(), startResponse.getTopologyId());
+      this.segmentKeyTracker = KeyTrackerFactory.create(startResponse.getSegmentConsistentHash(), startResponse.getTopologyId(), fromSegments);
    }
 
    private IterationStartResponse startInternal(Set<Integer> fromSegments) {
@@ -25,17 +25,29 @@ public class SegmentKeyTracker implements KeyTracker {
    private final SegmentConsistentHash segmentConsistentHash;
 
    public SegmentKeyTracker(SegmentConsistentHash segmentConsistentHash) {
+      this(segmentConsistentHash, null);
+   }
+
+   /**
+    * @param segments the segments being iterated, or null for all of them. Only the keys of these segments are tracked
+    *                 and reported as missed.
+    */
+   public SegmentKeyTracker(SegmentConsistentHash segmentConsistentHash, Set<Integer> segments) {
       int numSegments = segmentConsistentHash.getNumSegments();
       keysPerSegment = new AtomicReferenceArray<>(numSegments);
-      if (log.isDebugEnabled()) log.debugf("Created SegmentKeyTracker with %d segments", numSegments);
+      if (log.isDebugEnabled()) log.debugf("Created SegmentKeyTracker with %d segments, tracking %s", numSegments, segments == null ? "all" : segments);
       this.segmentConsistentHash = segmentConsistentHash;
       IntStream.range(0, segmentConsistentHash.getNumSegments())
+              .filter(i -> segments == null || segments.contains(i))
               .forEach(i -> keysPerSegment.set(i, CollectionFactory.makeSet(ByteArrayEquivalence.INSTANCE)));
    }
 
    public boolean track(byte[] key) {
       int segment = segmentConsistentHash.getSegment(key);
-      boolean result = keysPerSegment.get(segment).add(key);
+      Set<byte[]> keys = keysPerSegment.get(segment);
+      // the segment was either already finished or it is not iterated
+      if (keys == null) return false;
+      boolean result = keys.add(key);
       if (log.isDebugEnabled())
          log.debugf("Tracking key %s belonging to segment %d, seenBefore? = %s", Util.printArray(key), segment, !result);
       return result;
@@ -37,12 +37,23 @@ protected AbstractKeyOperation(Codec codec, TransportFactory transportFactory,
    @Override
    protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
       if (retryCount == 0) {
-         return transportFactory.getTransport(key, failedServers, cacheName);
+         return isReadOnly()
+               ? transportFactory.getReadTransport(key, failedServers, cacheName)
+               : transportFactory.getTransport(key, failedServers, cacheName);
       } else {
          return transportFactory.getTransport(failedServers, cacheName);
       }
    }
 
+   /**
+    * Read only operations can be sent to any owner of the key, depending on the configured
+    * {@link org.infinispan.client.hotrod.configuration.ReadPolicy}. Operations that modify the key are always sent to
+    * its primary owner.
+    */
+   protected boolean isReadOnly() {
+      return false;
+   }
+
    protected short sendKeyOperation(byte[] key, Transport transport, byte opCode, byte opRespCode) {
       // 1) write [header][key length][key]
       HeaderParams params = writeHeader(transport, opCode);
@@ -0,0 +1,61 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.Immutable;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * Implements "compute", "computeIfPresent", "computeIfAbsent" and "merge". Only the name of the function is sent, the
+ * function is registered in the server and applied on the primary owner of the key, under the key lock, and only the
+ * resulting value is sent back.
+ *
+ * @since 8.0
+ */
+@Immutable
+public class ComputeOperation extends AbstractKeyValueOperation<byte[]> {
+
+   public static final byte COMPUTE = 0;
+   public static final byte COMPUTE_IF_PRESENT = 1;
+   public static final byte COMPUTE_IF_ABSENT = 2;
+   public static final byte MERGE = 3;
+
+   private final byte mode;
+   private final String functionName;
+
+   public ComputeOperation(Codec codec, TransportFactory transportFactory,
+                           byte[] key, byte[] cacheName, AtomicInteger topologyId, Flag[] flags,
+                           byte mode, String functionName, byte[] value,
+                           long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit) {
+      super(codec, transportFactory, key, cacheName, topologyId, flags, value, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit);
+      this.mode = mode;
+      this.functionName = functionName;
+   }
+
+   //[header][key length][key][lifespan][max idle][value length][value][mode][function name length][function name]
+   @Override
+   protected byte[] executeOperation(Transport transport) {
+      HeaderParams params = writeHeader(transport, COMPUTE_REQUEST);
+      transport.writeArray(key);
+      codec.writeExpirationParams(transport, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit);
+      transport.writeArray(value);
+      transport.writeByte(mode);
+      transport.writeString(functionName);
+      transport.flush();
+
+      short status = readHeaderAndValidate(transport, params);
+      if (status == KEY_DOES_NOT_EXIST_STATUS) {
+         return null;
+      } else if (status == NO_ERROR_STATUS) {
+         return transport.readArray();
+      }
+      throw new InvalidResponseException("Unexpected response status: " + Integer.toHexString(status));
+   }
+}
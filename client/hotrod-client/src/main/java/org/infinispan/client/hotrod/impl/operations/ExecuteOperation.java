@@ -22,18 +22,26 @@ public class ExecuteOperation extends RetryOnFailureOperation<byte[]> {
 
 	private final String taskName;
 	private final Map<String, byte[]> marshalledParams;
+	private final byte[] routingKey;
 
 	protected ExecuteOperation(Codec codec, TransportFactory transportFactory,
-			byte[] cacheName, AtomicInteger topologyId, Flag[] flags, String taskName, Map<String, byte[]> marshalledParams) {
+			byte[] cacheName, AtomicInteger topologyId, Flag[] flags, String taskName, Map<String, byte[]> marshalledParams,
+			byte[] routingKey) {
 		super(codec, transportFactory, cacheName, topologyId, flags);
 		this.taskName = taskName;
 		this.marshalledParams = marshalledParams;
+		this.routingKey = routingKey;
 	}
 
 	@Override
 	protected Transport getTransport(int retryCount,
 			Set<SocketAddress> failedServers) {
-		return transportFactory.getTransport(failedServers, cacheName);
+		// a script scoped to a key is sent to the primary owner of the key, so that it runs next to the data
+		if (routingKey != null && retryCount == 0) {
+			return transportFactory.getTransport(routingKey, failedServers, cacheName);
+		} else {
+			return transportFactory.getTransport(failedServers, cacheName);
+		}
 	}
 
 	@Override
@@ -45,6 +53,7 @@ protected byte[] executeOperation(Transport transport) {
 			transport.writeString(entry.getKey());
 			transport.writeArray(entry.getValue());
 		}
+		codec.writeExecuteRoutingKey(transport, routingKey);
 		transport.flush();
 		readHeaderAndValidate(transport, params);
 		return transport.readArray();
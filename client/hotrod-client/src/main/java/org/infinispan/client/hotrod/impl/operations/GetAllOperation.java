@@ -53,6 +53,10 @@ protected Map<byte[], byte[]> executeOperation(Transport transport) {
 
    @Override
    protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
-      return transportFactory.getTransport(failedServers, cacheName);
+      if (keys.isEmpty()) {
+         return transportFactory.getTransport(failedServers, cacheName);
+      }
+      // the keys are grouped by owner, so the first one designates the server owning all of them
+      return transportFactory.getTransport(keys.iterator().next(), failedServers, cacheName);
    }
 }
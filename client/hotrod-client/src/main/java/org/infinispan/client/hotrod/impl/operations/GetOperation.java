@@ -22,6 +22,11 @@ public GetOperation(Codec codec, TransportFactory transportFactory,
       super(codec, transportFactory, key, cacheName, topologyId, flags);
    }
 
+   @Override
+   protected boolean isReadOnly() {
+      return true;
+   }
+
    @Override
    public byte[] executeOperation(Transport transport) {
       byte[] result = null;
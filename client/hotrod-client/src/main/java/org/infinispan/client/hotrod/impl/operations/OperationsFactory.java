@@ -5,6 +5,7 @@
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.event.ClientListenerNotifier;
+import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.query.RemoteQuery;
@@ -15,7 +16,10 @@
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -63,6 +67,10 @@ public ClientListenerNotifier getListenerNotifier() {
       return listenerNotifier;
    }
 
+   public ConsistentHash getConsistentHash() {
+      return transportFactory.getConsistentHash(cacheNameBytes);
+   }
+
    public byte[] getCacheName() {
       return cacheNameBytes;
    }
@@ -77,6 +85,20 @@ public GetAllOperation newGetAllOperation(Set<byte[]> keys) {
             codec, transportFactory, keys, cacheNameBytes, topologyId, flags());
    }
 
+   /**
+    * Creates one "getAll" operation for each server owning some of the keys, so that every key is read directly
+    * from its owner.
+    */
+   public List<GetAllOperation> newGetAllOperations(Set<byte[]> keys) {
+      Flag[] flags = flags();
+      List<GetAllOperation> operations = new ArrayList<GetAllOperation>();
+      for (List<byte[]> group : groupByOwner(keys)) {
+         operations.add(new GetAllOperation(
+               codec, transportFactory, new HashSet<byte[]>(group), cacheNameBytes, topologyId, flags));
+      }
+      return operations;
+   }
+
    public RemoveOperation newRemoveOperation(byte[] key) {
       return new RemoveOperation(
             codec, transportFactory, key, cacheNameBytes, topologyId, flags());
@@ -116,6 +138,13 @@ codec, transportFactory, key, cacheNameBytes, topologyId, flags(),
             value, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit);
    }
 
+   public ComputeOperation newComputeOperation(byte[] key, byte mode, String functionName, byte[] value,
+          long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit) {
+      return new ComputeOperation(
+            codec, transportFactory, key, cacheNameBytes, topologyId, flags(),
+            mode, functionName, value, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit);
+   }
+
    public PutAllOperation newPutAllOperation(Map<byte[], byte[]> map,
           long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit) {
       return new PutAllOperation(
@@ -123,6 +152,45 @@ codec, transportFactory, map, cacheNameBytes, topologyId, flags(),
             lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit);
    }
 
+   /**
+    * Creates one "putAll" operation for each server owning some of the keys, so that every entry is written directly
+    * to its owner.
+    */
+   public List<PutAllOperation> newPutAllOperations(Map<byte[], byte[]> map,
+          long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit) {
+      Flag[] flags = flags();
+      List<PutAllOperation> operations = new ArrayList<PutAllOperation>();
+      for (List<byte[]> group : groupByOwner(map.keySet())) {
+         Map<byte[], byte[]> entries = new HashMap<byte[], byte[]>(group.size());
+         for (byte[] key : group) {
+            entries.put(key, map.get(key));
+         }
+         operations.add(new PutAllOperation(
+               codec, transportFactory, entries, cacheNameBytes, topologyId, flags,
+               lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit));
+      }
+      return operations;
+   }
+
+   private Collection<List<byte[]>> groupByOwner(Collection<byte[]> keys) {
+      ConsistentHash consistentHash = getConsistentHash();
+      if (consistentHash == null || keys.size() < 2) {
+         // the topology is not known, any server can handle all the keys
+         return Collections.singletonList(new ArrayList<byte[]>(keys));
+      }
+      Map<SocketAddress, List<byte[]>> groups = new HashMap<SocketAddress, List<byte[]>>();
+      for (byte[] key : keys) {
+         SocketAddress owner = consistentHash.getServer(key);
+         List<byte[]> group = groups.get(owner);
+         if (group == null) {
+            group = new ArrayList<byte[]>();
+            groups.put(owner, group);
+         }
+         group.add(key);
+      }
+      return groups.values();
+   }
+
    public PutIfAbsentOperation newPutIfAbsentOperation(byte[] key, byte[] value,
              long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       return new PutIfAbsentOperation(
@@ -207,7 +275,11 @@ public SizeOperation newSizeOperation() {
    }
 
    public ExecuteOperation newExecuteOperation(String taskName, Map<String, byte[]> marshalledParams) {
-		return new ExecuteOperation(codec, transportFactory, cacheNameBytes, topologyId, flags(), taskName, marshalledParams);
+      return newExecuteOperation(taskName, marshalledParams, null);
+   }
+
+   public ExecuteOperation newExecuteOperation(String taskName, Map<String, byte[]> marshalledParams, byte[] routingKey) {
+		return new ExecuteOperation(codec, transportFactory, cacheNameBytes, topologyId, flags(), taskName, marshalledParams, routingKey);
 	}
 
    private Flag[] flags() {
@@ -62,6 +62,10 @@ protected Void executeOperation(Transport transport) {
 
    @Override
    protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
-      return transportFactory.getTransport(failedServers, cacheName);
+      if (map.isEmpty()) {
+         return transportFactory.getTransport(failedServers, cacheName);
+      }
+      // the keys are grouped by owner, so the first one designates the server owning all of them
+      return transportFactory.getTransport(map.keySet().iterator().next(), failedServers, cacheName);
    }
 }
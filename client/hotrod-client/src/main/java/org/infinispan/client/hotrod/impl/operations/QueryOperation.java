@@ -39,10 +39,7 @@ protected Transport getTransport(int retryCount, Set<SocketAddress> failedServer
    @Override
    protected QueryResponse executeOperation(Transport transport) {
       HeaderParams params = writeHeader(transport, QUERY_REQUEST);
-      QueryRequest queryRequest = new QueryRequest();
-      queryRequest.setJpqlString(remoteQuery.getJPAQuery());
-      queryRequest.setStartOffset(remoteQuery.getStartOffset());
-      queryRequest.setMaxResults(remoteQuery.getMaxResults());
+      QueryRequest queryRequest = remoteQuery.getQueryRequest();
 
       SerializationContext serCtx = remoteQuery.getSerializationContext();
       byte[] requestBytes;
@@ -35,6 +35,11 @@ void writeClientListenerParams(Transport transport, ClientListener clientListene
     */
    void writeExpirationParams(Transport transport, long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit);
 
+   /**
+    * Writes the key an exec request is routed by, or an empty key if the script is not scoped to a key.
+    */
+   void writeExecuteRoutingKey(Transport transport, byte[] routingKey);
+
    /**
     * Reads a response header from the transport and returns the status
     * of the response.
@@ -48,6 +48,11 @@ public void writeClientListenerParams(Transport transport, ClientListener client
       // No-op
    }
 
+   @Override
+   public void writeExecuteRoutingKey(Transport transport, byte[] routingKey) {
+      // No-op
+   }
+
    @Override
    public void writeExpirationParams(Transport transport, long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit) {
       if (!CodecUtils.isIntCompatible(lifespan)) {
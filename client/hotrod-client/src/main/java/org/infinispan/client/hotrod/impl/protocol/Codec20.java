@@ -57,6 +57,11 @@ public void writeClientListenerParams(Transport transport, ClientListener client
       writeNamedFactory(transport, clientListener.converterFactoryName(), converterFactoryParams);
    }
 
+   @Override
+   public void writeExecuteRoutingKey(Transport transport, byte[] routingKey) {
+      // Exec requests are not routed by key before version 2.3
+   }
+
    @Override
    public void writeExpirationParams(Transport transport, long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit) {
       if (!CodecUtils.isIntCompatible(lifespan)) {
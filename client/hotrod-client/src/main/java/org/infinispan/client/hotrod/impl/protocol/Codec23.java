@@ -1,6 +1,7 @@
 package org.infinispan.client.hotrod.impl.protocol;
 
 import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.commons.util.Util;
 
 /**
  * @author gustavonalle
@@ -12,4 +13,9 @@ public class Codec23 extends Codec22 {
    public HeaderParams writeHeader(Transport transport, HeaderParams params) {
       return writeHeader(transport, params, HotRodConstants.VERSION_23);
    }
+
+   @Override
+   public void writeExecuteRoutingKey(Transport transport, byte[] routingKey) {
+      transport.writeArray(routingKey == null ? Util.EMPTY_BYTE_ARRAY : routingKey);
+   }
 }
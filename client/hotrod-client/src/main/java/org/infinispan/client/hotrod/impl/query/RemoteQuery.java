@@ -8,6 +8,7 @@
 import org.infinispan.protostream.WrappedMessage;
 import org.infinispan.query.dsl.QueryFactory;
 import org.infinispan.query.dsl.impl.BaseQuery;
+import org.infinispan.query.remote.client.QueryRequest;
 import org.infinispan.query.remote.client.QueryResponse;
 
 import java.io.IOException;
@@ -27,16 +28,19 @@ public final class RemoteQuery extends BaseQuery {
    private final long startOffset; //todo can this really be long or it has to be int due to limitations in query module?
    private final int maxResults;
 
+   private final QueryRequest queryRequest;
+
    private List results = null;
    private int totalResults;
 
    RemoteQuery(QueryFactory queryFactory, RemoteCacheImpl cache, SerializationContext serializationContext,
-                      String jpaQuery, long startOffset, int maxResults) {
-      super(queryFactory, jpaQuery);
+               QueryRequest queryRequest) {
+      super(queryFactory, queryRequest.getJpqlString());
       this.cache = cache;
       this.serializationContext = serializationContext;
-      this.startOffset = startOffset;
-      this.maxResults = maxResults;
+      this.startOffset = queryRequest.getStartOffset();
+      this.maxResults = queryRequest.getMaxResults();
+      this.queryRequest = queryRequest;
    }
 
    public RemoteCacheImpl getCache() {
@@ -51,6 +55,13 @@ public int getMaxResults() {
       return maxResults;
    }
 
+   /**
+    * The request sent to the server to execute the query.
+    */
+   public QueryRequest getQueryRequest() {
+      return queryRequest;
+   }
+
    @Override
    @SuppressWarnings("unchecked")
    public <T> List<T> list() {
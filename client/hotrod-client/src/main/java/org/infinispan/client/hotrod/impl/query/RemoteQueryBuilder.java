@@ -5,7 +5,16 @@
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.protostream.SerializationContext;
 import org.infinispan.query.dsl.Query;
+import org.infinispan.query.dsl.SortOrder;
 import org.infinispan.query.dsl.impl.BaseQueryBuilder;
+import org.infinispan.query.dsl.impl.PathExpression;
+import org.infinispan.query.dsl.impl.SortCriteria;
+import org.infinispan.query.remote.client.QueryRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @author anistor@redhat.com
@@ -26,10 +35,42 @@ public RemoteQueryBuilder(RemoteQueryFactory queryFactory, RemoteCacheImpl cache
 
    @Override
    public Query build() {
-      String jpqlString = accept(new RemoteJPAQueryGenerator(serializationContext));
+      RemoteJPAQueryGenerator generator = new RemoteJPAQueryGenerator(serializationContext);
+      String jpqlString = accept(generator);
       if (log.isTraceEnabled()) {
          log.tracef("JPQL string : %s", jpqlString);
       }
-      return new RemoteQuery(queryFactory, cache, serializationContext, jpqlString, startOffset, maxResults);
+      QueryRequest queryRequest = new QueryRequest();
+      queryRequest.setJpqlString(jpqlString);
+      queryRequest.setStartOffset(startOffset);
+      queryRequest.setMaxResults(maxResults);
+      if (isGroupingQuery()) {
+         // the clauses are sent along with the query string, so the server does not have to parse them out of it
+         queryRequest.setAlias(generator.getAlias());
+         queryRequest.setFromClause(generator.renderFromClause(this));
+         queryRequest.setWhereClause(generator.renderWhereClause(this));
+         queryRequest.setGroupBy(getGroupBy() != null ? Arrays.asList(getGroupBy()) : Collections.<String>emptyList());
+         List<QueryRequest.Expression> select = new ArrayList<QueryRequest.Expression>();
+         if (getProjection() != null) {
+            for (PathExpression projection : getProjection()) {
+               select.add(toExpression(projection, false));
+            }
+         }
+         queryRequest.setSelect(select);
+         List<QueryRequest.Expression> orderBy = new ArrayList<QueryRequest.Expression>();
+         if (getSortCriteria() != null) {
+            for (SortCriteria sortCriteria : getSortCriteria()) {
+               orderBy.add(toExpression(sortCriteria.getPathExpression(), sortCriteria.getSortOrder() == SortOrder.DESC));
+            }
+         }
+         queryRequest.setOrderBy(orderBy);
+      }
+      return new RemoteQuery(queryFactory, cache, serializationContext, queryRequest);
+   }
+
+   private static QueryRequest.Expression toExpression(PathExpression pathExpression, boolean descending) {
+      PathExpression.AggregationType aggregationType = pathExpression.getAggregationType();
+      return new QueryRequest.Expression(pathExpression.getAttributePath(),
+                                         aggregationType != null ? aggregationType.name() : null, descending);
    }
 }
@@ -47,6 +47,14 @@ public interface TransportFactory {
 
    Transport getTransport(byte[] key, Set<SocketAddress> failedServers, byte[] cacheName);
 
+   /**
+    * Returns a transport to one of the owners of the key, for an operation that only reads the key. Implementations
+    * that don't balance reads between the owners return the transport to the primary owner.
+    */
+   default Transport getReadTransport(byte[] key, Set<SocketAddress> failedServers, byte[] cacheName) {
+      return getTransport(key, failedServers, cacheName);
+   }
+
    boolean isTcpNoDelay();
 
    boolean isTcpKeepAlive();
@@ -0,0 +1,92 @@
+package org.infinispan.client.hotrod.impl.transport.tcp;
+
+import java.net.SocketAddress;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.util.CollectionFactory;
+
+/**
+ * Keeps track, for each server, of the number of requests this client has in flight and of an exponentially weighted
+ * moving average of their response time. The statistics are used to balance the reads between the owners of a key.
+ *
+ * @since 8.0
+ */
+@ThreadSafe
+public class ServerLoadStatistics {
+
+   /**
+    * The weight of the most recent response time in the moving average.
+    */
+   private static final double ALPHA = 0.2;
+
+   private final ConcurrentMap<SocketAddress, ServerLoad> loads = CollectionFactory.makeConcurrentMap();
+
+   /**
+    * Records the start of a request to the server.
+    *
+    * @return the start time of the request, to be passed to {@link #requestCompleted(SocketAddress, long)}
+    */
+   public long requestStarted(SocketAddress server) {
+      getLoad(server).inFlight.incrementAndGet();
+      return System.nanoTime();
+   }
+
+   public void requestCompleted(SocketAddress server, long startNanos) {
+      ServerLoad load = loads.get(server);
+      if (load == null) {
+         // the server has been removed in the meantime
+         return;
+      }
+      load.inFlight.decrementAndGet();
+      load.record(Math.max(1, System.nanoTime() - startNanos));
+   }
+
+   public int getInFlightRequests(SocketAddress server) {
+      ServerLoad load = loads.get(server);
+      return load == null ? 0 : load.inFlight.get();
+   }
+
+   /**
+    * @return the average response time of the server in nanoseconds, or 0 if no request has completed yet
+    */
+   public long getAverageLatency(SocketAddress server) {
+      ServerLoad load = loads.get(server);
+      return load == null ? 0 : load.averageLatency.get();
+   }
+
+   /**
+    * Drops the statistics of a server that left the cluster.
+    */
+   public void remove(SocketAddress server) {
+      loads.remove(server);
+   }
+
+   private ServerLoad getLoad(SocketAddress server) {
+      ServerLoad load = loads.get(server);
+      if (load == null) {
+         load = new ServerLoad();
+         ServerLoad existing = loads.putIfAbsent(server, load);
+         if (existing != null) {
+            load = existing;
+         }
+      }
+      return load;
+   }
+
+   private static class ServerLoad {
+      final AtomicInteger inFlight = new AtomicInteger();
+      final AtomicLong averageLatency = new AtomicLong();
+
+      void record(long latency) {
+         long current;
+         long updated;
+         do {
+            current = averageLatency.get();
+            updated = current == 0 ? latency : (long) (ALPHA * latency + (1 - ALPHA) * current);
+         } while (!averageLatency.compareAndSet(current, updated));
+      }
+   }
+}
@@ -53,6 +53,9 @@ public class TcpTransport extends AbstractTransport {
 
    private SaslClient saslClient;
 
+   // when the transport was borrowed for a request tracked by the ServerLoadStatistics, or 0 if it is not tracked
+   private long requestStart;
+
    public TcpTransport(SocketAddress serverAddress, TransportFactory transportFactory) {
       super(transportFactory);
       this.serverAddress = serverAddress;
@@ -249,6 +252,14 @@ public SocketAddress getServerAddress() {
       return serverAddress;
    }
 
+   long getRequestStart() {
+      return requestStart;
+   }
+
+   void setRequestStart(long requestStart) {
+      this.requestStart = requestStart;
+   }
+
    @Override
    public String toString() {
       return "TcpTransport{" +
@@ -6,8 +6,10 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.SSLContext;
@@ -18,6 +20,7 @@
 import org.apache.commons.pool.impl.GenericKeyedObjectPool;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.configuration.ReadPolicy;
 import org.infinispan.client.hotrod.configuration.ServerConfiguration;
 import org.infinispan.client.hotrod.configuration.SslConfiguration;
 import org.infinispan.client.hotrod.event.ClientListenerNotifier;
@@ -60,6 +63,8 @@ public class TcpTransportFactory implements TransportFactory {
    private Collection<SocketAddress> servers;
    private Collection<SocketAddress> initialServers;
    private final ConsistentHashFactory hashFactory = new ConsistentHashFactory();
+   // In-flight requests and response times of the key based operations, per server
+   private final ServerLoadStatistics loadStatistics = new ServerLoadStatistics();
 
    // the primitive fields are often accessed separately from the rest so it makes sense not to require synchronization for them
    private volatile boolean tcpNoDelay;
@@ -70,6 +75,7 @@ public class TcpTransportFactory implements TransportFactory {
    private volatile SSLContext sslContext;
    private volatile ClientListenerNotifier listenerNotifier;
    private volatile AtomicInteger topologyId;
+   private volatile ReadPolicy readPolicy;
 
    @Override
    public void start(Codec codec, Configuration configuration, AtomicInteger defaultCacheTopologyId, ClientListenerNotifier listenerNotifier) {
@@ -90,6 +96,7 @@ public void start(Codec codec, Configuration configuration, AtomicInteger defaul
          soTimeout = configuration.socketTimeout();
          connectTimeout = configuration.connectionTimeout();
          maxRetries = configuration.maxRetries();
+         readPolicy = configuration.readPolicy();
          topologyId = defaultCacheTopologyId;
 
          if (configuration.security().ssl().enabled()) {
@@ -104,6 +111,7 @@ public void start(Codec codec, Configuration configuration, AtomicInteger defaul
          if (log.isDebugEnabled()) {
             log.debugf("Statically configured servers: %s", servers);
             log.debugf("Load balancer class: %s", configuration.balancingStrategy().getName());
+            log.debugf("Read policy: %s", readPolicy);
             log.debugf("Tcp no delay = %b; client socket timeout = %d ms; connect timeout = %d ms",
                        tcpNoDelay, soTimeout, connectTimeout);
          }
@@ -252,7 +260,92 @@ public Transport getTransport(byte[] key, Set<SocketAddress> failedServers, byte
             server = getNextServer(failedServers, cacheName);
          }
       }
-      return borrowTransportFromPool(server);
+      return borrowTrackedTransport(server);
+   }
+
+   @Override
+   public Transport getReadTransport(byte[] key, Set<SocketAddress> failedServers, byte[] cacheName) {
+      if (readPolicy.primaryOnly()) {
+         return getTransport(key, failedServers, cacheName);
+      }
+      SocketAddress server;
+      synchronized (lock) {
+         ConsistentHash consistentHash = consistentHashes.get(cacheName);
+         if (consistentHash instanceof SegmentConsistentHash) {
+            server = selectReadOwner(((SegmentConsistentHash) consistentHash).getOwners(key), failedServers);
+            if (log.isTraceEnabled()) {
+               log.tracef("Using the %s read policy for determining the server: %s", readPolicy, server);
+            }
+         } else if (consistentHash != null) {
+            // the hash functions of the Hot Rod 1.x protocol only expose the primary owner
+            server = consistentHash.getServer(key);
+         } else {
+            server = getNextServer(failedServers, cacheName);
+         }
+      }
+      return borrowTrackedTransport(server);
+   }
+
+   /**
+    * Picks the owner a read is sent to according to the read policy, skipping the owners that failed. The primary
+    * owner is returned if all of them failed.
+    */
+   private SocketAddress selectReadOwner(SocketAddress[] owners, Set<SocketAddress> failedServers) {
+      SocketAddress[] candidates = owners;
+      if (failedServers != null && !failedServers.isEmpty()) {
+         List<SocketAddress> available = new ArrayList<SocketAddress>(owners.length);
+         for (SocketAddress owner : owners) {
+            if (!failedServers.contains(owner)) available.add(owner);
+         }
+         if (available.isEmpty()) return owners[0];
+         candidates = available.toArray(new SocketAddress[available.size()]);
+      }
+      if (candidates.length == 1) return candidates[0];
+
+      switch (readPolicy) {
+         case RANDOM_OWNER:
+            return candidates[ThreadLocalRandom.current().nextInt(candidates.length)];
+         case LEAST_OUTSTANDING_REQUESTS: {
+            SocketAddress selected = candidates[0];
+            int minInFlight = loadStatistics.getInFlightRequests(selected);
+            for (int i = 1; i < candidates.length && minInFlight > 0; i++) {
+               int inFlight = loadStatistics.getInFlightRequests(candidates[i]);
+               if (inFlight < minInFlight) {
+                  selected = candidates[i];
+                  minInFlight = inFlight;
+               }
+            }
+            return selected;
+         }
+         case LOWEST_LATENCY: {
+            SocketAddress selected = null;
+            long minCost = Long.MAX_VALUE;
+            for (SocketAddress candidate : candidates) {
+               // the expected wait is the average latency for each request in flight, plus our own
+               long cost = loadStatistics.getAverageLatency(candidate) * (loadStatistics.getInFlightRequests(candidate) + 1);
+               if (cost < minCost) {
+                  selected = candidate;
+                  minCost = cost;
+               }
+            }
+            return selected;
+         }
+         default:
+            return candidates[0];
+      }
+   }
+
+   private Transport borrowTrackedTransport(SocketAddress server) {
+      TcpTransport transport = (TcpTransport) borrowTransportFromPool(server);
+      transport.setRequestStart(loadStatistics.requestStarted(server));
+      return transport;
+   }
+
+   /**
+    * Returns the statistics of the requests that were sent to the owners of their key.
+    */
+   public ServerLoadStatistics getLoadStatistics() {
+      return loadStatistics;
    }
 
    @Override
@@ -260,6 +353,11 @@ public void releaseTransport(Transport transport) {
       // The invalidateObject()/returnObject() calls could take a long time, so we hold the lock only until we get the connection pool reference
       KeyedObjectPool<SocketAddress, TcpTransport> pool = getConnectionPool();
       TcpTransport tcpTransport = (TcpTransport) transport;
+      long requestStart = tcpTransport.getRequestStart();
+      if (requestStart != 0) {
+         tcpTransport.setRequestStart(0);
+         loadStatistics.requestCompleted(tcpTransport.getServerAddress(), requestStart);
+      }
       if (!tcpTransport.isValid()) {
          try {
             if (log.isTraceEnabled()) {
@@ -325,6 +423,7 @@ public void updateServers(Collection<SocketAddress> newServers, byte[] cacheName
          for (SocketAddress server : failedServers) {
             log.removingServer(server);
             connectionPool.clear(server);
+            loadStatistics.remove(server);
          }
 
          servers = Collections.unmodifiableList(new ArrayList(newServers));
@@ -185,7 +185,7 @@ public interface Log extends BasicLogger {
    @Message(value = "Unable to read %s bytes %s", id = 4044)
    void unableToUnmarshallBytesError(String element, String bytes, @Cause Exception e);
 
-   @Message(value = "When enabling near caching, number of max entries must be configured", id = 4045)
+   @Message(value = "When enabling near caching, either the number of max entries or the max bytes must be configured", id = 4045)
    CacheConfigurationException nearCacheMaxEntriesUndefined();
 
    @LogMessage(level = INFO)
@@ -201,4 +201,7 @@ public interface Log extends BasicLogger {
    @LogMessage(level = WARN)
    @Message(value = "No consistent hash is available in the client, starting iteration using the configured request balancing strategy", id = 4049)
    void noConsistentHashAvailable();
+
+   @Message(value = "A read policy must be specified", id = 4050)
+   CacheConfigurationException invalidReadPolicy();
 }
@@ -0,0 +1,109 @@
+package org.infinispan.client.hotrod.near;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count-min sketch estimating how often keys have been requested, used as a TinyLFU style admission filter by
+ * {@link MemoryBoundedNearCache}. Counters are 4 bits wide and are all halved once the number of recorded accesses
+ * reaches the sample size, so that the estimates reflect recent popularity rather than all time popularity.
+ * <p>
+ * The sketch is updated on every near cache lookup, so it does not lock: each counter is updated with a compare and
+ * set of the long holding it. Concurrent updates may make the estimates slightly less accurate, e.g. an increment
+ * racing with a reset may be halved or not, which does not matter for an admission filter.
+ *
+ * @since 8.0
+ */
+final class FrequencySketch {
+
+   private static final long RESET_MASK = 0x7777777777777777L;
+   private static final int[] SEEDS = {0x97cb3127, 0xb8b5a5f1, 0x5bd1e995, 0xc2b2ae35};
+
+   private final AtomicLongArray table;
+   private final int tableMask;
+   private final int sampleSize;
+   private final AtomicInteger additions = new AtomicInteger();
+
+   FrequencySketch(int expectedKeys) {
+      int size = 1;
+      while (size < Math.max(expectedKeys, 64) / 16 * 4)
+         size <<= 1;
+      this.table = new AtomicLongArray(size);
+      this.tableMask = size - 1;
+      this.sampleSize = 10 * Math.max(expectedKeys, 64);
+   }
+
+   /**
+    * Records an access to the key with the given hash code.
+    */
+   void increment(int hashCode) {
+      int hash = spread(hashCode);
+      boolean added = false;
+      for (int i = 0; i < SEEDS.length; i++) {
+         added |= incrementAt(indexOf(hash, i), counterOf(hash, i));
+      }
+      // Only the thread reaching the sample size resets, the others keep counting in the meantime
+      if (added && additions.incrementAndGet() == sampleSize)
+         reset();
+   }
+
+   /**
+    * Returns the estimated number of accesses to the key with the given hash code, between 0 and 15.
+    */
+   int frequency(int hashCode) {
+      int hash = spread(hashCode);
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < SEEDS.length; i++) {
+         int offset = counterOf(hash, i) << 2;
+         int count = (int) ((table.get(indexOf(hash, i)) >>> offset) & 0xfL);
+         frequency = Math.min(frequency, count);
+      }
+      return frequency;
+   }
+
+   void clear() {
+      for (int i = 0; i < table.length(); i++)
+         table.set(i, 0);
+      additions.set(0);
+   }
+
+   private boolean incrementAt(int index, int counter) {
+      int offset = counter << 2;
+      long mask = 0xfL << offset;
+      for (;;) {
+         long current = table.get(index);
+         if ((current & mask) == mask)
+            return false;
+         if (table.compareAndSet(index, current, current + (1L << offset)))
+            return true;
+      }
+   }
+
+   private void reset() {
+      for (int i = 0; i < table.length(); i++) {
+         for (;;) {
+            long current = table.get(i);
+            if (table.compareAndSet(i, current, (current >>> 1) & RESET_MASK))
+               break;
+         }
+      }
+      additions.addAndGet(-(sampleSize >>> 1));
+   }
+
+   private int indexOf(int hash, int i) {
+      int h = (hash ^ SEEDS[i]) * SEEDS[(i + 1) & 3];
+      return (h ^ (h >>> 16)) & tableMask;
+   }
+
+   private static int counterOf(int hash, int i) {
+      // 16 counters of 4 bits per long
+      return ((hash >>> (i << 3)) ^ i) & 0xf;
+   }
+
+   private static int spread(int h) {
+      h ^= h >>> 16;
+      h *= 0x45d9f3b;
+      return h ^ (h >>> 16);
+   }
+
+}
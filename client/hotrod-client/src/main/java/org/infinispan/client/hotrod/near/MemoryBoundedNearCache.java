@@ -0,0 +1,178 @@
+package org.infinispan.client.hotrod.near;
+
+import org.infinispan.client.hotrod.VersionedValue;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.EvictionListener;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Near cache bounded by the approximate amount of memory used by its entries.
+ * <p>
+ * Entries are weighed once, when they are added, using either the configured
+ * {@link NearCacheConfiguration#sizeCalculator()} or an estimate of their marshalled size. Once the near cache has
+ * started evicting, entries fetched from the server are only admitted if a frequency sketch of recent lookups shows
+ * that they have been requested before (TinyLFU admission), so that scans of rarely read keys do not evict the
+ * frequently read ones.
+ * <p>
+ * {@link #invalidateAll()} does not walk the entries: it swaps in a new, empty map, so the entries of the previous one
+ * are discarded as a whole and no longer count towards the memory bound.
+ *
+ * @since 8.0
+ */
+final class MemoryBoundedNearCache<K, V> implements NearCache<K, V> {
+
+   private static final int ADMISSION_FREQUENCY = 2;
+   private static final int MIN_SKETCH_KEYS = 64;
+   private static final int MAX_SKETCH_KEYS = 1 << 20;
+   private static final int ESTIMATED_ENTRY_SIZE = 256;
+
+   private final long maxBytes;
+   private final FrequencySketch sketch;
+   private final EntrySizeCalculator<Object, Object> sizeCalculator;
+   private volatile ConcurrentMap<K, SizedEntry<V>> cache;
+   private volatile boolean evicting;
+
+   private MemoryBoundedNearCache(long maxBytes, EntrySizeCalculator<Object, Object> sizeCalculator) {
+      this.maxBytes = maxBytes;
+      this.sizeCalculator = sizeCalculator;
+      this.sketch = new FrequencySketch((int) Math.max(MIN_SKETCH_KEYS,
+            Math.min(MAX_SKETCH_KEYS, maxBytes / ESTIMATED_ENTRY_SIZE)));
+      this.cache = newMap();
+   }
+
+   private ConcurrentMap<K, SizedEntry<V>> newMap() {
+      return new BoundedEquivalentConcurrentHashMapV8<K, SizedEntry<V>>(maxBytes, Eviction.LRU,
+            new EvictionTracker<K, V>(this), AnyEquivalence.getInstance(), AnyEquivalence.getInstance(),
+            new EntrySizeCalculator<K, SizedEntry<V>>() {
+               @Override
+               public long calculateSize(K key, SizedEntry<V> entry) {
+                  return entry.weight;
+               }
+            });
+   }
+
+   public static <K, V> NearCache<K, V> create(NearCacheConfiguration config, Marshaller marshaller) {
+      EntrySizeCalculator<Object, Object> calculator = config.sizeCalculator();
+      if (calculator == null)
+         calculator = new MarshalledSizeCalculator(marshaller);
+      return new MemoryBoundedNearCache<K, V>(config.maxBytes(), calculator);
+   }
+
+   @Override
+   public void put(K key, VersionedValue<V> value) {
+      cache.put(key, newEntry(key, value));
+   }
+
+   @Override
+   public void putIfAbsent(K key, VersionedValue<V> value) {
+      if (evicting && sketch.frequency(key.hashCode()) < ADMISSION_FREQUENCY)
+         return;
+
+      cache.putIfAbsent(key, newEntry(key, value));
+   }
+
+   @Override
+   public void remove(K key) {
+      cache.remove(key);
+   }
+
+   @Override
+   public VersionedValue<V> get(K key) {
+      sketch.increment(key.hashCode());
+      SizedEntry<V> entry = cache.get(key);
+      return entry != null ? entry.value : null;
+   }
+
+   @Override
+   public void clear() {
+      cache.clear();
+      sketch.clear();
+      evicting = false;
+   }
+
+   @Override
+   public void invalidateAll() {
+      // The frequencies are still relevant, only the values are stale
+      cache = newMap();
+      evicting = false;
+   }
+
+   private SizedEntry<V> newEntry(K key, VersionedValue<V> value) {
+      return new SizedEntry<V>(value, sizeCalculator.calculateSize(key, value.getValue()));
+   }
+
+   private static final class SizedEntry<V> {
+      final VersionedValue<V> value;
+      final long weight;
+
+      SizedEntry(VersionedValue<V> value, long weight) {
+         this.value = value;
+         this.weight = weight;
+      }
+   }
+
+   private static final class EvictionTracker<K, V> implements EvictionListener<K, SizedEntry<V>> {
+      private final MemoryBoundedNearCache<K, V> nearCache;
+
+      EvictionTracker(MemoryBoundedNearCache<K, V> nearCache) {
+         this.nearCache = nearCache;
+      }
+
+      @Override
+      public void onEntryEviction(Map<K, SizedEntry<V>> evicted) {
+         nearCache.evicting = true;
+      }
+
+      @Override
+      public void onEntryChosenForEviction(Map.Entry<K, SizedEntry<V>> entry) {
+         // no-op
+      }
+
+      @Override
+      public void onEntryActivated(Object key) {
+         // no-op
+      }
+
+      @Override
+      public void onEntryRemoved(Map.Entry<K, SizedEntry<V>> entry) {
+         // no-op
+      }
+   }
+
+   /**
+    * Estimates the size of an entry from the marshalled size of its key and value. Byte arrays and strings are
+    * measured directly, other types rely on the marshaller's adaptive per-type size predictions so that nothing has
+    * to be marshalled just to be weighed.
+    */
+   static final class MarshalledSizeCalculator implements EntrySizeCalculator<Object, Object> {
+      private static final int ENTRY_OVERHEAD = 64;
+      private final Marshaller marshaller;
+
+      MarshalledSizeCalculator(Marshaller marshaller) {
+         this.marshaller = marshaller;
+      }
+
+      @Override
+      public long calculateSize(Object key, Object value) {
+         return ENTRY_OVERHEAD + sizeOf(key) + sizeOf(value);
+      }
+
+      private long sizeOf(Object o) {
+         if (o == null)
+            return 0;
+         if (o instanceof byte[])
+            return ((byte[]) o).length;
+         if (o instanceof String)
+            return 2L * ((String) o).length();
+         return marshaller.getBufferSizePredictor(o).nextSize(o);
+      }
+   }
+
+}
@@ -13,4 +13,13 @@
    void remove(K key);
    VersionedValue<V> get(K key);
    void clear();
+
+   /**
+    * Invalidates all entries currently in the near cache, e.g. after the listener failed over to a different server
+    * and invalidation events might have been missed. Implementations that can discard their contents lazily should
+    * override this, by default the near cache is cleared.
+    */
+   default void invalidateAll() {
+      clear();
+   }
 }
@@ -22,6 +22,7 @@
 import org.infinispan.commons.util.Util;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Near cache service, manages the lifecycle of the near cache.
@@ -31,11 +32,20 @@
 public class NearCacheService<K, V> implements NearCache<K, V> {
    private static final Log log = LogFactory.getLog(NearCacheService.class);
 
+   // Must be a power of two
+   private static final int INVALIDATION_STAMPS = 1024;
+
    private final NearCacheConfiguration config;
    private final ClientListenerNotifier listenerNotifier;
+   /**
+    * Striped invalidation counters. Every invalidation bumps the counter of the key's stripe, so a value fetched
+    * from the server is only cached if no invalidation hit its stripe while the value was being fetched.
+    */
+   private final AtomicLongArray invalidationStamps = new AtomicLongArray(INVALIDATION_STAMPS);
    private Object listener;
    private byte[] listenerId;
    private NearCache<K, V> cache;
+   private Marshaller marshaller;
 
    protected NearCacheService(NearCacheConfiguration config, ClientListenerNotifier listenerNotifier) {
       this.config = config;
@@ -43,6 +53,7 @@ protected NearCacheService(NearCacheConfiguration config, ClientListenerNotifier
    }
 
    public void start(RemoteCache<K, V> remote) {
+      marshaller = remote.getRemoteCacheManager().getMarshaller();
       // Create near cache
       cache = createNearCache(config);
       // Add a listener that updates the near cache
@@ -69,6 +80,9 @@ public void stop(RemoteCache<K, V> remote) {
    }
 
    protected NearCache<K, V> createNearCache(NearCacheConfiguration config) {
+      if (config.maxBytes() > 0)
+         return MemoryBoundedNearCache.<K, V>create(config, marshaller);
+
       return config.maxEntries() > 0
             ? BoundedConcurrentMapNearCache.<K, V>create(config)
             : ConcurrentMapNearCache.<K, V>create();
@@ -81,7 +95,9 @@ public static <K, V> NearCacheService<K, V> create(
 
    @Override
    public void put(K key, VersionedValue<V> value) {
-       cache.put(key, value);
+      // A pushed value is newer than anything a concurrent get might be about to cache
+      invalidationStamps.incrementAndGet(stripe(key));
+      cache.put(key, value);
 
       if (log.isTraceEnabled())
          log.tracef("Put key=%s and value=%s in near cache (listenerId=%s)",
@@ -97,8 +113,39 @@ public void putIfAbsent(K key, VersionedValue<V> value) {
                key, value, Util.printArray(listenerId));
    }
 
+   /**
+    * Returns the invalidation stamp of the key, which must be read before fetching the key's value from the server
+    * and then passed to {@link #putIfAbsent(Object, VersionedValue, long)}.
+    */
+   public long invalidationStamp(K key) {
+      return invalidationStamps.get(stripe(key));
+   }
+
+   /**
+    * Caches a value fetched from the server, unless the key was invalidated after the given stamp was obtained via
+    * {@link #invalidationStamp(Object)}, in which case the fetched value might be stale.
+    */
+   public void putIfAbsent(K key, VersionedValue<V> value, long stamp) {
+      int stripe = stripe(key);
+      if (invalidationStamps.get(stripe) != stamp) {
+         if (log.isTraceEnabled())
+            log.tracef("Key=%s invalidated while being fetched, not caching value=%s (listenerId=%s)",
+                  key, value, Util.printArray(listenerId));
+         return;
+      }
+
+      putIfAbsent(key, value);
+
+      // An invalidation might have slipped in between the check and the put, in
+      // which case it might have run before the put, so remove the value again
+      if (invalidationStamps.get(stripe) != stamp)
+         cache.remove(key);
+   }
+
    @Override
    public void remove(K key) {
+      // Bump the stamp before removing, so that a racing get either sees the new stamp or has its value removed
+      invalidationStamps.incrementAndGet(stripe(key));
       cache.remove(key);
 
       if (log.isTraceEnabled())
@@ -129,6 +176,19 @@ public void clear() {
       if (log.isTraceEnabled()) log.tracef("Cleared near cache (listenerId=%s)", Util.printArray(listenerId));
    }
 
+   @Override
+   public void invalidateAll() {
+      for (int i = 0; i < INVALIDATION_STAMPS; i++)
+         invalidationStamps.incrementAndGet(i);
+      cache.invalidateAll();
+      if (log.isTraceEnabled()) log.tracef("Invalidated near cache (listenerId=%s)", Util.printArray(listenerId));
+   }
+
+   private static int stripe(Object key) {
+      int h = key.hashCode();
+      return (h ^ (h >>> 16)) & (INVALIDATION_STAMPS - 1);
+   }
+
    private boolean isConnected() {
       return listenerNotifier.isListenerConnected(listenerId);
    }
@@ -164,8 +224,8 @@ public void handleRemovedEvent(ClientCacheEntryRemovedEvent<K> event) {
       @ClientCacheFailover
       @SuppressWarnings("unused")
       public void handleFailover(ClientCacheFailoverEvent e) {
-         if (log.isTraceEnabled()) log.trace("Clear near cache after fail-over of server");
-         cache.clear();
+         if (log.isTraceEnabled()) log.trace("Invalidate near cache after fail-over of server");
+         cache.invalidateAll();
       }
 
 
@@ -233,8 +293,8 @@ public void handleRemovedEvent(ClientCacheEntryCustomEvent<byte[]> e) {
       @ClientCacheFailover
       @SuppressWarnings("unused")
       public void handleFailover(ClientCacheFailoverEvent e) {
-         if (log.isTraceEnabled()) log.trace("Clear near cache after fail-over of server");
-         cache.clear();
+         if (log.isTraceEnabled()) log.trace("Invalidate near cache after fail-over of server");
+         cache.invalidateAll();
       }
 
       private static byte[] extractElement(ByteBuffer in) {
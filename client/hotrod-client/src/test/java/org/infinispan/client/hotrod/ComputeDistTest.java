@@ -0,0 +1,111 @@
+package org.infinispan.client.hotrod;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.test.MultiHotRodServersTest;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that compute and merge apply the functions registered in the server on the owner of the key, and that the
+ * functions passed to the client are applied without losing concurrent updates.
+ *
+ * @since 8.0
+ */
+@Test(testName = "client.hotrod.ComputeDistTest", groups = "functional")
+public class ComputeDistTest extends MultiHotRodServersTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = hotRodCacheConfiguration(getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false));
+      builder.clustering().hash().numOwners(2);
+      createHotRodServers(3, builder);
+      for (HotRodServer server : servers) {
+         server.addComputeFunctionFactory("increment", () -> (key, value) -> value == null ? 1 : (Integer) value + 1);
+         server.addComputeFunctionFactory("remove", () -> (key, value) -> null);
+         server.addComputeFunctionFactory("ten", () -> (key, value) -> 10);
+         server.addComputeFunctionFactory("sum", () -> (value1, value2) -> (Integer) value1 + (Integer) value2);
+      }
+   }
+
+   public void testCompute() {
+      RemoteCache<String, Integer> remoteCache = client(0).getCache();
+      assertEquals(1, (int) remoteCache.compute("k", "increment"));
+      assertEquals(2, (int) remoteCache.compute("k", "increment"));
+      assertEquals(2, (int) remoteCache.get("k"));
+
+      assertNull(remoteCache.compute("k", "remove"));
+      assertFalse(remoteCache.containsKey("k"));
+   }
+
+   public void testComputeIfAbsentAndIfPresent() {
+      RemoteCache<String, Integer> remoteCache = client(1).getCache();
+      assertNull(remoteCache.computeIfPresent("k2", "increment"));
+      assertFalse(remoteCache.containsKey("k2"));
+
+      assertEquals(10, (int) remoteCache.computeIfAbsent("k2", "ten"));
+      assertEquals(11, (int) remoteCache.computeIfPresent("k2", "increment"));
+      assertEquals(11, (int) remoteCache.computeIfAbsent("k2", "ten"));
+      assertEquals(11, (int) remoteCache.get("k2"));
+   }
+
+   public void testMerge() {
+      RemoteCache<String, Integer> remoteCache = client(2).getCache();
+      assertEquals(5, (int) remoteCache.merge("k3", 5, "sum"));
+      assertEquals(8, (int) remoteCache.merge("k3", 3, "sum"));
+      assertEquals(8, (int) remoteCache.get("k3"));
+   }
+
+   @Test(expectedExceptions = HotRodClientException.class, expectedExceptionsMessageRegExp = ".*ISPN006017.*")
+   public void testUnknownFunction() {
+      client(0).getCache().compute("k4", "unknown");
+   }
+
+   public void testConcurrentCompute() throws Exception {
+      final int threads = 4;
+      final int increments = 25;
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+         final RemoteCache<String, Integer> remoteCache = client(t % 3).getCache();
+         final boolean named = t % 2 == 0;
+         futures.add(fork(() -> {
+            for (int i = 0; i < increments; i++) {
+               if (named) {
+                  remoteCache.compute("k5", "increment");
+               } else {
+                  remoteCache.compute("k5", (key, value) -> value == null ? 1 : value + 1);
+               }
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+      assertEquals(threads * increments, (int) client(0).<String, Integer>getCache().get("k5"));
+   }
+
+   public void testClientFunctions() {
+      RemoteCache<String, Integer> remoteCache = client(0).getCache();
+      assertNull(remoteCache.computeIfPresent("k6", (key, value) -> value + 1));
+      assertEquals(10, (int) remoteCache.computeIfAbsent("k6", key -> 10));
+      assertEquals(10, (int) remoteCache.computeIfAbsent("k6", key -> 20));
+      assertEquals(11, (int) remoteCache.computeIfPresent("k6", (key, value) -> value + 1));
+      assertEquals(14, (int) remoteCache.merge("k6", 3, (value1, value2) -> value1 + value2));
+      assertEquals(14, (int) remoteCache.get("k6"));
+
+      assertNull(remoteCache.compute("k6", (key, value) -> null));
+      assertFalse(remoteCache.containsKey("k6"));
+   }
+}
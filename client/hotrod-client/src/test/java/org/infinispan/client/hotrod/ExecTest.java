@@ -10,8 +10,14 @@
 import java.nio.Buffer;
 import java.nio.CharBuffer;
 import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.client.hotrod.test.MultiHotRodServersTest;
 import org.infinispan.commons.api.BasicCache;
@@ -20,6 +26,7 @@
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.scripting.ScriptingManager;
+import org.infinispan.scripting.impl.ScriptingManagerImpl;
 import org.infinispan.test.TestingUtil;
 import org.testng.annotations.Test;
 
@@ -82,6 +89,74 @@ public void testRemoteScriptRemoteExecution() throws IOException {
       assertEquals("hoptimus prime", clients.get(0).getCache(cacheName).get("parameter"));
    }
 
+   public void testKeyScopedScriptRemoteExecution() throws Exception {
+      String cacheName = "testKeyScopedScriptRemoteExecution";
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.dataContainer().keyEquivalence(new AnyServerEquivalence()).valueEquivalence(new AnyServerEquivalence()).compatibility().enable().marshaller(new GenericJBossMarshaller());
+      defineInAll(cacheName, builder);
+      final RemoteCache<String, Number> cache = clients.get(0).getCache(cacheName);
+      loadScript(clients.get(0).getCache(SCRIPT_CACHE), "/increment.js");
+
+      Map<String, String> params = new HashMap<>();
+      params.put("counter", "counter");
+      assertEquals(1, cache.<Number>execute("increment.js", params, "counter").intValue());
+      assertEquals(2, cache.<Number>execute("increment.js", params, "counter").intValue());
+      assertEquals(2, cache.get("counter").intValue());
+
+      // the scripts run on the server's script executor, so concurrent requests don't hold up the I/O threads
+      final int threads = 4;
+      final int executions = 10;
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+         List<Future<Void>> futures = new ArrayList<>();
+         for (int t = 0; t < threads; t++) {
+            final String key = "counter" + t;
+            futures.add(executor.submit(() -> {
+               Map<String, String> p = new HashMap<>();
+               p.put("counter", key);
+               for (int i = 0; i < executions; i++) {
+                  cache.execute("increment.js", p, key);
+               }
+               return null;
+            }));
+         }
+         for (Future<Void> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+      long invocations = 0;
+      for (int t = 0; t < threads; t++) {
+         assertEquals(executions, cache.get("counter" + t).intValue());
+      }
+      for (int i = 0; i < NUM_SERVERS; i++) {
+         ScriptingManagerImpl scriptingManager = (ScriptingManagerImpl) manager(i).getGlobalComponentRegistry().getComponent(ScriptingManager.class);
+         invocations += scriptingManager.getInvocations("increment.js");
+      }
+      assertEquals(2 + threads * executions, invocations);
+   }
+
+   public void testKeyUnlockedAfterKeyScopedScript() throws Exception {
+      final String cacheName = "testKeyUnlockedAfterKeyScopedScript";
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.dataContainer().keyEquivalence(new AnyServerEquivalence()).valueEquivalence(new AnyServerEquivalence()).compatibility().enable().marshaller(new GenericJBossMarshaller());
+      builder.locking().lockAcquisitionTimeout(1000);
+      defineInAll(cacheName, builder);
+      final RemoteCache<String, Number> cache = clients.get(0).getCache(cacheName);
+      loadScript(clients.get(0).getCache(SCRIPT_CACHE), "/increment.js");
+
+      Map<String, String> params = new HashMap<>();
+      params.put("counter", "locked");
+      assertEquals(1, cache.<Number>execute("increment.js", params, "locked").intValue());
+
+      // the script ran on a server thread, the key must not be locked anymore for the other threads
+      fork(() -> manager(0).getCache(cacheName).put("locked", 10)).get(10, TimeUnit.SECONDS);
+      fork(() -> cache.put("locked", 20)).get(10, TimeUnit.SECONDS);
+      assertEquals(20, cache.get("locked").intValue());
+      assertEquals(21, cache.<Number>execute("increment.js", params, "locked").intValue());
+   }
+
    private void populateCache(String cacheName) {
       for (int i = 0; i < SIZE; i++)
          clients.get(i % NUM_SERVERS).getCache(cacheName).put(String.format("Key %d", i), String.format("Value %d", i));
@@ -0,0 +1,150 @@
+package org.infinispan.client.hotrod;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.test.MultiHotRodServersTest;
+import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.commands.write.PutMapCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.concurrent.ConcurrentHashSet;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that putAll and getAll send the keys of each server directly to it, and that the async putAll does not wait
+ * for operations queued behind it on the async executor.
+ *
+ * @since 8.0
+ */
+@Test(testName = "client.hotrod.PutAllGetAllRoutingTest", groups = "functional")
+public class PutAllGetAllRoutingTest extends MultiHotRodServersTest {
+
+   private static final int NUM_KEYS = 100;
+
+   private final List<OwnerCheckInterceptor> interceptors = new ArrayList<>();
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = hotRodCacheConfiguration(getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false));
+      builder.clustering().hash().numOwners(1);
+      createHotRodServers(3, builder);
+      for (int i = 0; i < 3; i++) {
+         AdvancedCache<Object, Object> cache = advancedCache(i);
+         OwnerCheckInterceptor interceptor = new OwnerCheckInterceptor(cache.getDistributionManager(), address(i));
+         cache.addInterceptor(interceptor, 0);
+         interceptors.add(interceptor);
+      }
+   }
+
+   @Override
+   protected org.infinispan.client.hotrod.configuration.ConfigurationBuilder createHotRodClientConfigurationBuilder(int serverPort) {
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder = super.createHotRodClientConfigurationBuilder(serverPort);
+      // a single async thread deadlocks if the async putAll waits for operations submitted to the same executor
+      clientBuilder.asyncExecutorFactory().addExecutorProperty(ConfigurationProperties.DEFAULT_EXECUTOR_FACTORY_POOL_SIZE, "1");
+      return clientBuilder;
+   }
+
+   public void testPutAllAndGetAllAreSentToTheOwners() {
+      RemoteCache<String, String> remoteCache = client(0).getCache();
+      // the client only splits the keys by owner once it has received the topology
+      remoteCache.get("topology");
+      for (OwnerCheckInterceptor interceptor : interceptors) {
+         interceptor.reset();
+      }
+
+      Map<String, String> data = data("k");
+      remoteCache.putAll(data);
+      assertEquals(data, remoteCache.getAll(data.keySet()));
+
+      int putKeys = 0;
+      int getKeys = 0;
+      for (OwnerCheckInterceptor interceptor : interceptors) {
+         assertTrue("Keys sent to a non owner: " + interceptor.misroutedKeys, interceptor.misroutedKeys.isEmpty());
+         assertFalse(interceptor.putKeys.isEmpty());
+         putKeys += interceptor.putKeys.size();
+         getKeys += interceptor.getKeys.size();
+      }
+      assertEquals(NUM_KEYS, putKeys);
+      assertEquals(NUM_KEYS, getKeys);
+   }
+
+   public void testPutAllAsyncWithSingleAsyncThread() throws Exception {
+      RemoteCache<String, String> remoteCache = client(1).getCache();
+      remoteCache.get("topology");
+
+      Map<String, String> data = data("async");
+      remoteCache.putAllAsync(data).get(10, TimeUnit.SECONDS);
+      assertEquals(data, remoteCache.getAll(data.keySet()));
+   }
+
+   private static Map<String, String> data(String prefix) {
+      Map<String, String> data = new HashMap<>();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         data.put(prefix + i, "v" + i);
+      }
+      return data;
+   }
+
+   static class OwnerCheckInterceptor extends CommandInterceptor {
+
+      private final DistributionManager distributionManager;
+      private final Address address;
+      final Set<Object> putKeys = new ConcurrentHashSet<>();
+      final Set<Object> getKeys = new ConcurrentHashSet<>();
+      final Set<Object> misroutedKeys = new ConcurrentHashSet<>();
+
+      OwnerCheckInterceptor(DistributionManager distributionManager, Address address) {
+         this.distributionManager = distributionManager;
+         this.address = address;
+      }
+
+      void reset() {
+         putKeys.clear();
+         getKeys.clear();
+         misroutedKeys.clear();
+      }
+
+      @Override
+      public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
+         if (ctx.isOriginLocal()) {
+            for (Object key : command.getMap().keySet()) {
+               check(key, putKeys);
+            }
+         }
+         return invokeNextInterceptor(ctx, command);
+      }
+
+      @Override
+      public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+         if (ctx.isOriginLocal()) {
+            for (Object key : command.getKeys()) {
+               check(key, getKeys);
+            }
+         }
+         return invokeNextInterceptor(ctx, command);
+      }
+
+      private void check(Object key, Set<Object> keys) {
+         keys.add(key);
+         if (!address.equals(distributionManager.getPrimaryLocation(key))) {
+            misroutedKeys.add(key);
+         }
+      }
+   }
+}
@@ -0,0 +1,75 @@
+package org.infinispan.client.hotrod;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.net.SocketAddress;
+
+import org.infinispan.client.hotrod.configuration.ReadPolicy;
+import org.infinispan.client.hotrod.impl.consistenthash.SegmentConsistentHash;
+import org.infinispan.client.hotrod.impl.transport.tcp.ServerLoadStatistics;
+import org.infinispan.client.hotrod.impl.transport.tcp.TcpTransportFactory;
+import org.infinispan.client.hotrod.test.InternalRemoteCacheManager;
+import org.infinispan.client.hotrod.test.MultiHotRodServersTest;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the reads are balanced between all the owners of a key, while the writes still go to the primary owner.
+ *
+ * @since 8.0
+ */
+@Test(testName = "client.hotrod.ReadPolicyDistTest", groups = "functional")
+public class ReadPolicyDistTest extends MultiHotRodServersTest {
+
+   private static final int NUM_READS = 50;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = hotRodCacheConfiguration(getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false));
+      builder.clustering().hash().numOwners(2);
+      createHotRodServers(3, builder);
+   }
+
+   @Override
+   protected org.infinispan.client.hotrod.configuration.ConfigurationBuilder createHotRodClientConfigurationBuilder(int serverPort) {
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder builder = super.createHotRodClientConfigurationBuilder(serverPort);
+      builder.readPolicy(ReadPolicy.RANDOM_OWNER);
+      return builder;
+   }
+
+   public void testReadsBalancedBetweenOwners() throws Exception {
+      RemoteCacheManager rcm = client(0);
+      RemoteCache<String, String> remoteCache = rcm.getCache();
+      // the first request retrieves the topology
+      remoteCache.put("k", "v");
+
+      TcpTransportFactory transportFactory = (TcpTransportFactory) ((InternalRemoteCacheManager) rcm).getTransportFactory();
+      SegmentConsistentHash hash = (SegmentConsistentHash) transportFactory.getConsistentHash(RemoteCacheManager.cacheNameBytes());
+      SocketAddress[] owners = hash.getOwners(rcm.getMarshaller().objectToByteBuffer("k"));
+      assertEquals(2, owners.length);
+
+      ServerLoadStatistics statistics = transportFactory.getLoadStatistics();
+      for (SocketAddress owner : owners) {
+         statistics.remove(owner);
+      }
+      for (int i = 0; i < NUM_READS; i++) {
+         assertEquals("v", remoteCache.get("k"));
+      }
+      for (SocketAddress owner : owners) {
+         assertTrue("No read was sent to " + owner, statistics.getAverageLatency(owner) > 0);
+         assertEquals(0, statistics.getInFlightRequests(owner));
+      }
+
+      // writes are always sent to the primary owner
+      for (SocketAddress owner : owners) {
+         statistics.remove(owner);
+      }
+      remoteCache.put("k", "v2");
+      assertTrue(statistics.getAverageLatency(owners[0]) > 0);
+      assertEquals(0, statistics.getAverageLatency(owners[1]));
+      assertEquals("v2", remoteCache.get("k"));
+   }
+}
@@ -56,6 +56,7 @@ public void testConfiguration() {
          .keySizeEstimate(128)
          .valueSizeEstimate(1024)
          .maxRetries(0)
+         .readPolicy(ReadPolicy.LEAST_OUTSTANDING_REQUESTS)
          .tcpKeepAlive(true)
          .transportFactory(SomeTransportfactory.class);
 
@@ -144,6 +145,7 @@ private void validateConfiguration(Configuration configuration) {
       assertEquals(128, configuration.keySizeEstimate());
       assertEquals(1024, configuration.valueSizeEstimate());
       assertEquals(0, configuration.maxRetries());
+      assertEquals(ReadPolicy.LEAST_OUTSTANDING_REQUESTS, configuration.readPolicy());
    }
 
 }
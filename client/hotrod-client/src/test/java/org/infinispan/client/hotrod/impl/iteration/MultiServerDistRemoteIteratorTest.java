@@ -5,6 +5,7 @@
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
@@ -54,6 +55,51 @@ public void testIterationRouting() throws Exception {
       }
    }
 
+   @Test
+   public void testParallelIterationOnPrimaryOwners() throws Exception {
+      int cacheSize = 1000;
+      RemoteCache<Integer, String> remoteCache = clients.get(0).getCache();
+      try {
+         for (int i = 0; i < cacheSize; i++) {
+            remoteCache.put(i, "value" + i);
+         }
+         Set<Object> keys = new HashSet<>();
+         try (CloseableIterator<Map.Entry<Object, Object>> iterator = remoteCache.retrieveEntries(null, null, 1)) {
+            keys.add(iterator.next().getKey());
+            // each server iterates over the segments it owns
+            eventually(() -> servers.stream().allMatch(s -> s.iterationManager().activeIterations() == 1));
+            while (iterator.hasNext()) {
+               keys.add(iterator.next().getKey());
+            }
+         }
+         assertEquals(cacheSize, keys.size());
+         eventually(() -> servers.stream().allMatch(s -> s.iterationManager().activeIterations() == 0));
+      } finally {
+         remoteCache.clear();
+      }
+   }
+
+   @Test
+   public void testAsyncOperationsDuringParallelIteration() throws Exception {
+      RemoteCache<Integer, String> remoteCache = clients.get(0).getCache();
+      try {
+         for (int i = 0; i < 100; i++) {
+            remoteCache.put(i, "value" + i);
+         }
+         CloseableIterator<Map.Entry<Object, Object>> iterator = remoteCache.retrieveEntries(null, null, 1);
+         iterator.next();
+         // the iteration threads are blocked on the unconsumed entries, but not at the expense of the async operations
+         for (int i = 0; i < 100; i++) {
+            remoteCache.putAsync(i, "async" + i).get(10, TimeUnit.SECONDS);
+         }
+         iterator.close();
+         eventually(() -> servers.stream().allMatch(s -> s.iterationManager().activeIterations() == 0));
+         eventually(() -> Thread.getAllStackTraces().keySet().stream()
+               .noneMatch(t -> t.getName().startsWith("HotRod-client-iteration")));
+      } finally {
+         remoteCache.clear();
+      }
+   }
 
    private Set<Integer> getSegmentsOwned(HotRodServer hotRodServer, SocketAddress[][] owners) {
       Set<Integer> owned = new HashSet<>();
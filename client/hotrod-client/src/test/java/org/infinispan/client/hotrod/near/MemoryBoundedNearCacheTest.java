@@ -0,0 +1,85 @@
+package org.infinispan.client.hotrod.near;
+
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.impl.VersionedValueImpl;
+import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+@Test(groups = "unit", testName = "client.hotrod.near.MemoryBoundedNearCacheTest")
+public class MemoryBoundedNearCacheTest {
+
+   private NearCache<Integer, String> createNearCache(long maxBytes) {
+      NearCacheConfiguration cfg = new NearCacheConfiguration(NearCacheMode.INVALIDATED, -1, maxBytes, null);
+      return MemoryBoundedNearCache.create(cfg, new GenericJBossMarshaller());
+   }
+
+   public void testPutGet() {
+      NearCache<Integer, String> near = createNearCache(1024 * 1024);
+      near.putIfAbsent(1, new VersionedValueImpl<>(1, "v1"));
+      assertEquals("v1", near.get(1).getValue());
+      near.put(1, new VersionedValueImpl<>(2, "v2"));
+      assertEquals(2, near.get(1).getVersion());
+      near.remove(1);
+      assertNull(near.get(1));
+   }
+
+   public void testInvalidateAllHidesPreviousEntries() {
+      NearCache<Integer, String> near = createNearCache(1024 * 1024);
+      for (int i = 0; i < 10; i++)
+         near.put(i, new VersionedValueImpl<>(i, "v" + i));
+
+      near.invalidateAll();
+
+      for (int i = 0; i < 10; i++)
+         assertNull(near.get(i));
+
+      near.putIfAbsent(1, new VersionedValueImpl<>(1, "v1"));
+      assertEquals("v1", near.get(1).getValue());
+   }
+
+   public void testInvalidateAllReleasesMemory() {
+      NearCache<Integer, String> near = createNearCache(16 * 1024);
+      String value = new String(new char[1024]);
+      for (int i = 0; i < 5; i++)
+         near.put(i, new VersionedValueImpl<>(i, value));
+
+      near.invalidateAll();
+
+      // the previous entries would need to be evicted to make room if they still counted towards the bound
+      for (int i = 10; i < 15; i++)
+         near.put(i, new VersionedValueImpl<>(i, value));
+      for (int i = 10; i < 15; i++)
+         assertEquals(i, near.get(i).getVersion());
+   }
+
+   public void testBoundedByMemory() {
+      NearCache<Integer, String> near = createNearCache(16 * 1024);
+      String value = new String(new char[1024]);
+      for (int i = 0; i < 100; i++)
+         near.put(i, new VersionedValueImpl<>(i, value));
+
+      int present = 0;
+      for (int i = 0; i < 100; i++) {
+         if (near.get(i) != null)
+            present++;
+      }
+      assertTrue("Expected entries to be evicted, but found " + present, present < 100);
+   }
+
+   public void testFrequencySketch() {
+      FrequencySketch sketch = new FrequencySketch(128);
+      assertEquals(0, sketch.frequency(42));
+      sketch.increment(42);
+      sketch.increment(42);
+      sketch.increment(42);
+      assertTrue(sketch.frequency(42) >= 3);
+      sketch.clear();
+      assertEquals(0, sketch.frequency(42));
+   }
+
+}
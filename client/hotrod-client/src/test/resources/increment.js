@@ -0,0 +1,4 @@
+// mode=local,language=javascript
+var value = cache.get(counter)
+cache.put(counter, value == null ? 1 : value + 1)
+cache.get(counter)
@@ -0,0 +1,138 @@
+package org.infinispan.commons.io;
+
+import java.util.Arrays;
+
+/**
+ * Thread-affine pool of {@link ExposedByteArrayOutputStream} instances used as scratch space while marshalling.
+ * <p>
+ * Marshalling into a reused stream means the intermediate buffer does not have to be guessed up front, grown through
+ * repeated copies, and trimmed at the end. Callers either take a single, exactly sized, copy of the result via
+ * {@link #toBuffer(ExposedByteArrayOutputStream)}, take over the raw buffer via
+ * {@link #handOff(ExposedByteArrayOutputStream)}, or copy nothing at all when the bytes are consumed before the
+ * stream is released.
+ * <p>
+ * Each thread keeps a few streams so that nested marshalling (e.g. a command externalizer marshalling
+ * its parameters with the cache marshaller while the outer command is being marshalled) does not have to fall back
+ * to allocating. Streams that grew beyond {@link #MAX_POOLED_SIZE} are not retained, to avoid pinning large arrays
+ * in long lived threads. The maximum can be tuned with the {@code infinispan.marshall.pooledBufferSize} system
+ * property.
+ * <p>
+ * A stream obtained via {@link #acquire(int)} must be handed back to {@link #release(ExposedByteArrayOutputStream)}
+ * by the same thread, and its raw buffer must not be referenced after being released. Each slot records whether its
+ * stream is in use, so streams may be released in any order.
+ *
+ * @since 8.0
+ */
+public final class ByteArrayOutputStreamPool {
+
+   public static final int MAX_POOLED_SIZE = Integer.getInteger("infinispan.marshall.pooledBufferSize", 64 * 1024);
+
+   private static final int DEPTH = 4;
+   private static final int INITIAL_SIZE = 512;
+
+   private static final ThreadLocal<Slots> SLOTS = new ThreadLocal<Slots>() {
+      @Override
+      protected Slots initialValue() {
+         return new Slots();
+      }
+   };
+
+   private ByteArrayOutputStreamPool() {
+   }
+
+   /**
+    * Returns an empty stream, from the current thread's pool when one is free or a new one otherwise.
+    *
+    * @param estimatedSize expected size of the marshalled payload, only used when a new stream has to be allocated
+    */
+   public static ExposedByteArrayOutputStream acquire(int estimatedSize) {
+      if (estimatedSize <= MAX_POOLED_SIZE) {
+         Slots slots = SLOTS.get();
+         for (int i = 0; i < DEPTH; i++) {
+            if (!slots.inUse[i]) {
+               ExposedByteArrayOutputStream stream = slots.streams[i];
+               if (stream == null) {
+                  stream = new ExposedByteArrayOutputStream(Math.max(INITIAL_SIZE, estimatedSize));
+                  slots.streams[i] = stream;
+               }
+               slots.inUse[i] = true;
+               return stream;
+            }
+         }
+      }
+      return new ExposedByteArrayOutputStream(estimatedSize);
+   }
+
+   /**
+    * Returns a stream obtained via {@link #acquire(int)} to the pool. Streams that were not pooled, or that were
+    * handed off, are ignored.
+    */
+   public static void release(ExposedByteArrayOutputStream stream) {
+      Slots slots = SLOTS.get();
+      int slot = slots.indexOf(stream);
+      if (slot < 0) {
+         return;
+      }
+      slots.inUse[slot] = false;
+      if (stream.getRawBuffer().length > MAX_POOLED_SIZE) {
+         slots.streams[slot] = null;
+      } else {
+         stream.reset();
+      }
+   }
+
+   /**
+    * Returns whether the given stream belongs to the current thread's pool, in which case its raw buffer is reused
+    * once released and must be copied before being handed out.
+    */
+   public static boolean isPooled(ExposedByteArrayOutputStream stream) {
+      return SLOTS.get().indexOf(stream) >= 0;
+   }
+
+   /**
+    * Creates a {@link ByteBuffer} with the contents of the stream that is safe to use after the stream has been
+    * released, without copying the raw buffer when at least half of it is used. A pooled stream whose buffer is handed
+    * off this way leaves the pool, and its slot gets a new stream on the next {@link #acquire(int)}. Buffers that are
+    * mostly empty are copied as in {@link #toBuffer(ExposedByteArrayOutputStream)}, so that the returned buffer never
+    * pins much more memory than its contents.
+    */
+   public static ByteBuffer handOff(ExposedByteArrayOutputStream stream) {
+      Slots slots = SLOTS.get();
+      int slot = slots.indexOf(stream);
+      if (slot >= 0) {
+         if (stream.size() < stream.getRawBuffer().length / 2) {
+            byte[] bytes = Arrays.copyOf(stream.getRawBuffer(), stream.size());
+            return new ByteBufferImpl(bytes, 0, bytes.length);
+         }
+         slots.streams[slot] = null;
+         slots.inUse[slot] = false;
+      }
+      return new ByteBufferImpl(stream.getRawBuffer(), 0, stream.size());
+   }
+
+   /**
+    * Creates a {@link ByteBuffer} with the contents of the stream that is safe to use after the stream has been
+    * released: pooled buffers are copied into an exactly sized array, other buffers are exposed directly.
+    */
+   public static ByteBuffer toBuffer(ExposedByteArrayOutputStream stream) {
+      if (isPooled(stream)) {
+         byte[] bytes = Arrays.copyOf(stream.getRawBuffer(), stream.size());
+         return new ByteBufferImpl(bytes, 0, bytes.length);
+      }
+      return new ByteBufferImpl(stream.getRawBuffer(), 0, stream.size());
+   }
+
+   private static final class Slots {
+      final ExposedByteArrayOutputStream[] streams = new ExposedByteArrayOutputStream[DEPTH];
+      final boolean[] inUse = new boolean[DEPTH];
+
+      int indexOf(ExposedByteArrayOutputStream stream) {
+         for (int i = 0; i < DEPTH; i++) {
+            if (inUse[i] && streams[i] == stream)
+               return i;
+         }
+         return -1;
+      }
+   }
+
+}
@@ -72,6 +72,10 @@ public byte[] objectToByteBuffer(Object obj, int estimatedSize) throws IOExcepti
    }
 
    private byte[] trimBuffer(ByteBuffer b) {
+      if (b.getOffset() == 0 && b.getLength() == b.getBuf().length) {
+         // Already exactly sized, e.g. copied out of a pooled marshalling buffer
+         return b.getBuf();
+      }
       byte[] bytes = new byte[b.getLength()];
       System.arraycopy(b.getBuf(), b.getOffset(), bytes, 0, b.getLength());
       return bytes;
@@ -1,7 +1,7 @@
 package org.infinispan.commons.marshall.jboss;
 
+import org.infinispan.commons.io.ByteArrayOutputStreamPool;
 import org.infinispan.commons.io.ByteBuffer;
-import org.infinispan.commons.io.ByteBufferImpl;
 import org.infinispan.commons.io.ExposedByteArrayOutputStream;
 import org.infinispan.commons.logging.Log;
 import org.infinispan.commons.logging.LogFactory;
@@ -74,14 +74,18 @@ final public void objectToObjectStream(final Object obj, final ObjectOutput out)
 
    @Override
    final protected ByteBuffer objectToBuffer(final Object o, final int estimatedSize) throws IOException {
-      ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream(estimatedSize);
-      ObjectOutput marshaller = startObjectOutput(baos, false, estimatedSize);
+      ExposedByteArrayOutputStream baos = ByteArrayOutputStreamPool.acquire(estimatedSize);
       try {
-         objectToObjectStream(o, marshaller);
+         ObjectOutput marshaller = startObjectOutput(baos, false, estimatedSize);
+         try {
+            objectToObjectStream(o, marshaller);
+         } finally {
+            finishObjectOutput(marshaller);
+         }
+         return ByteArrayOutputStreamPool.toBuffer(baos);
       } finally {
-         finishObjectOutput(marshaller);
+         ByteArrayOutputStreamPool.release(baos);
       }
-      return new ByteBufferImpl(baos.getRawBuffer(), 0, baos.size());
    }
 
    @Override
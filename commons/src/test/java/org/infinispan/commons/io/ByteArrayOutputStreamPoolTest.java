@@ -0,0 +1,128 @@
+package org.infinispan.commons.io;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @since 8.0
+ */
+public class ByteArrayOutputStreamPoolTest {
+
+   @Test
+   public void testStreamIsReused() {
+      ExposedByteArrayOutputStream first = ByteArrayOutputStreamPool.acquire(16);
+      first.write(1);
+      ByteArrayOutputStreamPool.release(first);
+
+      ExposedByteArrayOutputStream second = ByteArrayOutputStreamPool.acquire(16);
+      try {
+         assertSame(second, first);
+         assertEquals(second.size(), 0);
+      } finally {
+         ByteArrayOutputStreamPool.release(second);
+      }
+   }
+
+   @Test
+   public void testNestedAcquireUsesDistinctStreams() {
+      ExposedByteArrayOutputStream outer = ByteArrayOutputStreamPool.acquire(16);
+      try {
+         ExposedByteArrayOutputStream inner = ByteArrayOutputStreamPool.acquire(16);
+         try {
+            assertNotSame(inner, outer);
+            assertTrue(ByteArrayOutputStreamPool.isPooled(inner));
+         } finally {
+            ByteArrayOutputStreamPool.release(inner);
+         }
+      } finally {
+         ByteArrayOutputStreamPool.release(outer);
+      }
+   }
+
+   @Test
+   public void testBufferIsCopiedOutOfPooledStream() {
+      ExposedByteArrayOutputStream stream = ByteArrayOutputStreamPool.acquire(16);
+      ByteBuffer buffer;
+      try {
+         stream.write(new byte[]{1, 2, 3}, 0, 3);
+         buffer = ByteArrayOutputStreamPool.toBuffer(stream);
+      } finally {
+         ByteArrayOutputStreamPool.release(stream);
+      }
+      assertNotSame(buffer.getBuf(), stream.getRawBuffer());
+      assertEquals(buffer.getOffset(), 0);
+      assertEquals(buffer.getLength(), 3);
+      assertEquals(buffer.getBuf().length, 3);
+   }
+
+   @Test
+   public void testOutOfOrderReleaseKeepsSlots() {
+      ExposedByteArrayOutputStream first = ByteArrayOutputStreamPool.acquire(16);
+      ExposedByteArrayOutputStream second = ByteArrayOutputStreamPool.acquire(16);
+      ByteArrayOutputStreamPool.release(first);
+      ByteArrayOutputStreamPool.release(second);
+      assertFalse(ByteArrayOutputStreamPool.isPooled(first));
+      assertFalse(ByteArrayOutputStreamPool.isPooled(second));
+
+      ExposedByteArrayOutputStream again = ByteArrayOutputStreamPool.acquire(16);
+      try {
+         assertSame(again, first);
+      } finally {
+         ByteArrayOutputStreamPool.release(again);
+      }
+   }
+
+   @Test
+   public void testHandOffDoesNotCopyFullBuffer() {
+      ExposedByteArrayOutputStream stream = ByteArrayOutputStreamPool.acquire(16);
+      ByteBuffer buffer;
+      try {
+         byte[] bytes = new byte[stream.getRawBuffer().length];
+         stream.write(bytes, 0, bytes.length);
+         buffer = ByteArrayOutputStreamPool.handOff(stream);
+         assertFalse(ByteArrayOutputStreamPool.isPooled(stream));
+      } finally {
+         ByteArrayOutputStreamPool.release(stream);
+      }
+      assertSame(buffer.getBuf(), stream.getRawBuffer());
+      assertEquals(buffer.getLength(), stream.size());
+
+      ExposedByteArrayOutputStream next = ByteArrayOutputStreamPool.acquire(16);
+      try {
+         assertNotSame(next, stream);
+      } finally {
+         ByteArrayOutputStreamPool.release(next);
+      }
+   }
+
+   @Test
+   public void testHandOffCopiesMostlyEmptyBuffer() {
+      ExposedByteArrayOutputStream stream = ByteArrayOutputStreamPool.acquire(16);
+      ByteBuffer buffer;
+      try {
+         stream.write(new byte[]{1, 2, 3}, 0, 3);
+         buffer = ByteArrayOutputStreamPool.handOff(stream);
+         assertTrue(ByteArrayOutputStreamPool.isPooled(stream));
+      } finally {
+         ByteArrayOutputStreamPool.release(stream);
+      }
+      assertNotSame(buffer.getBuf(), stream.getRawBuffer());
+      assertEquals(buffer.getBuf().length, 3);
+   }
+
+   @Test
+   public void testLargeRequestsAreNotPooled() {
+      ExposedByteArrayOutputStream stream = ByteArrayOutputStreamPool.acquire(ByteArrayOutputStreamPool.MAX_POOLED_SIZE + 1);
+      try {
+         assertFalse(ByteArrayOutputStreamPool.isPooled(stream));
+      } finally {
+         ByteArrayOutputStreamPool.release(stream);
+      }
+   }
+
+}
@@ -4,6 +4,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import javax.transaction.TransactionManager;
 import javax.transaction.xa.XAResource;
@@ -376,6 +378,60 @@
     * @since 5.3
     */
    V putIfAbsent(K key, V value, Metadata metadata);
+
+   /**
+    * An overloaded form of {@link #compute(Object, BiFunction)}, which takes in an instance of {@link Metadata}
+    * which is stored alongside the computed value.
+    *
+    * @param key key with which the computed value is to be associated
+    * @param remappingFunction the function to compute a value
+    * @param metadata information to store alongside the computed value
+    * @return the new value associated with the specified key, or <tt>null</tt> if none
+    *
+    * @since 8.0
+    */
+   V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction, Metadata metadata);
+
+   /**
+    * An overloaded form of {@link #computeIfPresent(Object, BiFunction)}, which takes in an instance of
+    * {@link Metadata} which is stored alongside the computed value.
+    *
+    * @param key key with which the computed value is to be associated
+    * @param remappingFunction the function to compute a value
+    * @param metadata information to store alongside the computed value
+    * @return the new value associated with the specified key, or <tt>null</tt> if none
+    *
+    * @since 8.0
+    */
+   V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction, Metadata metadata);
+
+   /**
+    * An overloaded form of {@link #computeIfAbsent(Object, Function)}, which takes in an instance of
+    * {@link Metadata} which is stored alongside the computed value.
+    *
+    * @param key key with which the computed value is to be associated
+    * @param mappingFunction the function to compute a value
+    * @param metadata information to store alongside the computed value
+    * @return the current (existing or computed) value associated with the specified key, or <tt>null</tt> if the
+    *         computed value is null
+    *
+    * @since 8.0
+    */
+   V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction, Metadata metadata);
+
+   /**
+    * An overloaded form of {@link #merge(Object, Object, BiFunction)}, which takes in an instance of
+    * {@link Metadata} which is stored alongside the merged value.
+    *
+    * @param key key with which the resulting value is to be associated
+    * @param value the value to be merged with the existing value, or to be associated with the key if there is none
+    * @param remappingFunction the function to recompute a value if present
+    * @param metadata information to store alongside the merged value
+    * @return the new value associated with the specified key, or <tt>null</tt> if none
+    *
+    * @since 8.0
+    */
+   V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction, Metadata metadata);
    
    /**
     * An overloaded form of {@link #putForExternalRead(K, V)}, which takes in an
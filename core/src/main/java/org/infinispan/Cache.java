@@ -15,6 +15,8 @@
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * The central interface of Infinispan.  A Cache provides a highly concurrent, optionally distributed data structure
@@ -333,4 +335,48 @@
     */
    @Override
    void clear();
+
+   /**
+    * Computes a new value for the key from its current value, atomically.
+    * <p/>
+    * Unlike the default implementation in {@link ConcurrentMap}, which retries {@code get} and conditional writes until
+    * no other write interferes, the function is applied once. In non-transactional caches it is applied on the primary
+    * owner of the key, under the lock of the key. In transactional caches it is applied on the originator: with
+    * pessimistic locking the key is locked first, while with optimistic locking no lock is held and a concurrent write
+    * of the key makes the transaction fail its write skew check on commit. Only the resulting value is sent to the other
+    * owners. A {@code null} result removes the entry.
+    * <p/>
+    * The function is applied like in the {@link ConcurrentMap} default implementation, and so possibly more than once,
+    * in optimistic transactional caches without write skew checks, and in non-transactional clustered caches when the
+    * function is not marshallable, as it cannot be sent to the primary owner: use e.g. a lambda cast to
+    * {@code (BiFunction<K, V, V> & Serializable)} to apply it on the primary owner.
+    * <p/>
+    * If the primary owner leaves or the topology changes while the function is applied, the command is retried and the
+    * function may be applied again, to the value stored by the first attempt.
+    *
+    * @return the new value associated with the key, or {@code null} if there is none
+    */
+   @Override
+   V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+
+   /**
+    * Like {@link #compute(Object, BiFunction)}, but the function is only applied if the key has a value.
+    */
+   @Override
+   V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+
+   /**
+    * Like {@link #compute(Object, BiFunction)}, but the function is only applied if the key has no value.
+    *
+    * @return the current (existing or computed) value associated with the key, or {@code null} if there is none
+    */
+   @Override
+   V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction);
+
+   /**
+    * Like {@link #compute(Object, BiFunction)}, but the function combines the current value with the given one, which
+    * is associated with the key if it has no value.
+    */
+   @Override
+   V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction);
 }
@@ -18,6 +18,7 @@
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.ComputeCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
@@ -78,6 +79,7 @@
 import org.infinispan.stats.Stats;
 import org.infinispan.stats.impl.StatsImpl;
 import org.infinispan.topology.LocalTopologyManager;
+import org.infinispan.transaction.LockingMode;
 import org.infinispan.transaction.impl.TransactionCoordinator;
 import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.transaction.xa.TransactionXaAdapter;
@@ -106,6 +108,8 @@
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.infinispan.context.Flag.FAIL_SILENTLY;
@@ -293,6 +297,27 @@ public final V replace(K key, V value) {
       return replace(key, value, defaultMetadata);
    }
 
+   @Override
+   public final V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      return compute(key, ComputeCommand.Mode.COMPUTE, remappingFunction, null, defaultMetadata, null, null);
+   }
+
+   @Override
+   public final V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      return compute(key, ComputeCommand.Mode.COMPUTE_IF_PRESENT, remappingFunction, null, defaultMetadata, null, null);
+   }
+
+   @Override
+   public final V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+      return compute(key, ComputeCommand.Mode.COMPUTE_IF_ABSENT, mappingFunction, null, defaultMetadata, null, null);
+   }
+
+   @Override
+   public final V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+      assertValueNotNull(value);
+      return compute(key, ComputeCommand.Mode.MERGE, remappingFunction, value, defaultMetadata, null, null);
+   }
+
    @Override
    public final NotifyingFuture<V> putAsync(K key, V value) {
       return putAsync(key, value, defaultMetadata);
@@ -1137,6 +1162,70 @@ private void putAllInternal(Map<? extends K, ? extends V> map, Metadata metadata
       executeCommandAndCommitIfNeeded(ctx, command);
    }
 
+   @SuppressWarnings("unchecked")
+   final V compute(K key, ComputeCommand.Mode mode, Object function, V mergeValue, Metadata metadata,
+         EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      assertKeyNotNull(key);
+      if (function == null) {
+         throw new NullPointerException("Null functions are not supported!");
+      }
+      if (!canApplyOnce(function)) {
+         return computeWithConditionalWrites(key, mode, function, mergeValue, metadata, explicitFlags, explicitClassLoader);
+      }
+      InvocationContext ctx = getInvocationContextWithImplicitTransaction(false, explicitClassLoader, 1);
+      ComputeCommand command = commandsFactory.buildComputeCommand(key, mode, function, mergeValue, metadata,
+                                                                  explicitFlags);
+      return (V) executeCommandAndCommitIfNeeded(ctx, command);
+   }
+
+   /**
+    * The {@link ComputeCommand} cannot be used in optimistic transactional caches without write skew checks, where the
+    * function is applied before the key is locked and a concurrent write of the key would be lost silently, nor in
+    * non-transactional clustered caches if the function cannot be sent to the primary owner.
+    */
+   private boolean canApplyOnce(Object function) {
+      if (config.transaction().transactionMode().isTransactional()) {
+         return config.transaction().lockingMode() != LockingMode.OPTIMISTIC || config.locking().writeSkewCheck();
+      }
+      if (!config.clustering().cacheMode().isClustered()) {
+         return true;
+      }
+      try {
+         return marshaller.isMarshallable(function);
+      } catch (Exception e) {
+         return false;
+      }
+   }
+
+   /**
+    * Applies the function like the {@link java.util.concurrent.ConcurrentMap} default methods: the current value is
+    * read and the result is written with a conditional write, until no other write interferes.
+    */
+   @SuppressWarnings("unchecked")
+   private V computeWithConditionalWrites(K key, ComputeCommand.Mode mode, Object function, V mergeValue,
+         Metadata metadata, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      for (;;) {
+         V oldValue = get(key, explicitFlags, explicitClassLoader);
+         if (mode == ComputeCommand.Mode.COMPUTE_IF_PRESENT && oldValue == null) {
+            return null;
+         } else if (mode == ComputeCommand.Mode.COMPUTE_IF_ABSENT && oldValue != null) {
+            return oldValue;
+         }
+         V newValue = (V) ComputeCommand.apply(mode, function, key, oldValue, mergeValue);
+         if (oldValue == null) {
+            if (newValue == null || putIfAbsent(key, newValue, metadata, explicitFlags, explicitClassLoader) == null) {
+               return newValue;
+            }
+         } else if (newValue == null) {
+            if (remove(key, oldValue, explicitFlags, explicitClassLoader)) {
+               return null;
+            }
+         } else if (replace(key, oldValue, newValue, metadata, explicitFlags, explicitClassLoader)) {
+            return newValue;
+         }
+      }
+   }
+
    @Override
    public final V replace(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit idleTimeUnit) {
       Metadata metadata = new EmbeddedMetadata.Builder()
@@ -1719,6 +1808,31 @@ public NotifyingFuture<V> putAsync(K key, V value, Metadata metadata) {
       return putAsync(key, value, merged, null, null);
    }
 
+   @Override
+   public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction, Metadata metadata) {
+      Metadata merged = applyDefaultMetadata(metadata);
+      return compute(key, ComputeCommand.Mode.COMPUTE, remappingFunction, null, merged, null, null);
+   }
+
+   @Override
+   public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction, Metadata metadata) {
+      Metadata merged = applyDefaultMetadata(metadata);
+      return compute(key, ComputeCommand.Mode.COMPUTE_IF_PRESENT, remappingFunction, null, merged, null, null);
+   }
+
+   @Override
+   public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction, Metadata metadata) {
+      Metadata merged = applyDefaultMetadata(metadata);
+      return compute(key, ComputeCommand.Mode.COMPUTE_IF_ABSENT, mappingFunction, null, merged, null, null);
+   }
+
+   @Override
+   public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction, Metadata metadata) {
+      assertValueNotNull(value);
+      Metadata merged = applyDefaultMetadata(metadata);
+      return compute(key, ComputeCommand.Mode.MERGE, remappingFunction, value, merged, null, null);
+   }
+
    private void associateImplicitTransactionWithCurrentThread(InvocationContext ctx) throws InvalidTransactionException, SystemException {
       if (isTxInjected(ctx)) {
          Transaction transaction = ((TxInvocationContext) ctx).getTransaction();
@@ -10,8 +10,11 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.infinispan.AdvancedCache;
+import org.infinispan.commands.write.ComputeCommand;
 import org.infinispan.commons.util.CloseableIteratorCollection;
 import org.infinispan.commons.util.CloseableIteratorSet;
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
@@ -502,6 +505,29 @@ public V replace(K key, V value) {
       return cacheImplementation.replace(key, value, cacheImplementation.defaultMetadata, flags, classLoader.get());
    }
 
+   @Override
+   public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      return cacheImplementation.compute(key, ComputeCommand.Mode.COMPUTE, remappingFunction, null, cacheImplementation.defaultMetadata, flags, classLoader.get());
+   }
+
+   @Override
+   public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      return cacheImplementation.compute(key, ComputeCommand.Mode.COMPUTE_IF_PRESENT, remappingFunction, null, cacheImplementation.defaultMetadata, flags, classLoader.get());
+   }
+
+   @Override
+   public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+      return cacheImplementation.compute(key, ComputeCommand.Mode.COMPUTE_IF_ABSENT, mappingFunction, null, cacheImplementation.defaultMetadata, flags, classLoader.get());
+   }
+
+   @Override
+   public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+      if (value == null) {
+         throw new NullPointerException("Null values are not supported!");
+      }
+      return cacheImplementation.compute(key, ComputeCommand.Mode.MERGE, remappingFunction, value, cacheImplementation.defaultMetadata, flags, classLoader.get());
+   }
+
    //Not exposed on interface
    public EnumSet<Flag> getFlags() {
       return flags;
@@ -542,6 +568,29 @@ public V replace(K key, V value, Metadata metadata) {
       return cacheImplementation.replace(key, value, metadata, flags, classLoader.get());
    }
 
+   @Override
+   public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction, Metadata metadata) {
+      return cacheImplementation.compute(key, ComputeCommand.Mode.COMPUTE, remappingFunction, null, metadata, flags, classLoader.get());
+   }
+
+   @Override
+   public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction, Metadata metadata) {
+      return cacheImplementation.compute(key, ComputeCommand.Mode.COMPUTE_IF_PRESENT, remappingFunction, null, metadata, flags, classLoader.get());
+   }
+
+   @Override
+   public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction, Metadata metadata) {
+      return cacheImplementation.compute(key, ComputeCommand.Mode.COMPUTE_IF_ABSENT, mappingFunction, null, metadata, flags, classLoader.get());
+   }
+
+   @Override
+   public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction, Metadata metadata) {
+      if (value == null) {
+         throw new NullPointerException("Null values are not supported!");
+      }
+      return cacheImplementation.compute(key, ComputeCommand.Mode.MERGE, remappingFunction, value, metadata, flags, classLoader.get());
+   }
+
    @Override
    public CacheEntry getCacheEntry(K key) {
       return cacheImplementation.getCacheEntry(key, flags, classLoader.get());
@@ -86,6 +86,20 @@ public interface CommandsFactory {
     */
    PutKeyValueCommand buildPutKeyValueCommand(Object key, Object value, Metadata metadata, Set<Flag> flags);
 
+   /**
+    * Builds a ComputeCommand
+    * @param key key to compute the value of
+    * @param mode decides how the function is applied to the current value
+    * @param function the {@link java.util.function.BiFunction}, or the {@link java.util.function.Function} for
+    *                 {@link ComputeCommand.Mode#COMPUTE_IF_ABSENT}
+    * @param mergeValue the value to merge with {@link ComputeCommand.Mode#MERGE}, null otherwise
+    * @param metadata metadata of entry
+    * @param flags Command flags provided by cache
+    * @return a ComputeCommand
+    */
+   ComputeCommand buildComputeCommand(Object key, ComputeCommand.Mode mode, Object function, Object mergeValue,
+                                      Metadata metadata, Set<Flag> flags);
+
    /**
     * Builds a RemoveCommand
     * @param key key to remove
@@ -43,6 +43,7 @@
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedPrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.ComputeCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.InvalidateL1Command;
@@ -195,6 +196,13 @@ public PutKeyValueCommand buildPutKeyValueCommand(Object key, Object value, Meta
             configuration.dataContainer().valueEquivalence());
    }
 
+   @Override
+   public ComputeCommand buildComputeCommand(Object key, ComputeCommand.Mode mode, Object function, Object mergeValue,
+                                             Metadata metadata, Set<Flag> flags) {
+      return new ComputeCommand(key, mode, function, mergeValue, notifier, metadata, flags,
+            configuration.dataContainer().valueEquivalence());
+   }
+
    @Override
    public RemoveCommand buildRemoveCommand(Object key, Object value, Set<Flag> flags) {
       return new RemoveCommand(key, value, notifier, flags, configuration.dataContainer().valueEquivalence());
@@ -324,6 +332,7 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
       if (c == null) return;
       switch (c.getCommandId()) {
          case PutKeyValueCommand.COMMAND_ID:
+         case ComputeCommand.COMMAND_ID:
             ((PutKeyValueCommand) c).init(notifier, configuration);
             break;
          case ReplaceCommand.COMMAND_ID:
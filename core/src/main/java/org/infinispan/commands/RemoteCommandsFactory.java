@@ -32,6 +32,7 @@
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedPrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.ComputeCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.InvalidateL1Command;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -115,6 +116,9 @@ public ReplicableCommand fromStream(byte id, Object[] parameters, byte type) {
             case ReplaceCommand.COMMAND_ID:
                command = new ReplaceCommand();
                break;
+            case ComputeCommand.COMMAND_ID:
+               command = new ComputeCommand();
+               break;
             case GetKeyValueCommand.COMMAND_ID:
                command = new GetKeyValueCommand();
                break;
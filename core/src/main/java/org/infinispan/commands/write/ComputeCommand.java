@@ -0,0 +1,231 @@
+package org.infinispan.commands.write;
+
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.container.entries.MVCCEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.marshall.core.MarshalledValue;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.notifications.cachelistener.CacheNotifier;
+
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+/**
+ * Implements the functionality defined by {@link org.infinispan.Cache#compute(Object, BiFunction)},
+ * {@link org.infinispan.Cache#computeIfPresent(Object, BiFunction)},
+ * {@link org.infinispan.Cache#computeIfAbsent(Object, Function)} and
+ * {@link org.infinispan.Cache#merge(Object, Object, BiFunction)}.
+ * <p/>
+ * The function is applied to the current value where the entry is wrapped: on the primary owner in non-transactional
+ * caches and on the originator in transactional caches. The key is locked at that point, except in optimistic
+ * transactional caches, where the write skew check of the prepare detects a concurrent write of the key; optimistic
+ * caches without write skew checks do not use the command. Once applied, the command only carries the
+ * resulting value, so the backup owners store the result without applying the function again. The command is visited
+ * as a {@link PutKeyValueCommand}, so it is locked, replicated and persisted like a put; a {@code null} result removes
+ * the entry.
+ * <p/>
+ * The command is not idempotent: if the originator retries it after a topology change, e.g. because the primary owner
+ * left after replicating the result, the function is applied again to the stored result.
+ *
+ * @since 8.0
+ */
+public class ComputeCommand extends PutKeyValueCommand {
+
+   public static final byte COMMAND_ID = 47;
+
+   public enum Mode {
+      COMPUTE, COMPUTE_IF_PRESENT, COMPUTE_IF_ABSENT, MERGE
+   }
+
+   private Mode mode;
+   private Object function;
+   private Object mergeValue;
+   private boolean computed;
+
+   public ComputeCommand() {
+   }
+
+   public ComputeCommand(Object key, Mode mode, Object function, Object mergeValue, CacheNotifier notifier,
+                         Metadata metadata, Set<Flag> flags, Equivalence valueEquivalence) {
+      super(key, null, false, notifier, metadata, flags, valueEquivalence);
+      this.mode = mode;
+      this.function = function;
+      this.mergeValue = mergeValue;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      if (getValueMatcher() == ValueMatcher.MATCH_NEVER) {
+         successful = false;
+         return null;
+      }
+      MVCCEntry e = (MVCCEntry) ctx.lookupEntry(key);
+      // The entry is not wrapped on the originator when the primary owner is another node, the function is applied there
+      if (e == null) return null;
+
+      Object oldValue = e.isRemoved() ? null : e.getValue();
+      if (oldValue instanceof MarshalledValue) {
+         oldValue = ((MarshalledValue) oldValue).get();
+      }
+      if (!computed) {
+         if (isNoOp(oldValue)) {
+            successful = false;
+            return oldValue;
+         }
+         Object newValue = apply(oldValue);
+         if (newValue == null && oldValue == null) {
+            successful = false;
+            return null;
+         }
+         value = newValue;
+         computed = true;
+      }
+
+      if (value == null) {
+         notifier.notifyCacheEntryRemoved(key, oldValue, e.getMetadata(), true, ctx, this);
+         e.setRemoved(true);
+         e.setValid(false);
+      } else {
+         if (!e.isCreated()) {
+            notifier.notifyCacheEntryModified(key, value, oldValue, e.getMetadata(), true, ctx, this);
+         }
+         e.setValue(value);
+         if (e.isRemoved()) {
+            e.setCreated(true);
+            e.setRemoved(false);
+            e.setValid(true);
+         }
+      }
+      e.setChanged(true);
+      return value;
+   }
+
+   private boolean isNoOp(Object oldValue) {
+      switch (mode) {
+         case COMPUTE_IF_PRESENT:
+            return oldValue == null;
+         case COMPUTE_IF_ABSENT:
+            return oldValue != null;
+         default:
+            return false;
+      }
+   }
+
+   private Object apply(Object oldValue) {
+      return apply(mode, function, key, oldValue, mergeValue);
+   }
+
+   /**
+    * Applies the function of the given mode to the current value of the key.
+    */
+   @SuppressWarnings("unchecked")
+   public static Object apply(Mode mode, Object function, Object key, Object oldValue, Object mergeValue) {
+      switch (mode) {
+         case COMPUTE:
+         case COMPUTE_IF_PRESENT:
+            return ((BiFunction<Object, Object, Object>) function).apply(key, oldValue);
+         case COMPUTE_IF_ABSENT:
+            return ((Function<Object, Object>) function).apply(key);
+         case MERGE:
+            return oldValue == null ? mergeValue : ((BiFunction<Object, Object, Object>) function).apply(oldValue, mergeValue);
+         default:
+            throw new IllegalStateException("Unknown mode " + mode);
+      }
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      // Once applied, only the result is sent, so the function does not need to be marshallable on the backup owners
+      return new Object[]{key, mode, computed ? null : function, computed ? null : mergeValue, computed, value,
+                          metadata, getValueMatcher(), Flag.copyWithoutRemotableFlags(flags)};
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void setParameters(int commandId, Object[] parameters) {
+      if (commandId != COMMAND_ID) throw new IllegalStateException("Invalid method id");
+      key = parameters[0];
+      mode = (Mode) parameters[1];
+      function = parameters[2];
+      mergeValue = parameters[3];
+      computed = (Boolean) parameters[4];
+      value = parameters[5];
+      metadata = (Metadata) parameters[6];
+      setValueMatcher((ValueMatcher) parameters[7]);
+      flags = (Set<Flag>) parameters[8];
+   }
+
+   @Override
+   public boolean isConditional() {
+      // The previous value is needed to apply the function
+      return true;
+   }
+
+   public Mode getMode() {
+      return mode;
+   }
+
+   public Object getFunction() {
+      return function;
+   }
+
+   /**
+    * @return {@code true} once the function was applied, {@link #getValue()} then returns the result
+    */
+   public boolean isComputed() {
+      return computed;
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      if (!super.equals(o)) return false;
+
+      ComputeCommand that = (ComputeCommand) o;
+
+      if (computed != that.computed) return false;
+      if (mode != that.mode) return false;
+      if (function != null ? !function.equals(that.function) : that.function != null) return false;
+      if (mergeValue != null ? !mergeValue.equals(that.mergeValue) : that.mergeValue != null) return false;
+
+      return true;
+   }
+
+   @Override
+   public int hashCode() {
+      int result = super.hashCode();
+      result = 31 * result + (mode != null ? mode.hashCode() : 0);
+      result = 31 * result + (function != null ? function.hashCode() : 0);
+      result = 31 * result + (mergeValue != null ? mergeValue.hashCode() : 0);
+      result = 31 * result + (computed ? 1 : 0);
+      return result;
+   }
+
+   @Override
+   public String toString() {
+      return new StringBuilder()
+            .append("ComputeCommand{key=")
+            .append(toStr(key))
+            .append(", mode=").append(mode)
+            .append(", function=").append(function)
+            .append(", mergeValue=").append(toStr(mergeValue))
+            .append(", computed=").append(computed)
+            .append(", value=").append(toStr(value))
+            .append(", flags=").append(flags)
+            .append(", valueMatcher=").append(getValueMatcher())
+            .append(", metadata=").append(metadata)
+            .append(", successful=").append(successful)
+            .append("}")
+            .toString();
+   }
+}
@@ -22,21 +22,25 @@ public class DataContainerConfiguration extends AbstractTypedPropertiesConfigura
          .<Equivalence> builder("keyEquivalence", AnyEquivalence.getInstance()).copier(IdentityAttributeCopier.INSTANCE).immutable().build();
    public static final AttributeDefinition<Equivalence> VALUE_EQUIVALENCE = AttributeDefinition
          .<Equivalence> builder("valueEquivalence", AnyEquivalence.getInstance()).copier(IdentityAttributeCopier.INSTANCE).immutable().build();
+   public static final AttributeDefinition<String> SNAPSHOT_LOCATION = AttributeDefinition
+         .builder("snapshotLocation", null, String.class).immutable().build();
 
    static public AttributeSet attributeDefinitionSet() {
       return new AttributeSet(DataContainerConfiguration.class, AbstractTypedPropertiesConfiguration.attributeSet(),
-            DATA_CONTAINER, KEY_EQUIVALENCE, VALUE_EQUIVALENCE);
+            DATA_CONTAINER, KEY_EQUIVALENCE, VALUE_EQUIVALENCE, SNAPSHOT_LOCATION);
    }
 
    private final Attribute<DataContainer> dataContainer;
    private final Attribute<Equivalence> keyEquivalence;
    private final Attribute<Equivalence> valueEquivalence;
+   private final Attribute<String> snapshotLocation;
 
    DataContainerConfiguration(AttributeSet attributes) {
       super(attributes);
       dataContainer = attributes.attribute(DATA_CONTAINER);
       keyEquivalence = attributes.attribute(KEY_EQUIVALENCE);
       valueEquivalence = attributes.attribute(VALUE_EQUIVALENCE);
+      snapshotLocation = attributes.attribute(SNAPSHOT_LOCATION);
    }
 
    /**
@@ -58,6 +62,14 @@ public <V> Equivalence<V> valueEquivalence() {
       return valueEquivalence.get();
    }
 
+   /**
+    * The directory where the contents of the data container are written when the cache is stopped, and read back
+    * from when it is started again. A null location, the default, disables the snapshot.
+    */
+   public String snapshotLocation() {
+      return snapshotLocation.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -3,10 +3,12 @@
 import static org.infinispan.commons.configuration.AbstractTypedPropertiesConfiguration.PROPERTIES;
 import static org.infinispan.configuration.cache.DataContainerConfiguration.DATA_CONTAINER;
 import static org.infinispan.configuration.cache.DataContainerConfiguration.KEY_EQUIVALENCE;
+import static org.infinispan.configuration.cache.DataContainerConfiguration.SNAPSHOT_LOCATION;
 import static org.infinispan.configuration.cache.DataContainerConfiguration.VALUE_EQUIVALENCE;
 
 import java.util.Properties;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.equivalence.Equivalence;
@@ -94,8 +96,24 @@ public <V> DataContainerConfigurationBuilder valueEquivalence(Equivalence<V> val
       return this;
    }
 
+   /**
+    * Sets the directory where the contents of the data container are written when the cache is stopped. When the
+    * cache is started again the entries are read back from there, before joining the cluster, and state transfer only
+    * fetches the segments that changed in the meantime. The snapshot is deleted once it has been read, so it is only
+    * used after a clean shutdown.
+    *
+    * @param location the directory holding the snapshot, or null to disable it
+    * @return this configuration builder
+    */
+   public DataContainerConfigurationBuilder snapshotLocation(String location) {
+      attributes.attribute(SNAPSHOT_LOCATION).set(location);
+      return this;
+   }
+
    @Override
    public void validate() {
+      if (attributes.attribute(SNAPSHOT_LOCATION).get() != null && clustering().cacheMode().isInvalidation())
+         throw new CacheConfigurationException("A data container snapshot cannot be used with invalidation mode.");
    }
 
    @Override
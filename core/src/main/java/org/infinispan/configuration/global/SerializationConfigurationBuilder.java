@@ -5,6 +5,7 @@
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.marshall.AdvancedExternalizer;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.marshall.core.SchemaExternalizer;
 import org.infinispan.marshall.core.VersionAwareMarshaller;
 import org.jboss.marshalling.ClassResolver;
 
@@ -114,6 +115,20 @@ public <T> SerializationConfigurationBuilder addAdvancedExternalizer(AdvancedExt
       return this;
    }
 
+   /**
+    * Registers a user type whose fields should be marshalled with a layout compiled at registration time, instead of
+    * going through the default reflection based marshalling. The generated {@link SchemaExternalizer} writes the
+    * fields of the type in a fixed order without any class metadata. Types that have not been registered keep being
+    * marshalled by the default marshaller. The identifier follows the same rules as the one passed to
+    * {@link #addAdvancedExternalizer(int, AdvancedExternalizer)}.
+    *
+    * @param id
+    * @param type
+    */
+   public <T> SerializationConfigurationBuilder addSchemaClass(int id, Class<T> type) {
+      return addAdvancedExternalizer(id, new SchemaExternalizer<T>(id, type));
+   }
+
    /**
     * Class resolver to use when unmarshallig objects.
     *
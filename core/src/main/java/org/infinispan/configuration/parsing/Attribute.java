@@ -105,6 +105,7 @@ public enum Attribute {
     SINGLETON("singleton"),
     SITE("site"),
     SIZE("size"),
+    SNAPSHOT_LOCATION("snapshot-location"),
     SPIN_DURATION("deadlock-detection-spin"),
     STATISTICS("statistics"),
     STATISTICS_AVAILABLE("statistics-available"),
@@ -1149,6 +1149,9 @@ private void parseDataContainer(final XMLExtendedStreamReader reader, final Conf
             case VALUE_EQUIVALENCE:
                builder.dataContainer().valueEquivalence(Util.<Equivalence>getInstance(value, holder.getClassLoader()));
                break;
+            case SNAPSHOT_LOCATION:
+               builder.dataContainer().snapshotLocation(value);
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
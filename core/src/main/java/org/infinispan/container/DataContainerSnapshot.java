@@ -0,0 +1,296 @@
+package org.infinispan.container;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.ConcurrentHashSet;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
+
+/**
+ * Writes the contents of the {@link DataContainer} to a local file when the cache is stopped, and reads them back when
+ * the cache is started again, so that a restarted node does not start empty.
+ * <p/>
+ * The snapshot holds the entries that are neither expired nor L1 entries, along with the segments owned by the local
+ * node when it was stopped. It is written to a temporary file that is only renamed once it is complete and synced to
+ * disk, and it is deleted once it has been read: a crash never leaves an incomplete or stale snapshot behind.
+ * <p/>
+ * The entries of clustered caches may have been modified by the other nodes in the meantime, so the restored segments
+ * are compared with the other owners during the first rebalance, using {@link #computeDigests(ConsistentHash, Set)}.
+ * Only the segments that differ are transferred.
+ *
+ * @since 8.0
+ */
+public class DataContainerSnapshot {
+
+   private static final Log log = LogFactory.getLog(DataContainerSnapshot.class);
+
+   private static final int MAGIC = 0x49535043;
+   private static final byte VERSION = 1;
+   private static final int BUFFER_SIZE = 64 * 1024;
+   private static final int DIGEST_SEED = 9001;
+   private static final int LOCAL_SEGMENTS = -1;
+
+   private String cacheName;
+   private Configuration configuration;
+   private DataContainer<Object, Object> dataContainer;
+   private StreamingMarshaller marshaller;
+   private ComponentRegistry componentRegistry;
+   private TimeService timeService;
+   private File file;
+   private final Set<Integer> restoredSegments = new ConcurrentHashSet<>();
+
+   @Inject
+   public void inject(Cache cache, Configuration configuration, DataContainer dataContainer,
+                      @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
+                      ComponentRegistry componentRegistry, TimeService timeService) {
+      this.cacheName = cache.getName();
+      this.configuration = configuration;
+      this.dataContainer = dataContainer;
+      this.marshaller = marshaller;
+      this.componentRegistry = componentRegistry;
+      this.timeService = timeService;
+   }
+
+   // needs to be AFTER the preload and BEFORE the StateTransferManager joins the cluster
+   @Start(priority = 57)
+   public void start() {
+      String location = configuration.dataContainer().snapshotLocation();
+      if (location == null)
+         return;
+      file = new File(location, cacheName + ".snapshot");
+      if (!file.exists())
+         return;
+
+      boolean clustered = configuration.clustering().cacheMode().isClustered();
+      try {
+         if (clustered && !configuration.clustering().stateTransfer().fetchInMemoryState()) {
+            // the restored segments could not be compared with the other owners
+            log.debugf("Ignoring the snapshot of cache %s as fetching in-memory state is disabled", cacheName);
+         } else {
+            restore(clustered ? configuration.clustering().hash().numSegments() : LOCAL_SEGMENTS);
+         }
+      } catch (Exception e) {
+         log.dataContainerSnapshotReadFailed(cacheName, file, e);
+      } finally {
+         if (!file.delete())
+            log.debugf("Unable to delete the snapshot %s of cache %s", file, cacheName);
+      }
+   }
+
+   // needs to be BEFORE the StateTransferManager leaves the cluster
+   @Stop(priority = 19)
+   public void stop() {
+      if (file == null)
+         return;
+
+      int numSegments = LOCAL_SEGMENTS;
+      Set<Integer> segments = Collections.emptySet();
+      ConsistentHash ch = null;
+      if (configuration.clustering().cacheMode().isClustered()) {
+         StateTransferManager stateTransferManager = componentRegistry.getComponent(StateTransferManager.class);
+         CacheTopology cacheTopology = stateTransferManager != null ? stateTransferManager.getCacheTopology() : null;
+         Address address = componentRegistry.getComponent(RpcManager.class).getAddress();
+         if (cacheTopology == null || !cacheTopology.getCurrentCH().getMembers().contains(address)) {
+            log.debugf("Not writing a snapshot of cache %s as the local node does not own any segment", cacheName);
+            return;
+         }
+         ch = cacheTopology.getCurrentCH();
+         numSegments = ch.getNumSegments();
+         segments = ch.getSegmentsForOwner(address);
+      }
+
+      try {
+         write(numSegments, segments, ch);
+      } catch (Exception e) {
+         log.dataContainerSnapshotWriteFailed(cacheName, file, e);
+      }
+   }
+
+   /**
+    * @return the segments restored from the snapshot that have not been compared with the other owners yet
+    */
+   public Set<Integer> getRestoredSegments() {
+      return Collections.unmodifiableSet(restoredSegments);
+   }
+
+   /**
+    * Marks the given segments as compared with the other owners, or as no longer needing to be compared.
+    */
+   public void forgetSegments(Collection<Integer> segments) {
+      restoredSegments.removeAll(segments);
+   }
+
+   /**
+    * Marks all the restored segments as no longer needing to be compared, once the node has joined the cluster.
+    */
+   public void forgetAllSegments() {
+      restoredSegments.clear();
+   }
+
+   /**
+    * Computes a digest of the keys, values and metadata of each of the given segments, based on their marshalled form.
+    * Expired entries and L1 entries are ignored, as are the creation and last used timestamps of the entries, which
+    * differ between owners. Two nodes holding the same entries for a segment compute the same digest for it, regardless
+    * of the order in which they were written, and an entry whose version or expiration changed changes the digest.
+    *
+    * @return the digest of each segment, empty segments included
+    */
+   public Map<Integer, Long> computeDigests(final ConsistentHash ch, final Set<Integer> segments) throws InterruptedException {
+      final Map<Integer, LongAdder> digests = new ConcurrentHashMap<>(segments.size());
+      for (Integer segment : segments) {
+         digests.put(segment, new LongAdder());
+      }
+      final long now = timeService.wallClockTime();
+      dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (key, ice) -> {
+         if (ice.isL1Entry() || ice.isExpired(now))
+            return;
+         LongAdder digest = digests.get(ch.getSegment(key));
+         if (digest != null) {
+            long keyHash = MurmurHash3.MurmurHash3_x64_64(toBytes(key), DIGEST_SEED);
+            long valueHash = MurmurHash3.MurmurHash3_x64_64(toBytes(ice.getValue()), DIGEST_SEED);
+            long metadataHash = MurmurHash3.MurmurHash3_x64_64(toBytes(ice.getMetadata()), DIGEST_SEED);
+            // the per entry hashes are added up, so the digest does not depend on the iteration order
+            digest.add((keyHash * 31 + valueHash) * 31 + metadataHash);
+         }
+      });
+      Map<Integer, Long> result = new HashMap<>(digests.size());
+      for (Map.Entry<Integer, LongAdder> e : digests.entrySet()) {
+         result.put(e.getKey(), e.getValue().sum());
+      }
+      return result;
+   }
+
+   private void write(int numSegments, Set<Integer> segments, ConsistentHash ch) throws IOException, InterruptedException {
+      long start = timeService.time();
+      File parent = file.getParentFile();
+      if (!parent.exists() && !parent.mkdirs())
+         throw new IOException("Unable to create the directory " + parent);
+      File tmp = new File(parent, file.getName() + ".tmp");
+      long now = timeService.wallClockTime();
+      int count = 0;
+      try (FileOutputStream fos = new FileOutputStream(tmp)) {
+         BufferedOutputStream bos = new BufferedOutputStream(fos, BUFFER_SIZE);
+         ObjectOutput out = marshaller.startObjectOutput(bos, false, BUFFER_SIZE);
+         try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(numSegments);
+            out.writeInt(segments.size());
+            for (Integer segment : segments) {
+               out.writeInt(segment);
+            }
+            for (InternalCacheEntry<Object, Object> ice : dataContainer) {
+               if (ice.isL1Entry() || ice.isExpired(now))
+                  continue;
+               if (ch != null && !segments.contains(ch.getSegment(ice.getKey())))
+                  continue;
+               out.writeBoolean(true);
+               out.writeObject(ice);
+               count++;
+            }
+            out.writeBoolean(false);
+            out.writeInt(count);
+         } finally {
+            marshaller.finishObjectOutput(out);
+         }
+         bos.flush();
+         fos.getFD().sync();
+      }
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.debugf("Wrote %d entries of cache %s to %s in %d milliseconds", count, cacheName, file,
+            timeService.timeDuration(start, MILLISECONDS));
+   }
+
+   @SuppressWarnings("unchecked")
+   private void restore(int expectedSegments) throws IOException, ClassNotFoundException {
+      long start = timeService.time();
+      List<InternalCacheEntry<Object, Object>> entries = new ArrayList<>();
+      Set<Integer> segments = new HashSet<>();
+      try (FileInputStream fis = new FileInputStream(file)) {
+         ObjectInput in = marshaller.startObjectInput(new BufferedInputStream(fis, BUFFER_SIZE), false);
+         try {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION)
+               throw new IOException("Not a snapshot of a data container");
+            int numSegments = in.readInt();
+            if (numSegments != expectedSegments)
+               throw new IOException("The snapshot has " + numSegments + " segments instead of " + expectedSegments);
+            int numOwnedSegments = in.readInt();
+            for (int i = 0; i < numOwnedSegments; i++) {
+               segments.add(in.readInt());
+            }
+            // read everything before touching the data container, so a truncated snapshot is ignored as a whole
+            while (in.readBoolean()) {
+               entries.add((InternalCacheEntry<Object, Object>) in.readObject());
+            }
+            if (in.readInt() != entries.size())
+               throw new IOException("The snapshot is incomplete");
+         } finally {
+            marshaller.finishObjectInput(in);
+         }
+      }
+
+      long now = timeService.wallClockTime();
+      int restored = 0;
+      for (final InternalCacheEntry<Object, Object> ice : entries) {
+         if (ice.isExpired(now))
+            continue;
+         // the entry is stored as is, so it keeps its creation and last used timestamps
+         dataContainer.compute(ice.getKey(), (key, oldEntry, factory) -> ice);
+         restored++;
+      }
+      restoredSegments.addAll(segments);
+      log.debugf("Restored %d entries and segments %s of cache %s from %s in %d milliseconds", restored, segments,
+            cacheName, file, timeService.timeDuration(start, MILLISECONDS));
+   }
+
+   private byte[] toBytes(Object o) {
+      try {
+         return marshaller.objectToByteBuffer(o);
+      } catch (IOException e) {
+         throw new CacheException("Unable to marshall " + o, e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+   }
+}
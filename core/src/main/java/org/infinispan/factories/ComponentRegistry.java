@@ -4,6 +4,7 @@
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.module.ModuleCommandInitializer;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.container.DataContainerSnapshot;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.components.ComponentMetadata;
 import org.infinispan.factories.components.ComponentMetadataRepo;
@@ -310,6 +311,7 @@ public void cacheComponents() {
       stateTransferLock = getOrCreateComponent(StateTransferLock.class);
       inboundInvocationHandler = getOrCreateComponent(PerCacheInboundInvocationHandler.class);
       getOrCreateComponent(ClusterCacheStats.class);  //no need to save ref to a field, just initialize component
+      getOrCreateComponent(DataContainerSnapshot.class);
    }
 
    @Override
@@ -8,6 +8,7 @@
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.io.ByteBufferFactoryImpl;
 import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.container.DataContainerSnapshot;
 import org.infinispan.context.InvocationContextContainer;
 import org.infinispan.context.InvocationContextContainerImpl;
 import org.infinispan.context.InvocationContextFactory;
@@ -66,7 +67,8 @@
                               ClusteringDependentLogic.class, L1Manager.class, TransactionFactory.class, BackupSender.class,
                               TotalOrderManager.class, ByteBufferFactory.class, MarshalledEntryFactory.class,
                               RemoteValueRetrievedListener.class, InvocationContextFactory.class, CommitManager.class,
-                              XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class})
+                              XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class,
+                              DataContainerSnapshot.class})
 public class EmptyConstructorNamedCacheFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
 
    @Override
@@ -140,6 +142,8 @@ public <T> T construct(Class<T> componentType) {
             return (T) new XSiteStateConsumerImpl();
          } else if (componentType.equals(XSiteStateProvider.class)) {
             return (T) new XSiteStateProviderImpl();
+         } else if (componentType.equals(DataContainerSnapshot.class)) {
+            return (T) new DataContainerSnapshot();
          }
       }
 
@@ -3,6 +3,10 @@
 import static org.infinispan.persistence.PersistenceUtil.convert;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -110,8 +114,26 @@ public Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryComm
    @Override
    public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
       if (enabled) {
-         for (Object key : command.getKeys()) {
-            loadIfNeeded(ctx, key, command);
+         Collection<?> keys = command.getKeys();
+         Map<Object, MarshalledEntry> prefetched = null;
+         if (keys.size() > 1) {
+            // the keys missing from the data container are loaded with a single batch per store
+            Set<Object> toLoad = new HashSet<>();
+            for (Object key : keys) {
+               if (!skipLoad(command, key, ctx) && dataContainer.peek(key) == null) {
+                  toLoad.add(key);
+               }
+            }
+            if (toLoad.size() > 1) {
+               Map<Object, MarshalledEntry> loaded = persistenceManager.loadAllFromAllStores(toLoad, ctx);
+               prefetched = new HashMap<>(toLoad.size() * 2);
+               for (Object key : toLoad) {
+                  prefetched.put(key, loaded.get(key));
+               }
+            }
+         }
+         for (Object key : keys) {
+            loadIfNeeded(ctx, key, command, prefetched);
          }
       }
       return invokeNextInterceptor(ctx, command);
@@ -207,6 +229,11 @@ protected boolean canLoad(Object key) {
     * @throws Throwable
     */
    protected final Boolean loadIfNeeded(final InvocationContext ctx, Object key, final FlagAffectedCommand cmd) throws Throwable {
+      return loadIfNeeded(ctx, key, cmd, null);
+   }
+
+   private Boolean loadIfNeeded(final InvocationContext ctx, Object key, final FlagAffectedCommand cmd,
+                                Map<Object, MarshalledEntry> prefetched) throws Throwable {
       if (skipLoad(cmd, key, ctx)) {
          return null;
       }
@@ -214,7 +241,7 @@ protected final Boolean loadIfNeeded(final InvocationContext ctx, Object key, fi
       final boolean isDelta = cmd instanceof ApplyDeltaCommand;
       final AtomicReference<Boolean> isLoaded = new AtomicReference<>();
       InternalCacheEntry entry = PersistenceUtil.loadAndStoreInDataContainer(dataContainer, persistenceManager, key,
-                                                                             ctx, timeService, isLoaded);
+                                                                             ctx, timeService, isLoaded, prefetched);
       Boolean isLoadedValue = isLoaded.get();
       if (trace) {
          log.tracef("Entry was loaded? %s", isLoadedValue);
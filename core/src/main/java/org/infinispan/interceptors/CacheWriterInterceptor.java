@@ -27,6 +27,7 @@
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
@@ -39,8 +40,14 @@
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
@@ -167,6 +174,11 @@ public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand
       if (!isProperWriter(ctx, command, command.getKey())) return returnValue;
 
       Object key = command.getKey();
+      if (isRemoval(command)) {
+         boolean resp = persistenceManager.deleteFromAllStores(key, BOTH);
+         if (getLog().isTraceEnabled()) getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+         return returnValue;
+      }
       storeEntry(ctx, key, command);
       if (getStatisticsEnabled()) cacheStores.incrementAndGet();
 
@@ -192,11 +204,13 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
 
       Map<Object, Object> map = command.getMap();
+      List<Object> keys = new ArrayList<>(map.size());
       for (Object key : map.keySet()) {
          if (isProperWriter(ctx, command, key)) {
-            storeEntry(ctx, key, command);
+            keys.add(key);
          }
       }
+      storeEntries(ctx, keys, command);
       if (getStatisticsEnabled()) cacheStores.getAndAdd(map.size());
       return returnValue;
    }
@@ -216,6 +230,7 @@ protected final void store(TxInvocationContext ctx) throws Throwable {
             cacheCommand.acceptVisitor(ctx, modsBuilder);
          }
       }
+      modsBuilder.flush();
       if (getStatisticsEnabled() && modsBuilder.putCount > 0) {
          cacheStores.getAndAdd(modsBuilder.putCount);
       }
@@ -240,17 +255,28 @@ protected boolean isProperWriter(InvocationContext ctx, FlagAffectedCommand comm
       return true;
    }
 
+   /**
+    * Collects the modifications of a transaction and writes them to the stores in batches when {@link #flush()} is
+    * invoked. Only the last modification of each key is kept.
+    */
    public class Updater extends AbstractVisitor {
 
       protected final boolean generateStatistics;
       int putCount;
 
+      private final Map<Object, MarshalledEntry> writes = new LinkedHashMap<>();
+      private final Set<Object> privateWrites = new HashSet<>();
+      private final Set<Object> removes = new LinkedHashSet<>();
+
       public Updater(boolean generateStatistics) {
          this.generateStatistics = generateStatistics;
       }
 
       @Override
       public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         if (isRemoval(command)) {
+            return visitSingleRemove(ctx, command, command.getKey());
+         }
          return visitSingleStore(ctx, command, command.getKey());
       }
 
@@ -269,7 +295,7 @@ public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand co
                ice = entryFactory.create(entry);
             }
             MarshalledEntryImpl marshalledEntry = new MarshalledEntryImpl(ice.getKey(), ice.getValue(), internalMetadata(ice), marshaller);
-            persistenceManager.writeToAllStores(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
+            addWrite(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE));
          }
          return null;
       }
@@ -289,28 +315,77 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
 
       @Override
       public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
-         Object key = command.getKey();
-         if (isProperWriter(ctx, command, key)) {
-            persistenceManager.deleteFromAllStores(key, BOTH);
-         }
-         return null;
+         return visitSingleRemove(ctx, command, command.getKey());
       }
 
       @Override
       public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+         // the modifications before the clear don't need to be written
+         writes.clear();
+         privateWrites.clear();
+         removes.clear();
          persistenceManager.clearAllStores(ctx.isOriginLocal() ? PRIVATE : BOTH);
          return null;
       }
 
+      private Object visitSingleRemove(InvocationContext ctx, FlagAffectedCommand command, Object key) throws Throwable {
+         if (isProperWriter(ctx, command, key)) {
+            writes.remove(key);
+            privateWrites.remove(key);
+            removes.add(key);
+         }
+         return null;
+      }
+
       protected Object visitSingleStore(InvocationContext ctx, FlagAffectedCommand command, Object key) throws Throwable {
          if (isProperWriter(ctx, command, key)) {
             if (generateStatistics) putCount++;
             InternalCacheValue sv = getStoredValue(key, ctx);
             MarshalledEntryImpl me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
-            persistenceManager.writeToAllStores(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
+            addWrite(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE));
          }
          return null;
       }
+
+      private void addWrite(MarshalledEntry entry, boolean skipSharedStores) {
+         Object key = entry.getKey();
+         removes.remove(key);
+         writes.put(key, entry);
+         if (skipSharedStores) {
+            privateWrites.add(key);
+         } else {
+            privateWrites.remove(key);
+         }
+      }
+
+      /**
+       * Writes the collected modifications with a single batch per store and kind of modification.
+       */
+      public void flush() {
+         if (!removes.isEmpty()) {
+            persistenceManager.deleteBatchFromAllStores(removes, BOTH);
+         }
+         if (!writes.isEmpty()) {
+            List<MarshalledEntry> shared = new ArrayList<>(writes.size());
+            List<MarshalledEntry> privateOnly = new ArrayList<>(privateWrites.size());
+            for (MarshalledEntry entry : writes.values()) {
+               if (privateWrites.contains(entry.getKey())) {
+                  privateOnly.add(entry);
+               } else {
+                  shared.add(entry);
+               }
+            }
+            if (!shared.isEmpty()) {
+               persistenceManager.writeBatchToAllStores(shared, BOTH);
+            }
+            if (!privateOnly.isEmpty()) {
+               persistenceManager.writeBatchToAllStores(privateOnly, PRIVATE);
+            }
+         }
+         writes.clear();
+         privateWrites.clear();
+         removes.clear();
+      }
    }
 
    @Override
@@ -331,6 +406,13 @@ public long getWritesToTheStores() {
       return cacheStores.get();
    }
 
+   /**
+    * A {@link ComputeCommand} whose function returned {@code null} removes the entry.
+    */
+   static boolean isRemoval(PutKeyValueCommand command) {
+      return command instanceof ComputeCommand && ((ComputeCommand) command).isComputed() && command.getValue() == null;
+   }
+
    void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       InternalCacheValue sv = getStoredValue(key, ctx);
       persistenceManager.writeToAllStores(new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller),
@@ -338,6 +420,31 @@ void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command)
       if (getLog().isTraceEnabled()) getLog().tracef("Stored entry %s under key %s", sv, key);
    }
 
+   /**
+    * Stores the entries of several keys with a single batch per store.
+    */
+   void storeEntries(InvocationContext ctx, Collection<Object> keys, FlagAffectedCommand command) {
+      if (keys.isEmpty()) return;
+      List<MarshalledEntry> shared = new ArrayList<>(keys.size());
+      List<MarshalledEntry> privateOnly = new ArrayList<>();
+      for (Object key : keys) {
+         InternalCacheValue sv = getStoredValue(key, ctx);
+         MarshalledEntry entry = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
+         if (skipSharedStores(ctx, key, command)) {
+            privateOnly.add(entry);
+         } else {
+            shared.add(entry);
+         }
+      }
+      if (!shared.isEmpty()) {
+         persistenceManager.writeBatchToAllStores(shared, BOTH);
+      }
+      if (!privateOnly.isEmpty()) {
+         persistenceManager.writeBatchToAllStores(privateOnly, PRIVATE);
+      }
+      if (getLog().isTraceEnabled()) getLog().tracef("Stored entries under keys %s", keys);
+   }
+
    protected boolean skipSharedStores(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return !ctx.isOriginLocal() || command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE);
    }
@@ -16,6 +16,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
@@ -74,6 +76,11 @@ public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand
       if (!isStoreEnabled(command) || ctx.isInTxScope() || !command.isSuccessful()) return returnValue;
       if (!isProperWriter(ctx, command, command.getKey())) return returnValue;
 
+      if (isRemoval(command)) {
+         boolean resp = persistenceManager.deleteFromAllStores(key, skipSharedStores(ctx, key, command) ? PRIVATE : BOTH);
+         log.tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+         return returnValue;
+      }
       storeEntry(ctx, key, command);
       if (getStatisticsEnabled()) cacheStores.incrementAndGet();
       return returnValue;
@@ -85,7 +92,7 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
 
       Map<Object, Object> map = command.getMap();
-      int count = 0;
+      List<Object> keys = new ArrayList<>(map.size());
       for (Object key : map.keySet()) {
          // In non-tx mode, a node may receive the same forwarded PutMapCommand many times - but each time
          // it must write only the keys locked on the primary owner that forwarded the command
@@ -93,11 +100,11 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
             continue;
 
          if (isProperWriter(ctx, command, key)) {
-            storeEntry(ctx, key, command);
-            count++;
+            keys.add(key);
          }
       }
-      if (getStatisticsEnabled()) cacheStores.getAndAdd(count);
+      storeEntries(ctx, keys, command);
+      if (getStatisticsEnabled()) cacheStores.getAndAdd(keys.size());
       return returnValue;
    }
 
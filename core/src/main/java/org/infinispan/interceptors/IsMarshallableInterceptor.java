@@ -9,6 +9,7 @@
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.commands.write.ComputeCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -102,7 +103,12 @@ public Object visitLockControlCommand(TxInvocationContext ctx, LockControlComman
 
    @Override
    public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
-      if (isStoreAsBinary() || isClusterInvocation(ctx, command) || isStoreInvocation(command))
+      if (command instanceof ComputeCommand) {
+         // Without a transaction the function is sent to the primary owner, and the value is only known once the
+         // function is applied
+         if (isClusterInvocation(ctx, command) && !cacheConfiguration.transaction().transactionMode().isTransactional())
+            checkMarshallable(command.getKey(), ((ComputeCommand) command).getFunction());
+      } else if (isStoreAsBinary() || isClusterInvocation(ctx, command) || isStoreInvocation(command))
          checkMarshallable(command.getKey(), command.getValue());
       return super.visitPutKeyValueCommand(ctx, command);
    }
@@ -112,7 +112,8 @@ public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand
          }
       }
 
-      if (wrapValues) {
+      // A ComputeCommand only has a value once its function is applied
+      if (wrapValues && command.getValue() != null) {
          if (!isTypeExcluded(command.getValue().getClass())) {
             value = createMarshalledValue(command.getValue(), ctx);
             command.setValue(value);
@@ -1,6 +1,7 @@
 package org.infinispan.interceptors.xsite;
 
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.ComputeCommand;
 import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
@@ -60,7 +61,10 @@ private Object handleSingleKeyWriteCommand(InvocationContext ctx, DataWriteComma
    }
 
    private WriteCommand transform(DataWriteCommand command) {
-      if (command instanceof PutKeyValueCommand) {
+      if (command instanceof ComputeCommand && ((ComputeCommand) command).getValue() == null) {
+         // The function removed the entry
+         return commandsFactory.buildRemoveCommand(command.getKey(), null, command.getFlags());
+      } else if (command instanceof PutKeyValueCommand) {
          PutKeyValueCommand putCommand = (PutKeyValueCommand) command;
          return commandsFactory.buildPutKeyValueCommand(putCommand.getKey(), putCommand.getValue(),
                                                         command.getMetadata(), command.getFlags());
@@ -0,0 +1,317 @@
+package org.infinispan.marshall.core;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.commons.util.Util;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An {@link AdvancedExternalizer} whose reader and writer are compiled, at registration time, from the field
+ * layout of a user type. Fields are written in a fixed order using accessors specialized per field type, so
+ * neither class descriptors nor field names end up in the stream, and no per-call reflection lookup is needed.
+ * <p>
+ * All non-static, non-transient fields declared by the type and its superclasses are marshalled. Fields are
+ * ordered by declaring class (top-most superclass first) and then by name, so that the layout is identical on
+ * every node regardless of the order in which the JVM reports declared fields. The type must declare a
+ * no-argument constructor, which can be private.
+ * <p>
+ * Instances are normally created through
+ * {@link org.infinispan.configuration.global.SerializationConfigurationBuilder#addSchemaClass(int, Class)}.
+ * Types that have not been registered keep being marshalled by the default marshaller.
+ *
+ * @since 8.0
+ */
+public final class SchemaExternalizer<T> implements AdvancedExternalizer<T> {
+
+   private final Class<T> type;
+   private final Integer id;
+   private final Constructor<T> constructor;
+   private final FieldSlot[] slots;
+
+   public SchemaExternalizer(int id, Class<T> type) {
+      if (id < 0)
+         throw new CacheConfigurationException(String.format(
+               "Schema class %s must be registered with a positive identifier, but got %d", type.getName(), id));
+      if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isArray() || type.isEnum())
+         throw new CacheConfigurationException(String.format(
+               "Schema class %s must be a concrete, non-array, non-enum class", type.getName()));
+      this.type = type;
+      this.id = id;
+      this.constructor = findConstructor(type);
+      this.slots = compile(type);
+   }
+
+   @Override
+   public Set<Class<? extends T>> getTypeClasses() {
+      return Util.<Class<? extends T>>asSet(type);
+   }
+
+   @Override
+   public Integer getId() {
+      return id;
+   }
+
+   public Class<T> getType() {
+      return type;
+   }
+
+   @Override
+   public void writeObject(ObjectOutput output, T object) throws IOException {
+      try {
+         for (FieldSlot slot : slots)
+            slot.write(output, object);
+      } catch (IllegalAccessException e) {
+         throw new CacheException(e);
+      }
+   }
+
+   @Override
+   public T readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+      T object;
+      try {
+         object = constructor.newInstance();
+         for (FieldSlot slot : slots)
+            slot.read(input, object);
+      } catch (ReflectiveOperationException e) {
+         throw new CacheException(e);
+      }
+      return object;
+   }
+
+   @Override
+   public String toString() {
+      return "SchemaExternalizer{type=" + type.getName() + ", id=" + id + ", fields=" + slots.length + '}';
+   }
+
+   private static <T> Constructor<T> findConstructor(Class<T> type) {
+      try {
+         Constructor<T> ctor = type.getDeclaredConstructor();
+         ctor.setAccessible(true);
+         return ctor;
+      } catch (NoSuchMethodException e) {
+         throw new CacheConfigurationException(String.format(
+               "Schema class %s must declare a no-argument constructor", type.getName()), e);
+      }
+   }
+
+   private static FieldSlot[] compile(Class<?> type) {
+      List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+      for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass())
+         hierarchy.add(0, c);
+
+      List<FieldSlot> slots = new ArrayList<FieldSlot>();
+      for (Class<?> c : hierarchy) {
+         List<Field> fields = new ArrayList<Field>();
+         for (Field f : c.getDeclaredFields()) {
+            int mod = f.getModifiers();
+            if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || f.isSynthetic())
+               continue;
+            fields.add(f);
+         }
+         Collections.sort(fields, FIELD_NAME_ORDER);
+         for (Field f : fields) {
+            f.setAccessible(true);
+            slots.add(slotFor(f));
+         }
+      }
+      return slots.toArray(new FieldSlot[slots.size()]);
+   }
+
+   private static FieldSlot slotFor(Field f) {
+      Class<?> t = f.getType();
+      if (t == int.class) return new IntSlot(f);
+      if (t == long.class) return new LongSlot(f);
+      if (t == boolean.class) return new BooleanSlot(f);
+      if (t == double.class) return new DoubleSlot(f);
+      if (t == float.class) return new FloatSlot(f);
+      if (t == short.class) return new ShortSlot(f);
+      if (t == byte.class) return new ByteSlot(f);
+      if (t == char.class) return new CharSlot(f);
+      if (t == byte[].class) return new ByteArraySlot(f);
+      return new ObjectSlot(f);
+   }
+
+   private static final Comparator<Field> FIELD_NAME_ORDER = new Comparator<Field>() {
+      @Override
+      public int compare(Field f1, Field f2) {
+         return f1.getName().compareTo(f2.getName());
+      }
+   };
+
+   private abstract static class FieldSlot {
+      final Field field;
+
+      FieldSlot(Field field) {
+         this.field = field;
+      }
+
+      abstract void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException;
+
+      abstract void read(ObjectInput in, Object target) throws IOException, ClassNotFoundException, IllegalAccessException;
+   }
+
+   private static final class IntSlot extends FieldSlot {
+      IntSlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         out.writeInt(field.getInt(target));
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, IllegalAccessException {
+         field.setInt(target, in.readInt());
+      }
+   }
+
+   private static final class LongSlot extends FieldSlot {
+      LongSlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         out.writeLong(field.getLong(target));
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, IllegalAccessException {
+         field.setLong(target, in.readLong());
+      }
+   }
+
+   private static final class BooleanSlot extends FieldSlot {
+      BooleanSlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         out.writeBoolean(field.getBoolean(target));
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, IllegalAccessException {
+         field.setBoolean(target, in.readBoolean());
+      }
+   }
+
+   private static final class DoubleSlot extends FieldSlot {
+      DoubleSlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         out.writeDouble(field.getDouble(target));
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, IllegalAccessException {
+         field.setDouble(target, in.readDouble());
+      }
+   }
+
+   private static final class FloatSlot extends FieldSlot {
+      FloatSlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         out.writeFloat(field.getFloat(target));
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, IllegalAccessException {
+         field.setFloat(target, in.readFloat());
+      }
+   }
+
+   private static final class ShortSlot extends FieldSlot {
+      ShortSlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         out.writeShort(field.getShort(target));
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, IllegalAccessException {
+         field.setShort(target, in.readShort());
+      }
+   }
+
+   private static final class ByteSlot extends FieldSlot {
+      ByteSlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         out.writeByte(field.getByte(target));
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, IllegalAccessException {
+         field.setByte(target, in.readByte());
+      }
+   }
+
+   private static final class CharSlot extends FieldSlot {
+      CharSlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         out.writeChar(field.getChar(target));
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, IllegalAccessException {
+         field.setChar(target, in.readChar());
+      }
+   }
+
+   private static final class ByteArraySlot extends FieldSlot {
+      ByteArraySlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         byte[] bytes = (byte[]) field.get(target);
+         if (bytes == null) {
+            out.writeInt(-1);
+         } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+         }
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, IllegalAccessException {
+         int length = in.readInt();
+         byte[] bytes = null;
+         if (length >= 0) {
+            bytes = new byte[length];
+            in.readFully(bytes);
+         }
+         field.set(target, bytes);
+      }
+   }
+
+   private static final class ObjectSlot extends FieldSlot {
+      ObjectSlot(Field field) { super(field); }
+
+      @Override
+      void write(ObjectOutput out, Object target) throws IOException, IllegalAccessException {
+         out.writeObject(field.get(target));
+      }
+
+      @Override
+      void read(ObjectInput in, Object target) throws IOException, ClassNotFoundException, IllegalAccessException {
+         field.set(target, in.readObject());
+      }
+   }
+
+}
@@ -2,12 +2,13 @@
 
 import org.infinispan.Cache;
 import org.infinispan.commons.io.ByteBuffer;
-import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.commons.io.ByteArrayOutputStreamPool;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.context.InvocationContextContainer;
 import org.infinispan.commons.io.ExposedByteArrayOutputStream;
 import org.infinispan.commons.marshall.AbstractMarshaller;
+import org.infinispan.commons.marshall.BufferSizePredictor;
 import org.infinispan.commons.marshall.NotSerializableException;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.util.logging.Log;
@@ -69,27 +70,52 @@ public void stop() {
       defaultMarshaller.stop();
    }
 
+   /**
+    * Used by the transport for every message sent, so the marshalled bytes are handed off without being copied out of
+    * the pooled scratch stream, see {@link ByteArrayOutputStreamPool#handOff(ExposedByteArrayOutputStream)}. JGroups
+    * keeps the buffer until the message is acknowledged, so it cannot be returned to the pool after the send.
+    */
+   @Override
+   public ByteBuffer objectToBuffer(Object obj) throws IOException, InterruptedException {
+      if (obj == null) {
+         return objectToBuffer(null, 1, true);
+      }
+      BufferSizePredictor sizePredictor = getBufferSizePredictor(obj);
+      ByteBuffer buffer = objectToBuffer(obj, sizePredictor.nextSize(obj), true);
+      sizePredictor.recordSize(buffer.getLength());
+      return buffer;
+   }
+
    @Override
    protected ByteBuffer objectToBuffer(Object obj, int estimatedSize) throws IOException, InterruptedException {
-      ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream(estimatedSize);
-      ObjectOutput out = startObjectOutput(baos, false, estimatedSize);
+      return objectToBuffer(obj, estimatedSize, false);
+   }
+
+   private ByteBuffer objectToBuffer(Object obj, int estimatedSize, boolean handOff) throws IOException, InterruptedException {
+      ExposedByteArrayOutputStream baos = ByteArrayOutputStreamPool.acquire(estimatedSize);
       try {
-         defaultMarshaller.objectToObjectStream(obj, out);
-      } catch (java.io.NotSerializableException nse) {
-         if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
-         throw new NotSerializableException(nse.getMessage(), nse.getCause());
-      } catch (IOException ioe) {
-         if (ioe.getCause() instanceof InterruptedException) {
-            if (log.isTraceEnabled()) log.trace("Interrupted exception while marshalling", ioe.getCause());
-            throw (InterruptedException) ioe.getCause();
-         } else {
-            log.errorMarshallingObject(ioe, obj);
-            throw ioe;
+         ObjectOutput out = startObjectOutput(baos, false, estimatedSize);
+         try {
+            defaultMarshaller.objectToObjectStream(obj, out);
+         } catch (java.io.NotSerializableException nse) {
+            if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
+            throw new NotSerializableException(nse.getMessage(), nse.getCause());
+         } catch (IOException ioe) {
+            if (ioe.getCause() instanceof InterruptedException) {
+               if (log.isTraceEnabled()) log.trace("Interrupted exception while marshalling", ioe.getCause());
+               throw (InterruptedException) ioe.getCause();
+            } else {
+               log.errorMarshallingObject(ioe, obj);
+               throw ioe;
+            }
+         } finally {
+            finishObjectOutput(out);
          }
+         // Otherwise the pooled scratch buffer is recycled, so hand out an exactly sized copy
+         return handOff ? ByteArrayOutputStreamPool.handOff(baos) : ByteArrayOutputStreamPool.toBuffer(baos);
       } finally {
-         finishObjectOutput(out);
+         ByteArrayOutputStreamPool.release(baos);
       }
-      return new ByteBufferImpl(baos.getRawBuffer(), 0, baos.size());
    }
 
    @Override
@@ -33,6 +33,7 @@
 import org.infinispan.commands.tx.totalorder.TotalOrderRollbackCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedCommitCommand;
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedPrepareCommand;
+import org.infinispan.commons.io.ByteArrayOutputStreamPool;
 import org.infinispan.commons.io.ExposedByteArrayOutputStream;
 import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.marshall.AbstractExternalizer;
@@ -106,9 +107,14 @@ public void writeObject(ObjectOutput output, CacheRpcCommand command) throws IOE
       // the command using that cache marshaller and the write the bytes in
       // the original payload.
       ExposedByteArrayOutputStream os = marshallParameters(command, marshaller);
-      UnsignedNumeric.writeUnsignedInt(output, os.size());
-      // Do not rely on the raw buffer's length which is likely to be much longer!
-      output.write(os.getRawBuffer(), 0, os.size());
+      try {
+         UnsignedNumeric.writeUnsignedInt(output, os.size());
+         // Do not rely on the raw buffer's length which is likely to be much longer!
+         output.write(os.getRawBuffer(), 0, os.size());
+      } finally {
+         // The parameter bytes have been copied to the outer stream, so the scratch buffer can be reused
+         ByteArrayOutputStreamPool.release(os);
+      }
       if (command instanceof TopologyAffectedCommand) {
          output.writeInt(((TopologyAffectedCommand) command).getTopologyId());
       }
@@ -118,13 +124,19 @@ private ExposedByteArrayOutputStream marshallParameters(
          CacheRpcCommand cmd, StreamingMarshaller marshaller) throws IOException {
       BufferSizePredictor sizePredictor = marshaller.getBufferSizePredictor(cmd);
       int estimatedSize = sizePredictor.nextSize(cmd);
-      ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream(estimatedSize);
-      ObjectOutput output = marshaller.startObjectOutput(baos, true, estimatedSize);
+      ExposedByteArrayOutputStream baos = ByteArrayOutputStreamPool.acquire(estimatedSize);
       try {
-         cmdExt.writeCommandParameters(output, cmd);
-      } finally {
-         marshaller.finishObjectOutput(output);
+         ObjectOutput output = marshaller.startObjectOutput(baos, true, estimatedSize);
+         try {
+            cmdExt.writeCommandParameters(output, cmd);
+         } finally {
+            marshaller.finishObjectOutput(output);
+         }
+      } catch (IOException | RuntimeException e) {
+         ByteArrayOutputStreamPool.release(baos);
+         throw e;
       }
+      sizePredictor.recordSize(baos.size());
       return baos;
    }
 
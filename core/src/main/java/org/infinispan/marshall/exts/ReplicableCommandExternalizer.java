@@ -120,7 +120,7 @@ public Set<Class<? extends ReplicableCommand>> getTypeClasses() {
             InvalidateCommand.class, InvalidateL1Command.class,
             PutKeyValueCommand.class,
             PutMapCommand.class, RemoveCommand.class,
-            ReplaceCommand.class, GetKeysInGroupCommand.class);
+            ReplaceCommand.class, ComputeCommand.class, GetKeysInGroupCommand.class);
       // Search only those commands that replicable and not cache specific replicable commands
       Collection<Class<? extends ReplicableCommand>> moduleCommands = globalComponentRegistry.getModuleProperties().moduleOnlyReplicableCommands();
       if (moduleCommands != null && !moduleCommands.isEmpty()) coreCommands.addAll(moduleCommands);
@@ -243,6 +243,45 @@
 
    Observation observation() default Observation.BOTH;
 
+   /**
+    * Maximum number of events that can be waiting to be delivered to an asynchronous listener. Each asynchronous
+    * listener has its own queue, so a slow listener does not delay the delivery of events to other listeners.
+    * <p>
+    * This value is ignored when {@link org.infinispan.notifications.Listener#sync()} is true.
+    *
+    * @return the capacity of the listener's event queue
+    * @since 8.0
+    */
+   int queueSize() default 65536;
+
+   /**
+    * Defines what happens when an event is raised while the queue of an asynchronous listener is full.
+    * <p>
+    * This value is ignored when {@link org.infinispan.notifications.Listener#sync()} is true.
+    *
+    * @return the overflow policy of the listener's event queue
+    * @since 8.0
+    */
+   OverflowPolicy overflow() default OverflowPolicy.BLOCK;
+
+   enum OverflowPolicy {
+      /**
+       * The thread raising the event waits until there is space in the queue. A thread that is delivering
+       * asynchronous events itself, e.g. because a listener writes to the cache, delivers the event instead of
+       * waiting, since waiting could deadlock the notification executor.
+       */
+      BLOCK,
+      /**
+       * The event is discarded and the number of discarded events is increased.
+       */
+      DISCARD,
+      /**
+       * The event is delivered by the thread raising it. Events are then no longer guaranteed to be delivered in
+       * order.
+       */
+      CALLER_RUNS
+   }
+
 
    enum Observation {
       PRE() {
@@ -14,6 +14,7 @@
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.transaction.xa.GlobalTransaction;
 
+import java.lang.annotation.Annotation;
 import java.util.Collection;
 
 /**
@@ -108,6 +109,18 @@ void notifyCacheEntryPassivated(K key, V value, boolean pre,
 
    void notifyPartitionStatusChanged(AvailabilityMode mode, boolean pre);
 
+   /**
+    * The default implementation returns {@code true}, so that callers skipping the notifications when nobody listens
+    * still notify the listeners of implementations that cannot tell.
+    *
+    * @return {@code true} if at least one listener method is registered for the given annotation, e.g. {@link
+    *         org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated}
+    * @since 8.0
+    */
+   default boolean hasListener(Class<? extends Annotation> annotation) {
+      return true;
+   }
+
    /**
     * Set an optional converter to be used for converting the key/value of the event before notifying the listeners.
     *
@@ -28,6 +28,11 @@
 import org.infinispan.filter.KeyValueFilter;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.iteration.impl.EntryRetriever;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.Listener;
@@ -82,6 +87,7 @@
  * @author anistor@redhat.com
  * @since 4.0
  */
+@MBean(objectName = "CacheNotifier", description = "Component that delivers events to the cache listeners")
 public final class CacheNotifierImpl<K, V> extends AbstractListenerImpl<Event<K, V>, CacheEntryListenerInvocation<K, V>>
       implements ClusterCacheNotifier<K, V> {
 
@@ -185,6 +191,34 @@ public CacheNotifierImpl() {
       listenersMap.put(CacheEntryEvicted.class, cacheEntryEvictedListeners);
    }
 
+   @ManagedAttribute(
+         description = "Number of events waiting to be delivered to asynchronous listeners",
+         displayName = "Pending asynchronous listener events",
+         displayType = DisplayType.SUMMARY
+   )
+   public long getPendingAsyncListenerEvents() {
+      return getPendingAsyncEvents();
+   }
+
+   @ManagedAttribute(
+         description = "Time the oldest event not yet delivered to an asynchronous listener has been waiting",
+         displayName = "Asynchronous listener lag",
+         units = Units.MILLISECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getAsyncListenerLag() {
+      return getMaxAsyncListenerLag();
+   }
+
+   @ManagedAttribute(
+         description = "Number of events discarded because the queue of an asynchronous listener was full",
+         displayName = "Discarded asynchronous listener events",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getDiscardedAsyncListenerEvents() {
+      return getDiscardedAsyncEvents();
+   }
+
    @Inject
    void injectDependencies(Cache<K, V> cache, ClusteringDependentLogic clusteringDependentLogic,
                            TransactionManager transactionManager, Configuration config,
@@ -28,6 +28,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -42,6 +44,11 @@
 
    protected final Map<Class<? extends Annotation>, List<L>> listenersMap = new HashMap<>(16, 0.99f);
 
+   /**
+    * Event queues of the asynchronous listeners, keyed by listener instance
+    */
+   private final ConcurrentMap<Object, AsyncListenerQueue> asyncQueues = new ConcurrentHashMap<>();
+
    protected abstract class AbstractInvocationBuilder {
       protected Object target;
       protected Method method;
@@ -128,6 +135,8 @@ public void stop() {
          if (list != null) list.clear();
       }
 
+      asyncQueues.clear();
+
       if (syncProcessor != null) syncProcessor.shutdownNow();
    }
 
@@ -135,6 +144,14 @@ public void stop() {
 
    protected abstract Map<Class<? extends Annotation>, Class<?>> getAllowedMethodAnnotations(Listener l);
 
+   /**
+    * @return {@code true} if at least one listener method is registered for the given annotation
+    */
+   public boolean hasListener(Class<? extends Annotation> annotation) {
+      List<L> list = listenersMap.get(annotation);
+      return list != null && !list.isEmpty();
+   }
+
    protected List<L> getListenerCollectionForAnnotation(Class<? extends Annotation> annotation) {
       List<L> list = listenersMap.get(annotation);
       if (list == null) throw new CacheException("Unknown listener annotation: " + annotation);
@@ -142,9 +159,75 @@ protected List<L> getListenerCollectionForAnnotation(Class<? extends Annotation>
    }
 
    public void removeListener(Object listener) {
-      for (Class<? extends Annotation> annotation :
-            getAllowedMethodAnnotations(testListenerClassValidity(listener.getClass())).keySet())
-         removeListenerInvocation(annotation, listener);
+      // Under the same lock as the creation of the queues, so that an event raised concurrently cannot create a new
+      // queue for a listener that is no longer registered
+      synchronized (asyncQueues) {
+         for (Class<? extends Annotation> annotation :
+               getAllowedMethodAnnotations(testListenerClassValidity(listener.getClass())).keySet())
+            removeListenerInvocation(annotation, listener);
+         // Events already queued are still delivered by the queue's pending task
+         asyncQueues.remove(listener);
+      }
+   }
+
+   /**
+    * @return the event queue of the listener, or {@code null} if the listener has been removed
+    */
+   private AsyncListenerQueue getAsyncQueue(Object target) {
+      AsyncListenerQueue queue = asyncQueues.get(target);
+      if (queue == null) {
+         synchronized (asyncQueues) {
+            queue = asyncQueues.get(target);
+            if (queue == null) {
+               if (!isRegistered(target))
+                  return null;
+               Listener l = testListenerClassValidity(target.getClass());
+               queue = new AsyncListenerQueue(target, asyncProcessor, l.queueSize(), l.overflow());
+               asyncQueues.put(target, queue);
+            }
+         }
+      }
+      return queue;
+   }
+
+   private boolean isRegistered(Object target) {
+      for (List<L> list : listenersMap.values()) {
+         for (L li : list) {
+            if (target.equals(li.getTarget()))
+               return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return the number of events waiting to be delivered to asynchronous listeners
+    */
+   protected long getPendingAsyncEvents() {
+      long pending = 0;
+      for (AsyncListenerQueue queue : asyncQueues.values())
+         pending += queue.size();
+      return pending;
+   }
+
+   /**
+    * @return how long, in milliseconds, the oldest event not yet delivered to an asynchronous listener has waited
+    */
+   protected long getMaxAsyncListenerLag() {
+      long lag = 0;
+      for (AsyncListenerQueue queue : asyncQueues.values())
+         lag = Math.max(lag, queue.lagMillis());
+      return lag;
+   }
+
+   /**
+    * @return the number of events discarded because the queue of an asynchronous listener was full
+    */
+   protected long getDiscardedAsyncEvents() {
+      long discarded = 0;
+      for (AsyncListenerQueue queue : asyncQueues.values())
+         discarded += queue.discarded();
+      return discarded;
    }
 
    protected Set<L> removeListenerInvocation(Class<? extends Annotation> annotation, Object listener) {
@@ -253,62 +336,62 @@ public ListenerInvocationImpl(Object target, Method method, boolean sync, ClassL
 
       @Override
       public void invoke(final A event) {
-         Runnable r = new Runnable() {
-
-            @Override
-            public void run() {
-               ClassLoader contextClassLoader = null;
-               Transaction transaction = suspendIfNeeded();
-               if (classLoader.get() != null) {
-                  contextClassLoader = SecurityActions.setContextClassLoader(classLoader.get());
-               }
+         if (sync) {
+            // Same as running on the within-thread sync processor, without allocating a task per event
+            deliver(event);
+         } else {
+            AsyncListenerQueue queue = getAsyncQueue(target);
+            if (queue != null)
+               queue.enqueue(this, event);
+         }
+      }
+
+      void deliver(final A event) {
+         ClassLoader contextClassLoader = null;
+         Transaction transaction = suspendIfNeeded();
+         if (classLoader.get() != null) {
+            contextClassLoader = SecurityActions.setContextClassLoader(classLoader.get());
+         }
+         try {
+            if (subject != null) {
                try {
-                  if (subject != null) {
-                     try {
-                        Security.doAs(subject, new PrivilegedExceptionAction<Void>() {
-                           @Override
-                           public Void run() throws Exception {
-                              method.invoke(target, event);
-                              return null;
-                           }
-                        });
-                     } catch (PrivilegedActionException e) {
-                        Throwable cause = e.getCause();
-                        if (cause instanceof InvocationTargetException) {
-                           throw (InvocationTargetException)cause;
-                        } else if (cause instanceof IllegalAccessException) {
-                           throw (IllegalAccessException)cause;
-                        } else {
-                           throw new InvocationTargetException(cause);
-                        }
+                  Security.doAs(subject, new PrivilegedExceptionAction<Void>() {
+                     @Override
+                     public Void run() throws Exception {
+                        method.invoke(target, event);
+                        return null;
                      }
+                  });
+               } catch (PrivilegedActionException e) {
+                  Throwable cause = e.getCause();
+                  if (cause instanceof InvocationTargetException) {
+                     throw (InvocationTargetException)cause;
+                  } else if (cause instanceof IllegalAccessException) {
+                     throw (IllegalAccessException)cause;
                   } else {
-                     method.invoke(target, event);
-                  }
-               } catch (InvocationTargetException exception) {
-                  Throwable cause = getRealException(exception);
-                  if (sync) {
-                     throw getLog().exceptionInvokingListener(
-                           cause.getClass().getName(), method, target, cause);
-                  } else {
-                     getLog().unableToInvokeListenerMethod(method, target, cause);
+                     throw new InvocationTargetException(cause);
                   }
-               } catch (IllegalAccessException exception) {
-                  getLog().unableToInvokeListenerMethodAndRemoveListener(method, target, exception);
-                  removeListener(target);
-               } finally {
-                  if (classLoader.get() != null) {
-                     SecurityActions.setContextClassLoader(contextClassLoader);
-                  }
-                  resumeIfNeeded(transaction);
                }
+            } else {
+               method.invoke(target, event);
             }
-         };
-
-         if (sync)
-            syncProcessor.execute(r);
-         else
-            asyncProcessor.execute(r);
+         } catch (InvocationTargetException exception) {
+            Throwable cause = getRealException(exception);
+            if (sync) {
+               throw getLog().exceptionInvokingListener(
+                     cause.getClass().getName(), method, target, cause);
+            } else {
+               getLog().unableToInvokeListenerMethod(method, target, cause);
+            }
+         } catch (IllegalAccessException exception) {
+            getLog().unableToInvokeListenerMethodAndRemoveListener(method, target, exception);
+            removeListener(target);
+         } finally {
+            if (classLoader.get() != null) {
+               SecurityActions.setContextClassLoader(contextClassLoader);
+            }
+            resumeIfNeeded(transaction);
+         }
       }
 
       @Override
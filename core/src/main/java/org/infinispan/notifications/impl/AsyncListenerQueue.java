@@ -0,0 +1,143 @@
+package org.infinispan.notifications.impl;
+
+import org.infinispan.notifications.Listener;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded event queue of a single asynchronous listener.
+ * <p>
+ * Events are delivered in order by at most one task at a time, running on the shared asynchronous notification
+ * executor. A task delivers up to {@link #BATCH_SIZE} events before giving the executor thread back, so that one busy
+ * or slow listener cannot monopolize the executor at the expense of the other listeners.
+ * <p>
+ * With the {@link Listener.OverflowPolicy#BLOCK} policy, a thread that is itself delivering asynchronous events (e.g.
+ * a listener writing to the cache) never waits for space in a full queue: the executor threads could all end up
+ * waiting for each other's queues. The event is delivered by that thread instead, as with
+ * {@link Listener.OverflowPolicy#CALLER_RUNS}.
+ *
+ * @since 8.0
+ */
+final class AsyncListenerQueue implements Runnable {
+
+   private static final Log log = LogFactory.getLog(AsyncListenerQueue.class);
+
+   /**
+    * Set while the current thread delivers events of any queue
+    */
+   private static final ThreadLocal<Boolean> DELIVERING = new ThreadLocal<Boolean>();
+
+   static final int BATCH_SIZE = 64;
+
+   private final Object target;
+   private final Executor executor;
+   private final Listener.OverflowPolicy overflowPolicy;
+   private final BlockingQueue<PendingEvent> queue;
+   private final AtomicBoolean scheduled = new AtomicBoolean();
+   private final AtomicLong discarded = new AtomicLong();
+
+   AsyncListenerQueue(Object target, Executor executor, int capacity, Listener.OverflowPolicy overflowPolicy) {
+      this.target = target;
+      this.executor = executor;
+      this.overflowPolicy = overflowPolicy;
+      this.queue = new LinkedBlockingQueue<PendingEvent>(Math.max(1, capacity));
+   }
+
+   void enqueue(AbstractListenerImpl.ListenerInvocationImpl invocation, Object event) {
+      PendingEvent pending = new PendingEvent(invocation, event, System.nanoTime());
+      if (!queue.offer(pending)) {
+         switch (overflowPolicy) {
+            case DISCARD:
+               if (discarded.getAndIncrement() == 0)
+                  log.listenerQueueFull(target);
+               return;
+            case CALLER_RUNS:
+               pending.deliver();
+               return;
+            default:
+               if (DELIVERING.get() != null) {
+                  pending.deliver();
+                  return;
+               }
+               try {
+                  queue.put(pending);
+               } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  discarded.incrementAndGet();
+                  return;
+               }
+         }
+      }
+      schedule();
+   }
+
+   @Override
+   public void run() {
+      DELIVERING.set(Boolean.TRUE);
+      try {
+         for (int i = 0; i < BATCH_SIZE; i++) {
+            PendingEvent pending = queue.poll();
+            if (pending == null)
+               break;
+            pending.deliver();
+         }
+      } finally {
+         DELIVERING.remove();
+         scheduled.set(false);
+         // Events enqueued while the flag was still set would otherwise wait for the next event to be delivered
+         if (!queue.isEmpty())
+            schedule();
+      }
+   }
+
+   private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+         try {
+            executor.execute(this);
+         } catch (RuntimeException e) {
+            scheduled.set(false);
+            throw e;
+         }
+      }
+   }
+
+   int size() {
+      return queue.size();
+   }
+
+   long discarded() {
+      return discarded.get();
+   }
+
+   /**
+    * @return how long, in milliseconds, the oldest pending event has been waiting to be delivered
+    */
+   long lagMillis() {
+      PendingEvent head = queue.peek();
+      return head == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - head.enqueuedNanos);
+   }
+
+   private static final class PendingEvent {
+      final AbstractListenerImpl.ListenerInvocationImpl invocation;
+      final Object event;
+      final long enqueuedNanos;
+
+      PendingEvent(AbstractListenerImpl.ListenerInvocationImpl invocation, Object event, long enqueuedNanos) {
+         this.invocation = invocation;
+         this.event = event;
+         this.enqueuedNanos = enqueuedNanos;
+      }
+
+      @SuppressWarnings("unchecked")
+      void deliver() {
+         invocation.deliver(event);
+      }
+   }
+}
@@ -19,6 +19,7 @@
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -87,6 +88,19 @@ public static InternalMetadata internalMetadata(InternalCacheValue icv) {
    public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataContainer<K, V> dataContainer, final PersistenceManager persistenceManager,
                                                          K key, final InvocationContext ctx, final TimeService timeService,
                                                          final AtomicReference<Boolean> isLoaded) {
+      return loadAndStoreInDataContainer(dataContainer, persistenceManager, key, ctx, timeService, isLoaded, null);
+   }
+
+   /**
+    * Same as {@link #loadAndStoreInDataContainer(DataContainer, PersistenceManager, Object, InvocationContext,
+    * TimeService, AtomicReference)}, but the entry is taken from the entries already loaded with {@link
+    * PersistenceManager#loadAllFromAllStores(Set, InvocationContext)} if the key was part of that batch.
+    *
+    * @param prefetched the keys of the batch, mapped to their entry or to null if they were not found
+    */
+   public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataContainer<K, V> dataContainer, final PersistenceManager persistenceManager,
+                                                         K key, final InvocationContext ctx, final TimeService timeService,
+                                                         final AtomicReference<Boolean> isLoaded, final Map<Object, MarshalledEntry> prefetched) {
       return dataContainer.compute(key, new DataContainer.ComputeAction<K, V>() {
          @Override
          public InternalCacheEntry<K, V> compute(K key, InternalCacheEntry<K, V> oldEntry,
@@ -97,7 +111,12 @@ public InternalCacheEntry<K, V> compute(K key, InternalCacheEntry<K, V> oldEntry
                return oldEntry; //no changes in container
             }
 
-            MarshalledEntry loaded = loadAndCheckExpiration(persistenceManager, key, ctx, timeService);
+            MarshalledEntry loaded;
+            if (prefetched != null && prefetched.containsKey(key)) {
+               loaded = checkExpiration(prefetched.get(key), timeService);
+            } else {
+               loaded = loadAndCheckExpiration(persistenceManager, key, ctx, timeService);
+            }
             if (loaded == null) {
                isLoaded.set(Boolean.FALSE); //not loaded
                return null; //no changed in container
@@ -117,6 +136,10 @@ public static MarshalledEntry loadAndCheckExpiration(PersistenceManager persiste
       if (log.isTraceEnabled()) {
          log.tracef("Loaded %s for key %s from persistence.", loaded, key);
       }
+      return checkExpiration(loaded, timeService);
+   }
+
+   private static MarshalledEntry checkExpiration(MarshalledEntry loaded, TimeService timeService) {
       if (loaded == null) {
          return null;
       }
@@ -7,6 +7,10 @@
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.support.DelegatingCacheLoader;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -44,6 +48,25 @@ public MarshalledEntry load(Object key) {
       return super.load(key);
    }
 
+   @Override
+   public Map loadAll(Set keys) {
+      Map<Object, MarshalledEntry> entries = new HashMap<>();
+      Set<Object> notQueued = new HashSet<>();
+      State s = state.get();
+      for (Object key : keys) {
+         Modification mod = s.get(key);
+         if (mod == null) {
+            notQueued.add(key);
+         } else if (mod.getType() == Modification.Type.STORE) {
+            entries.put(key, ((Store) mod).getStoredValue());
+         }
+      }
+      if (!notQueued.isEmpty()) {
+         entries.putAll(super.loadAll(notQueued));
+      }
+      return entries;
+   }
+
 
    @Override
    public boolean contains(Object key) {
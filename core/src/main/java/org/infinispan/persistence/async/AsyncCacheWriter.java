@@ -7,6 +7,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.modifications.Modification;
+import org.infinispan.persistence.modifications.ModificationsList;
 import org.infinispan.persistence.modifications.Remove;
 import org.infinispan.persistence.modifications.Store;
 import org.infinispan.commons.util.CollectionFactory;
@@ -147,19 +148,51 @@ public boolean delete(Object key) {
       return true;
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      List<Modification> mods = new ArrayList<Modification>();
+      for (Object o : entries) {
+         MarshalledEntry entry = (MarshalledEntry) o;
+         mods.add(new Store(entry.getKey(), entry));
+      }
+      if (!mods.isEmpty()) {
+         put(new ModificationsList(mods), mods.size());
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      List<Modification> mods = new ArrayList<Modification>();
+      for (Object key : keys) {
+         mods.add(new Remove(key));
+      }
+      if (!mods.isEmpty()) {
+         put(new ModificationsList(mods), mods.size());
+      }
+   }
+
    protected void applyModificationsSync(List<Modification> mods) throws PersistenceException {
+      // there is at most one modification per key, so they can be applied in any order
+      List<MarshalledEntry> stores = new ArrayList<MarshalledEntry>(mods.size());
+      List<Object> removes = new ArrayList<Object>();
       for (Modification m : mods) {
          switch (m.getType()) {
             case STORE:
-               actual.write(((Store) m).getStoredValue());
+               stores.add(((Store) m).getStoredValue());
                break;
             case REMOVE:
-               actual.delete(((Remove) m).getKey());
+               removes.add(((Remove) m).getKey());
                break;
             default:
                throw new IllegalArgumentException("Unknown modification type " + m.getType());
          }
       }
+      if (!removes.isEmpty()) {
+         actual.deleteBatch(removes);
+      }
+      if (!stores.isEmpty()) {
+         actual.writeBatch(stores);
+      }
    }
 
 
@@ -29,9 +29,11 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
@@ -321,53 +323,72 @@ private void free(FileEntry fe) throws IOException {
 
    @Override
    public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
+      resizeLock.readLock().lock();
       try {
-         // serialize cache value
-         org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
-         org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
-         org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
-
-         // allocate file entry and store in cache file
-         int metadataLength = metadata == null ? 0 : metadata.getLength();
-         int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
-         FileEntry newEntry;
-         FileEntry oldEntry = null;
-         resizeLock.readLock().lock();
-         try {
-            newEntry = allocate(len);
-            long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
-            newEntry = new FileEntry(newEntry, key.getLength(), data.getLength(), metadataLength, expiryTime);
-
-            ByteBuffer buf = ByteBuffer.allocate(len);
-            buf.putInt(newEntry.size);
-            buf.putInt(newEntry.keyLen);
-            buf.putInt(newEntry.dataLen);
-            buf.putInt(newEntry.metadataLen);
-            buf.putLong(newEntry.expiryTime);
-            buf.put(key.getBuf(), key.getOffset(), key.getLength());
-            buf.put(data.getBuf(), data.getOffset(), data.getLength());
-            if (metadata != null)
-               buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
-            buf.flip();
-            channel.write(buf, newEntry.offset);
-            if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
-
-            // add the new entry to in-memory index
-            oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
-
-            // if we added an entry, check if we need to evict something
-            if (oldEntry == null)
-               oldEntry = evict();
-         } finally {
-            // in case we replaced or evicted an entry, add to freeList
-            try {
-               free(oldEntry);
-            } finally {
-               resizeLock.readLock().unlock();
-            }
+         writeEntry(marshalledEntry);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marshalledEntries) {
+      resizeLock.readLock().lock();
+      try {
+         for (MarshalledEntry<? extends K, ? extends V> marshalledEntry : marshalledEntries) {
+            writeEntry(marshalledEntry);
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    */
+   private void writeEntry(MarshalledEntry<? extends K, ? extends V> marshalledEntry) throws IOException {
+      // serialize cache value
+      org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
+      org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
+      org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+
+      // allocate file entry and store in cache file
+      int metadataLength = metadata == null ? 0 : metadata.getLength();
+      int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
+      FileEntry newEntry;
+      FileEntry oldEntry = null;
+      try {
+         newEntry = allocate(len);
+         long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
+         newEntry = new FileEntry(newEntry, key.getLength(), data.getLength(), metadataLength, expiryTime);
+
+         ByteBuffer buf = ByteBuffer.allocate(len);
+         buf.putInt(newEntry.size);
+         buf.putInt(newEntry.keyLen);
+         buf.putInt(newEntry.dataLen);
+         buf.putInt(newEntry.metadataLen);
+         buf.putLong(newEntry.expiryTime);
+         buf.put(key.getBuf(), key.getOffset(), key.getLength());
+         buf.put(data.getBuf(), data.getOffset(), data.getLength());
+         if (metadata != null)
+            buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
+         buf.flip();
+         channel.write(buf, newEntry.offset);
+         if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
+
+         // add the new entry to in-memory index
+         oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
+
+         // if we added an entry, check if we need to evict something
+         if (oldEntry == null)
+            oldEntry = evict();
+      } finally {
+         // in case we replaced or evicted an entry, add to freeList
+         free(oldEntry);
       }
    }
 
@@ -434,11 +455,104 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      resizeLock.readLock().lock();
+      try {
+         for (Object key : keys) {
+            free(entries.remove(key));
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
    @Override
    public MarshalledEntry<K, V> load(Object key) {
       return _load(key, true, true);
    }
 
+   /**
+    * Looks up all the file entries first and then reads them in the order they are stored in the file, so that a
+    * batch of keys is loaded with (mostly) sequential reads.
+    */
+   @Override
+   public Map<Object, MarshalledEntry<K, V>> loadAll(Set<?> keys) {
+      List<KeyValuePair<Object, FileEntry>> toLoad = new ArrayList<>(keys.size());
+      List<FileEntry> expired = null;
+      resizeLock.readLock().lock();
+      try {
+         long now = timeService.wallClockTime();
+         synchronized (entries) {
+            for (Object key : keys) {
+               FileEntry fe = entries.get(key);
+               if (fe == null)
+                  continue;
+               if (fe.isExpired(now)) {
+                  entries.remove(key);
+                  if (expired == null)
+                     expired = new ArrayList<>();
+                  expired.add(fe);
+               } else {
+                  fe.lock();
+                  toLoad.add(new KeyValuePair<Object, FileEntry>(key, fe));
+               }
+            }
+         }
+         if (expired != null) {
+            for (FileEntry fe : expired)
+               free(fe);
+         }
+      } catch (IOException e) {
+         for (KeyValuePair<Object, FileEntry> kvp : toLoad)
+            kvp.getValue().unlock();
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+
+      Collections.sort(toLoad, new Comparator<KeyValuePair<Object, FileEntry>>() {
+         @Override
+         public int compare(KeyValuePair<Object, FileEntry> o1, KeyValuePair<Object, FileEntry> o2) {
+            return Long.compare(o1.getValue().offset, o2.getValue().offset);
+         }
+      });
+      Map<Object, MarshalledEntry<K, V>> result = new HashMap<>(toLoad.size());
+      int i = 0;
+      try {
+         for (; i < toLoad.size(); i++) {
+            KeyValuePair<Object, FileEntry> kvp = toLoad.get(i);
+            FileEntry fe = kvp.getValue();
+            byte[] data = new byte[fe.keyLen + fe.dataLen + fe.metadataLen];
+            try {
+               channel.read(ByteBuffer.wrap(data), fe.offset + KEY_POS);
+            } finally {
+               fe.unlock();
+            }
+            if (trace) log.tracef("Read entry %s at %d:%d", kvp.getKey(), fe.offset, fe.actualSize());
+            result.put(kvp.getKey(), newMarshalledEntry(data, fe));
+         }
+      } catch (Exception e) {
+         for (i++; i < toLoad.size(); i++)
+            toLoad.get(i).getValue().unlock();
+         throw new PersistenceException(e);
+      }
+      return result;
+   }
+
+   private MarshalledEntry<K, V> newMarshalledEntry(byte[] data, FileEntry fe) {
+      ByteBufferFactory factory = ctx.getByteBufferFactory();
+      org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(data, 0, fe.keyLen);
+      org.infinispan.commons.io.ByteBuffer valueBb = factory.newByteBuffer(data, fe.keyLen, fe.dataLen);
+      org.infinispan.commons.io.ByteBuffer metadataBb = null;
+      if (fe.metadataLen > 0) {
+         metadataBb = factory.newByteBuffer(data, fe.keyLen + fe.dataLen, fe.metadataLen);
+      }
+      return ctx.getMarshalledEntryFactory().newMarshalledEntry(keyBb, valueBb, metadataBb);
+   }
+
    private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
       final FileEntry fe;
       final boolean expired;
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.manager;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
@@ -56,8 +57,28 @@ public interface PersistenceManager extends Lifecycle {
 
    MarshalledEntry loadFromAllStores(Object key, InvocationContext context);
 
+   /**
+    * Loads the entries of several keys with a single {@link org.infinispan.persistence.spi.CacheLoader#loadAll(Set)}
+    * per store. Each store is only asked for the keys not found by the stores before it.
+    *
+    * @return the entries found, mapped by their key
+    */
+   Map<Object, MarshalledEntry> loadAllFromAllStores(Set<?> keys, InvocationContext context);
+
    void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes);
 
+   /**
+    * Writes the entries to the stores with a single {@link org.infinispan.persistence.spi.CacheWriter#writeBatch(Iterable)}
+    * per store.
+    */
+   void writeBatchToAllStores(Iterable<MarshalledEntry> marshalledEntries, AccessMode modes);
+
+   /**
+    * Deletes the keys from the stores with a single {@link org.infinispan.persistence.spi.CacheWriter#deleteBatch(Iterable)}
+    * per store.
+    */
+   void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode modes);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
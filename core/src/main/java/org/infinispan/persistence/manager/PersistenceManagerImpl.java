@@ -9,6 +9,7 @@
 import org.infinispan.configuration.cache.EvictionConfigurationBuilder;
 import org.infinispan.configuration.cache.Index;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
@@ -23,11 +24,17 @@
 import org.infinispan.interceptors.CacheWriterInterceptor;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.metadata.InternalMetadata;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
 import org.infinispan.persistence.InitializationContextImpl;
 import org.infinispan.persistence.async.AdvancedAsyncCacheLoader;
 import org.infinispan.persistence.async.AdvancedAsyncCacheWriter;
@@ -57,7 +64,7 @@
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -68,6 +75,7 @@
 import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
 
+@MBean(objectName = "Persistence", description = "Component that manages the cache loaders and stores of the cache.")
 public class PersistenceManagerImpl implements PersistenceManager {
 
    private static final Log log = LogFactory.getLog(PersistenceManagerImpl.class);
@@ -94,6 +102,8 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private ByteBufferFactory byteBufferFactory;
    private MarshalledEntryFactory marshalledEntryFactory;
    private volatile boolean clearOnStop;
+   private final AtomicLong preloadedEntries = new AtomicLong(0);
+   private volatile boolean preloading;
 
    @Inject
    public void inject(AdvancedCache<Object, Object> cache, @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
@@ -219,15 +229,72 @@ public void preload() {
          return;
 
       long start = timeService.time();
+      preloadedEntries.set(0);
+      preloading = true;
+      try {
+         if (canPreloadDirectly()) {
+            preloadDirectly(preloadCl);
+         } else {
+            preloadThroughInterceptors(preloadCl);
+         }
+      } finally {
+         preloading = false;
+      }
 
+      log.debugf("Preloaded %s keys in %s", getNumberOfPreloadedEntries(), Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   }
+
+   /**
+    * The entries can be inserted straight into the data container when none of the interceptors would change how
+    * they are stored, i.e. when they don't need to be indexed or wrapped, and when nobody expects to see them being
+    * written: there are no custom interceptors and no listeners for created entries.
+    */
+   private boolean canPreloadDirectly() {
+      if (configuration.storeAsBinary().enabled())
+         return false;
+      if (configuration.indexing().index().isEnabled() && !skipIndexingOnStateInsertion())
+         return false;
+      if (!configuration.customInterceptors().interceptors().isEmpty())
+         return false;
+      // looked up here, like the data container, to avoid a dependency cycle
+      CacheNotifier notifier = cache.getComponentRegistry().getComponent(CacheNotifier.class);
+      return notifier == null || !notifier.hasListener(CacheEntryCreated.class);
+   }
 
+   /**
+    * Inserts the entries directly into the data container, without creating a command for each of them. The loader
+    * processes its entries in parallel using the persistence executor. Entries that already expired are skipped.
+    */
+   private void preloadDirectly(AdvancedCacheLoader preloadCl) {
+      final long maxEntries = getMaxEntries();
+      // looked up here as the data container depends on this component
+      final DataContainer<Object, Object> dataContainer = cache.getAdvancedCache().getDataContainer();
+      preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
+         @Override
+         public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+            InternalMetadata internalMetadata = me.getMetadata();
+            Metadata metadata = null;
+            if (internalMetadata != null) {
+               if (internalMetadata.isExpired(timeService.wallClockTime()))
+                  return;
+               metadata = ((InternalMetadataImpl) internalMetadata).actual(); //the downcast will go away with ISPN-3460
+            }
+            if (preloadedEntries.getAndIncrement() >= maxEntries) {
+               taskContext.stop();
+               return;
+            }
+            dataContainer.put(me.getKey(), me.getValue(), metadata);
+         }
+      }, persistenceExecutor, true, true);
+   }
+
+   private void preloadThroughInterceptors(AdvancedCacheLoader preloadCl) {
       final long maxEntries = getMaxEntries();
-      final AtomicInteger loadedEntries = new AtomicInteger(0);
       final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
       preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
          @Override
          public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-            if (loadedEntries.getAndIncrement() >= maxEntries) {
+            if (preloadedEntries.getAndIncrement() >= maxEntries) {
                taskContext.stop();
                return;
             }
@@ -235,8 +302,20 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
             preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
          }
       }, new WithinThreadExecutor(), true, true);
+   }
+
+   @ManagedAttribute(description = "Number of entries loaded from the store by the last preload (or by the one in progress)",
+         displayName = "Number of preloaded entries", measurementType = MeasurementType.TRENDSUP)
+   public long getNumberOfPreloadedEntries() {
+      long preloaded = preloadedEntries.get();
+      long maxEntries = getMaxEntries();
+      return preloaded > maxEntries ? maxEntries : preloaded;
+   }
 
-      log.debugf("Preloaded %s keys in %s", loadedEntries, Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   @ManagedAttribute(description = "Whether the entries of the store are currently being preloaded",
+         displayName = "Preload in progress", dataType = DataType.TRAIT)
+   public boolean isPreloadInProgress() {
+      return preloading;
    }
 
    @Override
@@ -444,6 +523,32 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
       }
    }
 
+   @Override
+   public Map<Object, MarshalledEntry> loadAllFromAllStores(Set<?> keys, InvocationContext context) {
+      storesMutex.readLock().lock();
+      try {
+         Map<Object, MarshalledEntry> entries = new HashMap<>();
+         Set<?> remaining = keys;
+         for (CacheLoader l : loaders) {
+            if (!context.isOriginLocal() && isLocalOnlyLoader(l))
+               continue;
+
+            Map<Object, MarshalledEntry> loaded = l.loadAll(remaining);
+            if (!loaded.isEmpty()) {
+               entries.putAll(loaded);
+               if (entries.size() == keys.size())
+                  break;
+               Set<Object> notFound = new HashSet<>(remaining);
+               notFound.removeAll(loaded.keySet());
+               remaining = notFound;
+            }
+         }
+         return entries;
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    private boolean isLocalOnlyLoader(CacheLoader loader) {
       if (loader instanceof LocalOnlyCacheLoader) return true;
       if (loader instanceof DelegatingCacheLoader) {
@@ -468,6 +573,34 @@ public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode mode) {
       }
    }
 
+   @Override
+   public void writeBatchToAllStores(Iterable<MarshalledEntry> marshalledEntries, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               w.writeBatch(marshalledEntries);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               w.deleteBatch(keys);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       storesMutex.readLock().lock();
@@ -617,6 +750,14 @@ private AdvancedCache<Object, Object> getCacheForStateInsertion() {
       List<Flag> flags = new ArrayList<Flag>(Arrays.asList(
             CACHE_MODE_LOCAL, SKIP_OWNERSHIP_CHECK, IGNORE_RETURN_VALUES, SKIP_CACHE_STORE, SKIP_LOCKING));
 
+      if (skipIndexingOnStateInsertion())
+         flags.add(SKIP_INDEXING);
+
+      return cache.getAdvancedCache()
+            .withFlags(flags.toArray(new Flag[flags.size()]));
+   }
+
+   private boolean skipIndexingOnStateInsertion() {
       boolean hasShared = false;
       for (CacheWriter w : writers) {
          if (configMap.get(w).shared()) {
@@ -624,16 +765,7 @@ private AdvancedCache<Object, Object> getCacheForStateInsertion() {
             break;
          }
       }
-
-      if (hasShared) {
-         if (indexShareable())
-            flags.add(SKIP_INDEXING);
-      } else {
-         flags.add(SKIP_INDEXING);
-      }
-
-      return cache.getAdvancedCache()
-            .withFlags(flags.toArray(new Flag[flags.size()]));
+      return !hasShared || indexShareable();
    }
 
    private boolean localIndexingEnabled() {
@@ -5,6 +5,10 @@
 import org.infinispan.commons.api.Lifecycle;
 import org.infinispan.marshall.core.MarshalledEntry;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Defines the logic for loading data from an external storage. The writing of data is optional and coordinated through
  * a {@link CacheWriter}.
@@ -33,6 +37,24 @@
     */
    MarshalledEntry<K, V> load(Object key);
 
+   /**
+    * Fetches the entries of several keys from the storage. Implementations should override this to load the entries
+    * with a single batch read when the storage allows it. The default implementation loads the entries one by one.
+    *
+    * @return the entries found, mapped by their key; the keys that do not exist in the storage are not present
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   default Map<Object, MarshalledEntry<K, V>> loadAll(Set<?> keys) {
+      Map<Object, MarshalledEntry<K, V>> entries = new HashMap<>();
+      for (Object key : keys) {
+         MarshalledEntry<K, V> entry = load(key);
+         if (entry != null) {
+            entries.put(key, entry);
+         }
+      }
+      return entries;
+   }
+
    /**
     * Returns true if the storage contains an entry associated with the given key.
     *
@@ -35,4 +35,30 @@
     * @throws PersistenceException in case of an error, e.g. communicating with the external storage
     */
    boolean delete(Object key);
+
+   /**
+    * Persists all the entries to the storage. Implementations should override this to write the entries as a single
+    * batch (e.g. a single transaction, file write or remote call) when the storage allows it. The default
+    * implementation writes the entries one by one.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   default void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+         write(entry);
+      }
+   }
+
+   /**
+    * Removes all the entries associated with the keys from the storage. Implementations should override this to delete
+    * the entries as a single batch when the storage allows it. The default implementation deletes the entries one by
+    * one.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   default void deleteBatch(Iterable<Object> keys) {
+      for (Object key : keys) {
+         delete(key);
+      }
+   }
 }
@@ -0,0 +1,33 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.marshall.core.MarshalledEntry;
+
+/**
+ * A specialised extension of the {@link AdvancedCacheLoader} interface for stores that keep their entries ordered by
+ * the serialized form of the keys, allowing range scans without iterating over the whole store.
+ * <p/>
+ * The keys are serialized with the marshaller of the store ({@link InitializationContext#getMarshaller()}) and
+ * compared as unsigned bytes, lexicographically. Whether this order matches the natural order of the keys depends on
+ * their serialized form: e.g. it does for keys with a fixed-length big-endian encoding of non-negative numbers.
+ *
+ * @since 8.0
+ */
+@ThreadSafe
+public interface OrderedCacheLoader<K, V> extends AdvancedCacheLoader<K, V> {
+
+   /**
+    * Iterates over the entries whose serialized key falls in [<b>from</b>, <b>to</b>), in the order of the serialized
+    * keys, invoking {@link CacheLoaderTask#processEntry(MarshalledEntry, TaskContext)} in the calling thread for each
+    * entry that passes the <b>filter</b>. Expired entries are skipped. The {@link CacheLoaderTask} might invoke
+    * {@link org.infinispan.persistence.spi.AdvancedCacheLoader.TaskContext#stop()} at any time to end the iteration.
+    *
+    * @param from   the inclusive lower bound of the serialized keys, or null for no lower bound
+    * @param to     the exclusive upper bound of the serialized keys, or null for no upper bound
+    * @param filter to validate which entries should be feed into the task. Might be null.
+    * @param task   callback to be invoked for each stored entry in the range that passes the filter check
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void processRange(byte[] from, byte[] to, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task);
+}
@@ -29,6 +29,7 @@ public Object objectFromBuffer(byte[] buf, int offset, int length) throws Except
    }
 
    private Buffer toBuffer(ByteBuffer bb) {
+      // The marshaller may hand over a larger scratch array, only the given range is sent
       return new Buffer(bb.getBuf(), bb.getOffset(), bb.getLength());
    }
 }
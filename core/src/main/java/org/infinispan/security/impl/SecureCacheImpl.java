@@ -5,6 +5,8 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import javax.transaction.TransactionManager;
 import javax.transaction.xa.XAResource;
@@ -280,6 +282,30 @@ public V replace(K key, V value) {
       return delegate.replace(key, value);
    }
 
+   @Override
+   public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.compute(key, remappingFunction);
+   }
+
+   @Override
+   public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.computeIfPresent(key, remappingFunction);
+   }
+
+   @Override
+   public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.computeIfAbsent(key, mappingFunction);
+   }
+
+   @Override
+   public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.merge(key, value, remappingFunction);
+   }
+
    @Override
    public EvictionManager getEvictionManager() {
       authzManager.checkPermission(AuthorizationPermission.ADMIN);
@@ -651,6 +677,30 @@ public NotifyingFuture<V> putAsync(K key, V value, Metadata metadata) {
       return delegate.putAsync(key, value, metadata);
    }
 
+   @Override
+   public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction, Metadata metadata) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.compute(key, remappingFunction, metadata);
+   }
+
+   @Override
+   public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction, Metadata metadata) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.computeIfPresent(key, remappingFunction, metadata);
+   }
+
+   @Override
+   public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction, Metadata metadata) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.computeIfAbsent(key, mappingFunction, metadata);
+   }
+
+   @Override
+   public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction, Metadata metadata) {
+      authzManager.checkPermission(AuthorizationPermission.WRITE);
+      return delegate.merge(key, value, remappingFunction, metadata);
+   }
+
    @Override
    public CacheEntry getCacheEntry(K key) {
       authzManager.checkPermission(AuthorizationPermission.READ);
@@ -124,6 +124,27 @@ public final void commit(final CacheEntry entry, final Metadata metadata, final
       });
    }
 
+   /**
+    * It removes a stale entry from the data container, unless a normal operation has updated it since the tracking of
+    * the state transfer started. Unlike the entries received by state transfer, which are simply overwritten, stale
+    * entries have to be removed explicitly as the state transfer does not know about them.
+    *
+    * @param key the key of the stale entry
+    * @return {@code true} if the entry was removed, {@code false} otherwise.
+    */
+   public final boolean removeStale(Object key) {
+      boolean[] removed = new boolean[1];
+      tracker.compute(key, (o, discardPolicy) -> {
+         if (discardPolicy == null || !discardPolicy.ignore(Flag.PUT_FOR_STATE_TRANSFER)) {
+            removed[0] = dataContainer.remove(key) != null;
+         } else if (trace) {
+            log.tracef("Not removing key=%s. It was already overwritten! Discard policy=%s", key, discardPolicy);
+         }
+         return discardPolicy;
+      });
+      return removed[0];
+   }
+
    /**
     * @return {@code true} if the flag is being tracked, {@code false} otherwise.
     */
@@ -11,6 +11,7 @@
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.DataContainerSnapshot;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -121,6 +122,7 @@ public class StateConsumerImpl implements StateConsumer {
    private boolean isTotalOrder;
    private volatile KeyInvalidationListener keyInvalidationListener; //for test purpose only!
    private CommitManager commitManager;
+   private DataContainerSnapshot dataContainerSnapshot;
    private ExecutorService stateTransferExecutor;
 
    private volatile CacheTopology cacheTopology;
@@ -197,7 +199,7 @@ public void init(Cache cache,
                     CacheNotifier cacheNotifier,
                     TotalOrderManager totalOrderManager,
                     @ComponentName(KnownComponentNames.REMOTE_COMMAND_EXECUTOR) BlockingTaskAwareExecutorService remoteCommandsExecutor,
-                    L1Manager l1Manager, CommitManager commitManager) {
+                    L1Manager l1Manager, CommitManager commitManager, DataContainerSnapshot dataContainerSnapshot) {
       this.cache = cache;
       this.asyncTransportExecutor = asyncTransportExecutor;
       this.cacheName = cache.getName();
@@ -218,6 +220,7 @@ public void init(Cache cache,
       this.remoteCommandsExecutor = remoteCommandsExecutor;
       this.l1Manager = l1Manager;
       this.commitManager = commitManager;
+      this.dataContainerSnapshot = dataContainerSnapshot;
 
       isInvalidationMode = configuration.clustering().cacheMode().isInvalidation();
 
@@ -437,6 +440,12 @@ public void run() {
                throw new CacheException(e);
             }
          }
+
+         // The restored segments that were not compared with another owner during the join are either no longer
+         // owned, and were just removed, or had no other owner to be compared with
+         if (isMember && cacheTopology.getPendingCH() == null) {
+            dataContainerSnapshot.forgetAllSegments();
+         }
       }
    }
 
@@ -855,11 +864,97 @@ private void requestSegments(Set<Integer> segments, Map<Address, Set<Integer>> s
          findSources(segments, sources, excludedSources);
       }
 
+      skipUnchangedRestoredSegments(sources);
+
+      for (Map.Entry<Address, Set<Integer>> e : sources.entrySet()) {
+         Set<Integer> segmentsFromSource = e.getValue();
+         if (!segmentsFromSource.isEmpty()) {
+            addTransfer(e.getKey(), segmentsFromSource);
+         }
+      }
+   }
+
+   /**
+    * Compares the segments restored from the data container snapshot with the copies of their sources, and removes
+    * from the segments of each source those that did not change while this node was down, as they don't need to be
+    * transferred. The local digests are computed once, in a single pass over the data container, whatever the number
+    * of sources. The restored entries of the other segments are removed, unless they were already updated, because the
+    * state transfer would overwrite them but not remove the keys that were removed in the meantime.
+    */
+   private void skipUnchangedRestoredSegments(Map<Address, Set<Integer>> sources) {
+      Set<Integer> restoredSegments = new HashSet<Integer>(dataContainerSnapshot.getRestoredSegments());
+      if (restoredSegments.isEmpty())
+         return;
+      Set<Integer> requestedSegments = new HashSet<Integer>();
+      for (Set<Integer> segmentsFromSource : sources.values()) {
+         requestedSegments.addAll(segmentsFromSource);
+      }
+      restoredSegments.retainAll(requestedSegments);
+      if (restoredSegments.isEmpty())
+         return;
+      // each restored segment is only compared once, even if the transfer has to be retried
+      dataContainerSnapshot.forgetSegments(restoredSegments);
+
+      final ConsistentHash readCh = cacheTopology.getReadConsistentHash();
+      Map<Integer, Long> localDigests;
+      try {
+         localDigests = dataContainerSnapshot.computeDigests(readCh, restoredSegments);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+
+      final Set<Integer> changedSegments = new HashSet<Integer>(restoredSegments);
       for (Map.Entry<Address, Set<Integer>> e : sources.entrySet()) {
-         addTransfer(e.getKey(), e.getValue());
+         Set<Integer> segmentsFromSource = e.getValue();
+         Set<Integer> unchangedSegments = findUnchangedSegments(e.getKey(), segmentsFromSource, restoredSegments, localDigests);
+         segmentsFromSource.removeAll(unchangedSegments);
+         changedSegments.removeAll(unchangedSegments);
+      }
+      if (changedSegments.isEmpty())
+         return;
+      try {
+         dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (key, ice) -> {
+            if (changedSegments.contains(readCh.getSegment(key)) && commitManager.removeStale(key)) {
+               persistenceManager.deleteFromAllStores(key, PRIVATE);
+            }
+         });
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
       }
    }
 
+   /**
+    * @return the restored segments requested from {@code source} whose digest on the source matches the local one
+    */
+   private Set<Integer> findUnchangedSegments(Address source, Set<Integer> segmentsFromSource, Set<Integer> restoredSegments,
+                                              Map<Integer, Long> localDigests) {
+      Set<Integer> comparedSegments = new HashSet<Integer>(restoredSegments);
+      comparedSegments.retainAll(segmentsFromSource);
+      Set<Integer> unchangedSegments = new HashSet<Integer>();
+      if (comparedSegments.isEmpty())
+         return unchangedSegments;
+      try {
+         StateRequestCommand cmd = commandsFactory.buildStateRequestCommand(StateRequestCommand.Type.GET_SEGMENT_DIGESTS,
+               rpcManager.getAddress(), cacheTopology.getTopologyId(), comparedSegments);
+         Map<Address, Response> responses = rpcManager.invokeRemotely(Collections.singleton(source), cmd, rpcOptions);
+         Response response = responses.get(source);
+         if (response instanceof SuccessfulResponse && ((SuccessfulResponse) response).getResponseValue() != null) {
+            Map<Integer, Long> sourceDigests = (Map<Integer, Long>) ((SuccessfulResponse) response).getResponseValue();
+            for (Integer segmentId : comparedSegments) {
+               Long digest = sourceDigests.get(segmentId);
+               if (digest != null && digest.equals(localDigests.get(segmentId))) {
+                  unchangedSegments.add(segmentId);
+               }
+            }
+         }
+      } catch (Exception e) {
+         log.debugf(e, "Unable to compare the restored segments %s of cache %s with node %s", comparedSegments, cacheName, source);
+      }
+      log.debugf("Restored segments %s of cache %s are identical on node %s and won't be transferred", unchangedSegments, cacheName, source);
+      return unchangedSegments;
+   }
 
    private void retryTransferTask(InboundTransferTask task) {
       if (trace) log.tracef("Retrying failed task: %s", task);
@@ -8,6 +8,7 @@
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -63,6 +64,19 @@ public interface StateProvider {
     */
    void cancelOutboundTransfer(Address destination, int topologyId, Set<Integer> segments);
 
+   /**
+    * Computes a digest of the entries of each of the given segments, so the requester can skip the transfer of the
+    * segments it already holds. This is invoked in response to a StateRequestCommand of type
+    * StateRequestCommand.Type.GET_SEGMENT_DIGESTS.
+    *
+    * @param destination the address of the requester
+    * @param topologyId
+    * @param segments
+    * @return the digest of each segment, or null if the data container does not hold all the entries of the segments
+    * @see org.infinispan.container.DataContainerSnapshot#computeDigests
+    */
+   Map<Integer, Long> getSegmentDigests(Address destination, int topologyId, Set<Integer> segments) throws InterruptedException;
+
    void start();
 
    /**
@@ -5,6 +5,7 @@
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.DataContainerSnapshot;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.distexec.DistributedCallable;
 import org.infinispan.distribution.ch.ConsistentHash;
@@ -53,6 +54,7 @@ public class StateProviderImpl implements StateProvider {
    private ExecutorService executorService;
    private StateTransferLock stateTransferLock;
    private InternalEntryFactory entryFactory;
+   private DataContainerSnapshot dataContainerSnapshot;
    private long timeout;
    private int chunkSize;
 
@@ -78,7 +80,8 @@ public void init(Cache cache,
                     DataContainer dataContainer,
                     TransactionTable transactionTable,
                     StateTransferLock stateTransferLock,
-                    StateConsumer stateConsumer, InternalEntryFactory entryFactory) {
+                    StateConsumer stateConsumer, InternalEntryFactory entryFactory,
+                    DataContainerSnapshot dataContainerSnapshot) {
       this.cacheName = cache.getName();
       this.executorService = executorService;
       this.configuration = configuration;
@@ -91,6 +94,7 @@ public void init(Cache cache,
       this.stateTransferLock = stateTransferLock;
       this.stateConsumer = stateConsumer;
       this.entryFactory = entryFactory;
+      this.dataContainerSnapshot = dataContainerSnapshot;
 
       timeout = configuration.clustering().stateTransfer().timeout();
 
@@ -316,6 +320,24 @@ public void cancelOutboundTransfer(Address destination, int topologyId, Set<Inte
       }
    }
 
+   @Override
+   public Map<Integer, Long> getSegmentDigests(Address destination, int requestTopologyId, Set<Integer> segments) throws InterruptedException {
+      if (trace) {
+         log.tracef("Received request for digests from node %s for segments %s of cache %s with topology id %d", destination, segments, cacheName, requestTopologyId);
+      }
+
+      final CacheTopology cacheTopology = getCacheTopology(requestTopologyId, destination, false);
+      final ConsistentHash readCh = cacheTopology.getReadConsistentHash();
+
+      // the entries that were evicted, or that were not preloaded, would be missing from the digests
+      boolean holdsAllEntries = !configuration.eviction().strategy().isEnabled()
+            && (!configuration.persistence().usingStores() || configuration.persistence().preload());
+      if (!holdsAllEntries || !readCh.getSegmentsForOwner(rpcManager.getAddress()).containsAll(segments)) {
+         return null;
+      }
+      return dataContainerSnapshot.computeDigests(readCh, segments);
+   }
+
    private void removeTransfer(OutboundTransferTask transferTask) {
       synchronized (transfersByDestination) {
          List<OutboundTransferTask> transferTasks = transfersByDestination.get(transferTask.getDestination());
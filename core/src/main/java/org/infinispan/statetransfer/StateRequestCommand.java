@@ -11,7 +11,8 @@
 import java.util.Set;
 
 /**
- * This command is used by a StateConsumer to request transactions and cache entries from a StateProvider.
+ * This command is used by a StateConsumer to request transactions, cache entries and segment digests from a
+ * StateProvider.
  *
  * @author anistor@redhat.com
  * @since 5.2
@@ -24,7 +25,8 @@ public enum Type {
       GET_TRANSACTIONS,
       GET_CACHE_LISTENERS,
       START_STATE_TRANSFER,
-      CANCEL_STATE_TRANSFER
+      CANCEL_STATE_TRANSFER,
+      GET_SEGMENT_DIGESTS
    }
 
    public static final byte COMMAND_ID = 15;
@@ -78,6 +80,10 @@ public Object perform(InvocationContext ctx) throws Throwable {
 
             case GET_CACHE_LISTENERS:
                return stateProvider.getClusterListenersToInstall();
+
+            case GET_SEGMENT_DIGESTS:
+               return stateProvider.getSegmentDigests(getOrigin(), topologyId, segments);
+
             default:
                throw new CacheException("Unknown state request command type: " + type);
          }
@@ -15,10 +15,10 @@
 import org.infinispan.util.logging.LogFactory;
 
 import javax.transaction.Transaction;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,6 +33,7 @@ public abstract class LocalTransaction extends AbstractCacheTransaction {
 
    private static final Log log = LogFactory.getLog(LocalTransaction.class);
    private static final boolean trace = log.isTraceEnabled();
+   private static final int INITIAL_MODIFICATIONS_CAPACITY = 4;
 
    private Set<Address> remoteLockedNodes;
    private Set<Object> readKeys = null;
@@ -57,7 +58,8 @@ public final void addModification(WriteCommand mod) {
       if (trace) log.tracef("Adding modification %s. Mod list is %s", mod, modifications);
       if (modifications == null) {
          // we need to synchronize this collection to be able to get a valid snapshot from another thread during state transfer
-         modifications = Collections.synchronizedList(new LinkedList<WriteCommand>());
+         // most transactions are short, so start small instead of allocating a node per modification
+         modifications = Collections.synchronizedList(new ArrayList<WriteCommand>(INITIAL_MODIFICATIONS_CAPACITY));
       }
       if (mod.hasFlag(Flag.CACHE_MODE_LOCAL)) {
          hasLocalOnlyModifications = true;
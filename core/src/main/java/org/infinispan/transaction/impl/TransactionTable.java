@@ -46,11 +46,12 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -419,10 +420,9 @@ public boolean removeLocalTransaction(LocalTransaction localTransaction) {
    }
 
    protected final LocalTransaction removeLocalTransactionInternal(Transaction tx) {
-      LocalTransaction localTx = localTransactions.get(tx);
+      LocalTransaction localTx = localTransactions.remove(tx);
       if (localTx != null) {
          globalToLocalTransactions.remove(localTx.getGlobalTransaction());
-         localTransactions.remove(tx);
          releaseResources(localTx);
       }
       return localTx;
@@ -637,6 +637,8 @@ public CompletedTransactionStatus getCompletedTransactionStatus(GlobalTransactio
 
    private class CompletedTransactionsInfo {
       final EquivalentConcurrentHashMapV8<GlobalTransaction, CompletedTransactionInfo> completedTransactions;
+      // The completed transactions in the order they were marked, so that pruning only visits the expired ones
+      final Queue<CompletedTransactionInfo> completionOrder;
       // The highest transaction id previously cleared, one per originator
       final EquivalentConcurrentHashMapV8<Address, Long> nodeMaxPrunedTxIds;
       // The highest transaction id previously cleared, with any originator
@@ -645,6 +647,7 @@ private class CompletedTransactionsInfo {
       public CompletedTransactionsInfo() {
          nodeMaxPrunedTxIds = new EquivalentConcurrentHashMapV8<>(AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
          completedTransactions = new EquivalentConcurrentHashMapV8<>(AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
+         completionOrder = new ConcurrentLinkedQueue<>();
          globalMaxPrunedTxId = -1;
       }
 
@@ -656,7 +659,9 @@ public CompletedTransactionsInfo() {
        */
       public void markTransactionCompleted(GlobalTransaction globalTx, boolean successful) {
          if (trace) log.tracef("Marking transaction %s as completed", globalTx);
-         completedTransactions.put(globalTx, new CompletedTransactionInfo(timeService.time(), successful));
+         CompletedTransactionInfo completedTx = new CompletedTransactionInfo(globalTx, timeService.time(), successful);
+         completedTransactions.put(globalTx, completedTx);
+         completionOrder.add(completedTx);
       }
 
       /**
@@ -704,7 +709,7 @@ public CompletedTransactionStatus getTransactionStatus(GlobalTransaction gtx) {
       }
 
       public void cleanupCompletedTransactions() {
-         if (completedTransactions.isEmpty())
+         if (completionOrder.isEmpty())
             return;
 
          try {
@@ -721,36 +726,37 @@ public void cleanupCompletedTransactions() {
                }
             }
 
-            // Remove stale completed transactions.
-            Iterator<Map.Entry<GlobalTransaction, CompletedTransactionInfo>> txIterator = completedTransactions.entrySet().iterator();
-            while (txIterator.hasNext()) {
-               Map.Entry<GlobalTransaction, CompletedTransactionInfo> e = txIterator.next();
-               CompletedTransactionInfo completedTx = e.getValue();
-               if (minCompleteTimestamp - completedTx.timestamp > 0) {
+            // Remove stale completed transactions. They are queued in completion order, so stop at the first one that
+            // is still fresh instead of scanning all the completed transactions.
+            CompletedTransactionInfo completedTx;
+            while ((completedTx = completionOrder.peek()) != null && minCompleteTimestamp - completedTx.timestamp > 0) {
+               completionOrder.poll();
+               GlobalTransaction gtx = completedTx.globalTransaction;
+               // A transaction marked again since has a newer entry further down the queue
+               if (completedTransactions.get(gtx) == completedTx) {
                   // Need to update lastPrunedTxId *before* removing the tx from the map
                   // Don't need atomic operations, there can't be more than one thread updating lastPrunedTxId.
-                  final long txId = e.getKey().getId();
-                  final Address address = e.getKey().getAddress();
-                  updateLastPrunedTxId(txId, address);
-
-                  txIterator.remove();
+                  updateLastPrunedTxId(gtx.getId(), gtx.getAddress());
+                  completedTransactions.remove(gtx, completedTx);
                   removedEntries++;
-               } else {
-                  // Nodes with "active" completed transactions are not removed..
-                  leavers.remove(e.getKey().getAddress());
                }
             }
 
             // Finally, remove nodes that are no longer members and don't have any "active" completed transactions.
-            for (Address e : leavers) {
-               nodeMaxPrunedTxIds.remove(e);
+            if (!leavers.isEmpty()) {
+               for (CompletedTransactionInfo activeTx : completionOrder) {
+                  leavers.remove(activeTx.globalTransaction.getAddress());
+               }
+               for (Address e : leavers) {
+                  nodeMaxPrunedTxIds.remove(e);
+               }
             }
 
             long duration = timeService.timeDuration(beginning, TimeUnit.MILLISECONDS);
 
             if (trace) log.tracef("Finished cleaning up completed transactions in %d millis, %d transactions were removed, " +
                   "current number of completed transactions is %d",
-                  removedEntries, duration, completedTransactions.size());
+                  duration, removedEntries, completedTransactions.size());
             if (trace) log.tracef("Last pruned transaction ids were updated: %d, %s", globalMaxPrunedTxId, nodeMaxPrunedTxIds);
          } catch (Exception e) {
             log.errorf(e, "Failed to cleanup completed transactions: %s", e.getMessage());
@@ -770,10 +776,12 @@ private void updateLastPrunedTxId(final long txId, Address address) {
       }
    }
    private static class CompletedTransactionInfo {
+      public final GlobalTransaction globalTransaction;
       public final long timestamp;
       public final boolean successful;
 
-      private CompletedTransactionInfo(long timestamp, boolean successful) {
+      private CompletedTransactionInfo(GlobalTransaction globalTransaction, long timestamp, boolean successful) {
+         this.globalTransaction = globalTransaction;
          this.timestamp = timestamp;
          this.successful = successful;
       }
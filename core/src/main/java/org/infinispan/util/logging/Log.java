@@ -1351,4 +1351,16 @@ void asyncStoreShutdownTimeoutTooHigh(long configuredAsyncStopTimeout,
 
    @Message(value = "Statistics are enabled while these are not available.", id = 372)
    CacheConfigurationException statisticsEnabledNotAvailable();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Event queue of asynchronous listener %s is full, events are being discarded", id = 373)
+   void listenerQueueFull(Object listener);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to write the snapshot of the data container of cache %s to %s", id = 374)
+   void dataContainerSnapshotWriteFailed(String cacheName, Object file, @Cause Throwable cause);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Ignoring the unreadable snapshot of the data container of cache %s in %s", id = 375)
+   void dataContainerSnapshotReadFailed(String cacheName, Object file, @Cause Throwable cause);
 }
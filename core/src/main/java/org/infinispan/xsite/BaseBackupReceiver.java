@@ -9,6 +9,7 @@
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.tx.RollbackCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.ComputeCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
@@ -86,6 +87,12 @@ public static final class BackupCacheUpdater extends AbstractVisitor {
       @Override
       public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
          log.tracef("Processing a remote put %s", command);
+         if (command instanceof ComputeCommand) {
+            // The function was already applied on the originating site
+            Object value = command.getValue();
+            return value == null ? backupCache.remove(command.getKey())
+                  : backupCache.put(command.getKey(), value, command.getMetadata());
+         }
          if (command.isConditional()) {
             return backupCache.putIfAbsent(command.getKey(), command.getValue(), command.getMetadata());
          }
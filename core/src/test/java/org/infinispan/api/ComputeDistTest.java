@@ -0,0 +1,143 @@
+package org.infinispan.api;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.infinispan.distribution.DistributionTestHelper.getFirstNonOwner;
+import static org.infinispan.distribution.DistributionTestHelper.isOwner;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests that compute and merge apply the function exactly once, on the primary owner, and store the result on all
+ * the owners.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "api.ComputeDistTest")
+public class ComputeDistTest extends MultipleCacheManagersTest {
+
+   private static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2);
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   public void testComputeFromNonOwner() {
+      Cache<Object, Object> nonOwner = getFirstNonOwner("k1", caches());
+      INVOCATIONS.set(0);
+      assertEquals(1, nonOwner.compute("k1", new Increment()));
+      assertEquals(2, nonOwner.compute("k1", new Increment()));
+      assertEquals(2, INVOCATIONS.get());
+      assertStoredOnOwners("k1", 2);
+   }
+
+   public void testComputeIfAbsentAndIfPresent() {
+      Cache<Object, Object> nonOwner = getFirstNonOwner("k2", caches());
+      INVOCATIONS.set(0);
+      assertNull(nonOwner.computeIfPresent("k2", new Increment()));
+      assertEquals(0, INVOCATIONS.get());
+      assertStoredOnOwners("k2", null);
+
+      assertEquals(10, nonOwner.computeIfAbsent("k2", new Constant(10)));
+      assertEquals(10, nonOwner.computeIfAbsent("k2", new Constant(20)));
+      assertEquals(1, INVOCATIONS.get());
+      assertStoredOnOwners("k2", 10);
+
+      assertEquals(11, nonOwner.computeIfPresent("k2", new Increment()));
+      assertStoredOnOwners("k2", 11);
+   }
+
+   public void testNullResultRemoves() {
+      Cache<Object, Object> nonOwner = getFirstNonOwner("k3", caches());
+      nonOwner.put("k3", 1);
+      assertNull(nonOwner.compute("k3", new Remove()));
+      assertStoredOnOwners("k3", null);
+      for (Cache<Object, Object> c : caches()) {
+         assertNull(c.get("k3"));
+      }
+   }
+
+   public void testMerge() {
+      Cache<Object, Object> nonOwner = getFirstNonOwner("k4", caches());
+      INVOCATIONS.set(0);
+      assertEquals(5, nonOwner.merge("k4", 5, new Sum()));
+      assertEquals(0, INVOCATIONS.get());
+      assertEquals(8, nonOwner.merge("k4", 3, new Sum()));
+      assertEquals(1, INVOCATIONS.get());
+      assertStoredOnOwners("k4", 8);
+   }
+
+   public void testNonMarshallableFunction() {
+      Cache<Object, Object> nonOwner = getFirstNonOwner("k5", caches());
+      // the lambda cannot be sent to the primary owner, so it is applied on the originator with conditional writes
+      assertEquals(1, nonOwner.compute("k5", (k, v) -> v == null ? 1 : (Integer) v + 1));
+      assertEquals(2, nonOwner.compute("k5", (k, v) -> v == null ? 1 : (Integer) v + 1));
+      assertEquals(2, nonOwner.computeIfAbsent("k5", k -> 10));
+      assertEquals(5, nonOwner.merge("k5", 3, (v1, v2) -> (Integer) v1 + (Integer) v2));
+      assertStoredOnOwners("k5", 5);
+      assertNull(nonOwner.computeIfPresent("k5", (k, v) -> null));
+      assertStoredOnOwners("k5", null);
+   }
+
+   private void assertStoredOnOwners(Object key, Object expected) {
+      for (Cache<Object, Object> c : caches()) {
+         InternalCacheEntry entry = c.getAdvancedCache().getDataContainer().get(key);
+         if (isOwner(c, key) && expected != null) {
+            assertEquals(expected, entry.getValue());
+         } else {
+            assertNull(entry);
+         }
+      }
+   }
+
+   static class Increment implements BiFunction<Object, Object, Object>, Serializable {
+      @Override
+      public Object apply(Object key, Object value) {
+         INVOCATIONS.incrementAndGet();
+         return value == null ? 1 : (Integer) value + 1;
+      }
+   }
+
+   static class Remove implements BiFunction<Object, Object, Object>, Serializable {
+      @Override
+      public Object apply(Object key, Object value) {
+         return null;
+      }
+   }
+
+   static class Sum implements BiFunction<Object, Object, Object>, Serializable {
+      @Override
+      public Object apply(Object value1, Object value2) {
+         INVOCATIONS.incrementAndGet();
+         return (Integer) value1 + (Integer) value2;
+      }
+   }
+
+   static class Constant implements Function<Object, Object>, Serializable {
+      private final Object value;
+
+      Constant(Object value) {
+         this.value = value;
+      }
+
+      @Override
+      public Object apply(Object key) {
+         INVOCATIONS.incrementAndGet();
+         return value;
+      }
+   }
+}
@@ -0,0 +1,94 @@
+package org.infinispan.api;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.write.ComputeCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests what happens to a compute command retried because the primary owner left after replicating the result: the
+ * function is applied again, to the value stored by the first attempt.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "api.ComputeRetryTest")
+public class ComputeRetryTest extends MultipleCacheManagersTest {
+
+   private static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2);
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   public void testRetryAfterPrimaryOwnerLeaves() throws Exception {
+      final MagicKey key = new MagicKey("k", cache(1), cache(2));
+      CountDownLatch applied = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      cache(1).getAdvancedCache().addInterceptor(new BlockingInterceptor(applied, release), 0);
+
+      INVOCATIONS.set(0);
+      Future<Object> future = fork(() -> cache(0).compute(key, new Increment()));
+      assertTrue(applied.await(10, TimeUnit.SECONDS));
+      try {
+         // the result was replicated to the backup owner, but the primary owner leaves before replying
+         killMember(1);
+      } finally {
+         release.countDown();
+      }
+
+      Object result = future.get(30, TimeUnit.SECONDS);
+      assertEquals(2, INVOCATIONS.get());
+      assertEquals(2, result);
+      for (Cache<Object, Object> c : caches()) {
+         assertEquals(result, c.get(key));
+      }
+   }
+
+   static class BlockingInterceptor extends CommandInterceptor {
+      private final CountDownLatch applied;
+      private final CountDownLatch release;
+
+      BlockingInterceptor(CountDownLatch applied, CountDownLatch release) {
+         this.applied = applied;
+         this.release = release;
+      }
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         Object result = invokeNextInterceptor(ctx, command);
+         if (command instanceof ComputeCommand && !ctx.isOriginLocal() && applied.getCount() > 0) {
+            applied.countDown();
+            release.await(10, TimeUnit.SECONDS);
+         }
+         return result;
+      }
+   }
+
+   static class Increment implements BiFunction<Object, Object, Object>, Serializable {
+      @Override
+      public Object apply(Object key, Object value) {
+         INVOCATIONS.incrementAndGet();
+         return value == null ? 1 : (Integer) value + 1;
+      }
+   }
+}
@@ -0,0 +1,122 @@
+package org.infinispan.api;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.VersioningScheme;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.util.concurrent.IsolationLevel;
+import org.testng.annotations.Test;
+
+import javax.transaction.RollbackException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests that compute never loses a concurrent write of the key in transactional caches, and that it keeps working
+ * in optimistic caches without write skew checks.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "api.ComputeTxTest")
+public class ComputeTxTest extends MultipleCacheManagersTest {
+
+   private static final String PESSIMISTIC = "pessimistic";
+   private static final String OPTIMISTIC_WSC = "optimisticWriteSkew";
+   private static final String OPTIMISTIC = "optimistic";
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      createCluster(getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false), 2);
+
+      ConfigurationBuilder pessimistic = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      pessimistic.transaction().lockingMode(LockingMode.PESSIMISTIC);
+      defineConfigurationOnAllManagers(PESSIMISTIC, pessimistic);
+
+      ConfigurationBuilder optimisticWsc = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      optimisticWsc.transaction().lockingMode(LockingMode.OPTIMISTIC);
+      optimisticWsc.locking().isolationLevel(IsolationLevel.REPEATABLE_READ).writeSkewCheck(true);
+      optimisticWsc.versioning().enable().scheme(VersioningScheme.SIMPLE);
+      defineConfigurationOnAllManagers(OPTIMISTIC_WSC, optimisticWsc);
+
+      ConfigurationBuilder optimistic = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      optimistic.transaction().lockingMode(LockingMode.OPTIMISTIC);
+      defineConfigurationOnAllManagers(OPTIMISTIC, optimistic);
+
+      waitForClusterToForm(PESSIMISTIC, OPTIMISTIC_WSC, OPTIMISTIC);
+   }
+
+   public void testConcurrentComputeWithPessimisticLocking() throws Exception {
+      final int threads = 4;
+      final int increments = 25;
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+         final Cache<Object, Object> cache = cache(t % 2, PESSIMISTIC);
+         futures.add(fork(() -> {
+            for (int i = 0; i < increments; i++) {
+               cache.compute("counter", new Increment());
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+      assertEquals(threads * increments, cache(0, PESSIMISTIC).get("counter"));
+      assertEquals(threads * increments, cache(1, PESSIMISTIC).get("counter"));
+   }
+
+   public void testConcurrentWriteFailsOptimisticCompute() throws Exception {
+      Cache<Object, Object> cache0 = cache(0, OPTIMISTIC_WSC);
+      Cache<Object, Object> cache1 = cache(1, OPTIMISTIC_WSC);
+      cache0.put("k", 1);
+
+      TransactionManager tm = tm(0, OPTIMISTIC_WSC);
+      tm.begin();
+      assertEquals(2, cache0.compute("k", new Increment()));
+      Transaction tx = tm.suspend();
+
+      // written after the function read the value, but before the transaction commits
+      cache1.put("k", 10);
+
+      tm.resume(tx);
+      try {
+         tm.commit();
+         fail("The concurrent write should have failed the write skew check");
+      } catch (RollbackException e) {
+         // expected
+      }
+      assertEquals(10, cache0.get("k"));
+      assertEquals(11, cache1.compute("k", new Increment()));
+   }
+
+   public void testOptimisticComputeWithoutWriteSkewCheck() throws Exception {
+      Cache<Object, Object> cache0 = cache(0, OPTIMISTIC);
+      // applied with conditional writes, like the ConcurrentMap default method
+      assertEquals(1, cache0.compute("k", new Increment()));
+      assertEquals(2, cache(1, OPTIMISTIC).compute("k", new Increment()));
+
+      TransactionManager tm = tm(0, OPTIMISTIC);
+      tm.begin();
+      assertEquals(3, cache0.compute("k", new Increment()));
+      tm.commit();
+      assertEquals(3, cache(1, OPTIMISTIC).get("k"));
+   }
+
+   static class Increment implements BiFunction<Object, Object, Object>, Serializable {
+      @Override
+      public Object apply(Object key, Object value) {
+         return value == null ? 1 : (Integer) value + 1;
+      }
+   }
+}
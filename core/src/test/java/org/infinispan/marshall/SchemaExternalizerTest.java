@@ -0,0 +1,109 @@
+package org.infinispan.marshall;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.SchemaExternalizer;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests marshalling of user types registered through
+ * {@link org.infinispan.configuration.global.SerializationConfigurationBuilder#addSchemaClass(int, Class)}.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "marshall.SchemaExternalizerTest")
+public class SchemaExternalizerTest extends AbstractInfinispanTest {
+
+   private EmbeddedCacheManager cm;
+   private StreamingMarshaller marshaller;
+
+   @BeforeClass
+   public void setUp() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.serialization().addSchemaClass(4321, Order.class);
+      cm = TestCacheManagerFactory.createCacheManager(global, new ConfigurationBuilder());
+      marshaller = TestingUtil.extractGlobalMarshaller(cm);
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      TestingUtil.killCacheManagers(cm);
+   }
+
+   public void testRegisteredTypeRoundTrip() throws Exception {
+      Order order = new Order(42, "widget", 3.5d, new byte[]{1, 2, 3});
+      order.note = "ignored";
+      Order copy = (Order) marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(order));
+      assertEquals(order.id, copy.id);
+      assertEquals(order.product, copy.product);
+      assertEquals(order.price, copy.price);
+      assertTrue(Arrays.equals(order.payload, copy.payload));
+      assertEquals(order.created, copy.created);
+      assertNull(copy.note);
+   }
+
+   public void testNullFieldsRoundTrip() throws Exception {
+      Order order = new Order(7, null, 0d, null);
+      Order copy = (Order) marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(order));
+      assertEquals(7, copy.id);
+      assertNull(copy.product);
+      assertNull(copy.payload);
+   }
+
+   public void testRegistrationExposedAsAdvancedExternalizer() {
+      AdvancedExternalizer<?> ext = cm.getCacheManagerConfiguration().serialization().advancedExternalizers().get(4321);
+      assertTrue(ext instanceof SchemaExternalizer);
+      assertEquals(Order.class, ((SchemaExternalizer<?>) ext).getType());
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testTypeWithoutNoArgConstructor() {
+      new GlobalConfigurationBuilder().serialization().addSchemaClass(4322, NoDefaultConstructor.class);
+   }
+
+   static class BaseEntity {
+      long created = 1234567L;
+   }
+
+   static class Order extends BaseEntity {
+      int id;
+      String product;
+      double price;
+      byte[] payload;
+      transient String note;
+
+      Order() {
+      }
+
+      Order(int id, String product, double price, byte[] payload) {
+         this.id = id;
+         this.product = product;
+         this.price = price;
+         this.payload = payload;
+      }
+   }
+
+   static class NoDefaultConstructor {
+      final int value;
+
+      NoDefaultConstructor(int value) {
+         this.value = value;
+      }
+   }
+
+}
@@ -0,0 +1,157 @@
+package org.infinispan.notifications;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.executors.BlockingThreadPoolExecutorFactory;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.cachelistener.CacheNotifier;
+import org.infinispan.notifications.cachelistener.CacheNotifierImpl;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the per listener event queues of asynchronous listeners.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "notifications.AsyncListenerQueueTest")
+public class AsyncListenerQueueTest extends AbstractInfinispanTest {
+   Cache<String, String> c;
+   EmbeddedCacheManager cm;
+
+   @BeforeMethod
+   public void setUp() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.listenerThreadPool().threadPoolFactory(BlockingThreadPoolExecutorFactory.create(2, 1000));
+      cm = TestCacheManagerFactory.createCacheManager(global, new ConfigurationBuilder());
+      c = cm.getCache();
+   }
+
+   @AfterMethod
+   public void tearDown() {
+      TestingUtil.killCacheManagers(cm);
+      cm = null;
+      c = null;
+   }
+
+   public void testSlowListenerDoesNotDelayOthers() throws InterruptedException {
+      CountDownLatch release = new CountDownLatch(1);
+      SlowListener slow = new SlowListener(release);
+      RecordingListener fast = new RecordingListener(10);
+      c.addListener(slow);
+      c.addListener(fast);
+      try {
+         for (int i = 0; i < 10; i++)
+            c.put("k" + i, "v" + i);
+
+         assertTrue(fast.latch.await(10, TimeUnit.SECONDS));
+         for (int i = 0; i < 10; i++)
+            assertEquals("k" + i, fast.keys.get(i));
+         assertTrue(notifier().getPendingAsyncListenerEvents() > 0);
+      } finally {
+         release.countDown();
+      }
+   }
+
+   public void testDiscardWhenQueueIsFull() throws InterruptedException {
+      CountDownLatch release = new CountDownLatch(1);
+      DiscardingSlowListener slow = new DiscardingSlowListener(release);
+      c.addListener(slow);
+      try {
+         for (int i = 0; i < 10; i++)
+            c.put("k" + i, "v" + i);
+
+         assertTrue(notifier().getDiscardedAsyncListenerEvents() > 0);
+      } finally {
+         release.countDown();
+      }
+   }
+
+   public void testBlockingListenerWritingToTheCache() throws InterruptedException {
+      // each event creates two more entries, which fills the queue from the thread that should drain it
+      WritingListener writing = new WritingListener(c, 31);
+      c.addListener(writing);
+      c.put("0", "v");
+
+      assertTrue(writing.latch.await(10, TimeUnit.SECONDS));
+      assertEquals(31, c.size());
+   }
+
+   private CacheNotifierImpl<?, ?> notifier() {
+      return (CacheNotifierImpl<?, ?>) TestingUtil.extractComponent(c, CacheNotifier.class);
+   }
+
+   @Listener(sync = false)
+   public static class SlowListener {
+      final CountDownLatch release;
+
+      SlowListener(CountDownLatch release) {
+         this.release = release;
+      }
+
+      @CacheEntryCreated
+      public void handle(CacheEntryCreatedEvent e) throws InterruptedException {
+         release.await(10, TimeUnit.SECONDS);
+      }
+   }
+
+   @Listener(sync = false, queueSize = 1, overflow = Listener.OverflowPolicy.DISCARD)
+   public static class DiscardingSlowListener extends SlowListener {
+      DiscardingSlowListener(CountDownLatch release) {
+         super(release);
+      }
+   }
+
+   @Listener(sync = false, queueSize = 1, observation = Listener.Observation.POST)
+   public static class WritingListener {
+      final Cache<String, String> cache;
+      final int entries;
+      final CountDownLatch latch;
+
+      WritingListener(Cache<String, String> cache, int entries) {
+         this.cache = cache;
+         this.entries = entries;
+         this.latch = new CountDownLatch(entries);
+      }
+
+      @CacheEntryCreated
+      public void handle(CacheEntryCreatedEvent<String, String> e) {
+         int i = Integer.parseInt(e.getKey());
+         for (int child = 2 * i + 1; child <= 2 * i + 2 && child < entries; child++)
+            cache.put(String.valueOf(child), "v");
+         latch.countDown();
+      }
+   }
+
+   @Listener(sync = false, observation = Listener.Observation.POST)
+   public static class RecordingListener {
+      final List<String> keys = new CopyOnWriteArrayList<>();
+      final CountDownLatch latch;
+
+      RecordingListener(int expected) {
+         this.latch = new CountDownLatch(expected);
+      }
+
+      @CacheEntryCreated
+      public void handle(CacheEntryCreatedEvent<String, String> e) {
+         keys.add(e.getKey());
+         latch.countDown();
+      }
+   }
+
+}
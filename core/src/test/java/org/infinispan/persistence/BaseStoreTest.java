@@ -5,10 +5,13 @@
 import static org.testng.AssertJUnit.*;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.infinispan.filter.CollectionKeyFilter;
@@ -443,6 +446,28 @@ public void testLoadAll() throws PersistenceException {
       }
    }
 
+   public void testBatchWriteLoadAndDelete() throws PersistenceException {
+      assertIsEmpty();
+
+      List<MarshalledEntry<Object, Object>> batch = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+         batch.add(marshalledEntry("k" + i, "v" + i, null));
+      }
+      cl.writeBatch((Iterable) batch);
+
+      Set<String> keys = new HashSet<>(Arrays.asList("k0", "k3", "k9", "missing"));
+      Map<Object, MarshalledEntry<Object, Object>> loaded = cl.loadAll(keys);
+      assertEquals(3, loaded.size());
+      assertEquals("v3", unwrap(loaded.get("k3").getValue()));
+      assertFalse(loaded.containsKey("missing"));
+
+      cl.deleteBatch(Arrays.<Object>asList("k0", "k1", "k2", "k3", "k4", "missing"));
+      assertContains("k0", false);
+      assertContains("k4", false);
+      assertContains("k5", true);
+      assertSize(TestingUtil.allEntries(cl), 5);
+   }
+
    public void testReplaceExpiredEntry() throws Exception {
       assertIsEmpty();
       final long lifespan = 3000;
@@ -5,11 +5,20 @@
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.InterceptorConfiguration;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PersistenceManagerImpl;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.AdvancedCacheWriter;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
@@ -40,6 +49,7 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.infinispan.api.mvcc.LockAssert.assertNoLocks;
@@ -322,6 +332,72 @@ public void testPreloadingWithEviction() throws Exception {
       doPreloadingTestWithEviction(preloadingCfg.build(), "preloadingCache_4");
    }
 
+   public void testPreloadingSkipsExpiredEntries() throws Exception {
+      ConfigurationBuilder preloadingCfg = new ConfigurationBuilder();
+      preloadingCfg.read(cfg.build());
+      preloadingCfg.persistence().clearStores().addStore(DummyInMemoryStoreConfigurationBuilder.class).preload(true).storeName(this.getClass().getName() + "preloadingCache_5");
+      cm.defineConfiguration("preloadingCache_5", preloadingCfg.build());
+      Cache<String, String> preloadingCache = cm.getCache("preloadingCache_5");
+
+      preloadingCache.put("k1", "v1");
+      preloadingCache.put("k2", "v2", 10, MILLISECONDS);
+      preloadingCache.stop();
+      TestingUtil.sleepThread(50);
+      preloadingCache.start();
+
+      DataContainer c = preloadingCache.getAdvancedCache().getDataContainer();
+      assertEquals(1, c.size());
+      assertNull(c.get("k2"));
+      PersistenceManagerImpl persistenceManager = (PersistenceManagerImpl) TestingUtil.extractComponent(preloadingCache, PersistenceManager.class);
+      assertEquals(1, persistenceManager.getNumberOfPreloadedEntries());
+   }
+
+   public void testPreloadingKeepsMetadata() throws Exception {
+      ConfigurationBuilder preloadingCfg = new ConfigurationBuilder();
+      preloadingCfg.read(cfg.build());
+      preloadingCfg.persistence().clearStores().addStore(DummyInMemoryStoreConfigurationBuilder.class).preload(true).storeName(this.getClass().getName() + "preloadingCache_6");
+      cm.defineConfiguration("preloadingCache_6", preloadingCfg.build());
+      Cache<String, String> preloadingCache = cm.getCache("preloadingCache_6");
+
+      Metadata metadata = new EmbeddedMetadata.Builder().lifespan(lifespan, MILLISECONDS).maxIdle(lifespan / 2, MILLISECONDS)
+            .version(new NumericVersion(3)).build();
+      preloadingCache.getAdvancedCache().put("k1", "v1", metadata);
+      preloadingCache.stop();
+      preloadingCache.start();
+
+      InternalCacheEntry entry = preloadingCache.getAdvancedCache().getDataContainer().get("k1");
+      assertEquals("v1", entry.getValue());
+      assertEquals(lifespan, entry.getLifespan());
+      assertEquals(lifespan / 2, entry.getMaxIdle());
+      assertEquals(new NumericVersion(3), entry.getMetadata().version());
+   }
+
+   public void testPreloadingWithCustomInterceptor() throws Exception {
+      final AtomicInteger preloadedPuts = new AtomicInteger();
+      ConfigurationBuilder preloadingCfg = new ConfigurationBuilder();
+      preloadingCfg.read(cfg.build());
+      preloadingCfg.persistence().clearStores().addStore(DummyInMemoryStoreConfigurationBuilder.class).preload(true).storeName(this.getClass().getName() + "preloadingCache_7");
+      preloadingCfg.customInterceptors().addInterceptor().position(InterceptorConfiguration.Position.FIRST).interceptor(new CommandInterceptor() {
+         @Override
+         public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+            preloadedPuts.incrementAndGet();
+            return invokeNextInterceptor(ctx, command);
+         }
+      });
+      cm.defineConfiguration("preloadingCache_7", preloadingCfg.build());
+      Cache<String, String> preloadingCache = cm.getCache("preloadingCache_7");
+
+      preloadingCache.put("k1", "v1");
+      preloadingCache.put("k2", "v2");
+      preloadingCache.stop();
+      preloadedPuts.set(0);
+      preloadingCache.start();
+
+      // the custom interceptor must see the preloaded entries, so they are not put directly into the data container
+      assertEquals(2, preloadedPuts.get());
+      assertEquals(2, preloadingCache.getAdvancedCache().getDataContainer().size());
+   }
+
    @Test(groups = "unstable")
    public void testPurgeOnStartup() throws PersistenceException {
       ConfigurationBuilder purgingCfg = new ConfigurationBuilder();
@@ -572,6 +648,9 @@ protected void doPreloadingTest(Configuration preloadingCfg, String cacheName) t
       assert preloadingCache.getCacheConfiguration().persistence().preload();
       c = preloadingCache.getAdvancedCache().getDataContainer();
       assert c.size() == 4;
+      PersistenceManagerImpl persistenceManager = (PersistenceManagerImpl) TestingUtil.extractComponent(preloadingCache, PersistenceManager.class);
+      assertEquals(4, persistenceManager.getNumberOfPreloadedEntries());
+      assert !persistenceManager.isPreloadInProgress();
 
       for (int i = 1; i < 5; i++) {
          if (i % 2 == 1)
@@ -0,0 +1,130 @@
+package org.infinispan.statetransfer;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.InterceptorConfiguration;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.ConcurrentHashSet;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import static org.infinispan.distribution.DistributionTestHelper.isOwner;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that a restarted node restores the snapshot of its data container, and that the entries modified while it was
+ * down are fetched from the other owners.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "statetransfer.DataContainerSnapshotTest")
+public class DataContainerSnapshotTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 100;
+
+   private final String tmpDirectory = TestingUtil.tmpDirectory(getClass());
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      TestingUtil.recursiveFileRemove(tmpDirectory);
+      for (int i = 0; i < 3; i++) {
+         addClusterEnabledCacheManager(snapshotConfiguration(i));
+      }
+      waitForClusterToForm();
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void removeSnapshots() {
+      TestingUtil.recursiveFileRemove(tmpDirectory);
+   }
+
+   private ConfigurationBuilder snapshotConfiguration(int node) {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2);
+      builder.dataContainer().snapshotLocation(tmpDirectory + File.separator + node);
+      return builder;
+   }
+
+   public void testRestartWithSnapshot() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      Set<Integer> restoredSegments = new HashSet<>(
+            advancedCache(2).getDistributionManager().getConsistentHash().getSegmentsForOwner(address(2)));
+      killMember(2);
+      File snapshot = new File(tmpDirectory + File.separator + 2, cache(0).getName() + ".snapshot");
+      assertTrue(snapshot.exists());
+
+      // modify some entries while the node is down
+      cache(0).put("k0", "updated");
+      cache(0).remove("k1");
+      cache(0).put("new", "value");
+
+      StateTransferRecorder recorder = new StateTransferRecorder();
+      ConfigurationBuilder builder = snapshotConfiguration(2);
+      builder.customInterceptors().addInterceptor().position(InterceptorConfiguration.Position.FIRST).interceptor(recorder);
+      addClusterEnabledCacheManager(builder);
+      waitForClusterToForm();
+      assertFalse(snapshot.exists());
+
+      // the restored segments that did not change while the node was down must not have been transferred
+      ConsistentHash ch = advancedCache(2).getDistributionManager().getConsistentHash();
+      Set<Integer> unchangedSegments = new HashSet<>(restoredSegments);
+      unchangedSegments.retainAll(ch.getSegmentsForOwner(address(2)));
+      unchangedSegments.remove(ch.getSegment("k0"));
+      unchangedSegments.remove(ch.getSegment("k1"));
+      unchangedSegments.remove(ch.getSegment("new"));
+      assertFalse(unchangedSegments.isEmpty());
+      for (Object key : recorder.transferredKeys) {
+         assertFalse("Key " + key + " of an unchanged segment was transferred", unchangedSegments.contains(ch.getSegment(key)));
+      }
+
+      for (int i = 2; i < NUM_KEYS; i++) {
+         assertOwnersHold("k" + i, "v" + i);
+      }
+      assertOwnersHold("k0", "updated");
+      assertOwnersHold("k1", null);
+      assertOwnersHold("new", "value");
+   }
+
+   private static class StateTransferRecorder extends CommandInterceptor {
+
+      final Set<Object> transferredKeys = new ConcurrentHashSet<>();
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         if (command.hasFlag(Flag.PUT_FOR_STATE_TRANSFER)) {
+            transferredKeys.add(command.getKey());
+         }
+         return invokeNextInterceptor(ctx, command);
+      }
+   }
+
+   private void assertOwnersHold(Object key, Object expected) {
+      for (Cache<Object, Object> c : caches()) {
+         InternalCacheEntry entry = c.getAdvancedCache().getDataContainer().get(key);
+         if (isOwner(c, key) && expected != null) {
+            assertEquals(expected, entry.getValue());
+         } else {
+            assertNull(entry);
+         }
+         assertEquals(expected, c.get(key));
+      }
+   }
+}
@@ -10,6 +10,7 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.VersioningScheme;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.DataContainerSnapshot;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
@@ -174,7 +175,7 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       StateProviderImpl stateProvider = new StateProviderImpl();
       stateProvider.init(cache, mockExecutorService,
             configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
-            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef);
+            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef, mock(DataContainerSnapshot.class));
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
       Object key1 = new TestKey("key1", 0, ch1);
@@ -283,7 +284,7 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       StateProviderImpl stateProvider = new StateProviderImpl();
       stateProvider.init(cache, mockExecutorService,
             configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
-            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef);
+            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef, mock(DataContainerSnapshot.class));
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
       Object key1 = new TestKey("key1", 0, ch1);
@@ -141,6 +141,12 @@ public PutKeyValueCommand buildPutKeyValueCommand(Object key, Object value, Meta
       return actual.buildPutKeyValueCommand(key, value, metadata, flags);
    }
 
+   @Override
+   public ComputeCommand buildComputeCommand(Object key, ComputeCommand.Mode mode, Object function, Object mergeValue,
+                                             Metadata metadata, Set<Flag> flags) {
+      return actual.buildComputeCommand(key, mode, function, mergeValue, metadata, flags);
+   }
+
    @Override
    public RemoveCommand buildRemoveCommand(Object key, Object value, Set<Flag> flags) {
       return actual.buildRemoveCommand(key, value, flags);
@@ -4,6 +4,8 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.MetadataValue;
@@ -263,6 +265,46 @@ public V replace(K key, V value) {
       return delegate.replace(key, value);
    }
 
+   @Override
+   public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      return delegate.compute(key, remappingFunction);
+   }
+
+   @Override
+   public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      return delegate.computeIfPresent(key, remappingFunction);
+   }
+
+   @Override
+   public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+      return delegate.computeIfAbsent(key, mappingFunction);
+   }
+
+   @Override
+   public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+      return delegate.merge(key, value, remappingFunction);
+   }
+
+   @Override
+   public V compute(K key, String functionName) {
+      return delegate.compute(key, functionName);
+   }
+
+   @Override
+   public V computeIfPresent(K key, String functionName) {
+      return delegate.computeIfPresent(key, functionName);
+   }
+
+   @Override
+   public V computeIfAbsent(K key, String functionName) {
+      return delegate.computeIfAbsent(key, functionName);
+   }
+
+   @Override
+   public V merge(K key, V value, String functionName) {
+      return delegate.merge(key, value, functionName);
+   }
+
    @Override
    public V replace(K key, V value, long lifespan, TimeUnit unit) {
       return delegate.replace(key, value, lifespan, unit);
@@ -393,6 +435,11 @@ public <T> T execute(String scriptName, Map<String, ?> params) {
       return delegate.execute(scriptName, params);
    }
 
+   @Override
+   public <T> T execute(String scriptName, Map<String, ?> params, Object key) {
+      return delegate.execute(scriptName, params, key);
+   }
+
    @Override
    public CloseableIterator<Entry<Object, Object>> retrieveEntries(String filterConverterFactory, Set<Integer> segments, int batchSize) {
       return delegate.retrieveEntries(filterConverterFactory, segments, batchSize);
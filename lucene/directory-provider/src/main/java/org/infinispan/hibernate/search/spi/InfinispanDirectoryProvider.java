@@ -10,6 +10,7 @@
 import org.hibernate.search.store.spi.DirectoryHelper;
 import org.hibernate.search.store.spi.LockFactoryCreator;
 import org.infinispan.Cache;
+import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.hibernate.search.impl.AsyncDeleteExecutorService;
 import org.infinispan.hibernate.search.logging.Log;
 import org.infinispan.hibernate.search.util.configuration.impl.ConfigurationParseHelper;
@@ -20,6 +21,7 @@
 import java.io.File;
 import java.io.IOException;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 
 /**
  * A DirectoryProvider using Infinispan to store the Index. This depends on the CacheManagerServiceProvider to get a
@@ -46,6 +48,9 @@ public class InfinispanDirectoryProvider implements org.hibernate.search.store.D
    private AsyncDeleteExecutorService deletesExecutor;
 
    private boolean writeFileListAsync;
+   private Long chunkCacheSize;
+   private Integer readAheadChunks;
+   private boolean coalesceFileListUpdates;
 
    private LockFactory indexWriterLockFactory;
 
@@ -60,6 +65,9 @@ public void initialize(String directoryProviderName, Properties properties, Buil
       //Let it return null if it's not set, so that we can avoid applying any override.
       chunkSize = ConfigurationParseHelper.getIntValue(properties, "chunk_size");
       writeFileListAsync = getWriteFileListAsync(properties);
+      chunkCacheSize = ConfigurationParseHelper.getLongValue(properties, InfinispanIntegration.CHUNK_CACHE_SIZE);
+      readAheadChunks = ConfigurationParseHelper.getIntValue(properties, InfinispanIntegration.READ_AHEAD_CHUNKS);
+      coalesceFileListUpdates = ConfigurationParseHelper.getBooleanValue(properties, InfinispanIntegration.COALESCE_FILE_LIST_UPDATES, false);
 
       //Only override the default Infinispan LockDirectory if an explicit option is set:
       if (configurationExplicitlySetsLockFactory(properties)) {
@@ -116,6 +124,7 @@ public void start(DirectoryBasedIndexManager indexManager) {
       org.infinispan.lucene.directory.BuildContext directoryBuildContext = DirectoryBuilder
             .newDirectoryInstance(metadataCache, dataCache, lockingCache, directoryProviderName)
             .writeFileListAsynchronously(writeFileListAsync)
+            .coalesceFileListUpdates(coalesceFileListUpdates)
             .deleteOperationsExecutor(deletesExecutor.getExecutor());
       if (chunkSize != null) {
          directoryBuildContext.chunkSize(chunkSize.intValue());
@@ -123,6 +132,14 @@ public void start(DirectoryBasedIndexManager indexManager) {
       if (indexWriterLockFactory != null) {
          directoryBuildContext.overrideWriteLocker(indexWriterLockFactory);
       }
+      if (chunkCacheSize != null) {
+         directoryBuildContext.chunkBufferCacheSize(chunkCacheSize.longValue());
+      }
+      if (readAheadChunks != null && readAheadChunks.intValue() > 0) {
+         ExecutorService readAheadExecutor = cacheManager.getGlobalComponentRegistry()
+               .getComponent(ExecutorService.class, KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR);
+         directoryBuildContext.readAhead(readAheadChunks.intValue(), readAheadExecutor);
+      }
       directory = directoryBuildContext.create();
       DirectoryHelper.initializeIndexIfNeeded(directory);
       log.debugf("Initialized Infinispan index: '%s'", directoryProviderName);
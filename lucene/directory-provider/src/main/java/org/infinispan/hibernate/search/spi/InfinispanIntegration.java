@@ -53,6 +53,30 @@ private InfinispanIntegration() {
     */
    public static final String WRITE_METADATA_ASYNC = "write_metadata_async";
 
+   /**
+    * Configuration attribute setting the maximum size in bytes of the index chunks recently read by a node which are
+    * kept in a node-local cache.
+    * <p/>
+    * Defaults to {@code 0}, which disables the cache.
+    */
+   public static final String CHUNK_CACHE_SIZE = "chunk_cache_size";
+
+   /**
+    * Configuration attribute setting the number of chunks prefetched in the background when an index file is read
+    * sequentially. Only effective if {@link #CHUNK_CACHE_SIZE} is set.
+    * <p/>
+    * Defaults to {@code 0}, which disables read-ahead.
+    */
+   public static final String READ_AHEAD_CHUNKS = "read_ahead_chunks";
+
+   /**
+    * Configuration attribute to control if the changes to the list of index files are written once per commit rather
+    * than once per file.
+    * <p/>
+    * Defaults to {@code false}.
+    */
+   public static final String COALESCE_FILE_LIST_UPDATES = "coalesce_file_list_updates";
+
    /**
     * @param properties the Hibernate Search configuration
     * @return the name of the Cache to be retrieved from the CacheManager to store Index Metadata
@@ -44,6 +44,28 @@ public static Integer getIntValue(Properties cfg, String key) {
       }
    }
 
+   /**
+    * Retrieves a configuration property and parses it as a Long if it exists, or returns null if the property is not
+    * set (undefined).
+    *
+    * @param cfg configuration Properties
+    * @param key the property key
+    * @return the Long or null
+    * @throws SearchException both for empty (non-null) values and for Strings not containing a valid long
+    *                         representation.
+    */
+   public static Long getLongValue(Properties cfg, String key) {
+      String propValue = cfg.getProperty(key);
+      if (propValue == null) {
+         return null;
+      }
+      if (StringHelper.isEmpty(propValue.trim())) {
+         throw log.configurationPropertyCantBeEmpty(key);
+      } else {
+         return parseLong(propValue, "Unable to parse " + key + ": " + propValue);
+      }
+   }
+
    /**
     * In case value is null or an empty string the defValue is returned
     *
@@ -82,6 +104,27 @@ public static int parseInt(String value, String errorMsgOnParseFailure) {
       }
    }
 
+   /**
+    * Parses a string into a long value.
+    *
+    * @param value                  a string containing a long value to parse
+    * @param errorMsgOnParseFailure message being wrapped in a SearchException if value is {@code null} or not a
+    *                               long
+    * @return the parsed long value
+    * @throws SearchException both for null values and for Strings not containing a valid long.
+    */
+   public static long parseLong(String value, String errorMsgOnParseFailure) {
+      if (value == null) {
+         throw new SearchException(errorMsgOnParseFailure);
+      } else {
+         try {
+            return Long.parseLong(value.trim());
+         } catch (NumberFormatException nfe) {
+            throw log.getInvalidIntegerValueException(errorMsgOnParseFailure, nfe);
+         }
+      }
+   }
+
    /**
     * Extracts a boolean value from configuration properties
     *
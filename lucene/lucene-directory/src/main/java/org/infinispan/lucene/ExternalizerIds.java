@@ -18,7 +18,7 @@ public interface ExternalizerIds {
    static final Integer FILE_LIST_CACHE_KEY = 1300;
 
    /**
-    * @see org.infinispan.lucene.FileMetadata.Externalizer
+    * @see org.infinispan.lucene.FileMetadata.LegacyExternalizer
     */
    static final Integer FILE_METADATA = 1301;
 
@@ -57,4 +57,9 @@ public interface ExternalizerIds {
     */
    static final Integer FILE_LIST_DELTA_DEL = 1308;
 
+   /**
+    * @see org.infinispan.lucene.FileMetadata.Externalizer
+    */
+   static final Integer FILE_METADATA_WITH_LAST_MODIFIED = 1309;
+
 }
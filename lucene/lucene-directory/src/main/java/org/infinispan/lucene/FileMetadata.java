@@ -21,14 +21,25 @@ public final class FileMetadata {
 
    private long size = 0;
    private final int bufferSize;
+   private final long lastModified;
 
    public FileMetadata(int bufferSize) {
+      this(bufferSize, 0);
+   }
+
+   /**
+    * @param lastModified the time the file was written, from the {@link org.infinispan.util.TimeService} of the cache
+    * @since 8.0
+    */
+   public FileMetadata(int bufferSize, long lastModified) {
       this.bufferSize = bufferSize;
+      this.lastModified = lastModified;
    }
 
-   private FileMetadata(long size, int bufferSize) {
+   private FileMetadata(long size, int bufferSize, long lastModified) {
       this.size = size;
       this.bufferSize = bufferSize;
+      this.lastModified = lastModified;
    }
 
    public long getSize() {
@@ -43,6 +54,16 @@ public int getBufferSize() {
       return bufferSize;
    }
 
+   /**
+    * @return the time the file was created, as it is never modified afterwards. Used along with the name and size to
+    * tell apart the files which reused the name of a deleted file, on any node. It is 0 when unknown, e.g. for the
+    * metadata stored by a previous version.
+    * @since 8.0
+    */
+   public long getLastModified() {
+      return lastModified;
+   }
+
    public int getNumberOfChunks() {
       if (size % bufferSize == 0) {
          return (int) size / bufferSize;
@@ -78,24 +99,29 @@ public String toString() {
       return "FileMetadata{" +  " size=" + size + '}';
    }
 
+   /**
+    * Writes the current format, which includes the last modification time.
+    */
    public static final class Externalizer extends AbstractExternalizer<FileMetadata> {
 
       @Override
       public void writeObject(ObjectOutput output, FileMetadata metadata) throws IOException {
          UnsignedNumeric.writeUnsignedLong(output, metadata.size);
          UnsignedNumeric.writeUnsignedInt(output, metadata.bufferSize);
+         output.writeLong(metadata.lastModified);
       }
 
       @Override
       public FileMetadata readObject(ObjectInput input) throws IOException {
          long size = UnsignedNumeric.readUnsignedLong(input);
          int bufferSize = UnsignedNumeric.readUnsignedInt(input);
-         return new FileMetadata(size, bufferSize);
+         long lastModified = input.readLong();
+         return new FileMetadata(size, bufferSize, lastModified);
       }
 
       @Override
       public Integer getId() {
-         return ExternalizerIds.FILE_METADATA;
+         return ExternalizerIds.FILE_METADATA_WITH_LAST_MODIFIED;
       }
 
       @Override
@@ -105,4 +131,38 @@ public Set<Class<? extends FileMetadata>> getTypeClasses() {
 
    }
 
+   /**
+    * Reads the metadata written by versions which did not store the last modification time, e.g. from a cache store
+    * or from a node being upgraded. The metadata is always written by {@link Externalizer}.
+    */
+   public static final class LegacyExternalizer extends AbstractExternalizer<Object> {
+
+      @Override
+      public void writeObject(ObjectOutput output, Object object) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public FileMetadata readObject(ObjectInput input) throws IOException {
+         long size = UnsignedNumeric.readUnsignedLong(input);
+         int bufferSize = UnsignedNumeric.readUnsignedInt(input);
+         return new FileMetadata(size, bufferSize, 0);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.FILE_METADATA;
+      }
+
+      @Override
+      public Set<Class<?>> getTypeClasses() {
+         // Registered for a type that is never written, so that FileMetadata instances always use the new format
+         return Util.<Class<?>>asSet(LegacyFormat.class);
+      }
+
+      private static final class LegacyFormat {
+      }
+
+   }
+
 }
@@ -27,7 +27,8 @@ public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguratio
       externalizerMap.put(ExternalizerIds.CHUNK_CACHE_KEY, new ChunkCacheKey.Externalizer());
       externalizerMap.put(ExternalizerIds.FILE_CACHE_KEY, new FileCacheKey.Externalizer());
       externalizerMap.put(ExternalizerIds.FILE_LIST_CACHE_KEY, new FileListCacheKey.Externalizer());
-      externalizerMap.put(ExternalizerIds.FILE_METADATA, new FileMetadata.Externalizer());
+      externalizerMap.put(ExternalizerIds.FILE_METADATA, new FileMetadata.LegacyExternalizer());
+      externalizerMap.put(ExternalizerIds.FILE_METADATA_WITH_LAST_MODIFIED, new FileMetadata.Externalizer());
       externalizerMap.put(ExternalizerIds.FILE_READLOCK_KEY, new FileReadLockKey.Externalizer());
       externalizerMap.put(ExternalizerIds.FILE_LIST_CACHE_VALUE, new FileListCacheValue.Externalizer());
       externalizerMap.put(ExternalizerIds.FILE_LIST_VALUE_DELTA, new FileListCacheValueDelta.Externalizer());
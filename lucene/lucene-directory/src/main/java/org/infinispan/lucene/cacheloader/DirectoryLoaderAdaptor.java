@@ -1,5 +1,6 @@
 package org.infinispan.lucene.cacheloader;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Collections;
@@ -7,6 +8,7 @@
 import java.util.Set;
 
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
 import org.infinispan.commons.marshall.StreamingMarshaller;
@@ -213,11 +215,21 @@ private FileMetadata loadIntern(final FileCacheKey key) throws IOException {
       final long fileLength = directory.fileLength(fileName);
       // We're forcing the buffer size of a to-be-read segment to the full file size:
       final int bufferSize = (int) Math.min(fileLength, (long)autoChunkSize);
-      final FileMetadata meta = new FileMetadata(bufferSize);
+      final FileMetadata meta = new FileMetadata(bufferSize, lastModified(fileName));
       meta.setSize(fileLength);
       return meta;
    }
 
+   /**
+    * The modification time of the segment on disk, so that loading the metadata again yields the same value.
+    */
+   private long lastModified(final String fileName) {
+      if (directory instanceof FSDirectory) {
+         return new File(((FSDirectory) directory).getDirectory(), fileName).lastModified();
+      }
+      return 0;
+   }
+
    /**
     * Loads the actual byte array from a segment, in the range of a specific chunkSize.
     * Not that while the chunkSize is specified in this case, it's likely derived
@@ -72,4 +72,34 @@ public interface BuildContext {
     */
    BuildContext deleteOperationsExecutor(Executor executor);
 
+   /**
+    * Keeps the chunks recently read by this node in a local LRU cache, so that searches and merges reading the same
+    * chunks repeatedly do not fetch them from the chunks cache each time. Disabled by default.
+    *
+    * @param bytes the maximum total size of the cached chunks, 0 to disable the cache
+    * @return the same building context to eventually create the Directory instance
+    */
+   BuildContext chunkBufferCacheSize(long bytes);
+
+   /**
+    * Prefetches the next chunks of a file in the background when it is being read sequentially. Only used when the
+    * chunk buffer cache is enabled, see {@link #chunkBufferCacheSize(long)}. Disabled by default.
+    *
+    * @param chunks the number of chunks to prefetch, 0 to disable read-ahead
+    * @param executor the Executor loading the chunks
+    * @return the same building context to eventually create the Directory instance
+    */
+   BuildContext readAhead(int chunks, Executor executor);
+
+   /**
+    * When set to true, the files created and deleted are only tracked locally until the Directory is synced by a
+    * commit, and the list of files is then updated with a single write. This avoids a replicated write of the list
+    * for each file of a segment flush, but the files are only visible to other nodes once committed.
+    * Defaults to false.
+    *
+    * @param coalesceFileListUpdates
+    * @return the same building context to eventually create the Directory instance
+    */
+   BuildContext coalesceFileListUpdates(boolean coalesceFileListUpdates);
+
 }
@@ -0,0 +1,207 @@
+package org.infinispan.lucene.impl;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.lucene.ChunkCacheKey;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Node-local LRU of the chunks recently read by the IndexInputs of a Directory, so that merges and large scans do not
+ * fetch the same chunks from the chunks cache over and over, and optionally the sequential read-ahead filling it.
+ * <p>
+ * Index files are never modified once written, but a file name could be reused after the file is deleted, on any
+ * node. The cached chunks are then keyed by name, length and last modification time of the file, as found in its
+ * {@link org.infinispan.lucene.FileMetadata}, so that the chunks of a previous file are never returned. The chunks of
+ * the files deleted through this Directory are evicted right away, the others once they are the least recently used.
+ *
+ * @since 8.0
+ */
+final class ChunkBufferCache {
+
+   private static final Log log = LogFactory.getLog(ChunkBufferCache.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private static final int SEGMENTS = 16;
+
+   private final AdvancedCache<ChunkCacheKey, Object> chunksCache;
+   private final Segment[] segments = new Segment[SEGMENTS];
+   private final int readAheadChunks;
+   private final Executor readAheadExecutor;
+
+   ChunkBufferCache(AdvancedCache<ChunkCacheKey, Object> chunksCache, long maxBytes, int readAheadChunks, Executor readAheadExecutor) {
+      if (maxBytes <= 0)
+         throw new IllegalArgumentException("maxBytes must be a positive number");
+      this.chunksCache = chunksCache;
+      this.readAheadChunks = readAheadExecutor != null ? readAheadChunks : 0;
+      this.readAheadExecutor = readAheadExecutor;
+      for (int i = 0; i < SEGMENTS; i++) {
+         segments[i] = new Segment(Math.max(1, maxBytes / SEGMENTS));
+      }
+   }
+
+   /**
+    * Evicts the chunks cached so far for the named file.
+    */
+   void invalidate(String fileName) {
+      for (Segment segment : segments) {
+         segment.removeFile(fileName);
+      }
+   }
+
+   /**
+    * Reads a chunk, from the LRU if possible, or else from the chunks cache.
+    *
+    * @return the chunk or {@code null} if it does not exist
+    */
+   byte[] getChunk(ChunkCacheKey key, long lastModified, long fileLength) {
+      BufferKey bufferKey = new BufferKey(key.getFileName(), lastModified, fileLength, key.getChunkId());
+      Segment segment = segmentFor(bufferKey);
+      byte[] buffer = segment.get(bufferKey);
+      if (buffer == null) {
+         buffer = (byte[]) chunksCache.get(key);
+         if (buffer != null) {
+            segment.put(bufferKey, buffer);
+         }
+      }
+      return buffer;
+   }
+
+   boolean isReadAheadEnabled() {
+      return readAheadChunks > 0;
+   }
+
+   int getReadAheadChunks() {
+      return readAheadChunks;
+   }
+
+   /**
+    * Asynchronously loads the given chunks of a file in the LRU, fetching all the missing ones at once.
+    */
+   void readAhead(final String indexName, final String fileName, final long lastModified, final long fileLength,
+                  final int bufferSize, final int firstChunk, final int lastChunk) {
+      final Set<ChunkCacheKey> missing = new HashSet<ChunkCacheKey>();
+      for (int chunkId = firstChunk; chunkId <= lastChunk; chunkId++) {
+         BufferKey bufferKey = new BufferKey(fileName, lastModified, fileLength, chunkId);
+         if (!segmentFor(bufferKey).contains(bufferKey)) {
+            missing.add(new ChunkCacheKey(indexName, fileName, chunkId, bufferSize));
+         }
+      }
+      if (missing.isEmpty()) {
+         return;
+      }
+      try {
+         readAheadExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  Map<ChunkCacheKey, Object> chunks = chunksCache.getAll(missing);
+                  for (Map.Entry<ChunkCacheKey, Object> e : chunks.entrySet()) {
+                     if (e.getValue() != null) {
+                        BufferKey bufferKey = new BufferKey(fileName, lastModified, fileLength, e.getKey().getChunkId());
+                        segmentFor(bufferKey).put(bufferKey, (byte[]) e.getValue());
+                     }
+                  }
+               } catch (RuntimeException re) {
+                  // the chunks will be read on demand
+                  if (trace) log.tracef(re, "Read-ahead of %d chunks of file %s failed", missing.size(), fileName);
+               }
+            }
+         });
+      } catch (RejectedExecutionException ree) {
+         // read-ahead is only an optimization
+         if (trace) log.tracef("Read-ahead of file %s rejected", fileName);
+      }
+   }
+
+   private Segment segmentFor(BufferKey key) {
+      int h = key.hashCode();
+      return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+   }
+
+   private static final class Segment {
+
+      private final long maxBytes;
+      private final LinkedHashMap<BufferKey, byte[]> buffers = new LinkedHashMap<BufferKey, byte[]>(16, 0.75f, true);
+      private long bytes;
+
+      Segment(long maxBytes) {
+         this.maxBytes = maxBytes;
+      }
+
+      synchronized byte[] get(BufferKey key) {
+         return buffers.get(key);
+      }
+
+      synchronized boolean contains(BufferKey key) {
+         return buffers.containsKey(key);
+      }
+
+      synchronized void removeFile(String fileName) {
+         Iterator<Map.Entry<BufferKey, byte[]>> it = buffers.entrySet().iterator();
+         while (it.hasNext()) {
+            Map.Entry<BufferKey, byte[]> e = it.next();
+            if (e.getKey().fileName.equals(fileName)) {
+               bytes -= e.getValue().length;
+               it.remove();
+            }
+         }
+      }
+
+      synchronized void put(BufferKey key, byte[] buffer) {
+         byte[] previous = buffers.put(key, buffer);
+         if (previous != null) {
+            bytes -= previous.length;
+         }
+         bytes += buffer.length;
+         Iterator<byte[]> it = buffers.values().iterator();
+         while (bytes > maxBytes && it.hasNext()) {
+            byte[] eldest = it.next();
+            if (eldest == buffer) {
+               // never evict the chunk being added, even if it is larger than the segment
+               break;
+            }
+            bytes -= eldest.length;
+            it.remove();
+         }
+      }
+   }
+
+   private static final class BufferKey {
+
+      private final String fileName;
+      private final long lastModified;
+      private final long fileLength;
+      private final int chunkId;
+      private final int hashCode;
+
+      BufferKey(String fileName, long lastModified, long fileLength, int chunkId) {
+         this.fileName = fileName;
+         this.lastModified = lastModified;
+         this.fileLength = fileLength;
+         this.chunkId = chunkId;
+         this.hashCode = 31 * (31 * fileName.hashCode() + (int) (lastModified ^ (lastModified >>> 32))) + chunkId;
+      }
+
+      @Override
+      public int hashCode() {
+         return hashCode;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (this == obj) return true;
+         if (obj == null || BufferKey.class != obj.getClass()) return false;
+         BufferKey other = (BufferKey) obj;
+         return chunkId == other.chunkId && lastModified == other.lastModified && fileLength == other.fileLength
+               && fileName.equals(other.fileName);
+      }
+   }
+}
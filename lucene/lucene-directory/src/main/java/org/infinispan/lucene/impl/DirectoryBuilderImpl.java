@@ -43,6 +43,10 @@ public class DirectoryBuilderImpl implements BuildContext {
    private LockFactory lockFactory = null;
    private boolean writeFileListAsync = false;
    private Executor deleteExecutor = null;
+   private long chunkBufferCacheSize = 0;
+   private int readAheadChunks = 0;
+   private Executor readAheadExecutor = null;
+   private boolean coalesceFileListUpdates = false;
 
    public DirectoryBuilderImpl(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, Cache<?, ?> distLocksCache, String indexName) {
       this.metadataCache = checkValidConfiguration(checkNotNull(metadataCache, "metadataCache"), indexName);
@@ -63,7 +67,8 @@ public Directory create() {
       if (deleteExecutor == null) {
          deleteExecutor = new WithinThreadExecutor();
       }
-      return new DirectoryLuceneV4(metadataCache, chunksCache, indexName, lockFactory, chunkSize, srl, writeFileListAsync, deleteExecutor);
+      return new DirectoryLuceneV4(metadataCache, chunksCache, indexName, lockFactory, chunkSize, srl, writeFileListAsync, deleteExecutor,
+            chunkBufferCacheSize, readAheadChunks, readAheadExecutor, coalesceFileListUpdates);
    }
 
    @Override
@@ -94,6 +99,32 @@ public BuildContext deleteOperationsExecutor(Executor executor) {
       return this;
    }
 
+   @Override
+   public BuildContext chunkBufferCacheSize(long bytes) {
+      if (bytes < 0)
+         throw new IllegalArgumentException("chunkBufferCacheSize must not be negative");
+      this.chunkBufferCacheSize = bytes;
+      return this;
+   }
+
+   @Override
+   public BuildContext readAhead(int chunks, Executor executor) {
+      if (chunks < 0)
+         throw new IllegalArgumentException("the number of read-ahead chunks must not be negative");
+      if (chunks > 0) {
+         checkNotNull(executor, "executor");
+      }
+      this.readAheadChunks = chunks;
+      this.readAheadExecutor = executor;
+      return this;
+   }
+
+   @Override
+   public BuildContext coalesceFileListUpdates(boolean coalesceFileListUpdates) {
+      this.coalesceFileListUpdates = coalesceFileListUpdates;
+      return this;
+   }
+
    @Override
    public BuildContext overrideWriteLocker(LockFactory lockFactory) {
       checkNotNull(lockFactory, "lockFactory");
@@ -2,6 +2,7 @@
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import org.apache.lucene.index.IndexFileNames;
 import org.apache.lucene.store.IndexOutput;
@@ -40,16 +41,25 @@ class DirectoryImplementor {
     private final SegmentReadLocker readLocks;
     private final FileCacheKey segmentsGenFileKey;
 
+    // node-local cache of the chunks read recently, or null when disabled
+    private final ChunkBufferCache chunkBuffers;
+
     public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync) {
+        this(metadataCache, chunksCache, indexName, chunkSize, readLocker, fileListUpdatedAsync, 0, 0, null, false);
+    }
+
+    public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync,
+                                long chunkBufferCacheSize, int readAheadChunks, Executor readAheadExecutor, boolean coalesceFileListUpdates) {
         if (chunkSize <= 0)
            throw new IllegalArgumentException("chunkSize must be a positive integer");
         this.metadataCache = (AdvancedCache<FileCacheKey, FileMetadata>) metadataCache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING);
         this.chunksCache = (AdvancedCache<ChunkCacheKey, Object>) chunksCache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING);
         this.indexName = indexName;
         this.chunkSize = chunkSize;
-        this.fileOps = new FileListOperations(this.metadataCache, indexName, fileListUpdatedAsync);
+        this.fileOps = new FileListOperations(this.metadataCache, indexName, fileListUpdatedAsync, coalesceFileListUpdates);
         segmentsGenFileKey = new FileCacheKey(indexName, IndexFileNames.SEGMENTS_GEN);
         this.readLocks = readLocker;
+        this.chunkBuffers = chunkBufferCacheSize > 0 ? new ChunkBufferCache(this.chunksCache, chunkBufferCacheSize, readAheadChunks, readAheadExecutor) : null;
      }
 
     String[] list() {
@@ -61,6 +71,7 @@ boolean fileExists(final String name) {
     }
 
     void deleteFile(final String name) {
+       invalidateChunkBuffers(name);
        fileOps.deleteFileName(name);
        readLocks.deleteOrReleaseReadLock(name);
        if (log.isDebugEnabled()) {
@@ -86,6 +97,8 @@ void renameFile(final String from, final String to) {
        } while (true);
 
        // rename metadata first
+       invalidateChunkBuffers(to);
+       invalidateChunkBuffers(from);
 
        metadataCache.put(new FileCacheKey(indexName, to), metadata);
        fileOps.removeAndAdd(from, to);
@@ -97,6 +110,10 @@ void renameFile(final String from, final String to) {
        }
     }
 
+    void sync() {
+       fileOps.flush();
+    }
+
     long fileLength(final String name) {
        final FileMetadata fileMetadata = fileOps.getFileMetadata(name);
        if (fileMetadata == null) {
@@ -108,6 +125,7 @@ long fileLength(final String name) {
     }
 
     IndexOutput createOutput(final String name) {
+       invalidateChunkBuffers(name);
        if (IndexFileNames.SEGMENTS_GEN.equals(name)) {
           return new InfinispanIndexOutput(metadataCache, chunksCache, segmentsGenFileKey, chunkSize, fileOps);
        }
@@ -143,7 +161,16 @@ else if (!fileMetadata.isMultiChunked()) {
              // safest reaction is to tell this file doesn't exist anymore.
              throw new FileNotFoundException("Error loading metadata for index file: " + fileKey);
           }
-          return new IndexInputContext(chunksCache, fileKey, fileMetadata, readLocks);
+          if (chunkBuffers == null) {
+             return new IndexInputContext(chunksCache, fileKey, fileMetadata, readLocks);
+          }
+          return new IndexInputContext(chunksCache, fileKey, fileMetadata, readLocks, chunkBuffers);
+       }
+    }
+
+    private void invalidateChunkBuffers(final String name) {
+       if (chunkBuffers != null) {
+          chunkBuffers.invalidate(name);
        }
     }
 
@@ -43,8 +43,19 @@ class DirectoryLuceneV4 extends Directory implements DirectoryExtensions {
     * @param deleteExecutor The Executor to run file deletes in the background
     */
    public DirectoryLuceneV4(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, LockFactory lf, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync, Executor deleteExecutor) {
+      this(metadataCache, chunksCache, indexName, lf, chunkSize, readLocker, fileListUpdatedAsync, deleteExecutor, 0, 0, null, false);
+   }
+
+   /**
+    * @param chunkBufferCacheSize the maximum number of bytes of the recently read chunks kept on this node, 0 to disable
+    * @param readAheadChunks the number of chunks to prefetch when a file is read sequentially, 0 to disable
+    * @param readAheadExecutor The Executor to prefetch chunks in the background
+    * @param coalesceFileListUpdates When true, the changes to the list of files are written once per commit, on sync
+    */
+   public DirectoryLuceneV4(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, String indexName, LockFactory lf, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync, Executor deleteExecutor,
+                            long chunkBufferCacheSize, int readAheadChunks, Executor readAheadExecutor, boolean coalesceFileListUpdates) {
       this.deleteExecutor = deleteExecutor;
-      this.impl = new DirectoryImplementor(metadataCache, chunksCache, indexName, chunkSize, readLocker, fileListUpdatedAsync);
+      this.impl = new DirectoryImplementor(metadataCache, chunksCache, indexName, chunkSize, readLocker, fileListUpdatedAsync, chunkBufferCacheSize, readAheadChunks, readAheadExecutor, coalesceFileListUpdates);
       this.indexName = indexName;
       this.lockFactory = lf;
       this.lockFactory.setLockPrefix(this.getLockID());
@@ -112,6 +123,7 @@ public IndexInput openInput(final String name, final IOContext context) throws I
    @Override
    public void close() {
       // Note the we don't really keep track of this anymore
+      impl.sync();
    }
 
    @Override
@@ -140,7 +152,8 @@ public String getIndexName() {
     */
    @Override
    public void sync(Collection<String> names) throws IOException {
-      //This implementation is always in sync with the storage, so NOOP is fine
+      //The file contents are always in sync with the storage: only the coalesced changes to the list of files need to be written
+      impl.sync();
    }
 
    @Override
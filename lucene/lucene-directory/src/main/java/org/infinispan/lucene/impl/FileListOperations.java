@@ -9,12 +9,20 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Collects operations on the existing fileList, stored as a Set<String> having key
  * of type FileListCacheKey(indexName).
+ * <p/>
+ * When the updates are coalesced, the files added and deleted are only tracked locally until {@link #flush()}
+ * applies them all to the fileList with a single write, so a commit replicates a single delta. Until then the
+ * changes are visible on this node only. Files created and deleted between two flushes, like the temporary
+ * files of a segment flush, never reach the fileList.
  *
  * @author Sanne Grinovero
  * @since 4.1
@@ -31,10 +39,21 @@ public final class FileListOperations {
    private final Lock readLock;
    private final Lock writeLock;
    private final boolean writeAsync;
+   private final boolean coalesceUpdates;
+
+   @GuardedBy("writeLock")
+   private final Set<String> pendingAdds = new HashSet<>();
+   @GuardedBy("writeLock")
+   private final Set<String> pendingRemoves = new HashSet<>();
 
-   @SuppressWarnings("unchecked")
    public FileListOperations(AdvancedCache<?, ?> cache, String indexName, boolean writeAsync) {
+      this(cache, indexName, writeAsync, false);
+   }
+
+   @SuppressWarnings("unchecked")
+   public FileListOperations(AdvancedCache<?, ?> cache, String indexName, boolean writeAsync, boolean coalesceUpdates) {
       this.writeAsync = writeAsync;
+      this.coalesceUpdates = coalesceUpdates;
       this.cache = (AdvancedCache<FileListCacheKey, Object>) cache;
       this.cacheNoRetrieve = (AdvancedCache<FileListCacheKey, FileListCacheValue>) cache.withFlags(Flag.IGNORE_RETURN_VALUES);
       this.indexName = indexName;
@@ -51,6 +70,11 @@ public FileListOperations(AdvancedCache<?, ?> cache, String indexName, boolean w
    void addFileName(final String fileName) {
       writeLock.lock();
       try {
+         if (coalesceUpdates) {
+            pendingRemoves.remove(fileName);
+            pendingAdds.add(fileName);
+            return;
+         }
          final FileListCacheValue fileList = getFileList();
          boolean done = fileList.add(fileName);
          if (done) {
@@ -81,6 +105,12 @@ public FileMetadata getFileMetadata(final String fileName) {
    public void removeAndAdd(final String toRemove, final String toAdd) {
       writeLock.lock();
       try {
+         if (coalesceUpdates) {
+            pendingRemove(toRemove);
+            pendingRemoves.remove(toAdd);
+            pendingAdds.add(toAdd);
+            return;
+         }
          FileListCacheValue fileList = getFileList();
          boolean done = fileList.addAndRemove(toAdd, toRemove);
          if (done) {
@@ -100,7 +130,15 @@ public void removeAndAdd(final String toRemove, final String toAdd) {
    public String[] listFilenames() {
       readLock.lock();
       try {
-         return getFileList().toArray();
+         String[] filenames = getFileList().toArray();
+         if (pendingAdds.isEmpty() && pendingRemoves.isEmpty()) {
+            return filenames;
+         }
+         Set<String> localView = new HashSet<>(filenames.length + pendingAdds.size());
+         Collections.addAll(localView, filenames);
+         localView.removeAll(pendingRemoves);
+         localView.addAll(pendingAdds);
+         return localView.toArray(new String[localView.size()]);
       } finally {
          readLock.unlock();
       }
@@ -113,6 +151,12 @@ public String[] listFilenames() {
    public boolean fileExists(final String fileName) {
       readLock.lock();
       try {
+         if (pendingAdds.contains(fileName)) {
+            return true;
+         }
+         if (pendingRemoves.contains(fileName)) {
+            return false;
+         }
          return getFileList().contains(fileName);
       } finally {
          readLock.unlock();
@@ -126,6 +170,10 @@ public boolean fileExists(final String fileName) {
    public void deleteFileName(final String fileName) {
       writeLock.lock();
       try {
+         if (coalesceUpdates) {
+            pendingRemove(fileName);
+            return;
+         }
          FileListCacheValue fileList = getFileList();
          boolean done = fileList.remove(fileName);
          if (done) {
@@ -138,6 +186,43 @@ public void deleteFileName(final String fileName) {
       }
    }
 
+   /**
+    * Applies all the coalesced changes to the list of files with a single update. Does nothing when the updates are
+    * not coalesced, as they are applied immediately.
+    */
+   public void flush() {
+      writeLock.lock();
+      try {
+         if (pendingAdds.isEmpty() && pendingRemoves.isEmpty()) {
+            return;
+         }
+         FileListCacheValue fileList = getFileList();
+         boolean done = false;
+         for (String fileName : pendingRemoves) {
+            done |= fileList.remove(fileName);
+         }
+         for (String fileName : pendingAdds) {
+            done |= fileList.add(fileName);
+         }
+         if (done) {
+            updateFileList(fileList);
+            if (trace)
+               log.trace("Updated file listing: added " + pendingAdds + " and removed " + pendingRemoves);
+         }
+         pendingAdds.clear();
+         pendingRemoves.clear();
+      } finally {
+         writeLock.unlock();
+      }
+   }
+
+   @GuardedBy("writeLock")
+   private void pendingRemove(final String fileName) {
+      // removing a file which was never published in the fileList is a no-op on flush
+      pendingAdds.remove(fileName);
+      pendingRemoves.add(fileName);
+   }
+
    /**
     * Makes sure the Cache is updated.
     * @param fileList the new content
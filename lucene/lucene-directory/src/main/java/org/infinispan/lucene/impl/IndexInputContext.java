@@ -12,13 +12,20 @@ public final class IndexInputContext {
    final FileCacheKey fileKey;
    final FileMetadata fileMetadata;
    final SegmentReadLocker readLocks;
+   final ChunkBufferCache chunkBuffers;
 
    public IndexInputContext(AdvancedCache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, FileMetadata fileMetadata,
          SegmentReadLocker readLocks) {
+            this(chunksCache, fileKey, fileMetadata, readLocks, null);
+   }
+
+   IndexInputContext(AdvancedCache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, FileMetadata fileMetadata,
+         SegmentReadLocker readLocks, ChunkBufferCache chunkBuffers) {
             this.chunksCache = chunksCache;
             this.fileKey = fileKey;
             this.fileMetadata = fileMetadata;
             this.readLocks = readLocks;
+            this.chunkBuffers = chunkBuffers;
    }
 
 }
@@ -33,11 +33,15 @@ public class InfinispanIndexInput extends IndexInput {
    private final SegmentReadLocker readLocks;
    private final String filename;
    private final long fileLength;
+   private final ChunkBufferCache chunkBuffers;
+   private final long lastModified;
 
    private int currentBufferSize;
    private byte[] buffer;
    private int bufferPosition;
    private int currentLoadedChunk = -1;
+   // last chunk for which a read-ahead was requested
+   private int readAheadUpTo = -1;
 
    public InfinispanIndexInput(final IndexInputContext ctx) {
       super(ctx.fileKey.getFileName());
@@ -46,14 +50,19 @@ public InfinispanIndexInput(final IndexInputContext ctx) {
       this.chunkSize = ctx.fileMetadata.getBufferSize();
       this.fileLength = ctx.fileMetadata.getSize();
       this.readLocks = ctx.readLocks;
+      this.chunkBuffers = ctx.chunkBuffers;
+      this.lastModified = ctx.fileMetadata.getLastModified();
       this.filename = fileKey.getFileName();
       if (trace) {
          log.tracef("Opened new IndexInput for file:%s in index: %s", filename, fileKey.getIndexName());
       }
    }
 
-   private InfinispanIndexInput(final String resourceDescription, final Cache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, int chunkSize, String filename, long fileLength) {
+   private InfinispanIndexInput(final String resourceDescription, final Cache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, int chunkSize, String filename, long fileLength,
+                                ChunkBufferCache chunkBuffers, long lastModified) {
       super(resourceDescription);
+      this.chunkBuffers = chunkBuffers;
+      this.lastModified = lastModified;
       this.chunksCache = chunksCache;
       this.fileKey = fileKey;
       this.chunkSize = chunkSize;
@@ -95,6 +104,7 @@ public void close() {
       currentBufferSize = 0;
       bufferPosition = 0;
       currentLoadedChunk = -1;
+      readAheadUpTo = -1;
       buffer = null;
       if (isClone) return;
       readLocks.deleteOrReleaseReadLock(filename);
@@ -113,6 +123,10 @@ public void seek(final long pos) {
       bufferPosition = (int) (pos % chunkSize);
       final int targetChunk = (int) (pos / chunkSize);
       if (targetChunk != currentLoadedChunk) {
+         if (targetChunk < currentLoadedChunk) {
+            // moving backwards: the chunks after the target might have been evicted already
+            readAheadUpTo = targetChunk;
+         }
          currentLoadedChunk = targetChunk;
          setBufferToCurrentChunkIfPossible();
       }
@@ -120,12 +134,41 @@ public void seek(final long pos) {
 
    private void nextChunk() throws IOException {
       currentLoadedChunk++;
+      readAheadIfNeeded();
       setBufferToCurrentChunk();
    }
 
+   /**
+    * The file is being read sequentially: prefetch the next chunks, asking for a new batch when half of the previous
+    * one has been consumed.
+    */
+   private void readAheadIfNeeded() {
+      if (chunkBuffers == null || !chunkBuffers.isReadAheadEnabled()) {
+         return;
+      }
+      int readAheadChunks = chunkBuffers.getReadAheadChunks();
+      if (currentLoadedChunk + readAheadChunks / 2 < readAheadUpTo) {
+         return;
+      }
+      int lastChunk = (int) ((fileLength - 1) / chunkSize);
+      int firstChunk = Math.max(currentLoadedChunk + 1, readAheadUpTo + 1);
+      int upTo = Math.min(lastChunk, currentLoadedChunk + readAheadChunks);
+      if (firstChunk <= upTo) {
+         chunkBuffers.readAhead(fileKey.getIndexName(), filename, lastModified, fileLength, chunkSize, firstChunk, upTo);
+      }
+      readAheadUpTo = upTo;
+   }
+
+   private byte[] getChunk(ChunkCacheKey key) {
+      if (chunkBuffers != null) {
+         return chunkBuffers.getChunk(key, lastModified, fileLength);
+      }
+      return (byte[]) chunksCache.get(key);
+   }
+
    private void setBufferToCurrentChunk() throws IOException {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), filename, currentLoadedChunk, chunkSize);
-      buffer = (byte[]) chunksCache.get(key);
+      buffer = getChunk(key);
       if (buffer == null) {
          throw new IOException("Read past EOF: Chunk value could not be found for key " + key);
       }
@@ -136,7 +179,7 @@ private void setBufferToCurrentChunk() throws IOException {
    // RAMDirectory teaches to position the cursor to the end of previous chunk in this case
    private void setBufferToCurrentChunkIfPossible() {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), filename, currentLoadedChunk, chunkSize);
-      buffer = (byte[]) chunksCache.get(key);
+      buffer = getChunk(key);
       if (buffer == null) {
          currentLoadedChunk--;
          bufferPosition = chunkSize;
@@ -166,7 +209,7 @@ public IndexInput slice(String sliceDescription, long offset, long length) throw
    }
 
    InfinispanIndexInput copyAndReset() {
-      return new InfinispanIndexInput(filename, chunksCache, fileKey, chunkSize, filename, fileLength);
+      return new InfinispanIndexInput(filename, chunksCache, fileKey, chunkSize, filename, fileLength, chunkBuffers, lastModified);
    }
 
 }
@@ -1,6 +1,8 @@
 package org.infinispan.lucene.impl;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
 
@@ -17,6 +19,10 @@
 
 /**
  * Responsible for writing to a <code>Directory</code>
+ * <p/>
+ * The chunks are not stored one by one as they are filled but are buffered locally and written with a single putAll
+ * when the output is closed, together with the file metadata when both are stored in the same cache. Large files are
+ * written in batches of at most {@link #MAX_PENDING_BYTES} bytes.
  *
  * @since 4.0
  * @author Sanne Grinovero
@@ -30,6 +36,11 @@ public class InfinispanIndexOutput extends IndexOutput {
    private static final Log log = LogFactory.getLog(InfinispanIndexOutput.class);
    private static final boolean trace = log.isTraceEnabled();
 
+   /**
+    * Maximum size of the chunks kept in memory before being written to the cache
+    */
+   static final int MAX_PENDING_BYTES = 16 * 1024 * 1024;
+
    private final int bufferSize;
    private final Cache<ChunkCacheKey, Object> chunksCache;
    private final Cache<ChunkCacheKey, Object> chunksCacheForStorage;
@@ -38,6 +49,13 @@ public class InfinispanIndexOutput extends IndexOutput {
    private final FileCacheKey fileKey;
    private final FileListOperations fileOps;
    private final Checksum crc = new BufferedChecksum(new CRC32());
+   private final boolean metadataInChunksCache;
+
+   /**
+    * The chunks not yet written to the cache
+    */
+   private final Map<Object, Object> pendingChunks = new HashMap<>();
+   private long pendingBytes = 0;
 
    private byte[] buffer;
 
@@ -59,7 +77,9 @@ public InfinispanIndexOutput(final AdvancedCache<FileCacheKey, FileMetadata> met
       this.fileOps = fileList;
       this.buffer = new byte[this.bufferSize];
       this.firstChunkBuffer = buffer;
-      this.file = new FileMetadata(bufferSize);
+      this.file = new FileMetadata(bufferSize, metadataCache.getComponentRegistry().getTimeService().wallClockTime());
+      this.metadataInChunksCache = metadataCache.getName().equals(chunksCache.getName())
+            && metadataCache.getCacheManager() == chunksCache.getCacheManager();
       if (trace) {
          log.tracef("Opened new IndexOutput for file:%s in index: %s", fileKey.getFileName(), fileKey.getIndexName());
       }
@@ -70,7 +90,10 @@ private byte[] getChunkById(FileCacheKey fileKey, int chunkNumber, int bufferSiz
          return new byte[bufferSize];
       }
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), fileKey.getFileName(), chunkNumber, bufferSize);
-      byte[] readBuffer = (byte[]) chunksCache.get(key);
+      byte[] readBuffer = (byte[]) pendingChunks.get(key);
+      if (readBuffer == null) {
+         readBuffer = (byte[]) chunksCache.get(key);
+      }
       if (readBuffer==null) {
          return new byte[bufferSize];
       }
@@ -162,8 +185,29 @@ protected void storeCurrentBuffer(final boolean isClose) {
     */
    private void storeBufferAsChunk(final byte[] bufferToFlush, final int chunkNumber) {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), fileKey.getFileName(), chunkNumber, bufferSize);
-      if (trace) log.tracef("Storing segment chunk: %s", key);
-      chunksCacheForStorage.put(key, bufferToFlush);
+      if (trace) log.tracef("Buffering segment chunk: %s", key);
+      byte[] previous = (byte[]) pendingChunks.put(key, bufferToFlush);
+      pendingBytes += bufferToFlush.length - (previous == null ? 0 : previous.length);
+      if (pendingBytes >= MAX_PENDING_BYTES) {
+         writePendingChunks();
+      }
+   }
+
+   /**
+    * Writes all the buffered chunks with a single putAll.
+    */
+   private void writePendingChunks() {
+      if (!pendingChunks.isEmpty()) {
+         if (trace) log.tracef("Storing %d segment chunks of %s", pendingChunks.size(), fileKey);
+         putAll(pendingChunks);
+         pendingChunks.clear();
+         pendingBytes = 0;
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private void putAll(Map<Object, Object> entries) {
+      ((Cache<Object, Object>) (Cache) chunksCacheForStorage).putAll(entries);
    }
 
    private void resizeFileIfNeeded() {
@@ -185,7 +229,15 @@ public void close() {
       buffer = null;
       firstChunkBuffer = null;
       // override existing file header with updated accesstime
-      metadataCache.withFlags(Flag.IGNORE_RETURN_VALUES).put(fileKey, file);
+      if (metadataInChunksCache) {
+         // the header is written in the same batch as the last chunks
+         pendingChunks.put(fileKey, file);
+         writePendingChunks();
+      }
+      else {
+         writePendingChunks();
+         metadataCache.withFlags(Flag.IGNORE_RETURN_VALUES).put(fileKey, file);
+      }
       fileOps.addFileName(this.fileKey.getFileName());
       if (trace) {
          log.tracef("Closed IndexOutput for %s", fileKey);
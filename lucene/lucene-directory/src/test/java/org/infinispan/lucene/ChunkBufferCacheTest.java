@@ -0,0 +1,123 @@
+package org.infinispan.lucene;
+
+import java.io.IOException;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.infinispan.Cache;
+import org.infinispan.lucene.directory.DirectoryBuilder;
+import org.infinispan.manager.CacheContainer;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies that reading through the node-local chunk buffer cache and read-ahead returns the current content of the
+ * files, also when a file name is reused by another node.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "lucene.ChunkBufferCacheTest", singleThreaded = true)
+public class ChunkBufferCacheTest {
+
+   private static final String INDEXNAME = "index";
+
+   private static final int CHUNK_SIZE = 64;
+
+   private static final int FILE_SIZE = CHUNK_SIZE * 10 + 13;
+
+   private CacheContainer cacheManager;
+
+   @BeforeTest(alwaysRun = true)
+   public void prepareCacheManager() {
+      cacheManager = CacheTestSupport.createTestCacheManager();
+   }
+
+   @AfterTest(alwaysRun = true)
+   public void killCacheManager() {
+      TestingUtil.killCacheManagers(cacheManager);
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void clearCache() {
+      if (cacheManager != null) {
+         cacheManager.getCache().clear();
+      }
+   }
+
+   public void testReadThroughBufferCacheWithReadAhead() throws IOException {
+      Cache cache = cacheManager.getCache();
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE)
+            .chunkBufferCacheSize(CHUNK_SIZE * 4)
+            .readAhead(3, new WithinThreadExecutor())
+            .create();
+
+      writeFile(dir, "file.bin", (byte) 1);
+      assertFileContent(dir, "file.bin", (byte) 1);
+      // read it again, now mostly from the buffer cache
+      assertFileContent(dir, "file.bin", (byte) 1);
+
+      dir.deleteFile("file.bin");
+      writeFile(dir, "file.bin", (byte) 2);
+      assertFileContent(dir, "file.bin", (byte) 2);
+
+      dir.close();
+   }
+
+   public void testFileRecreatedByAnotherDirectory() throws IOException {
+      Cache cache = cacheManager.getCache();
+      // the two Directory instances stand for two nodes, each having its own buffer cache
+      Directory dir1 = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE)
+            .chunkBufferCacheSize(CHUNK_SIZE * 20)
+            .create();
+      Directory dir2 = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE)
+            .chunkBufferCacheSize(CHUNK_SIZE * 20)
+            .create();
+
+      writeFile(dir1, "file.bin", (byte) 1);
+      assertFileContent(dir1, "file.bin", (byte) 1);
+
+      // make sure the new file does not have the same modification time
+      TestingUtil.sleepThread(10);
+      dir2.deleteFile("file.bin");
+      writeFile(dir2, "file.bin", (byte) 2);
+
+      // same name and length, the chunks buffered by dir1 belong to the deleted file
+      assertFileContent(dir1, "file.bin", (byte) 2);
+
+      dir1.close();
+      dir2.close();
+   }
+
+   private void writeFile(Directory dir, String fileName, byte seed) throws IOException {
+      IndexOutput output = dir.createOutput(fileName, IOContext.DEFAULT);
+      for (int i = 0; i < FILE_SIZE; i++) {
+         output.writeByte((byte) (seed + i));
+      }
+      output.close();
+   }
+
+   private void assertFileContent(Directory dir, String fileName, byte seed) throws IOException {
+      IndexInput input = dir.openInput(fileName, IOContext.DEFAULT);
+      try {
+         AssertJUnit.assertEquals(FILE_SIZE, input.length());
+         for (int i = 0; i < FILE_SIZE; i++) {
+            AssertJUnit.assertEquals((byte) (seed + i), input.readByte());
+         }
+         // random access backwards
+         input.seek(CHUNK_SIZE + 5);
+         AssertJUnit.assertEquals((byte) (seed + CHUNK_SIZE + 5), input.readByte());
+      } finally {
+         input.close();
+      }
+   }
+}
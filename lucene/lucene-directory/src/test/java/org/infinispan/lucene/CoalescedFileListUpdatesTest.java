@@ -0,0 +1,111 @@
+package org.infinispan.lucene;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.infinispan.Cache;
+import org.infinispan.lucene.directory.DirectoryBuilder;
+import org.infinispan.lucene.impl.FileListCacheValue;
+import org.infinispan.manager.CacheContainer;
+import org.infinispan.test.TestingUtil;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies that the changes to the list of files are only published on sync when they are coalesced, while being
+ * visible locally right away.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "lucene.CoalescedFileListUpdatesTest", singleThreaded = true)
+public class CoalescedFileListUpdatesTest {
+
+   private static final String INDEXNAME = "index";
+
+   private static final int CHUNK_SIZE = 64;
+
+   private static final int FILE_SIZE = CHUNK_SIZE * 10 + 13;
+
+   private CacheContainer cacheManager;
+
+   @BeforeTest(alwaysRun = true)
+   public void prepareCacheManager() {
+      cacheManager = CacheTestSupport.createTestCacheManager();
+   }
+
+   @AfterTest(alwaysRun = true)
+   public void killCacheManager() {
+      TestingUtil.killCacheManagers(cacheManager);
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void clearCache() {
+      if (cacheManager != null) {
+         cacheManager.getCache().clear();
+      }
+   }
+
+   public void testFileListPublishedOnSync() throws IOException {
+      Cache cache = cacheManager.getCache();
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEXNAME)
+            .chunkSize(CHUNK_SIZE)
+            .coalesceFileListUpdates(true)
+            .create();
+
+      writeFile(dir, "file.bin", (byte) 1);
+      writeFile(dir, "temp.bin", (byte) 2);
+      AssertJUnit.assertTrue(dir.fileExists("file.bin"));
+      AssertJUnit.assertTrue(dir.fileExists("temp.bin"));
+      AssertJUnit.assertFalse(publishedFileList(cache).contains("file.bin"));
+      assertFileContent(dir, "file.bin", (byte) 1);
+
+      // a file deleted before the commit is never published
+      dir.deleteFile("temp.bin");
+      AssertJUnit.assertFalse(dir.fileExists("temp.bin"));
+
+      dir.sync(Collections.singleton("file.bin"));
+      FileListCacheValue fileList = publishedFileList(cache);
+      AssertJUnit.assertTrue(fileList.contains("file.bin"));
+      AssertJUnit.assertFalse(fileList.contains("temp.bin"));
+
+      dir.deleteFile("file.bin");
+      AssertJUnit.assertFalse(dir.fileExists("file.bin"));
+      AssertJUnit.assertEquals(0, dir.listAll().length);
+      AssertJUnit.assertTrue(publishedFileList(cache).contains("file.bin"));
+
+      dir.close();
+      AssertJUnit.assertFalse(publishedFileList(cache).contains("file.bin"));
+   }
+
+   private FileListCacheValue publishedFileList(Cache cache) {
+      FileListCacheValue fileList = (FileListCacheValue) cache.get(new FileListCacheKey(INDEXNAME));
+      return fileList == null ? new FileListCacheValue() : fileList;
+   }
+
+   private void writeFile(Directory dir, String fileName, byte seed) throws IOException {
+      IndexOutput output = dir.createOutput(fileName, IOContext.DEFAULT);
+      for (int i = 0; i < FILE_SIZE; i++) {
+         output.writeByte((byte) (seed + i));
+      }
+      output.close();
+   }
+
+   private void assertFileContent(Directory dir, String fileName, byte seed) throws IOException {
+      IndexInput input = dir.openInput(fileName, IOContext.DEFAULT);
+      try {
+         AssertJUnit.assertEquals(FILE_SIZE, input.length());
+         for (int i = 0; i < FILE_SIZE; i++) {
+            AssertJUnit.assertEquals((byte) (seed + i), input.readByte());
+         }
+      } finally {
+         input.close();
+      }
+   }
+}
@@ -1,7 +1,12 @@
 package org.infinispan.lucene;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 
+import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.marshall.core.ExternalizerTable;
@@ -51,6 +56,22 @@ public void testFileMetadataExternalizer() throws IOException {
       verifyExternalizerForType(key, FileMetadata.Externalizer.class);
    }
 
+   @Test
+   public void testLegacyFileMetadataFormat() throws IOException {
+      // written without the last modification time, as before 8.0
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+         UnsignedNumeric.writeUnsignedLong(output, 100);
+         UnsignedNumeric.writeUnsignedInt(output, 23);
+      }
+      try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+         FileMetadata metadata = new FileMetadata.LegacyExternalizer().readObject(input);
+         AssertJUnit.assertEquals(100, metadata.getSize());
+         AssertJUnit.assertEquals(23, metadata.getBufferSize());
+         AssertJUnit.assertEquals(0, metadata.getLastModified());
+      }
+   }
+
    @Test
    public void testFileReadLockKeyExternalizer() throws IOException {
       FileReadLockKey key = new FileReadLockKey("myIndex", "index.lock");
@@ -0,0 +1,122 @@
+package org.infinispan.objectfilter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes how the objects matching an {@link ObjectFilter} can be found by looking up indexes on some of their
+ * properties instead of testing every object. Each matching object satisfies at least one of the {@link
+ * #getConditions() conditions}, but the reverse is not true, so the filter must still be applied to the candidates
+ * found by the lookup.
+ *
+ * @since 8.0
+ */
+public final class IndexLookup {
+
+   private final List<Condition> conditions;
+
+   public IndexLookup(List<Condition> conditions) {
+      this.conditions = Collections.unmodifiableList(conditions);
+   }
+
+   /**
+    * The conditions whose union of candidates contains all the matching objects. An empty list means that no object
+    * can match the filter.
+    */
+   public List<Condition> getConditions() {
+      return conditions;
+   }
+
+   @Override
+   public String toString() {
+      return "IndexLookup" + conditions;
+   }
+
+   /**
+    * A constraint on the value of a single property: either a set of accepted values or an interval.
+    */
+   public static final class Condition {
+
+      private final String propertyPath;
+
+      private final Set<Object> values;
+
+      private final Comparable lowerBound;
+
+      private final boolean lowerInclusive;
+
+      private final Comparable upperBound;
+
+      private final boolean upperInclusive;
+
+      private Condition(String propertyPath, Set<Object> values, Comparable lowerBound, boolean lowerInclusive,
+                        Comparable upperBound, boolean upperInclusive) {
+         this.propertyPath = propertyPath;
+         this.values = values;
+         this.lowerBound = lowerBound;
+         this.lowerInclusive = lowerInclusive;
+         this.upperBound = upperBound;
+         this.upperInclusive = upperInclusive;
+      }
+
+      /**
+       * The property value must be one of the given values.
+       */
+      public static Condition values(String propertyPath, Set<Object> values) {
+         return new Condition(propertyPath, Collections.unmodifiableSet(values), null, false, null, false);
+      }
+
+      /**
+       * The property value must be inside the given interval. A {@code null} bound means the interval is unbounded on
+       * that side.
+       */
+      public static Condition range(String propertyPath, Comparable lowerBound, boolean lowerInclusive,
+                                    Comparable upperBound, boolean upperInclusive) {
+         return new Condition(propertyPath, null, lowerBound, lowerInclusive, upperBound, upperInclusive);
+      }
+
+      /**
+       * The '.' separated path of the constrained property.
+       */
+      public String getPropertyPath() {
+         return propertyPath;
+      }
+
+      public boolean isRange() {
+         return values == null;
+      }
+
+      /**
+       * The accepted values, or {@code null} if this is a range condition.
+       */
+      public Set<Object> getValues() {
+         return values;
+      }
+
+      public Comparable getLowerBound() {
+         return lowerBound;
+      }
+
+      public boolean isLowerInclusive() {
+         return lowerInclusive;
+      }
+
+      public Comparable getUpperBound() {
+         return upperBound;
+      }
+
+      public boolean isUpperInclusive() {
+         return upperInclusive;
+      }
+
+      @Override
+      public String toString() {
+         if (values != null) {
+            return propertyPath + " IN " + values;
+         }
+         return propertyPath + " IN " + (lowerInclusive ? '[' : '(') + (lowerBound == null ? "-inf" : lowerBound)
+               + ", " + (upperBound == null ? "+inf" : upperBound) + (upperInclusive ? ']' : ')');
+      }
+   }
+}
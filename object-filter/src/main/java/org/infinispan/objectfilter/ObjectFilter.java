@@ -1,6 +1,7 @@
 package org.infinispan.objectfilter;
 
 import java.util.Comparator;
+import java.util.Set;
 
 /**
  * A filter that tests if an object matches a pre-defined condition and returns either the original instance or the
@@ -42,6 +43,19 @@ public interface ObjectFilter {
     */
    FilterResult filter(Object instance);
 
+   /**
+    * Finds out whether the objects matching this filter can be found using indexes on some of their properties. The
+    * default implementation never uses the indexes.
+    *
+    * @param indexedProperties the '.' separated paths of the indexed properties of the entity type
+    * @return the lookup to perform, or {@code null} if the indexes on the given properties cannot be used and all
+    * objects need to be tested
+    * @since 8.0
+    */
+   default IndexLookup getIndexLookup(Set<String> indexedProperties) {
+      return null;
+   }
+
    /**
     * The output of the {@link ObjectFilter#filter} method.
     */
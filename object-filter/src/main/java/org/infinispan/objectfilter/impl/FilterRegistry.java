@@ -26,6 +26,12 @@
 
    private final List<FilterSubscriptionImpl> filterSubscriptions = new ArrayList<FilterSubscriptionImpl>();
 
+   /**
+    * The filters that have no predicates and are always satisfied. All the other filters can only match if at least
+    * one of their predicates or projections was reached while processing the instance.
+    */
+   private final List<FilterSubscriptionImpl> unconditionalFilterSubscriptions = new ArrayList<FilterSubscriptionImpl>();
+
    private final BETreeMaker<AttributeId> treeMaker;
 
    private final MetadataAdapter<TypeMetadata, AttributeMetadata, AttributeId> metadataAdapter;
@@ -61,9 +67,16 @@ public void match(MatcherEvalContext<?, AttributeMetadata, AttributeId> ctx) {
       // try to match
       ctx.process(predicateIndex.getRoot());
 
-      // notify subscribers
-      for (FilterSubscriptionImpl s : filterSubscriptions) {
-         FilterEvalContext filterEvalContext = ctx.getFilterEvalContext(s);
+      for (FilterSubscriptionImpl s : unconditionalFilterSubscriptions) {
+         ctx.getFilterEvalContext(s);
+      }
+
+      // notify subscribers, visiting only the filters that were reached by the evaluation
+      int[] touchedFilters = ctx.getTouchedFilters();
+      int numTouchedFilters = ctx.getNumTouchedFilters();
+      for (int i = 0; i < numTouchedFilters; i++) {
+         FilterSubscriptionImpl s = filterSubscriptions.get(touchedFilters[i]);
+         FilterEvalContext filterEvalContext = ctx.getExistingFilterEvalContext(touchedFilters[i]);
          if (filterEvalContext.getMatchResult()) {
             // check if event type is matching
             s.getCallback().onFilterResult(ctx.getUserContext(), ctx.getInstance(), ctx.getEventType(), filterEvalContext.getProjection(), filterEvalContext.getSortProjection());
@@ -107,6 +120,9 @@ public FilterSubscriptionImpl<TypeMetadata, AttributeMetadata, AttributeId> addF
       filterSubscription.subscribe(predicateIndex);
       filterSubscription.index = filterSubscriptions.size();
       filterSubscriptions.add(filterSubscription);
+      if (beTree.getNodes().length == 0 && beTree.getChildCounters()[0] == BETree.EXPR_TRUE) {
+         unconditionalFilterSubscriptions.add(filterSubscription);
+      }
       return filterSubscription;
    }
 
@@ -115,6 +131,7 @@ public void removeFilter(FilterSubscription filterSubscription) {
       filterSubscriptionImpl.unregisterProjection(predicateIndex);
       filterSubscriptionImpl.unsubscribe(predicateIndex);
       filterSubscriptions.remove(filterSubscriptionImpl);
+      unconditionalFilterSubscriptions.remove(filterSubscriptionImpl);
       for (int i = filterSubscriptionImpl.index; i < filterSubscriptions.size(); i++) {
          filterSubscriptions.get(i).index--;
       }
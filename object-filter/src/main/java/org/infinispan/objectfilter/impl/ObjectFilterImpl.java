@@ -1,6 +1,7 @@
 package org.infinispan.objectfilter.impl;
 
 import org.infinispan.objectfilter.FilterCallback;
+import org.infinispan.objectfilter.IndexLookup;
 import org.infinispan.objectfilter.ObjectFilter;
 import org.infinispan.objectfilter.SortField;
 import org.infinispan.objectfilter.impl.hql.FilterParsingResult;
@@ -8,8 +9,10 @@
 import org.infinispan.objectfilter.impl.predicateindex.FilterEvalContext;
 import org.infinispan.objectfilter.impl.predicateindex.MatcherEvalContext;
 import org.infinispan.objectfilter.impl.syntax.BooleanExpr;
+import org.infinispan.objectfilter.impl.syntax.IndexLookupPlanner;
 
 import java.util.Comparator;
+import java.util.Set;
 
 /**
  * @author anistor@redhat.com
@@ -23,6 +26,8 @@
 
    private final AttributeNode<AttributeMetadata, AttributeId> root;
 
+   private final BooleanExpr normalizedFilter;
+
    private static final FilterCallback emptyCallback = new FilterCallback() {
       @Override
       public void onFilterResult(Object userContext, Object instance, Object eventType, Object[] projection, Comparable[] sortProjection) {
@@ -34,6 +39,7 @@ public ObjectFilterImpl(BaseMatcher<TypeMetadata, AttributeMetadata, AttributeId
                            MetadataAdapter<TypeMetadata, AttributeMetadata, AttributeId> metadataAdapter,
                            String jpaQuery, FilterParsingResult<TypeMetadata> parsingResult, BooleanExpr normalizedFilter) {
       this.matcher = matcher;
+      this.normalizedFilter = normalizedFilter;
 
       //todo [anistor] we need an efficient single-filter registry
       FilterRegistry<TypeMetadata, AttributeMetadata, AttributeId> filterRegistry = new FilterRegistry<TypeMetadata, AttributeMetadata, AttributeId>(metadataAdapter, false);
@@ -61,6 +67,11 @@ public Comparator<Comparable[]> getComparator() {
       return filterSubscription.getComparator();
    }
 
+   @Override
+   public IndexLookup getIndexLookup(Set<String> indexedProperties) {
+      return new IndexLookupPlanner(indexedProperties).plan(normalizedFilter);
+   }
+
    @Override
    public FilterResult filter(Object instance) {
       if (instance == null) {
@@ -73,7 +84,7 @@ public FilterResult filter(Object instance) {
          matcherEvalContext.process(root);
 
          if (filterEvalContext.getMatchResult()) {
-            return new FilterResultImpl(instance, filterEvalContext.getProjection(), filterEvalContext.getSortProjection());
+            return new FilterResultImpl(matcherEvalContext.getInstance(), filterEvalContext.getProjection(), filterEvalContext.getSortProjection());
          }
       }
 
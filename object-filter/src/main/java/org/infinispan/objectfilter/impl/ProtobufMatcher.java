@@ -5,7 +5,6 @@
 import org.infinispan.objectfilter.impl.hql.ProtobufPropertyHelper;
 import org.infinispan.objectfilter.impl.predicateindex.ProtobufMatcherEvalContext;
 import org.infinispan.protostream.SerializationContext;
-import org.infinispan.protostream.WrappedMessage;
 import org.infinispan.protostream.descriptors.Descriptor;
 import org.infinispan.protostream.descriptors.FieldDescriptor;
 import org.infinispan.protostream.descriptors.JavaType;
@@ -15,6 +14,10 @@
 import java.util.Map;
 
 /**
+ * A matcher for Protobuf encoded instances. The instances to be matched are {@code byte[]} containing a {@link
+ * org.infinispan.protostream.WrappedMessage}, or {@link org.infinispan.objectfilter.impl.util.LazyProtobufMessage}s
+ * of such arrays, which are cheaper to match repeatedly because they are scanned only once.
+ *
  * @author anistor@redhat.com
  * @since 7.0
  */
@@ -26,11 +29,8 @@ public final class ProtobufMatcher extends BaseMatcher<Descriptor, FieldDescript
 
    private final ProtobufPropertyHelper propertyHelper;
 
-   private final Descriptor wrappedMessageDescriptor;
-
    public ProtobufMatcher(SerializationContext serializationContext) {
       this.serializationContext = serializationContext;
-      wrappedMessageDescriptor = serializationContext.getMessageDescriptor(WrappedMessage.PROTOBUF_TYPE_NAME);
       entityNamesResolver = new ProtobufEntityNamesResolver(serializationContext);
       propertyHelper = new ProtobufPropertyHelper(entityNamesResolver, serializationContext);
    }
@@ -56,7 +56,7 @@ protected ProtobufMatcherEvalContext startContext(Object userContext, Object ins
 
    @Override
    protected ProtobufMatcherEvalContext createContext(Object userContext, Object instance, Object eventType) {
-      ProtobufMatcherEvalContext ctx = new ProtobufMatcherEvalContext(userContext, instance, eventType, wrappedMessageDescriptor, serializationContext);
+      ProtobufMatcherEvalContext ctx = new ProtobufMatcherEvalContext(userContext, instance, eventType, serializationContext);
       ctx.unwrapPayload();
       return ctx;
    }
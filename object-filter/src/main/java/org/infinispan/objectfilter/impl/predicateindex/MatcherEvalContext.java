@@ -3,6 +3,7 @@
 import org.infinispan.objectfilter.impl.FilterRegistry;
 import org.infinispan.objectfilter.impl.FilterSubscriptionImpl;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -40,6 +41,15 @@
     */
    private FilterEvalContext[] filterContexts;
 
+   /**
+    * The indexes of the filter subscriptions that got an evaluation context, in creation order. The filters that were
+    * never reached during the traversal of the attribute tree are known not to match, so only these need to be checked
+    * at the end.
+    */
+   private int[] touchedFilters;
+
+   private int numTouchedFilters;
+
    protected MatcherEvalContext(Object userContext, Object instance, Object eventType) {
       this.userContext = userContext;
       this.instance = instance;
@@ -66,6 +76,8 @@ public Object getEventType() {
    public void initMultiFilterContext(FilterRegistry<TypeMetadata, AttributeMetadata, AttributeId> filterRegistry) {
       this.filterRegistry = filterRegistry;
       filterContexts = new FilterEvalContext[filterRegistry.getNumFilters()];
+      touchedFilters = new int[Math.min(filterContexts.length, 16)];
+      numTouchedFilters = 0;
    }
 
    public FilterEvalContext initSingleFilterContext(FilterSubscriptionImpl filterSubscription) {
@@ -86,10 +98,35 @@ public FilterEvalContext getFilterEvalContext(FilterSubscriptionImpl filterSubsc
       if (filterEvalContext == null) {
          filterEvalContext = new FilterEvalContext(this, filterSubscription);
          filterContexts[filterSubscription.index] = filterEvalContext;
+         if (numTouchedFilters == touchedFilters.length) {
+            touchedFilters = Arrays.copyOf(touchedFilters, Math.min(filterContexts.length, touchedFilters.length * 2));
+         }
+         touchedFilters[numTouchedFilters++] = filterSubscription.index;
       }
       return filterEvalContext;
    }
 
+   /**
+    * Returns the evaluation context of a filter subscription if one was created during this match, or null otherwise.
+    */
+   public FilterEvalContext getExistingFilterEvalContext(int filterIndex) {
+      return filterContexts[filterIndex];
+   }
+
+   /**
+    * Returns the indexes of the filter subscriptions that have an evaluation context, sorted ascending so that matching
+    * filters are notified in their registration order. The returned array may be longer than the number of indexes,
+    * see {@link #getNumTouchedFilters()}.
+    */
+   public int[] getTouchedFilters() {
+      Arrays.sort(touchedFilters, 0, numTouchedFilters);
+      return touchedFilters;
+   }
+
+   public int getNumTouchedFilters() {
+      return numTouchedFilters;
+   }
+
    public void addSuspendedSubscription(Predicate<?> predicate) {
       if (isSingleFilter()) {
          return;
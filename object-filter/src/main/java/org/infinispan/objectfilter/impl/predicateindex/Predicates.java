@@ -2,10 +2,13 @@
 
 import org.infinispan.objectfilter.impl.FilterSubscriptionImpl;
 import org.infinispan.objectfilter.impl.predicateindex.be.PredicateNode;
+import org.infinispan.objectfilter.impl.util.Interval;
 import org.infinispan.objectfilter.impl.util.IntervalTree;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Holds all predicates that are subscribed for a certain attribute. This class is not thread safe and leaves this
@@ -87,6 +90,12 @@ public PredicateNode<AttributeId> getPredicateNode() {
     */
    private IntervalTree<AttributeDomain, Subscriptions> orderedPredicates;
 
+   /**
+    * The interval predicates whose interval is a single value (ie. equality), indexed by that value. These are the most
+    * common predicates of continuous queries and are found with a single lookup no matter how many filters use them.
+    */
+   private Map<AttributeDomain, Subscriptions> equalityPredicates;
+
    /**
     * The predicates that are based on an arbitrary condition that is not an order relation.
     */
@@ -97,6 +106,15 @@ public PredicateNode<AttributeId> getPredicateNode() {
    }
 
    public void notifyMatchingSubscribers(final MatcherEvalContext<?, ?, ?> ctx, Object attributeValue) {
+      if (equalityPredicates != null && attributeValue != null) {
+         Subscriptions subscriptions = equalityPredicates.get(attributeValue);
+         if (subscriptions != null && subscriptions.isActive(ctx)) {
+            for (Subscription s : subscriptions.subscriptions) {
+               s.handleValue(ctx, true);
+            }
+         }
+      }
+
       if (orderedPredicates != null && attributeValue instanceof Comparable) {
          orderedPredicates.stab((AttributeDomain) attributeValue, new IntervalTree.NodeCallback<AttributeDomain, Subscriptions>() {
             @Override
@@ -128,7 +146,17 @@ public void handle(IntervalTree.Node<AttributeDomain, Subscriptions> node) {
    public Predicates.Subscription<AttributeId> addPredicateSubscription(PredicateNode predicateNode, FilterSubscriptionImpl filterSubscription) {
       Subscriptions subscriptions;
       Predicate<AttributeDomain> predicate = predicateNode.getPredicate();
-      if (useIntervals && predicate instanceof IntervalPredicate) {
+      if (useIntervals && predicate instanceof IntervalPredicate && isSingleValue(((IntervalPredicate) predicate).getInterval())) {
+         if (equalityPredicates == null) {
+            equalityPredicates = new HashMap<AttributeDomain, Subscriptions>();
+         }
+         AttributeDomain value = ((IntervalPredicate<AttributeDomain>) predicate).getInterval().low;
+         subscriptions = equalityPredicates.get(value);
+         if (subscriptions == null) {
+            subscriptions = new Subscriptions(predicate);
+            equalityPredicates.put(value, subscriptions);
+         }
+      } else if (useIntervals && predicate instanceof IntervalPredicate) {
          if (orderedPredicates == null) {
             // in this case AttributeDomain extends Comparable for sure
             orderedPredicates = new IntervalTree<AttributeDomain, Subscriptions>();
@@ -165,7 +193,18 @@ public Predicates.Subscription<AttributeId> addPredicateSubscription(PredicateNo
 
    public void removePredicateSubscription(Subscription subscription) {
       Predicate<AttributeDomain> predicate = (Predicate<AttributeDomain>) subscription.predicateNode.getPredicate();
-      if (useIntervals && predicate instanceof IntervalPredicate) {
+      if (useIntervals && predicate instanceof IntervalPredicate && isSingleValue(((IntervalPredicate) predicate).getInterval())) {
+         AttributeDomain value = ((IntervalPredicate<AttributeDomain>) predicate).getInterval().low;
+         Subscriptions subscriptions = equalityPredicates != null ? equalityPredicates.get(value) : null;
+         if (subscriptions != null) {
+            subscriptions.remove(subscription);
+            if (subscriptions.isEmpty()) {
+               equalityPredicates.remove(value);
+            }
+         } else {
+            throwIllegalStateException();
+         }
+      } else if (useIntervals && predicate instanceof IntervalPredicate) {
          if (orderedPredicates != null) {
             IntervalTree.Node<AttributeDomain, Subscriptions> n = orderedPredicates.findNode(((IntervalPredicate) predicate).getInterval());
             if (n != null) {
@@ -199,9 +238,14 @@ public void removePredicateSubscription(Subscription subscription) {
 
    public boolean isEmpty() {
       return (unorderedPredicates == null || unorderedPredicates.isEmpty())
+            && (equalityPredicates == null || equalityPredicates.isEmpty())
             && (orderedPredicates == null || orderedPredicates.isEmpty());
    }
 
+   private static boolean isSingleValue(Interval<?> interval) {
+      return interval.includeLower && interval.includeUpper && interval.low.equals(interval.up);
+   }
+
    private static void throwIllegalStateException() throws IllegalStateException {
       // this is not expected to happen unless a programming error slipped through
       throw new IllegalStateException("Reached an invalid state");
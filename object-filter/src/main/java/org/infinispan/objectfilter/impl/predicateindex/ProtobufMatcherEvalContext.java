@@ -1,9 +1,7 @@
 package org.infinispan.objectfilter.impl.predicateindex;
 
-import org.infinispan.protostream.MessageContext;
-import org.infinispan.protostream.ProtobufParser;
+import org.infinispan.objectfilter.impl.util.LazyProtobufMessage;
 import org.infinispan.protostream.SerializationContext;
-import org.infinispan.protostream.TagHandler;
 import org.infinispan.protostream.WrappedMessage;
 import org.infinispan.protostream.descriptors.Descriptor;
 import org.infinispan.protostream.descriptors.FieldDescriptor;
@@ -13,187 +11,155 @@
 import java.io.IOException;
 
 /**
+ * Evaluates the filters on a Protobuf encoded instance. Only the fields that have an attribute node (ie. are used by a
+ * predicate or a projection) are decoded, and the nested messages of the other fields are skipped entirely.
+ *
  * @author anistor@redhat.com
  * @since 7.0
  */
-public class ProtobufMatcherEvalContext extends MatcherEvalContext<Descriptor, FieldDescriptor, Integer> implements TagHandler {
+public class ProtobufMatcherEvalContext extends MatcherEvalContext<Descriptor, FieldDescriptor, Integer> {
 
    private static final Object DUMMY_VALUE = new Object();
 
-   private boolean payloadStarted = false;
-   private int skipping = 0;
+   private final LazyProtobufMessage wrappedMessage;
 
-   private byte[] payload;
-   private String entityTypeName;
+   private LazyProtobufMessage payload;
    private Descriptor payloadMessageDescriptor;
-   private MessageContext messageContext;
 
    private final SerializationContext serializationContext;
-   private final Descriptor wrappedMessageDescriptor;
 
-   public ProtobufMatcherEvalContext(Object userContext, Object instance, Object eventType, Descriptor wrappedMessageDescriptor, SerializationContext serializationContext) {
-      super(userContext, instance, eventType);
-      this.wrappedMessageDescriptor = wrappedMessageDescriptor;
-      this.serializationContext = serializationContext;
+   /**
+    * @param instance a {@link WrappedMessage} encoded as a byte[] or as an already scanned {@link
+    *                 LazyProtobufMessage}, which allows it to be evaluated many times without being scanned again
+    */
+   public ProtobufMatcherEvalContext(Object userContext, Object instance, Object eventType, SerializationContext serializationContext) {
+      this(userContext, toLazyMessage(instance), eventType, serializationContext);
    }
 
-   @Override
-   public Descriptor getEntityType() {
-      return payloadMessageDescriptor;
+   private ProtobufMatcherEvalContext(Object userContext, LazyProtobufMessage wrappedMessage, Object eventType, SerializationContext serializationContext) {
+      // the matching subscribers always get the byte[]
+      super(userContext, wrappedMessage.getBuffer(), eventType);
+      this.wrappedMessage = wrappedMessage;
+      this.serializationContext = serializationContext;
    }
 
-   public void unwrapPayload() {
+   private static LazyProtobufMessage toLazyMessage(Object instance) {
+      if (instance instanceof LazyProtobufMessage) {
+         LazyProtobufMessage message = (LazyProtobufMessage) instance;
+         if (message.getOffset() != 0 || message.getLength() != message.getBuffer().length) {
+            throw new IllegalArgumentException("The message must span its entire buffer");
+         }
+         return message;
+      }
       try {
-         ProtobufParser.INSTANCE.parse(this, wrappedMessageDescriptor, (byte[]) getInstance());
+         return new LazyProtobufMessage((byte[]) instance);
       } catch (IOException e) {
          throw new RuntimeException(e);  // TODO [anistor] proper exception handling needed
       }
    }
 
    @Override
-   public void onStart() {
-   }
-
-   //todo [anistor] missing tags need to be fired with default value defined in proto schema or null if they admit null; missing messages need to be fired with null at end of the nesting level. BTW, seems like this is better to be included in Protostream as a feature
-   @Override
-   public void onTag(int fieldNumber, String fieldName, Type type, JavaType javaType, Object tagValue) {
-      if (payloadStarted) {
-         if (skipping == 0) {
-            AttributeNode<FieldDescriptor, Integer> attrNode = currentNode.getChild(fieldNumber);
-            if (attrNode != null) { // process only 'interesting' tags
-               messageContext.markField(fieldNumber);
-               attrNode.processValue(tagValue, this);
-            }
-         }
-      } else {
-         switch (fieldNumber) {
-            case WrappedMessage.WRAPPED_DESCRIPTOR_FULL_NAME:
-               entityTypeName = (String) tagValue;
-               break;
-
-            case WrappedMessage.WRAPPED_DESCRIPTOR_ID:
-               entityTypeName = serializationContext.getTypeNameById((Integer) tagValue);
-               break;
-
-            case WrappedMessage.WRAPPED_MESSAGE_BYTES:
-               payload = (byte[]) tagValue;
-               break;
-
-            case WrappedMessage.WRAPPED_DOUBLE:
-            case WrappedMessage.WRAPPED_FLOAT:
-            case WrappedMessage.WRAPPED_INT64:
-            case WrappedMessage.WRAPPED_UINT64:
-            case WrappedMessage.WRAPPED_INT32:
-            case WrappedMessage.WRAPPED_FIXED64:
-            case WrappedMessage.WRAPPED_FIXED32:
-            case WrappedMessage.WRAPPED_BOOL:
-            case WrappedMessage.WRAPPED_STRING:
-            case WrappedMessage.WRAPPED_BYTES:
-            case WrappedMessage.WRAPPED_UINT32:
-            case WrappedMessage.WRAPPED_SFIXED32:
-            case WrappedMessage.WRAPPED_SFIXED64:
-            case WrappedMessage.WRAPPED_SINT32:
-            case WrappedMessage.WRAPPED_SINT64:
-            case WrappedMessage.WRAPPED_ENUM:
-               break;
-            // this is a primitive value, which we ignore for now due to lack of support for querying primitives
-
-            default:
-               throw new IllegalStateException("Unexpected field : " + fieldNumber);
-         }
-      }
+   public Descriptor getEntityType() {
+      return payloadMessageDescriptor;
    }
 
-   @Override
-   public void onStartNested(int fieldNumber, String fieldName, Descriptor messageDescriptor) {
-      if (payloadStarted) {
-         if (skipping == 0) {
-            AttributeNode<FieldDescriptor, Integer> attrNode = currentNode.getChild(fieldNumber);
-            if (attrNode != null) { // ignore 'uninteresting' tags
-               messageContext.markField(fieldNumber);
-               pushContext(fieldName, messageDescriptor);
-               currentNode = attrNode;
-               return;
+   public void unwrapPayload() {
+      String entityTypeName = null;
+      try {
+         for (int i = 0; i < wrappedMessage.getNumFields(); i++) {
+            int fieldNumber = wrappedMessage.getFieldNumber(i);
+            switch (fieldNumber) {
+               case WrappedMessage.WRAPPED_DESCRIPTOR_FULL_NAME:
+                  entityTypeName = (String) wrappedMessage.readValue(i, Type.STRING);
+                  break;
+
+               case WrappedMessage.WRAPPED_DESCRIPTOR_ID:
+                  entityTypeName = serializationContext.getTypeNameById((Integer) wrappedMessage.readValue(i, Type.INT32));
+                  break;
+
+               case WrappedMessage.WRAPPED_MESSAGE_BYTES:
+                  // the payload is not copied, it is scanned in place
+                  payload = wrappedMessage.readMessage(i);
+                  break;
+
+               case WrappedMessage.WRAPPED_DOUBLE:
+               case WrappedMessage.WRAPPED_FLOAT:
+               case WrappedMessage.WRAPPED_INT64:
+               case WrappedMessage.WRAPPED_UINT64:
+               case WrappedMessage.WRAPPED_INT32:
+               case WrappedMessage.WRAPPED_FIXED64:
+               case WrappedMessage.WRAPPED_FIXED32:
+               case WrappedMessage.WRAPPED_BOOL:
+               case WrappedMessage.WRAPPED_STRING:
+               case WrappedMessage.WRAPPED_BYTES:
+               case WrappedMessage.WRAPPED_UINT32:
+               case WrappedMessage.WRAPPED_SFIXED32:
+               case WrappedMessage.WRAPPED_SFIXED64:
+               case WrappedMessage.WRAPPED_SINT32:
+               case WrappedMessage.WRAPPED_SINT64:
+               case WrappedMessage.WRAPPED_ENUM:
+                  break;
+               // this is a primitive value, which we ignore for now due to lack of support for querying primitives
+
+               default:
+                  throw new IllegalStateException("Unexpected field : " + fieldNumber);
             }
          }
-
-         // found an uninteresting nesting level, start skipping from here on until this level ends
-         skipping++;
-      } else {
-         throw new IllegalStateException("No nested message is expected");
-      }
-   }
-
-   @Override
-   public void onEndNested(int fieldNumber, String fieldName, Descriptor messageDescriptor) {
-      if (payloadStarted) {
-         if (skipping == 0) {
-            popContext();
-            currentNode = currentNode.getParent();
-         } else {
-            skipping--;
-         }
-      } else {
-         throw new IllegalStateException("No nested message is expected");
+      } catch (IOException e) {
+         throw new RuntimeException(e);  // TODO [anistor] proper exception handling needed
       }
-   }
-
-   @Override
-   public void onEnd() {
-      if (payloadStarted) {
-         processMissingFields();
-      } else {
-         payloadStarted = true;
-
-         if (payload != null) {
-            if (entityTypeName == null) {
-               throw new IllegalStateException("Descriptor name is missing");
-            }
 
-            payloadMessageDescriptor = serializationContext.getMessageDescriptor(entityTypeName);
-            messageContext = new MessageContext<MessageContext>(null, null, payloadMessageDescriptor);
+      if (payload != null) {
+         if (entityTypeName == null) {
+            throw new IllegalStateException("Descriptor name is missing");
          }
+         payloadMessageDescriptor = serializationContext.getMessageDescriptor(entityTypeName);
       }
    }
 
    @Override
    protected void processAttributes(AttributeNode<FieldDescriptor, Integer> node, Object instance) {
       try {
-         ProtobufParser.INSTANCE.parse(this, payloadMessageDescriptor, payload);
+         processMessage(node, payload);
       } catch (IOException e) {
          throw new RuntimeException(e);  // TODO [anistor] proper exception handling needed
       }
    }
 
-   private void pushContext(String fieldName, Descriptor messageDescriptor) {
-      messageContext = new MessageContext<MessageContext>(messageContext, fieldName, messageDescriptor);
-   }
-
-   private void popContext() {
-      processMissingFields();
-      messageContext = messageContext.getParentContext();
-   }
+   /**
+    * Processes the fields of a message that have a child node of the given attribute node. Fields that are missing are
+    * processed with their default value defined in the schema, or null if they do not have one.
+    */
+   private void processMessage(AttributeNode<FieldDescriptor, Integer> node, LazyProtobufMessage message) throws IOException {
+      for (AttributeNode<FieldDescriptor, Integer> attributeNode : node.getChildren()) {
+         FieldDescriptor fd = attributeNode.getMetadata();
+         int fieldNumber = attributeNode.getAttribute();
+         boolean fieldSeen = false;
+         for (int i = message.indexOf(fieldNumber); i >= 0; i = message.indexOf(fieldNumber, i + 1)) {
+            fieldSeen = true;
+            if (fd.getJavaType() == JavaType.MESSAGE) {
+               currentNode = attributeNode;
+               processMessage(attributeNode, message.readMessage(i));
+               currentNode = node;
+            } else {
+               attributeNode.processValue(message.readValue(i, fd.getType()), this);
+            }
+         }
 
-   private void processMissingFields() {
-      for (FieldDescriptor fd : messageContext.getMessageDescriptor().getFields()) {
-         AttributeNode<FieldDescriptor, Integer> attributeNode = currentNode.getChild(fd.getNumber());
-         boolean fieldSeen = messageContext.isFieldMarked(fd.getNumber());
-         if (attributeNode != null && (fd.isRepeated() || !fieldSeen)) {
-            if (fd.isRepeated()) {
-               // Repeated fields can't have default values but we need to at least take care of IS [NOT] NULL predicates
-               if (fieldSeen) {
-                  // Here we use a dummy value since it would not matter anyway for IS [NOT] NULL
-                  attributeNode.processValue(DUMMY_VALUE, this);
-               } else {
-                  processNullAttribute(attributeNode);
-               }
+         if (fd.isRepeated()) {
+            // Repeated fields can't have default values but we need to at least take care of IS [NOT] NULL predicates
+            if (fieldSeen) {
+               // Here we use a dummy value since it would not matter anyway for IS [NOT] NULL
+               attributeNode.processValue(DUMMY_VALUE, this);
+            } else {
+               processNullAttribute(attributeNode);
+            }
+         } else if (!fieldSeen) {
+            if (fd.getJavaType() == JavaType.MESSAGE) {
+               processNullAttribute(attributeNode);
             } else {
-               if (fd.getJavaType() == JavaType.MESSAGE) {
-                  processNullAttribute(attributeNode);
-               } else {
-                  Object defaultValue = fd.hasDefaultValue() ? fd.getDefaultValue() : null;
-                  attributeNode.processValue(defaultValue, this);
-               }
+               Object defaultValue = fd.hasDefaultValue() ? fd.getDefaultValue() : null;
+               attributeNode.processValue(defaultValue, this);
             }
          }
       }
@@ -0,0 +1,184 @@
+package org.infinispan.objectfilter.impl.syntax;
+
+import org.infinispan.objectfilter.IndexLookup;
+import org.infinispan.objectfilter.impl.util.StringHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds, in a normalized boolean expression (see {@link BooleanFilterNormalizer}), the equality, IN and interval
+ * predicates on indexed properties that can be used to find the candidate matches by index lookups. Predicates on
+ * repeated properties, negated predicates and LIKE/IS NULL predicates are never used. If the expression has no
+ * usable predicate no lookup is produced and the caller has to fall back to testing all objects.
+ *
+ * @since 8.0
+ */
+public final class IndexLookupPlanner {
+
+   private final Set<String> indexedProperties;
+
+   public IndexLookupPlanner(Set<String> indexedProperties) {
+      this.indexedProperties = indexedProperties;
+   }
+
+   /**
+    * @param normalizedFilter the normalized filter
+    * @return the lookup or {@code null} if the indexes cannot be used for this filter
+    */
+   public IndexLookup plan(BooleanExpr normalizedFilter) {
+      if (indexedProperties.isEmpty()) {
+         return null;
+      }
+      List<IndexLookup.Condition> conditions = plan0(normalizedFilter);
+      return conditions != null ? new IndexLookup(conditions) : null;
+   }
+
+   private List<IndexLookup.Condition> plan0(BooleanExpr expr) {
+      if (expr instanceof ConstantBooleanExpr) {
+         // FALSE cannot match anything, TRUE matches everything
+         return ((ConstantBooleanExpr) expr).getValue() ? null : Collections.<IndexLookup.Condition>emptyList();
+      }
+      if (expr instanceof ComparisonExpr) {
+         IndexLookup.Condition condition = makeCondition((ComparisonExpr) expr);
+         return condition != null ? Collections.singletonList(condition) : null;
+      }
+      if (expr instanceof OrExpr) {
+         return planDisjunction(((OrExpr) expr).getChildren());
+      }
+      if (expr instanceof AndExpr) {
+         return planConjunction(((AndExpr) expr).getChildren());
+      }
+      return null;
+   }
+
+   /**
+    * A disjunction can only use the indexes if all its children can. Equality conditions on the same property are
+    * merged, so that an IN predicate turns into a single multi-value lookup.
+    */
+   private List<IndexLookup.Condition> planDisjunction(List<BooleanExpr> children) {
+      Map<String, Set<Object>> valuesByProperty = new LinkedHashMap<String, Set<Object>>();
+      List<IndexLookup.Condition> conditions = new ArrayList<IndexLookup.Condition>();
+      for (BooleanExpr child : children) {
+         List<IndexLookup.Condition> childConditions = plan0(child);
+         if (childConditions == null) {
+            return null;
+         }
+         for (IndexLookup.Condition c : childConditions) {
+            if (c.isRange()) {
+               conditions.add(c);
+            } else {
+               Set<Object> values = valuesByProperty.get(c.getPropertyPath());
+               if (values == null) {
+                  values = new HashSet<Object>();
+                  valuesByProperty.put(c.getPropertyPath(), values);
+               }
+               values.addAll(c.getValues());
+            }
+         }
+      }
+      for (Map.Entry<String, Set<Object>> e : valuesByProperty.entrySet()) {
+         conditions.add(IndexLookup.Condition.values(e.getKey(), e.getValue()));
+      }
+      return conditions;
+   }
+
+   /**
+    * A conjunction needs only one of its children to be usable. The intervals on the same property are intersected
+    * first, then the most selective alternative is chosen.
+    */
+   private List<IndexLookup.Condition> planConjunction(List<BooleanExpr> children) {
+      Map<String, IndexLookup.Condition> rangeByProperty = new LinkedHashMap<String, IndexLookup.Condition>();
+      List<IndexLookup.Condition> best = null;
+      for (BooleanExpr child : children) {
+         if (child instanceof ComparisonExpr) {
+            IndexLookup.Condition c = makeCondition((ComparisonExpr) child);
+            if (c != null && c.isRange()) {
+               IndexLookup.Condition other = rangeByProperty.get(c.getPropertyPath());
+               rangeByProperty.put(c.getPropertyPath(), other == null ? c : intersect(other, c));
+               continue;
+            }
+         }
+         List<IndexLookup.Condition> childConditions = plan0(child);
+         if (childConditions != null && (best == null || cost(childConditions) < cost(best))) {
+            best = childConditions;
+         }
+      }
+      for (IndexLookup.Condition range : rangeByProperty.values()) {
+         List<IndexLookup.Condition> childConditions = Collections.singletonList(range);
+         if (best == null || cost(childConditions) < cost(best)) {
+            best = childConditions;
+         }
+      }
+      return best;
+   }
+
+   /**
+    * Estimates the cost of a lookup: equality lookups are assumed to be more selective than interval lookups.
+    */
+   private static long cost(List<IndexLookup.Condition> conditions) {
+      long cost = 0;
+      for (IndexLookup.Condition c : conditions) {
+         cost += c.isRange() ? Integer.MAX_VALUE : c.getValues().size();
+      }
+      return cost;
+   }
+
+   @SuppressWarnings("unchecked")
+   private static IndexLookup.Condition intersect(IndexLookup.Condition first, IndexLookup.Condition second) {
+      Comparable lower = first.getLowerBound();
+      boolean lowerInclusive = first.isLowerInclusive();
+      if (second.getLowerBound() != null) {
+         int cmp = lower == null ? -1 : lower.compareTo(second.getLowerBound());
+         if (cmp < 0 || cmp == 0 && !second.isLowerInclusive()) {
+            lower = second.getLowerBound();
+            lowerInclusive = second.isLowerInclusive();
+         }
+      }
+      Comparable upper = first.getUpperBound();
+      boolean upperInclusive = first.isUpperInclusive();
+      if (second.getUpperBound() != null) {
+         int cmp = upper == null ? 1 : upper.compareTo(second.getUpperBound());
+         if (cmp > 0 || cmp == 0 && !second.isUpperInclusive()) {
+            upper = second.getUpperBound();
+            upperInclusive = second.isUpperInclusive();
+         }
+      }
+      return IndexLookup.Condition.range(first.getPropertyPath(), lower, lowerInclusive, upper, upperInclusive);
+   }
+
+   private IndexLookup.Condition makeCondition(ComparisonExpr comparisonExpr) {
+      if (!(comparisonExpr.getLeftChild() instanceof PropertyValueExpr) || !(comparisonExpr.getRightChild() instanceof ConstantValueExpr)) {
+         return null;
+      }
+      PropertyValueExpr propertyValueExpr = (PropertyValueExpr) comparisonExpr.getLeftChild();
+      if (propertyValueExpr.isRepeated()) {
+         return null;
+      }
+      String propertyPath = StringHelper.join(propertyValueExpr.getPropertyPath(), ".");
+      if (!indexedProperties.contains(propertyPath)) {
+         return null;
+      }
+      Comparable value = ((ConstantValueExpr) comparisonExpr.getRightChild()).getConstantValue();
+      switch (comparisonExpr.getComparisonType()) {
+         case EQUAL:
+            return IndexLookup.Condition.values(propertyPath, Collections.<Object>singleton(value));
+         case LESS:
+            return IndexLookup.Condition.range(propertyPath, null, false, value, false);
+         case LESS_OR_EQUAL:
+            return IndexLookup.Condition.range(propertyPath, null, false, value, true);
+         case GREATER:
+            return IndexLookup.Condition.range(propertyPath, value, false, null, false);
+         case GREATER_OR_EQUAL:
+            return IndexLookup.Condition.range(propertyPath, value, true, null, false);
+         default:
+            // NOT_EQUAL matches nearly everything, an index does not help
+            return null;
+      }
+   }
+}
@@ -0,0 +1,329 @@
+package org.infinispan.objectfilter.impl.util;
+
+import org.infinispan.protostream.descriptors.Type;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * A Protocol Buffers encoded message that is decoded lazily. The message is scanned once to find where each field
+ * occurrence starts, without decoding the values, and nested messages are skipped by their length prefix. Values are
+ * decoded only when asked for, and nested messages are scanned on demand and then cached, so an instance can be
+ * evaluated repeatedly without scanning the bytes again.
+ * <p/>
+ * Instances are safe to be shared between threads. The cache of nested messages may be populated concurrently, in
+ * which case a nested message might be scanned more than once, which is harmless.
+ *
+ * @since 8.0
+ */
+public final class LazyProtobufMessage {
+
+   private static final int WIRETYPE_VARINT = 0;
+   private static final int WIRETYPE_FIXED64 = 1;
+   private static final int WIRETYPE_LENGTH_DELIMITED = 2;
+   private static final int WIRETYPE_START_GROUP = 3;
+   private static final int WIRETYPE_END_GROUP = 4;
+   private static final int WIRETYPE_FIXED32 = 5;
+
+   private static final Charset UTF8 = Charset.forName("UTF-8");
+
+   private final byte[] buf;
+
+   private final int offset;
+
+   private final int length;
+
+   private final int numFields;
+
+   /**
+    * The field number of each field occurrence, in the order they were encoded.
+    */
+   private final int[] fieldNumbers;
+
+   private final int[] wireTypes;
+
+   /**
+    * The position of the value of each field occurrence, after the tag and the length prefix (if any).
+    */
+   private final int[] valueOffsets;
+
+   /**
+    * The length of the value of length delimited fields and groups. Not used for the other wire types.
+    */
+   private final int[] valueLengths;
+
+   private final LazyProtobufMessage[] nestedMessages;
+
+   public LazyProtobufMessage(byte[] buf) throws IOException {
+      this(buf, 0, buf.length);
+   }
+
+   public LazyProtobufMessage(byte[] buf, int offset, int length) throws IOException {
+      if (offset < 0 || length < 0 || offset + length > buf.length) {
+         throw new IllegalArgumentException("Invalid offset or length");
+      }
+      this.buf = buf;
+      this.offset = offset;
+      this.length = length;
+
+      int[] fieldNumbers = new int[8];
+      int[] wireTypes = new int[8];
+      int[] valueOffsets = new int[8];
+      int[] valueLengths = new int[8];
+      int count = 0;
+      int end = offset + length;
+      int[] pos = {offset};
+      while (pos[0] < end) {
+         int tag = (int) readVarint(buf, pos, end);
+         int fieldNumber = tag >>> 3;
+         int wireType = tag & 7;
+         if (fieldNumber == 0 || wireType == WIRETYPE_END_GROUP) {
+            throw new IOException("Malformed Protobuf message: unexpected tag " + tag);
+         }
+         if (count == fieldNumbers.length) {
+            fieldNumbers = Arrays.copyOf(fieldNumbers, count * 2);
+            wireTypes = Arrays.copyOf(wireTypes, count * 2);
+            valueOffsets = Arrays.copyOf(valueOffsets, count * 2);
+            valueLengths = Arrays.copyOf(valueLengths, count * 2);
+         }
+         fieldNumbers[count] = fieldNumber;
+         wireTypes[count] = wireType;
+         if (wireType == WIRETYPE_LENGTH_DELIMITED) {
+            int len = (int) readVarint(buf, pos, end);
+            if (len < 0 || pos[0] + len > end) {
+               throw new IOException("Malformed Protobuf message: invalid length " + len);
+            }
+            valueOffsets[count] = pos[0];
+            valueLengths[count] = len;
+            pos[0] += len;
+         } else if (wireType == WIRETYPE_START_GROUP) {
+            valueOffsets[count] = pos[0];
+            valueLengths[count] = skipGroup(buf, pos, end, fieldNumber) - valueOffsets[count];
+         } else {
+            valueOffsets[count] = pos[0];
+            skipValue(buf, pos, end, wireType);
+         }
+         count++;
+      }
+
+      this.numFields = count;
+      this.fieldNumbers = fieldNumbers;
+      this.wireTypes = wireTypes;
+      this.valueOffsets = valueOffsets;
+      this.valueLengths = valueLengths;
+      this.nestedMessages = new LazyProtobufMessage[count];
+   }
+
+   /**
+    * The buffer holding the encoded message, which may contain other data too.
+    */
+   public byte[] getBuffer() {
+      return buf;
+   }
+
+   public int getOffset() {
+      return offset;
+   }
+
+   public int getLength() {
+      return length;
+   }
+
+   /**
+    * The number of field occurrences in this message. A repeated field counts once for each of its values.
+    */
+   public int getNumFields() {
+      return numFields;
+   }
+
+   public int getFieldNumber(int index) {
+      return fieldNumbers[index];
+   }
+
+   /**
+    * Finds the first occurrence of a field, starting from a given index.
+    *
+    * @return the index of the occurrence or -1 if the field is not present after {@code fromIndex}
+    */
+   public int indexOf(int fieldNumber, int fromIndex) {
+      for (int i = fromIndex; i < numFields; i++) {
+         if (fieldNumbers[i] == fieldNumber) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   public int indexOf(int fieldNumber) {
+      return indexOf(fieldNumber, 0);
+   }
+
+   /**
+    * The position in the buffer of the value of a length delimited field (ie. a string, bytes or message), after the
+    * length prefix.
+    */
+   public int getValueOffset(int index) {
+      return valueOffsets[index];
+   }
+
+   public int getValueLength(int index) {
+      checkWireType(index, WIRETYPE_LENGTH_DELIMITED);
+      return valueLengths[index];
+   }
+
+   /**
+    * Decodes the value of a scalar field occurrence. The value is represented by the same Java type the {@code
+    * ProtobufParser} of Protostream uses for the given Protobuf type.
+    */
+   public Object readValue(int index, Type type) throws IOException {
+      int[] pos = {valueOffsets[index]};
+      int end = offset + length;
+      switch (type) {
+         case DOUBLE:
+            checkWireType(index, WIRETYPE_FIXED64);
+            return Double.longBitsToDouble(readFixed64(buf, pos, end));
+         case FLOAT:
+            checkWireType(index, WIRETYPE_FIXED32);
+            return Float.intBitsToFloat(readFixed32(buf, pos, end));
+         case INT64:
+         case UINT64:
+            checkWireType(index, WIRETYPE_VARINT);
+            return readVarint(buf, pos, end);
+         case SINT64:
+            checkWireType(index, WIRETYPE_VARINT);
+            long l = readVarint(buf, pos, end);
+            return (l >>> 1) ^ -(l & 1);
+         case FIXED64:
+         case SFIXED64:
+            checkWireType(index, WIRETYPE_FIXED64);
+            return readFixed64(buf, pos, end);
+         case INT32:
+         case UINT32:
+         case ENUM:
+            checkWireType(index, WIRETYPE_VARINT);
+            return (int) readVarint(buf, pos, end);
+         case SINT32:
+            checkWireType(index, WIRETYPE_VARINT);
+            int i = (int) readVarint(buf, pos, end);
+            return (i >>> 1) ^ -(i & 1);
+         case FIXED32:
+         case SFIXED32:
+            checkWireType(index, WIRETYPE_FIXED32);
+            return readFixed32(buf, pos, end);
+         case BOOL:
+            checkWireType(index, WIRETYPE_VARINT);
+            return readVarint(buf, pos, end) != 0;
+         case STRING:
+            checkWireType(index, WIRETYPE_LENGTH_DELIMITED);
+            return new String(buf, valueOffsets[index], valueLengths[index], UTF8);
+         case BYTES:
+            checkWireType(index, WIRETYPE_LENGTH_DELIMITED);
+            return Arrays.copyOfRange(buf, valueOffsets[index], valueOffsets[index] + valueLengths[index]);
+         default:
+            throw new IllegalArgumentException("Not a scalar type : " + type);
+      }
+   }
+
+   /**
+    * Returns the nested message (or group) of a field occurrence. The nested message shares the buffer of this one and
+    * is scanned only the first time it is requested.
+    */
+   public LazyProtobufMessage readMessage(int index) throws IOException {
+      LazyProtobufMessage nestedMessage = nestedMessages[index];
+      if (nestedMessage == null) {
+         if (wireTypes[index] != WIRETYPE_LENGTH_DELIMITED && wireTypes[index] != WIRETYPE_START_GROUP) {
+            throw new IOException("Field " + fieldNumbers[index] + " is not a message");
+         }
+         nestedMessage = new LazyProtobufMessage(buf, valueOffsets[index], valueLengths[index]);
+         nestedMessages[index] = nestedMessage;
+      }
+      return nestedMessage;
+   }
+
+   private void checkWireType(int index, int expectedWireType) throws IOException {
+      if (wireTypes[index] != expectedWireType) {
+         throw new IOException("Field " + fieldNumbers[index] + " has wire type " + wireTypes[index] + " but " + expectedWireType + " was expected");
+      }
+   }
+
+   private static long readVarint(byte[] buf, int[] pos, int end) throws IOException {
+      long result = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+         if (pos[0] >= end) {
+            throw new IOException("Malformed Protobuf message: truncated varint");
+         }
+         byte b = buf[pos[0]++];
+         result |= (long) (b & 0x7F) << shift;
+         if ((b & 0x80) == 0) {
+            return result;
+         }
+      }
+      throw new IOException("Malformed Protobuf message: varint is too long");
+   }
+
+   private static long readFixed64(byte[] buf, int[] pos, int end) throws IOException {
+      return (readFixed32(buf, pos, end) & 0xFFFFFFFFL) | ((long) readFixed32(buf, pos, end) << 32);
+   }
+
+   private static int readFixed32(byte[] buf, int[] pos, int end) throws IOException {
+      int p = pos[0];
+      if (p + 4 > end) {
+         throw new IOException("Malformed Protobuf message: truncated fixed32");
+      }
+      pos[0] = p + 4;
+      return (buf[p] & 0xFF) | ((buf[p + 1] & 0xFF) << 8) | ((buf[p + 2] & 0xFF) << 16) | ((buf[p + 3] & 0xFF) << 24);
+   }
+
+   private static void skipValue(byte[] buf, int[] pos, int end, int wireType) throws IOException {
+      switch (wireType) {
+         case WIRETYPE_VARINT:
+            readVarint(buf, pos, end);
+            break;
+         case WIRETYPE_FIXED64:
+            if (pos[0] + 8 > end) {
+               throw new IOException("Malformed Protobuf message: truncated fixed64");
+            }
+            pos[0] += 8;
+            break;
+         case WIRETYPE_FIXED32:
+            if (pos[0] + 4 > end) {
+               throw new IOException("Malformed Protobuf message: truncated fixed32");
+            }
+            pos[0] += 4;
+            break;
+         default:
+            throw new IOException("Malformed Protobuf message: unknown wire type " + wireType);
+      }
+   }
+
+   /**
+    * Skips the fields of a group, including nested groups, and its end tag.
+    *
+    * @return the position of the end tag of the group
+    */
+   private static int skipGroup(byte[] buf, int[] pos, int end, int fieldNumber) throws IOException {
+      while (pos[0] < end) {
+         int tagStart = pos[0];
+         int tag = (int) readVarint(buf, pos, end);
+         int wireType = tag & 7;
+         if (wireType == WIRETYPE_END_GROUP) {
+            if (tag >>> 3 != fieldNumber) {
+               throw new IOException("Malformed Protobuf message: unexpected end of group " + (tag >>> 3));
+            }
+            return tagStart;
+         } else if (wireType == WIRETYPE_START_GROUP) {
+            skipGroup(buf, pos, end, tag >>> 3);
+         } else if (wireType == WIRETYPE_LENGTH_DELIMITED) {
+            int len = (int) readVarint(buf, pos, end);
+            if (len < 0 || pos[0] + len > end) {
+               throw new IOException("Malformed Protobuf message: invalid length " + len);
+            }
+            pos[0] += len;
+         } else {
+            skipValue(buf, pos, end, wireType);
+         }
+      }
+      throw new IOException("Malformed Protobuf message: group " + fieldNumber + " is not terminated");
+   }
+}
@@ -0,0 +1,119 @@
+package org.infinispan.objectfilter.impl.util;
+
+import org.infinispan.protostream.descriptors.Type;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 8.0
+ */
+public class LazyProtobufMessageTest {
+
+   private static final Charset UTF8 = Charset.forName("UTF-8");
+
+   @Test
+   public void testScalarFields() throws Exception {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      writeTag(out, 1, 0);
+      writeVarint(out, -5L);
+      writeTag(out, 2, 2);
+      writeBytes(out, "John".getBytes(UTF8));
+      writeTag(out, 3, 0);
+      writeVarint(out, 5L);  // zigzag encoding of -3
+      writeTag(out, 4, 1);
+      writeFixed(out, Double.doubleToLongBits(1.5d), 8);
+      writeTag(out, 5, 5);
+      writeFixed(out, 7, 4);
+      writeTag(out, 6, 0);
+      writeVarint(out, 1L);
+
+      LazyProtobufMessage message = new LazyProtobufMessage(out.toByteArray());
+      assertEquals(6, message.getNumFields());
+      assertEquals(-5, message.readValue(message.indexOf(1), Type.INT32));
+      assertEquals(-5L, message.readValue(message.indexOf(1), Type.INT64));
+      assertEquals("John", message.readValue(message.indexOf(2), Type.STRING));
+      assertEquals(-3, message.readValue(message.indexOf(3), Type.SINT32));
+      assertEquals(1.5d, message.readValue(message.indexOf(4), Type.DOUBLE));
+      assertEquals(7, message.readValue(message.indexOf(5), Type.FIXED32));
+      assertEquals(true, message.readValue(message.indexOf(6), Type.BOOL));
+      assertEquals(-1, message.indexOf(7));
+   }
+
+   @Test
+   public void testNestedMessages() throws Exception {
+      ByteArrayOutputStream nested = new ByteArrayOutputStream();
+      writeTag(nested, 1, 2);
+      writeBytes(nested, "Main Street".getBytes(UTF8));
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      writeTag(out, 4, 2);
+      writeBytes(out, nested.toByteArray());
+      writeTag(out, 2, 2);
+      writeBytes(out, "John".getBytes(UTF8));
+      writeTag(out, 4, 2);
+      writeBytes(out, nested.toByteArray());
+      // a group containing a string
+      writeTag(out, 5, 3);
+      writeTag(out, 1, 2);
+      writeBytes(out, "Old Street".getBytes(UTF8));
+      writeTag(out, 5, 4);
+
+      LazyProtobufMessage message = new LazyProtobufMessage(out.toByteArray());
+      assertEquals(4, message.getNumFields());
+
+      int first = message.indexOf(4);
+      int second = message.indexOf(4, first + 1);
+      assertEquals(0, first);
+      assertEquals(2, second);
+      assertEquals(-1, message.indexOf(4, second + 1));
+
+      LazyProtobufMessage address = message.readMessage(first);
+      assertEquals(1, address.getNumFields());
+      assertEquals("Main Street", address.readValue(0, Type.STRING));
+      assertSame(address, message.readMessage(first));
+      assertTrue(address.getBuffer() == message.getBuffer());
+
+      LazyProtobufMessage group = message.readMessage(message.indexOf(5));
+      assertEquals(1, group.getNumFields());
+      assertEquals("Old Street", group.readValue(0, Type.STRING));
+   }
+
+   @Test(expectedExceptions = IOException.class)
+   public void testTruncatedMessage() throws Exception {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      writeTag(out, 2, 2);
+      writeVarint(out, 10L);
+      out.write(1);
+      new LazyProtobufMessage(out.toByteArray());
+   }
+
+   private static void writeTag(ByteArrayOutputStream out, int fieldNumber, int wireType) {
+      writeVarint(out, (fieldNumber << 3) | wireType);
+   }
+
+   private static void writeVarint(ByteArrayOutputStream out, long value) {
+      while ((value & ~0x7FL) != 0) {
+         out.write((int) ((value & 0x7F) | 0x80));
+         value >>>= 7;
+      }
+      out.write((int) value);
+   }
+
+   private static void writeFixed(ByteArrayOutputStream out, long value, int numBytes) {
+      for (int i = 0; i < numBytes; i++) {
+         out.write((int) (value >>> (8 * i)) & 0xFF);
+      }
+   }
+
+   private static void writeBytes(ByteArrayOutputStream out, byte[] bytes) {
+      writeVarint(out, bytes.length);
+      out.write(bytes, 0, bytes.length);
+   }
+}
@@ -27,6 +27,10 @@
 
    private final int NUM_FILTERS = 1;
 
+   private final int MANY_FILTERS = 10000;
+
+   private final int MANY_FILTERS_ITERATIONS = 100000;
+
    @Test
    public void testLikeMatchPerf() throws Exception {
       long time = measureMatch("from org.infinispan.objectfilter.test.model.Person p where p.name like 'Jo%'");
@@ -70,6 +74,49 @@ public void onFilterResult(Object userContext, Object instance, Object eventType
       return System.nanoTime() - stime;
    }
 
+   /**
+    * Many continuous queries registered with the same matcher, of which only a few are satisfied by the instance.
+    */
+   @Test
+   public void testManyFiltersMatchPerf() throws Exception {
+      Matcher matcher = createMatcher();
+
+      Object obj = createPerson1();
+
+      final int[] matchCount = new int[1];
+      FilterCallback callback = new FilterCallback() {
+         @Override
+         public void onFilterResult(Object userContext, Object instance, Object eventType, Object[] projection, Comparable[] sortProjection) {
+            matchCount[0]++;
+         }
+      };
+
+      for (int k = 0; k < MANY_FILTERS; k++) {
+         switch (k % 3) {
+            case 0:
+               matcher.registerFilter("from org.infinispan.objectfilter.test.model.Person p where p.age = " + k, callback);
+               break;
+            case 1:
+               matcher.registerFilter("from org.infinispan.objectfilter.test.model.Person p where p.name = 'John" + k + "' and p.surname = 'Batman'", callback);
+               break;
+            default:
+               matcher.registerFilter("from org.infinispan.objectfilter.test.model.Person p where p.age > " + k + " and p.address.postCode = 'SW12345'", callback);
+         }
+      }
+
+      // John Batman is 40 years old, so only the range filters having k < 40 are satisfied
+      int expectedMatches = 13;
+
+      long stime = System.nanoTime();
+      for (int i = 0; i < MANY_FILTERS_ITERATIONS; i++) {
+         matchCount[0] = 0;
+         matcher.match(null, obj, null);
+         assertEquals(expectedMatches, matchCount[0]);
+      }
+      long time = System.nanoTime() - stime;
+      System.out.println(getClass().getSimpleName() + ".testManyFiltersMatchPerf " + (time / 1000d / MANY_FILTERS_ITERATIONS) + "us");
+   }
+
    @Test
    public void testSimpleObjectFilterPerf() throws Exception {
       long time = measureFilter("from org.infinispan.objectfilter.test.model.Person p where p.name is not null");
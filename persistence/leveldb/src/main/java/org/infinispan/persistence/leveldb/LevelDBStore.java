@@ -6,15 +6,18 @@
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.ConfiguredBy;
+import org.infinispan.commons.hash.MurmurHash3;
 import org.infinispan.commons.util.Util;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
@@ -34,6 +37,8 @@
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.Snapshot;
+import org.iq80.leveldb.WriteBatch;
 
 @ConfiguredBy(LevelDBStoreConfiguration.class)
 public class LevelDBStore implements AdvancedLoadWriteStore {
@@ -43,6 +48,22 @@ public class LevelDBStore implements AdvancedLoadWriteStore {
    private static final String JAVA_DB_FACTORY_CLASS_NAME = "org.iq80.leveldb.impl.Iq80DBFactory";
    private static final String[] DB_FACTORY_CLASS_NAMES = new String[] { JNI_DB_FACTORY_CLASS_NAME, JAVA_DB_FACTORY_CLASS_NAME };
 
+   /**
+    * The keys of the data db are prefixed by a segment byte, derived from the hash of the marshalled key, so that the
+    * entries of each segment are stored in a contiguous key range which can be iterated independently.
+    */
+   private static final int NUM_SEGMENTS = 16;
+   /**
+    * Sorts after all the segment prefixes, so it is never returned when iterating over the segments.
+    */
+   private static final byte[] FORMAT_KEY = { (byte) 0xFF };
+   private static final byte[] FORMAT_VERSION = { 1 };
+   private static final byte[] EMPTY = new byte[0];
+   private static final int MIGRATION_BATCH_SIZE = 1000;
+   private static final int PURGE_BATCH_SIZE = 1000;
+   private static final String MIGRATED_SUFFIX = "-migrated";
+   private static final String OLD_SUFFIX = "-old";
+
    private LevelDBStoreConfiguration configuration;
    private BlockingQueue<ExpiryEntry> expiryEntryQueue;
    private DBFactory dbFactory;
@@ -51,6 +72,10 @@ public class LevelDBStore implements AdvancedLoadWriteStore {
    private InitializationContext ctx;
    private Semaphore semaphore;
    private volatile boolean stopped = true;
+   // Writes and deletes waiting to be committed in the next batch
+   private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<PendingWrite>();
+   // Held while writing to the data db, by the thread committing the pending writes or removing expired entries
+   private final Object commitLock = new Object();
 
    @Override
    public void init(InitializationContext ctx) {
@@ -97,8 +122,10 @@ public void start()  {
       expiryEntryQueue = new LinkedBlockingQueue<ExpiryEntry>(configuration.expiryQueueSize());
 
       try {
+         recoverMigration();
          db = openDatabase(getQualifiedLocation(), dataDbOptions());
          expiredDb = openDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+         checkFormat();
          stopped = false;
       } catch (IOException e) {
          throw new CacheConfigurationException("Unable to open database", e);
@@ -159,6 +186,107 @@ protected DB reinitDatabase(String location, Options options) throws IOException
       return openDatabase(location, options);
    }
 
+   /**
+    * Migrates a store written without segment prefixes, which also had its expiry index keyed by marshalled longs.
+    */
+   private void checkFormat() throws IOException {
+      if (db.get(FORMAT_KEY) != null) {
+         return;
+      }
+      DBIterator it = db.iterator(new ReadOptions().fillCache(false));
+      boolean empty;
+      try {
+         it.seekToFirst();
+         empty = !it.hasNext();
+      } finally {
+         it.close();
+      }
+      if (!empty) {
+         migrateToSegmentedKeys();
+      }
+      db.put(FORMAT_KEY, FORMAT_VERSION);
+   }
+
+   /**
+    * Completes a migration that was interrupted while swapping the migrated database with the old one. The old
+    * database is only moved aside once the migrated one is complete, so the migrated one is used if the data location
+    * is missing. A migrated database left without the old one being moved aside is incomplete and is removed by the
+    * next migration.
+    */
+   private void recoverMigration() throws IOException {
+      String location = getQualifiedLocation();
+      File oldDir = new File(location + OLD_SUFFIX);
+      if (!oldDir.exists()) {
+         return;
+      }
+      File dir = new File(location);
+      if (!dir.exists()) {
+         File migratedDir = new File(location + MIGRATED_SUFFIX);
+         if (!migratedDir.renameTo(dir)) {
+            throw new PersistenceException("Unable to rename " + migratedDir + " to " + dir);
+         }
+      }
+      destroyDatabase(oldDir.getPath());
+   }
+
+   private void migrateToSegmentedKeys() throws IOException {
+      log.infoMigratingToSegmentedKeys(getQualifiedLocation());
+      String location = getQualifiedLocation();
+      String migratedLocation = location + MIGRATED_SUFFIX;
+      String oldLocation = location + OLD_SUFFIX;
+      destroyDatabase(migratedLocation);
+      DB migratedDb = openDatabase(migratedLocation, dataDbOptions());
+      expiredDb.close();
+      expiredDb = reinitDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+      try {
+         DBIterator it = db.iterator(new ReadOptions().fillCache(false));
+         try {
+            WriteBatch batch = migratedDb.createWriteBatch();
+            WriteBatch expiryBatch = expiredDb.createWriteBatch();
+            int count = 0;
+            for (it.seekToFirst(); it.hasNext(); ) {
+               Map.Entry<byte[], byte[]> entry = it.next();
+               byte[] dataKey = prefixWithSegment(entry.getKey());
+               batch.put(dataKey, entry.getValue());
+               MarshalledEntry me = (MarshalledEntry) unmarshall(entry.getValue());
+               long expiry = expiryTime(me.getMetadata());
+               if (expiry > -1) {
+                  expiryBatch.put(expiryKey(expiry, dataKey), EMPTY);
+               }
+               if (++count % MIGRATION_BATCH_SIZE == 0) {
+                  migratedDb.write(batch);
+                  expiredDb.write(expiryBatch);
+                  batch.close();
+                  expiryBatch.close();
+                  batch = migratedDb.createWriteBatch();
+                  expiryBatch = expiredDb.createWriteBatch();
+               }
+            }
+            batch.put(FORMAT_KEY, FORMAT_VERSION);
+            migratedDb.write(batch);
+            expiredDb.write(expiryBatch);
+            batch.close();
+            expiryBatch.close();
+         } finally {
+            it.close();
+         }
+      } catch (ClassNotFoundException e) {
+         throw new PersistenceException(e);
+      } finally {
+         migratedDb.close();
+      }
+      db.close();
+      // the old database is only removed once the migrated one is in place, see recoverMigration()
+      if (!new File(location).renameTo(new File(oldLocation))) {
+         throw new PersistenceException("Unable to rename " + location + " to " + oldLocation);
+      }
+      if (!new File(migratedLocation).renameTo(new File(location))) {
+         throw new PersistenceException("Unable to rename " + migratedLocation + " to " + location);
+      }
+      db = openDatabase(location, dataDbOptions());
+      destroyDatabase(oldLocation);
+   }
+
    protected void reinitAllDatabases() throws IOException {
       try {
          semaphore.acquire(Integer.MAX_VALUE);
@@ -181,6 +309,7 @@ protected void reinitAllDatabases() throws IOException {
          }
          db = reinitDatabase(getQualifiedLocation(), dataDbOptions());
          expiredDb = reinitDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+         db.put(FORMAT_KEY, FORMAT_VERSION);
       } finally {
          semaphore.release(Integer.MAX_VALUE);
       }
@@ -229,6 +358,7 @@ public void clear() {
             try {
                for (it.seekToFirst(); it.hasNext(); ) {
                   Map.Entry<byte[], byte[]> entry = it.next();
+                  if (Arrays.equals(entry.getKey(), FORMAT_KEY)) continue;
                   db.delete(entry.getKey());
                   count++;
 
@@ -274,15 +404,16 @@ public boolean contains(Object key) {
       }
    }
 
+   /**
+    * The segments are iterated in parallel, each one by its own task. All the tasks read from the same snapshot of
+    * the database.
+    */
    @SuppressWarnings("unchecked")
    @Override
    public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Executor executor, boolean loadValues, boolean loadMetadata) {
-
-      int batchSize = 100;
       ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
       final TaskContext taskContext = new TaskContextImpl();
 
-      List<Map.Entry<byte[], byte[]>> entries = new ArrayList<Map.Entry<byte[], byte[]>>(batchSize);
       try {
          semaphore.acquire();
       } catch (InterruptedException e) {
@@ -292,30 +423,19 @@ public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Execut
          if (stopped) {
             throw new PersistenceException("LevelDB is stopped");
          }
-         DBIterator it = db.iterator(new ReadOptions().fillCache(false));
+         Snapshot snapshot = db.getSnapshot();
          try {
-            for (it.seekToFirst(); it.hasNext(); ) {
-               Map.Entry<byte[], byte[]> entry = it.next();
-               entries.add(entry);
-               if (entries.size() == batchSize) {
-                  final List<Map.Entry<byte[], byte[]>> batch = entries;
-                  entries = new ArrayList<Map.Entry<byte[], byte[]>>(batchSize);
-                  submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, batch, loadValues, loadMetadata);
-               }
-            }
-            if (!entries.isEmpty()) {
-               submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, entries, loadValues, loadMetadata);
+            for (int segment = 0; segment < NUM_SEGMENTS; segment++) {
+               submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, snapshot, (byte) segment, loadValues, loadMetadata);
             }
 
             eacs.waitUntilAllCompleted();
             if (eacs.isExceptionThrown()) {
                throw new PersistenceException("Execution exception!", eacs.getFirstException());
             }
-         } catch (Exception e) {
-            throw new PersistenceException(e);
          } finally {
             try {
-               it.close();
+               snapshot.close();
             } catch (IOException e) {
                log.warnUnableToCloseDbIterator(e);
             }
@@ -327,16 +447,19 @@ public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Execut
 
    @SuppressWarnings("unchecked")
    private void submitProcessTask(final CacheLoaderTask cacheLoaderTask, final KeyFilter filter, CompletionService ecs,
-                                  final TaskContext taskContext, final List<Map.Entry<byte[], byte[]>> batch,
+                                  final TaskContext taskContext, final Snapshot snapshot, final byte segment,
                                   final boolean loadValues, final boolean loadMetadata) {
       ecs.submit(new Callable<Void>() {
          @Override
          public Void call() throws Exception {
+            DBIterator it = db.iterator(new ReadOptions().fillCache(false).snapshot(snapshot));
             try {
                long now = ctx.getTimeService().wallClockTime();
-               for (Map.Entry<byte[], byte[]> pair : batch) {
+               for (it.seek(new byte[] { segment }); it.hasNext(); ) {
                   if (taskContext.isStopped()) {break;}
-                  Object key = unmarshall(pair.getKey());
+                  Map.Entry<byte[], byte[]> pair = it.next();
+                  if (pair.getKey()[0] != segment) {break;}
+                  Object key = unmarshallKey(pair.getKey());
                   if (filter == null || filter.accept(key)) {
                      MarshalledEntry entry = loadValues || loadMetadata ? (MarshalledEntry) unmarshall(pair.getValue()) : null;
                      boolean isExpired = entry != null && entry.getMetadata() != null && entry.getMetadata().isExpired(now);
@@ -352,6 +475,12 @@ public Void call() throws Exception {
             } catch (Exception e) {
                log.errorExecutingParallelStoreTask(e);
                throw e;
+            } finally {
+               try {
+                  it.close();
+               } catch (IOException e) {
+                  log.warnUnableToCloseDbIterator(e);
+               }
             }
             return null;
          }
@@ -361,7 +490,7 @@ public Void call() throws Exception {
    @Override
    public boolean delete(Object key)  {
       try {
-         byte[] keyBytes = marshall(key);
+         byte[] keyBytes = dataKey(key);
          semaphore.acquire();
          try {
             if (stopped) {
@@ -370,7 +499,7 @@ public boolean delete(Object key)  {
             if (db.get(keyBytes) == null) {
                return false;
             }
-            db.delete(keyBytes);
+            commit(new PendingWrite(keyBytes, null));
          } finally {
             semaphore.release();
          }
@@ -383,20 +512,124 @@ public boolean delete(Object key)  {
    @Override
    public void write(MarshalledEntry me)  {
       try {
-         byte[] marshelledKey = marshall(me.getKey());
+         byte[] marshelledKey = dataKey(me.getKey());
          byte[] marshalledEntry = marshall(me);
          semaphore.acquire();
          try {
             if (stopped) {
                throw new PersistenceException("LevelDB is stopped");
             }
-            db.put(marshelledKey, marshalledEntry);
+            commit(new PendingWrite(marshelledKey, marshalledEntry));
          } finally {
             semaphore.release();
          }
-         InternalMetadata meta = me.getMetadata();
-         if (meta != null && meta.expiryTime() > -1) {
-            addNewExpiry(me);
+         addNewExpiry(marshelledKey, me.getMetadata());
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   /**
+    * Queues a write or delete, and commits it together with the ones queued concurrently by other threads in a single
+    * {@link WriteBatch}. The caller must hold a permit of the semaphore.
+    */
+   private void commit(PendingWrite write) throws IOException {
+      pendingWrites.add(write);
+      synchronized (commitLock) {
+         if (!write.committed) {
+            WriteBatch batch = db.createWriteBatch();
+            List<PendingWrite> group = new ArrayList<PendingWrite>();
+            Throwable failure = null;
+            try {
+               PendingWrite pending;
+               while ((pending = pendingWrites.poll()) != null) {
+                  if (pending.value == null) {
+                     batch.delete(pending.key);
+                  } else {
+                     batch.put(pending.key, pending.value);
+                  }
+                  group.add(pending);
+               }
+               db.write(batch);
+            } catch (Throwable t) {
+               failure = t;
+            } finally {
+               batch.close();
+            }
+            for (PendingWrite pending : group) {
+               pending.committed = true;
+               pending.failure = failure;
+            }
+         }
+         if (write.failure != null) {
+            throw new PersistenceException(write.failure);
+         }
+      }
+   }
+
+   @Override
+   public void writeBatch(Iterable marshalledEntries) {
+      try {
+         List<ExpiryEntry> expiring = null;
+         semaphore.acquire();
+         try {
+            if (stopped) {
+               throw new PersistenceException("LevelDB is stopped");
+            }
+            WriteBatch batch = db.createWriteBatch();
+            try {
+               for (Object o : marshalledEntries) {
+                  MarshalledEntry me = (MarshalledEntry) o;
+                  byte[] dataKey = dataKey(me.getKey());
+                  batch.put(dataKey, marshall(me));
+                  long expiry = expiryTime(me.getMetadata());
+                  if (expiry > -1) {
+                     if (expiring == null) {
+                        expiring = new ArrayList<ExpiryEntry>();
+                     }
+                     expiring.add(new ExpiryEntry(expiry, dataKey));
+                  }
+               }
+               synchronized (commitLock) {
+                  db.write(batch);
+               }
+            } finally {
+               batch.close();
+            }
+         } finally {
+            semaphore.release();
+         }
+         if (expiring != null) {
+            for (ExpiryEntry entry : expiring) {
+               addNewExpiry(entry);
+            }
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      try {
+         semaphore.acquire();
+         try {
+            if (stopped) {
+               throw new PersistenceException("LevelDB is stopped");
+            }
+            WriteBatch batch = db.createWriteBatch();
+            try {
+               for (Object key : keys) {
+                  batch.delete(dataKey(key));
+               }
+               synchronized (commitLock) {
+                  db.write(batch);
+               }
+            } finally {
+               batch.close();
+            }
+         } finally {
+            semaphore.release();
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
@@ -412,7 +645,7 @@ public MarshalledEntry load(Object key)  {
             if (stopped) {
                throw new PersistenceException("LevelDB is stopped");
             }
-            marshalledEntry = db.get(marshall(key));
+            marshalledEntry = db.get(dataKey(key));
          } finally {
             semaphore.release();
          }
@@ -429,7 +662,11 @@ public MarshalledEntry load(Object key)  {
       }
    }
 
-   @SuppressWarnings("unchecked")
+   /**
+    * The expiry index is ordered by expiration time, so only the entries that have already expired are visited. They
+    * are removed in bounded batches, each one checked and written while holding the commit lock, so an entry that was
+    * written again since it was read from the index is never removed.
+    */
    @Override
    public void purge(Executor executor, PurgeListener purgeListener) {
       try {
@@ -441,75 +678,43 @@ public void purge(Executor executor, PurgeListener purgeListener) {
          if (stopped) {
             throw new PersistenceException("LevelDB is stopped");
          }
-         // Drain queue and update expiry tree
+         // Drain queue and update expiry index
          List<ExpiryEntry> entries = new ArrayList<ExpiryEntry>();
          expiryEntryQueue.drainTo(entries);
-         for (ExpiryEntry entry : entries) {
-            final byte[] expiryBytes = marshall(entry.expiry);
-            final byte[] keyBytes = marshall(entry.key);
-            final byte[] existingBytes = expiredDb.get(expiryBytes);
-
-            if (existingBytes != null) {
-               // in the case of collision make the key a List ...
-               final Object existing = unmarshall(existingBytes);
-               if (existing instanceof List) {
-                  ((List<Object>) existing).add(entry.key);
-                  expiredDb.put(expiryBytes, marshall(existing));
-               } else {
-                  List<Object> al = new ArrayList<Object>(2);
-                  al.add(existing);
-                  al.add(entry.key);
-                  expiredDb.put(expiryBytes, marshall(al));
+         if (!entries.isEmpty()) {
+            WriteBatch batch = expiredDb.createWriteBatch();
+            try {
+               for (ExpiryEntry entry : entries) {
+                  batch.put(expiryKey(entry.expiry, entry.dataKey), EMPTY);
                }
-            } else {
-               expiredDb.put(expiryBytes, keyBytes);
+               expiredDb.write(batch);
+            } finally {
+               batch.close();
             }
          }
 
-         List<Long> times = new ArrayList<Long>();
-         List<Object> keys = new ArrayList<Object>();
+         int purged = 0;
+         List<byte[]> indexKeys = new ArrayList<byte[]>(PURGE_BATCH_SIZE);
          DBIterator it = expiredDb.iterator(new ReadOptions().fillCache(false));
          long now = ctx.getTimeService().wallClockTime();
          try {
+            int count = 0;
             for (it.seekToFirst(); it.hasNext();) {
-               Map.Entry<byte[], byte[]> entry = it.next();
-
-               Long time = (Long) unmarshall(entry.getKey());
-               if (time > now)
+               byte[] indexKey = it.next().getKey();
+               if (readLong(indexKey) > now)
                   break;
-               times.add(time);
-               Object key = unmarshall(entry.getValue());
-               if (key instanceof List)
-                  keys.addAll((List<?>) key);
-               else
-                  keys.add(key);
-            }
-
-            for (Long time : times) {
-               expiredDb.delete(marshall(time));
-            }
-
-            if (!keys.isEmpty())
-               log.debugf("purge (up to) %d entries", keys.size());
-            int count = 0;
-            for (Object key : keys) {
-               byte[] keyBytes = marshall(key);
-
-               byte[] b = db.get(keyBytes);
-               if (b == null)
-                  continue;
-               MarshalledEntry me = (MarshalledEntry) ctx.getMarshaller().objectFromByteBuffer(b);
-               // TODO race condition: the entry could be updated between the get and delete!
-               if (me.getMetadata() != null && me.getMetadata().isExpired(now)) {
-                  // somewhat inefficient to FIND then REMOVE...
-                  db.delete(keyBytes);
-                  purgeListener.entryPurged(key);
-                  count++;
+               indexKeys.add(indexKey);
+               count++;
+               if (indexKeys.size() == PURGE_BATCH_SIZE) {
+                  purged += purgeExpired(indexKeys, now, purgeListener);
+                  indexKeys.clear();
                }
-
+            }
+            if (!indexKeys.isEmpty()) {
+               purged += purgeExpired(indexKeys, now, purgeListener);
             }
             if (count != 0)
-               log.debugf("purged %d entries", count);
+               log.debugf("purge (up to) %d entries", count);
          } catch (Exception e) {
             throw new PersistenceException(e);
          } finally {
@@ -519,6 +724,8 @@ public void purge(Executor executor, PurgeListener purgeListener) {
                log.warnUnableToCloseDbIterator(e);
             }
          }
+         if (purged != 0)
+            log.debugf("purged %d entries", purged);
       } catch (PersistenceException e) {
          throw e;
       } catch (Exception e) {
@@ -528,6 +735,40 @@ public void purge(Executor executor, PurgeListener purgeListener) {
       }
    }
 
+   /**
+    * Removes the entries of the given index keys that are still expired, along with the index keys. The index key of
+    * an entry that was written again with a later expiration is stale, and it is just removed.
+    *
+    * @return the number of entries removed
+    */
+   private int purgeExpired(List<byte[]> indexKeys, long now, PurgeListener purgeListener) throws IOException, ClassNotFoundException {
+      List<Object> purgedKeys = new ArrayList<Object>();
+      WriteBatch dataBatch = db.createWriteBatch();
+      WriteBatch expiredBatch = expiredDb.createWriteBatch();
+      try {
+         synchronized (commitLock) {
+            for (byte[] indexKey : indexKeys) {
+               expiredBatch.delete(indexKey);
+               byte[] dataKey = Arrays.copyOfRange(indexKey, 8, indexKey.length);
+               MarshalledEntry me = (MarshalledEntry) unmarshall(db.get(dataKey));
+               if (me != null && me.getMetadata() != null && me.getMetadata().isExpired(now)) {
+                  dataBatch.delete(dataKey);
+                  purgedKeys.add(me.getKey());
+               }
+            }
+            db.write(dataBatch);
+         }
+         expiredDb.write(expiredBatch);
+      } finally {
+         dataBatch.close();
+         expiredBatch.close();
+      }
+      for (Object key : purgedKeys) {
+         purgeListener.entryPurged(key);
+      }
+      return purgedKeys.size();
+   }
+
    private byte[] marshall(Object entry) throws IOException, InterruptedException {
       return ctx.getMarshaller().objectToByteBuffer(entry);
    }
@@ -539,9 +780,55 @@ private Object unmarshall(byte[] bytes) throws IOException, ClassNotFoundExcepti
       return ctx.getMarshaller().objectFromByteBuffer(bytes);
    }
 
-   private void addNewExpiry(MarshalledEntry entry) throws IOException {
-      long expiry = entry.getMetadata().expiryTime();
-      long maxIdle = entry.getMetadata().maxIdle();
+   /**
+    * The key of an entry in the data db: the marshalled key prefixed by its segment.
+    */
+   private byte[] dataKey(Object key) throws IOException, InterruptedException {
+      return prefixWithSegment(marshall(key));
+   }
+
+   private static byte[] prefixWithSegment(byte[] keyBytes) {
+      byte[] dataKey = new byte[keyBytes.length + 1];
+      dataKey[0] = (byte) ((MurmurHash3.getInstance().hash(keyBytes) & Integer.MAX_VALUE) % NUM_SEGMENTS);
+      System.arraycopy(keyBytes, 0, dataKey, 1, keyBytes.length);
+      return dataKey;
+   }
+
+   private Object unmarshallKey(byte[] dataKey) throws IOException, ClassNotFoundException {
+      return ctx.getMarshaller().objectFromByteBuffer(dataKey, 1, dataKey.length - 1);
+   }
+
+   /**
+    * The key of an entry in the expiry index: the expiration time, big-endian so that the index is sorted by it,
+    * followed by the key of the entry in the data db. The value is empty.
+    */
+   private static byte[] expiryKey(long expiry, byte[] dataKey) {
+      byte[] expiryKey = new byte[8 + dataKey.length];
+      for (int i = 7; i >= 0; i--) {
+         expiryKey[i] = (byte) expiry;
+         expiry >>>= 8;
+      }
+      System.arraycopy(dataKey, 0, expiryKey, 8, dataKey.length);
+      return expiryKey;
+   }
+
+   private static long readLong(byte[] bytes) {
+      long value = 0;
+      for (int i = 0; i < 8; i++) {
+         value = (value << 8) | (bytes[i] & 0xFF);
+      }
+      return value;
+   }
+
+   /**
+    * @return the time the entry expires at, or -1 if it never expires
+    */
+   private long expiryTime(InternalMetadata metadata) {
+      if (metadata == null || metadata.expiryTime() < 0) {
+         return -1;
+      }
+      long expiry = metadata.expiryTime();
+      long maxIdle = metadata.maxIdle();
       if (maxIdle > 0) {
          // Coding getExpiryTime() for transient entries has the risk of
          // being a moving target
@@ -549,50 +836,46 @@ private void addNewExpiry(MarshalledEntry entry) throws IOException {
          // calls are required
          expiry = maxIdle + ctx.getTimeService().wallClockTime();
       }
-      Long at = expiry;
-      Object key = entry.getKey();
+      return expiry;
+   }
 
+   private void addNewExpiry(byte[] dataKey, InternalMetadata metadata) {
+      long expiry = expiryTime(metadata);
+      if (expiry > -1) {
+         addNewExpiry(new ExpiryEntry(expiry, dataKey));
+      }
+   }
+
+   private void addNewExpiry(ExpiryEntry entry) {
       try {
-         expiryEntryQueue.put(new ExpiryEntry(at, key));
+         expiryEntryQueue.put(entry);
       } catch (InterruptedException e) {
          Thread.currentThread().interrupt(); // Restore interruption status
       }
    }
 
    private static final class ExpiryEntry {
-      private final Long expiry;
-      private final Object key;
+      private final long expiry;
+      private final byte[] dataKey;
 
-      private ExpiryEntry(long expiry, Object key) {
+      private ExpiryEntry(long expiry, byte[] dataKey) {
          this.expiry = expiry;
-         this.key = key;
+         this.dataKey = dataKey;
       }
+   }
 
-      @Override
-      public int hashCode() {
-         final int prime = 31;
-         int result = 1;
-         result = prime * result + ((key == null) ? 0 : key.hashCode());
-         return result;
-      }
-
-      @Override
-      public boolean equals(Object obj) {
-         if (this == obj)
-            return true;
-         if (obj == null)
-            return false;
-         if (getClass() != obj.getClass())
-            return false;
-         ExpiryEntry other = (ExpiryEntry) obj;
-         if (key == null) {
-            if (other.key != null)
-               return false;
-         } else if (!key.equals(other.key))
-            return false;
-         return true;
-      }
+   private static final class PendingWrite {
+      private final byte[] key;
+      // null for a delete
+      private final byte[] value;
+      // guarded by commitLock
+      private boolean committed;
+      private Throwable failure;
 
+      private PendingWrite(byte[] key, byte[] value) {
+         this.key = key;
+         this.value = value;
+      }
    }
 
 }
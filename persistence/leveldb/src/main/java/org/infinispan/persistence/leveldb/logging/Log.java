@@ -44,4 +44,8 @@ public interface Log extends org.infinispan.util.logging.Log {
 
    @Message(value = "Could not load any LevelDB Factories: : %s", id = 23007)
    PersistenceException cannotLoadlevelDBFactories(String formattedArrayOfClassNames);
+
+   @LogMessage(level = INFO)
+   @Message(value = "Migrating the LevelDB store at %s to segmented keys", id = 23008)
+   void infoMigratingToSegmentedKeys(String location);
 }
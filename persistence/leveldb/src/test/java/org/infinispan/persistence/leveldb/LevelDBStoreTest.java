@@ -1,11 +1,22 @@
 package org.infinispan.persistence.leveldb;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -13,14 +24,22 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.leveldb.configuration.LevelDBStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.AdvancedCacheWriter;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
+import org.infinispan.util.concurrent.ConcurrentHashSet;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBFactory;
+import org.iq80.leveldb.Options;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -54,6 +73,161 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
       return fcs;
    }
 
+   public void testConcurrentWritesAreCommitted() throws Exception {
+      final int threads = 8;
+      final int keysPerThread = 100;
+      final CountDownLatch start = new CountDownLatch(1);
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+         List<Future<Void>> futures = new ArrayList<>();
+         for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+               start.await();
+               for (int i = 0; i < keysPerThread; i++) {
+                  String key = "k" + thread + "-" + i;
+                  cl.write(marshalledEntry(internalCacheEntry(key, "v" + i, -1)));
+                  if (i % 2 == 1) {
+                     // deletes are committed in the same batches as the writes
+                     assertTrue(cl.delete(key));
+                  }
+               }
+               return null;
+            }));
+         }
+         start.countDown();
+         for (Future<Void> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+      for (int t = 0; t < threads; t++) {
+         for (int i = 0; i < keysPerThread; i++) {
+            assertContains("k" + t + "-" + i, i % 2 == 0);
+         }
+      }
+   }
+
+   public void testProcessVisitsEverySegment() throws Exception {
+      final int numKeys = 200;
+      for (int i = 0; i < numKeys; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      final Set<Object> processed = new ConcurrentHashSet<>();
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+         cl.process(new KeyFilter<Object>() {
+            @Override
+            public boolean accept(Object key) {
+               return !key.equals("k0");
+            }
+         }, new AdvancedCacheLoader.CacheLoaderTask<Object, Object>() {
+            @Override
+            public void processEntry(MarshalledEntry<Object, Object> entry, AdvancedCacheLoader.TaskContext context) {
+               assertEquals(unwrap(entry.getValue()), "v" + ((String) entry.getKey()).substring(1));
+               assertTrue(processed.add(entry.getKey()), "Processed twice: " + entry.getKey());
+            }
+         }, executor, true, true);
+      } finally {
+         executor.shutdownNow();
+      }
+      assertEquals(processed.size(), numKeys - 1);
+      assertFalse(processed.contains("k0"));
+   }
+
+   public void testPurgeFollowsExpiryOrder() throws Exception {
+      for (int i = 1; i <= 10; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, i * 1000)));
+      }
+      timeService.advance(5500);
+      // written again after it expired, with a later expiration: its stale index entry must not remove it
+      cl.write(marshalledEntry(internalCacheEntry("k1", "updated", 10000)));
+
+      final List<Object> purged = new ArrayList<>();
+      cl.purge(new WithinThreadExecutor(), new AdvancedCacheWriter.PurgeListener<Object>() {
+         @Override
+         public void entryPurged(Object key) {
+            purged.add(key);
+         }
+      });
+      assertEquals(new HashSet<>(purged), new HashSet<Object>(Arrays.asList("k2", "k3", "k4", "k5")));
+      assertEquals(unwrap(cl.load("k1").getValue()), "updated");
+      for (int i = 6; i <= 10; i++) {
+         assertContains("k" + i, true);
+      }
+
+      // the index entries already visited are gone, so a second purge finds nothing
+      purged.clear();
+      cl.purge(new WithinThreadExecutor(), new AdvancedCacheWriter.PurgeListener<Object>() {
+         @Override
+         public void entryPurged(Object key) {
+            purged.add(key);
+         }
+      });
+      assertTrue(purged.isEmpty());
+   }
+
+   public void testMigrationFromUnsegmentedKeys() throws Exception {
+      File location = dataLocation();
+      DBFactory dbFactory = ((LevelDBStore) cl).newDbFactory();
+      cl.stop();
+      dbFactory.destroy(location, new Options());
+      DB db = dbFactory.open(location, new Options().createIfMissing(true));
+      try {
+         for (int i = 0; i < 10; i++) {
+            MarshalledEntry me = marshalledEntry(internalCacheEntry("k" + i, "v" + i, i < 5 ? -1 : 10000));
+            db.put(getMarshaller().objectToByteBuffer(me.getKey()), getMarshaller().objectToByteBuffer(me));
+         }
+      } finally {
+         db.close();
+      }
+
+      cl.start();
+      assertFalse(new File(location.getPath() + "-migrated").exists());
+      assertFalse(new File(location.getPath() + "-old").exists());
+      for (int i = 0; i < 10; i++) {
+         assertEquals(unwrap(cl.load("k" + i).getValue()), "v" + i);
+      }
+      assertEquals(cl.size(), 10);
+      // the expiry index was rebuilt
+      timeService.advance(10001);
+      purgeExpired("k5", "k6", "k7", "k8", "k9");
+   }
+
+   public void testMigrationInterruptedWhileSwapping() throws Exception {
+      for (int i = 0; i < 10; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      File location = dataLocation();
+      cl.stop();
+      // the migrated database is complete, the old one was moved aside but the migrated one was not moved in place
+      File migrated = new File(location.getPath() + "-migrated");
+      File old = new File(location.getPath() + "-old");
+      assertTrue(location.renameTo(migrated));
+      DBFactory dbFactory = ((LevelDBStore) cl).newDbFactory();
+      DB db = dbFactory.open(old, new Options().createIfMissing(true));
+      try {
+         db.put(getMarshaller().objectToByteBuffer("stale"), getMarshaller().objectToByteBuffer("stale"));
+      } finally {
+         db.close();
+      }
+
+      cl.start();
+      assertFalse(migrated.exists());
+      assertFalse(old.exists());
+      for (int i = 0; i < 10; i++) {
+         assertNotNull(cl.load("k" + i));
+      }
+      assertNull(cl.load("stale"));
+   }
+
+   private File dataLocation() {
+      File[] dirs = new File(tmpDirectory).listFiles((dir, name) -> name.startsWith("data"));
+      assertEquals(dirs.length, 1);
+      return dirs[0];
+   }
+
    @Test(groups = "stress")
    public void testConcurrentWriteAndRestart() {
       concurrentWriteAndRestart(true);
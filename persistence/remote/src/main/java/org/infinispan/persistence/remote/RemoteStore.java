@@ -13,6 +13,7 @@
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.versioning.NumericVersion;
@@ -33,7 +34,15 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -65,6 +74,8 @@ public class RemoteStore implements AdvancedLoadWriteStore {
    private InternalEntryFactory iceFactory;
    private static final String LIFESPAN = "lifespan";
    private static final String MAXIDLE = "maxidle";
+   private static final int ITERATION_BATCH_SIZE = 1000;
+   private static final int DELETE_BATCH_SIZE = 1000;
    protected InitializationContext ctx;
 
    @Override
@@ -123,13 +134,63 @@ public MarshalledEntry load(Object key) throws PersistenceException {
       }
    }
 
+   @Override
+   public Map loadAll(Set keys) throws PersistenceException {
+      if (configuration.rawValues()) {
+         // the metadata of the entries can only be retrieved one key at a time
+         Map<Object, MarshalledEntry> result = new HashMap<Object, MarshalledEntry>();
+         for (Object key : keys) {
+            MarshalledEntry entry = load(key);
+            if (entry != null) {
+               result.put(key, entry);
+            }
+         }
+         return result;
+      } else {
+         return remoteCache.getAll(keys);
+      }
+   }
+
    @Override
    public boolean contains(Object key) throws PersistenceException {
       return remoteCache.containsKey(key);
    }
 
+   /**
+    * Iterates over the remote entries in batches, on all the servers in parallel. The metadata of the entries is not
+    * transferred by the iteration, so in raw mode it is loaded one key at a time when the task needs it.
+    */
    @Override
    public void process(KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      if (!supportsIteration()) {
+         processKeys(filter, task);
+         return;
+      }
+      TaskContextImpl taskContext = new TaskContextImpl();
+      try (CloseableIterator<Map.Entry<Object, Object>> it = remoteCache.retrieveEntries(null, ITERATION_BATCH_SIZE)) {
+         while (it.hasNext() && !taskContext.isStopped()) {
+            Map.Entry<Object, Object> e = it.next();
+            Object key = e.getKey();
+            if (filter != null && !filter.accept(key))
+               continue;
+            MarshalledEntry marshalledEntry;
+            if (!configuration.rawValues()) {
+               marshalledEntry = (MarshalledEntry) e.getValue();
+            } else if (fetchMetadata) {
+               marshalledEntry = load(key);
+            } else {
+               marshalledEntry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, fetchValue ? e.getValue() : null, (InternalMetadata) null);
+            }
+            if (marshalledEntry != null) {
+               task.processEntry(marshalledEntry, taskContext);
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private void processKeys(KeyFilter filter, CacheLoaderTask task) {
       TaskContextImpl taskContext = new TaskContextImpl();
       for (Object key : remoteCache.keySet()) {
          if (taskContext.isStopped())
@@ -169,6 +230,63 @@ public void write(MarshalledEntry entry) throws PersistenceException {
       remoteCache.put(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry, toSeconds(lifespan, entry.getKey(), LIFESPAN), TimeUnit.SECONDS, toSeconds(maxIdle, entry.getKey(), MAXIDLE), TimeUnit.SECONDS);
    }
 
+   /**
+    * The entries are grouped by their expiration settings, and each group is sent to the server with a single
+    * putAll.
+    */
+   @Override
+   public void writeBatch(Iterable entries) throws PersistenceException {
+      Map<List<Long>, Map<Object, Object>> groups = new HashMap<List<Long>, Map<Object, Object>>();
+      for (Object o : entries) {
+         MarshalledEntry entry = (MarshalledEntry) o;
+         InternalMetadata metadata = entry.getMetadata();
+         long lifespan = toSeconds(metadata != null ? metadata.lifespan() : -1, entry.getKey(), LIFESPAN);
+         long maxIdle = toSeconds(metadata != null ? metadata.maxIdle() : -1, entry.getKey(), MAXIDLE);
+         List<Long> expiration = Arrays.asList(lifespan, maxIdle);
+         Map<Object, Object> group = groups.get(expiration);
+         if (group == null) {
+            group = new HashMap<Object, Object>();
+            groups.put(expiration, group);
+         }
+         group.put(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry);
+      }
+      for (Map.Entry<List<Long>, Map<Object, Object>> group : groups.entrySet()) {
+         if (log.isTraceEnabled()) {
+            log.tracef("Adding %d entries with lifespan %s and maxIdle %s", group.getValue().size(), group.getKey().get(0), group.getKey().get(1));
+         }
+         remoteCache.putAll(group.getValue(), group.getKey().get(0), TimeUnit.SECONDS, group.getKey().get(1), TimeUnit.SECONDS);
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) throws PersistenceException {
+      // the previous values are not needed, so they are not sent back by the server, and the removals are sent
+      // to the owners of the keys concurrently, a bounded number at a time so the async executor queue never fills up
+      List<Future<Object>> futures = new ArrayList<Future<Object>>();
+      for (Object key : keys) {
+         futures.add(remoteCache.removeAsync(key));
+         if (futures.size() == DELETE_BATCH_SIZE) {
+            waitFor(futures);
+         }
+      }
+      waitFor(futures);
+   }
+
+   private void waitFor(List<Future<Object>> futures) {
+      try {
+         for (Future<Object> future : futures) {
+            future.get();
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException(e);
+      } catch (ExecutionException e) {
+         throw new PersistenceException(e.getCause());
+      } finally {
+         futures.clear();
+      }
+   }
+
    @Override
    public void clear() throws PersistenceException {
       remoteCache.clear();
@@ -182,6 +300,14 @@ public boolean delete(Object key) throws PersistenceException {
       return remoteCache.withFlags(Flag.FORCE_RETURN_VALUE).remove(key) != null;
    }
 
+   /**
+    * The remote entries can only be iterated with Hot Rod 2.3 or later.
+    */
+   private boolean supportsIteration() {
+      String protocolVersion = configuration.protocolVersion();
+      return protocolVersion == null || protocolVersion.compareTo(ConfigurationProperties.PROTOCOL_VERSION_23) >= 0;
+   }
+
    private long toSeconds(long millis, Object key, String desc) {
       if (millis > 0 && millis < 1000) {
          if (log.isTraceEnabled()) {
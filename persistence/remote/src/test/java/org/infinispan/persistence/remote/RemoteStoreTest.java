@@ -1,16 +1,30 @@
 package org.infinispan.persistence.remote;
 
 import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.factories.GlobalComponentRegistry;
+import org.infinispan.filter.CollectionKeyFilter;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.remote.configuration.RemoteStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
@@ -18,6 +32,7 @@
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
@@ -94,6 +109,58 @@ public void testReplaceExpiredEntry() throws Exception {
       cl.write(marshalledEntry(internalCacheEntry("k1", "v2", 100l)));
       assertTrue(cl.load("k1").getValue().equals("v2") || TestingUtil.moreThanDurationElapsed(start, 100));
    }
-}
 
+   public void testProcessIteratesOverTheRemoteEntries() {
+      writeEntries("k", 50);
+
+      final Map<Object, Object> processed = new ConcurrentHashMap<>();
+      cl.process(new CollectionKeyFilter<>(Collections.<Object>singleton("k0")),
+            (marshalledEntry, taskContext) -> processed.put(marshalledEntry.getKey(), unwrap(marshalledEntry.getValue())),
+            new WithinThreadExecutor(), true, false);
+      assertEquals(49, processed.size());
+      assertFalse(processed.containsKey("k0"));
+      for (int i = 1; i < 50; i++) {
+         assertEquals("v" + i, processed.get("k" + i));
+      }
+
+      final AtomicInteger count = new AtomicInteger();
+      cl.process(null, (marshalledEntry, taskContext) -> {
+         count.incrementAndGet();
+         taskContext.stop();
+      }, new WithinThreadExecutor(), false, false);
+      assertEquals(1, count.get());
+   }
+
+   public void testConcurrentDeleteBatch() throws Exception {
+      writeEntries("k", 50);
+
+      // the two batches overlap, so some of the keys are removed concurrently by both
+      List<Future<Void>> futures = new ArrayList<>();
+      for (final int start : new int[]{0, 15}) {
+         futures.add(fork(() -> {
+            List<Object> keys = new ArrayList<>();
+            for (int i = start; i < start + 35; i++) {
+               keys.add("k" + i);
+            }
+            cl.deleteBatch(keys);
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(10, TimeUnit.SECONDS);
+      }
+      for (int i = 0; i < 50; i++) {
+         assertContains("k" + i, false);
+      }
+      Set<MarshalledEntry> remaining = TestingUtil.allEntries(cl);
+      assertTrue(remaining.isEmpty());
+   }
 
+   private void writeEntries(String prefix, int count) {
+      List<MarshalledEntry<Object, Object>> batch = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+         batch.add(marshalledEntry(prefix + i, "v" + i, null));
+      }
+      cl.writeBatch((Iterable) batch);
+   }
+}
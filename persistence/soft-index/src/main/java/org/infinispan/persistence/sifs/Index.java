@@ -5,6 +5,7 @@
 import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -79,6 +80,19 @@ public EntryPosition getPosition(Object key, byte[] serializedKey) throws IOExce
       }
    }
 
+   /**
+    * Collects the serialized keys of the indexed entries that fall in [from, to) from all the segments.
+    */
+   public void collectKeys(byte[] from, byte[] to, Collection<byte[]> keys) throws IOException {
+      lock.readLock().lock();
+      try {
+         for (Segment segment : segments) {
+            IndexNode.collectKeys(segment, from, to, segment.rootReadLock(), keys);
+         }
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
 
    public void clear() throws IOException {
       lock.writeLock().lock();
@@ -6,6 +6,7 @@
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -38,6 +39,16 @@ class IndexNode {
    public static final int RESERVED_SPACE
          = INNER_NODE_HEADER_SIZE + 2 * Math.max(INNER_NODE_REFERENCE_SIZE, LEAF_NODE_REFERENCE_SIZE);
 
+   /**
+    * Orders the keys the same way as the index does.
+    */
+   public static final Comparator<byte[]> KEY_COMPARATOR = new Comparator<byte[]>() {
+      @Override
+      public int compare(byte[] o1, byte[] o2) {
+         return IndexNode.compare(o2, o1);
+      }
+   };
+
    private Index.Segment segment;
    private byte[] prefix;
    private byte[][] keyParts;
@@ -260,6 +271,70 @@ public static <T> T applyOnLeaf(Index.Segment segment, byte[] key, Lock rootLock
       }
    }
 
+   /**
+    * Collects the serialized keys of the entries that fall in [from, to), visiting only the nodes whose key range
+    * intersects with it. As in {@link #applyOnLeaf(Index.Segment, byte[], Lock, ReadOperation)}, the nodes on the
+    * path from the root are read-locked while their children are visited.
+    */
+   public static void collectKeys(Index.Segment segment, byte[] from, byte[] to, Lock rootLock, Collection<byte[]> keys) throws IOException {
+      int attempts = 0;
+      for (;;) {
+         List<byte[]> found = new ArrayList<byte[]>();
+         rootLock.lock();
+         try {
+            segment.getRoot().collectKeys(from, to, found);
+            keys.addAll(found);
+            return;
+         } catch (IndexNodeOutdatedException e) {
+            try {
+               if (attempts > 10) {
+                  throw new PersistenceException("Index looks corrupt", e);
+               }
+               Thread.sleep(1000);
+               attempts++;
+            } catch (InterruptedException e1) {
+            }
+            // noop, we'll simply retry
+         } finally {
+            rootLock.unlock();
+         }
+      }
+   }
+
+   private void collectKeys(byte[] from, byte[] to, List<byte[]> keys) throws IOException, IndexNodeOutdatedException {
+      Lock readLock = lock.readLock();
+      readLock.lock();
+      try {
+         // the last entry of the segment was removed
+         if (innerNodes == null && leafNodes.length == 0) {
+            return;
+         }
+         int numChildren = keyParts.length + 1;
+         for (int i = 0; i < numChildren; ++i) {
+            // child i holds the keys in [pivot(i - 1), pivot(i))
+            if (from != null && i < keyParts.length && compare(from, concat(prefix, keyParts[i])) <= 0) {
+               continue;
+            }
+            if (to != null && i > 0 && compare(concat(prefix, keyParts[i - 1]), to) <= 0) {
+               break;
+            }
+            if (innerNodes != null) {
+               IndexNode child = innerNodes[i].getIndexNode(segment);
+               if (child != null) {
+                  child.collectKeys(from, to, keys);
+               }
+            } else {
+               EntryRecord hak = leafNodes[i].loadHeaderAndKey(segment.getFileProvider(), segment.getTimeService());
+               if (hak != null && hak.getKey() != null && isInRange(hak.getKey(), from, to)) {
+                  keys.add(hak.getKey());
+               }
+            }
+         }
+      } finally {
+         readLock.unlock();
+      }
+   }
+
    public static void setPosition(IndexNode root, byte[] key, int file, int offset, int size, OverwriteHook overwriteHook) throws IOException {
       IndexNode node = root;
       Stack<Path> stack = new Stack<Path>();
@@ -760,13 +835,14 @@ private static byte[] commonPrefix(byte[] oldPrefix, byte[] newKey) {
       return prefix;
    }
 
+   // the bytes are compared as unsigned, so that the order of the keys matches the order of their big-endian encoding
    private static int compare(byte[] first, byte[] second, int length) {
       for (int i = 0; i < length; ++i) {
          if (i >= second.length) {
             return -1;
          }
          if (second[i] == first[i]) continue;
-         return second[i] > first[i] ? 1 : -1;
+         return (second[i] & 0xFF) > (first[i] & 0xFF) ? 1 : -1;
       }
       return 0;
    }
@@ -774,11 +850,18 @@ private static int compare(byte[] first, byte[] second, int length) {
    private static int compare(byte[] first, byte[] second) {
       for (int i = 0; i < first.length && i < second.length; ++i) {
          if (second[i] == first[i]) continue;
-         return second[i] > first[i] ? i + 1 : -i - 1;
+         return (second[i] & 0xFF) > (first[i] & 0xFF) ? i + 1 : -i - 1;
       }
       return second.length > first.length ? first.length + 1 : (second.length < first.length ? -second.length - 1 : 0);
    }
 
+   /**
+    * @return whether the key falls in [from, to), null bounds being unlimited
+    */
+   public static boolean isInRange(byte[] key, byte[] from, byte[] to) {
+      return (from == null || compare(from, key) >= 0) && (to == null || compare(key, to) > 0);
+   }
+
    private int headerLength() {
       return INNER_NODE_HEADER_SIZE + prefix.length;
    }
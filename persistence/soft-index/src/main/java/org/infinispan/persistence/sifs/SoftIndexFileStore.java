@@ -1,7 +1,11 @@
 package org.infinispan.persistence.sifs;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -18,6 +22,7 @@
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.OrderedCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -95,9 +100,13 @@
  * Reader threads crawl the tree from top down, locking the parent node (for reading),
  * locking child node and unlocking parent node.
  *
+ * As the keys are ordered in the Index, range scans ({@link #processRange(byte[], byte[], KeyFilter, CacheLoaderTask)})
+ * only visit the IndexNodes that may hold keys from the range, in each segment. The entries that are only
+ * in TemporaryTable are added to the range before it is loaded.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
-public class SoftIndexFileStore implements AdvancedLoadWriteStore {
+public class SoftIndexFileStore implements AdvancedLoadWriteStore, OrderedCacheLoader {
 
    private static final Log log = LogFactory.getLog(SoftIndexFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -260,6 +269,38 @@ public void purge(Executor threadPool, PurgeListener listener) {
 
    @Override
    public void write(MarshalledEntry entry) {
+      checkKeyLength(entry);
+      try {
+         storeQueue.pushAndWait(LogRequest.storeRequest(entry));
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   /**
+    * All the records of the batch are appended by the log appender in one go, so that they are flushed (and fsynced,
+    * with sync writes) only once.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      try {
+         List<LogRequest> requests = new ArrayList<LogRequest>();
+         for (Object o : entries) {
+            MarshalledEntry entry = (MarshalledEntry) o;
+            checkKeyLength(entry);
+            requests.add(LogRequest.storeRequest(entry));
+         }
+         if (!requests.isEmpty()) {
+            storeQueue.pushAllAndWait(requests);
+         }
+      } catch (PersistenceException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   private void checkKeyLength(MarshalledEntry entry) {
       int keyLength = entry.getKeyBytes().getLength();
       if (keyLength > maxKeyLength) {
          throw new PersistenceException("Configuration 'maxNodeSize' is too low - with maxNodeSize="
@@ -269,11 +310,6 @@ public void write(MarshalledEntry entry) {
          // TODO this limitation could be removed by different key length encoding
          throw new PersistenceException("SoftIndexFileStore is limited to keys with serialized size <= 32767 bytes");
       }
-      try {
-         storeQueue.pushAndWait(LogRequest.storeRequest(entry));
-      } catch (Exception e) {
-         throw new PersistenceException(e);
-      }
    }
 
    @Override
@@ -287,6 +323,21 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable keys) {
+      try {
+         List<LogRequest> requests = new ArrayList<LogRequest>();
+         for (Object key : keys) {
+            requests.add(LogRequest.deleteRequest(key, toBuffer(marshaller.objectToByteBuffer(key))));
+         }
+         if (!requests.isEmpty()) {
+            storeQueue.pushAllAndWait(requests);
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
    @Override
    public boolean contains(Object key) {
       try {
@@ -540,4 +591,41 @@ public void afterFile(int file) {
          }
       }
    }
+
+   @Override
+   public void processRange(byte[] from, byte[] to, KeyFilter filter, CacheLoaderTask task) {
+      TaskContext context = new TaskContextImpl();
+      KeyFilter notNullFilter = PersistenceUtil.notNull(filter);
+      try {
+         Set<byte[]> serializedKeys = new TreeSet<byte[]>(IndexNode.KEY_COMPARATOR);
+         index.collectKeys(from, to, serializedKeys);
+         // the recent writes may not be indexed yet
+         for (Object key : temporaryTable.keys()) {
+            byte[] serializedKey = marshaller.objectToByteBuffer(key);
+            if (IndexNode.isInRange(serializedKey, from, to)) {
+               serializedKeys.add(serializedKey);
+            }
+         }
+         for (byte[] serializedKey : serializedKeys) {
+            if (context.isStopped()) {
+               return;
+            }
+            Object key = marshaller.objectFromByteBuffer(serializedKey);
+            if (!notNullFilter.accept(key)) {
+               continue;
+            }
+            // the entry may have been removed or overwritten since its key was collected
+            MarshalledEntry entry = load(key);
+            if (entry != null) {
+               task.processEntry(entry, context);
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } catch (PersistenceException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new PersistenceException("Cannot process the range of keys", e);
+      }
+   }
 }
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.sifs;
 
 import java.util.ArrayDeque;
+import java.util.Collection;
 
 /**
  * Multiple producer-single consumer queue. The producers are expected to call pushAndWait(),
@@ -46,6 +47,23 @@ public void pushAndWait(T element) throws InterruptedException {
       waitFor(push(element));
    }
 
+   /**
+    * Pushes all the elements at once and waits until the consumer has processed them, which allows the consumer
+    * to handle them in a single loop (e.g. with a single flush).
+    */
+   public void pushAllAndWait(Collection<? extends T> elements) throws InterruptedException {
+      long lastIndex;
+      synchronized (queue) {
+         for (T element : elements) {
+            queue.push(element);
+         }
+         queue.notify();
+         pushIndex += elements.size();
+         lastIndex = pushIndex;
+      }
+      waitFor(lastIndex);
+   }
+
    public long push(T element) {
       synchronized (queue) {
          queue.push(element);
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.sifs;
 
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 
 import org.infinispan.commons.equivalence.AnyEquivalence;
@@ -68,6 +69,13 @@ public EntryPosition get(Object key) {
       return new EntryPosition(file, offset);
    }
 
+   /**
+    * @return the keys of the entries which are not indexed yet
+    */
+   public Set<Object> keys() {
+      return table.keySet();
+   }
+
    public void clear() {
       table.clear();
    }
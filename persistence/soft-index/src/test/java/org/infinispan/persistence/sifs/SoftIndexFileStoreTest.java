@@ -3,11 +3,17 @@
 import static org.infinispan.persistence.PersistenceUtil.internalMetadata;
 import static org.infinispan.test.TestingUtil.recursiveFileRemove;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
@@ -83,6 +89,59 @@ public void testLoadUnload() {
       }
    }
 
+   public void testProcessRange() throws Exception {
+      int numEntries = 1000;
+      for (int i = 0; i < numEntries; ++i) {
+         InternalCacheEntry ice = TestInternalCacheEntryFactory.create(key(i), "value" + i);
+         store.write(new MarshalledEntryImpl(ice.getKey(), ice.getValue(), internalMetadata(ice), getMarshaller()));
+      }
+      store.delete(key(150));
+
+      final List<Object> keys = new ArrayList<Object>();
+      store.processRange(getMarshaller().objectToByteBuffer(key(100)), getMarshaller().objectToByteBuffer(key(200)), null,
+            new AdvancedCacheLoader.CacheLoaderTask() {
+               @Override
+               public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+                  keys.add(marshalledEntry.getKey());
+               }
+            });
+      AssertJUnit.assertEquals(99, keys.size());
+      for (int i = 100, j = 0; i < 200; ++i) {
+         if (i != 150) {
+            AssertJUnit.assertEquals(key(i), keys.get(j++));
+         }
+      }
+   }
+
+   public void testProcessRangeWithEmptySegments() throws Exception {
+      int numEntries = 20;
+      for (int i = 0; i < numEntries; ++i) {
+         InternalCacheEntry ice = TestInternalCacheEntryFactory.create(key(i), "value" + i);
+         store.write(new MarshalledEntryImpl(ice.getKey(), ice.getValue(), internalMetadata(ice), getMarshaller()));
+      }
+      // removing every entry but one leaves the other segments with an empty leaf
+      for (int i = 0; i < numEntries; ++i) {
+         if (i != 5) {
+            store.delete(key(i));
+         }
+      }
+
+      final List<Object> keys = new ArrayList<Object>();
+      AdvancedCacheLoader.CacheLoaderTask task = new AdvancedCacheLoader.CacheLoaderTask() {
+         @Override
+         public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+            keys.add(marshalledEntry.getKey());
+         }
+      };
+      store.processRange(getMarshaller().objectToByteBuffer(key(0)), getMarshaller().objectToByteBuffer(key(numEntries)), null, task);
+      AssertJUnit.assertEquals(Collections.singletonList(key(5)), keys);
+
+      store.delete(key(5));
+      keys.clear();
+      store.processRange(null, null, null, task);
+      AssertJUnit.assertTrue(keys.isEmpty());
+   }
+
    private String key(int i) {
       return String.format("key%010d", i);
    }
@@ -0,0 +1,43 @@
+package org.infinispan.query.dsl;
+
+import org.infinispan.query.dsl.impl.PathExpression;
+
+/**
+ * An expression of the select clause of a query: either an attribute path or an aggregation function applied to the
+ * values of an attribute path over a group of matching entities. Queries selecting aggregations return one row per
+ * group, the groups being defined by {@link QueryBuilder#groupBy(String...)}.
+ *
+ * @since 8.0
+ */
+public abstract class Expression {
+
+   protected Expression() {
+   }
+
+   public static Expression property(String attributePath) {
+      return new PathExpression(null, attributePath);
+   }
+
+   /**
+    * Counts the non-null values of the attribute path.
+    */
+   public static Expression count(String attributePath) {
+      return new PathExpression(PathExpression.AggregationType.COUNT, attributePath);
+   }
+
+   public static Expression sum(String attributePath) {
+      return new PathExpression(PathExpression.AggregationType.SUM, attributePath);
+   }
+
+   public static Expression avg(String attributePath) {
+      return new PathExpression(PathExpression.AggregationType.AVG, attributePath);
+   }
+
+   public static Expression min(String attributePath) {
+      return new PathExpression(PathExpression.AggregationType.MIN, attributePath);
+   }
+
+   public static Expression max(String attributePath) {
+      return new PathExpression(PathExpression.AggregationType.MAX, attributePath);
+   }
+}
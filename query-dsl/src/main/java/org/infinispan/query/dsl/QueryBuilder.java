@@ -10,8 +10,27 @@
 
    QueryBuilder orderBy(String attributePath, SortOrder sortOrder);
 
+   /**
+    * Sorts the rows of a grouping query by a grouping attribute path or by an aggregation, which does not need to be
+    * part of the projection.
+    */
+   QueryBuilder orderBy(Expression expression, SortOrder sortOrder);
+
    QueryBuilder setProjection(String... attributePath);
 
+   /**
+    * Sets the projection of the query. Any attribute path selected without being aggregated must also be listed in
+    * {@link #groupBy(String...)} when aggregations are selected.
+    */
+   QueryBuilder select(Expression... projection);
+
+   /**
+    * Groups the matching entities by the values of the given attribute paths. The query then returns a row per group,
+    * made of the expressions given to {@link #select(Expression...)}, and the ordering, startOffset and maxResults apply
+    * to the groups. The ordering may only refer to the grouping attribute paths and to aggregations.
+    */
+   QueryBuilder groupBy(String... attributePath);
+
    QueryBuilder startOffset(long startOffset);
 
    QueryBuilder maxResults(int maxResults);
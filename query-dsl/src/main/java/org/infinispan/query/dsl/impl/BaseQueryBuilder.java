@@ -1,5 +1,6 @@
 package org.infinispan.query.dsl.impl;
 
+import org.infinispan.query.dsl.Expression;
 import org.infinispan.query.dsl.FilterConditionBeginContext;
 import org.infinispan.query.dsl.FilterConditionContext;
 import org.infinispan.query.dsl.FilterConditionEndContext;
@@ -26,9 +27,14 @@
    protected final String rootTypeName;
 
    /**
-    * The attribute paths for the projection.
+    * The expressions of the projection.
     */
-   protected String[] projection;
+   protected PathExpression[] projection;
+
+   /**
+    * The attribute paths to group by.
+    */
+   protected String[] groupBy;
 
    protected BaseCondition filterCondition;
 
@@ -55,7 +61,19 @@ public QueryBuilder<T> orderBy(String attributePath, SortOrder sortOrder) {
       if (sortCriteria == null) {
          sortCriteria = new ArrayList<SortCriteria>();
       }
-      sortCriteria.add(new SortCriteria(attributePath, sortOrder));
+      sortCriteria.add(new SortCriteria(new PathExpression(null, attributePath), sortOrder));
+      return this;
+   }
+
+   @Override
+   public QueryBuilder<T> orderBy(Expression expression, SortOrder sortOrder) {
+      if (!(expression instanceof PathExpression)) {
+         throw new IllegalArgumentException("Unsupported expression: " + expression);
+      }
+      if (sortCriteria == null) {
+         sortCriteria = new ArrayList<SortCriteria>();
+      }
+      sortCriteria.add(new SortCriteria((PathExpression) expression, sortOrder));
       return this;
    }
 
@@ -65,14 +83,71 @@ protected List<SortCriteria> getSortCriteria() {
 
    @Override
    public QueryBuilder<T> setProjection(String... projection) {
-      this.projection = projection;
+      if (projection == null) {
+         this.projection = null;
+      } else {
+         this.projection = new PathExpression[projection.length];
+         for (int i = 0; i < projection.length; i++) {
+            this.projection[i] = new PathExpression(null, projection[i]);
+         }
+      }
+      return this;
+   }
+
+   @Override
+   public QueryBuilder<T> select(Expression... projection) {
+      if (projection == null) {
+         this.projection = null;
+      } else {
+         this.projection = new PathExpression[projection.length];
+         for (int i = 0; i < projection.length; i++) {
+            if (!(projection[i] instanceof PathExpression)) {
+               throw new IllegalArgumentException("Unsupported expression: " + projection[i]);
+            }
+            this.projection[i] = (PathExpression) projection[i];
+         }
+      }
       return this;
    }
 
-   protected String[] getProjection() {
+   protected PathExpression[] getProjection() {
       return projection;
    }
 
+   @Override
+   public QueryBuilder<T> groupBy(String... groupBy) {
+      this.groupBy = groupBy;
+      return this;
+   }
+
+   protected String[] getGroupBy() {
+      return groupBy;
+   }
+
+   /**
+    * Whether the query has a GROUP BY clause or aggregations, in which case it returns a row per group.
+    */
+   protected boolean isGroupingQuery() {
+      if (groupBy != null && groupBy.length != 0) {
+         return true;
+      }
+      if (projection != null) {
+         for (PathExpression p : projection) {
+            if (p.getAggregationType() != null) {
+               return true;
+            }
+         }
+      }
+      if (sortCriteria != null) {
+         for (SortCriteria sc : sortCriteria) {
+            if (sc.getAggregationType() != null) {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
    @Override
    public QueryBuilder<T> startOffset(long startOffset) {
       if (startOffset < 0) {
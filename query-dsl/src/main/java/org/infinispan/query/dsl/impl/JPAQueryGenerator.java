@@ -34,24 +34,34 @@ public <T extends Query> String visit(BaseQueryBuilder<T> baseQueryBuilder) {
       if (baseQueryBuilder.getProjection() != null && baseQueryBuilder.getProjection().length != 0) {
          sb.append("SELECT ");
          boolean isFirst = true;
-         for (String projection : baseQueryBuilder.getProjection()) {
+         for (PathExpression projection : baseQueryBuilder.getProjection()) {
             if (isFirst) {
                isFirst = false;
             } else {
                sb.append(", ");
             }
-            sb.append(alias).append('.').append(projection);
+            appendPathExpression(sb, projection);
          }
          sb.append(' ');
       }
 
-      sb.append("FROM ").append(baseQueryBuilder.getRootTypeName()).append(' ').append(alias);
+      sb.append(renderFromClause(baseQueryBuilder));
 
-      if (baseQueryBuilder.getFilterCondition() != null) {
-         BaseCondition baseCondition = baseQueryBuilder.getFilterCondition().getRoot();
-         String whereCondition = baseCondition.accept(this);
-         if (!whereCondition.isEmpty()) {
-            sb.append(" WHERE ").append(whereCondition);
+      String whereCondition = renderWhereClause(baseQueryBuilder);
+      if (whereCondition != null) {
+         sb.append(" WHERE ").append(whereCondition);
+      }
+
+      if (baseQueryBuilder.getGroupBy() != null && baseQueryBuilder.getGroupBy().length != 0) {
+         sb.append(" GROUP BY ");
+         boolean isFirst = true;
+         for (String groupBy : baseQueryBuilder.getGroupBy()) {
+            if (isFirst) {
+               isFirst = false;
+            } else {
+               sb.append(", ");
+            }
+            sb.append(alias).append('.').append(groupBy);
          }
       }
 
@@ -64,13 +74,54 @@ public <T extends Query> String visit(BaseQueryBuilder<T> baseQueryBuilder) {
             } else {
                sb.append(", ");
             }
-            sb.append(alias).append('.').append(sortCriteria.getAttributePath()).append(' ').append(sortCriteria.getSortOrder().name());
+            appendPathExpression(sb, sortCriteria.getPathExpression());
+            sb.append(' ').append(sortCriteria.getSortOrder().name());
          }
       }
 
       return sb.toString();
    }
 
+   /**
+    * The alias of the queried entity in the generated queries.
+    */
+   public String getAlias() {
+      return alias;
+   }
+
+   /**
+    * Renders the FROM clause, declaring the queried entity and its {@link #getAlias() alias}.
+    */
+   public <T extends Query> String renderFromClause(BaseQueryBuilder<T> baseQueryBuilder) {
+      return "FROM " + baseQueryBuilder.getRootTypeName() + ' ' + alias;
+   }
+
+   /**
+    * Renders the conditions of the WHERE clause, without the WHERE keyword.
+    *
+    * @return the conditions or {@code null} if the query has none
+    */
+   public <T extends Query> String renderWhereClause(BaseQueryBuilder<T> baseQueryBuilder) {
+      if (baseQueryBuilder.getFilterCondition() != null) {
+         BaseCondition baseCondition = baseQueryBuilder.getFilterCondition().getRoot();
+         String whereCondition = baseCondition.accept(this);
+         if (!whereCondition.isEmpty()) {
+            return whereCondition;
+         }
+      }
+      return null;
+   }
+
+   private void appendPathExpression(StringBuilder sb, PathExpression pathExpression) {
+      if (pathExpression.getAggregationType() != null) {
+         sb.append(pathExpression.getAggregationType().name()).append('(');
+         sb.append(alias).append('.').append(pathExpression.getAttributePath());
+         sb.append(')');
+      } else {
+         sb.append(alias).append('.').append(pathExpression.getAttributePath());
+      }
+   }
+
    protected <E extends Enum<E>> String renderEnum(E argument) {
       return '\'' + argument.name() + '\'';
    }
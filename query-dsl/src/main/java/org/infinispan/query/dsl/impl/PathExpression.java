@@ -0,0 +1,43 @@
+package org.infinispan.query.dsl.impl;
+
+import org.infinispan.query.dsl.Expression;
+
+/**
+ * An attribute path in the select clause of a query, optionally aggregated.
+ *
+ * @since 8.0
+ */
+public final class PathExpression extends Expression {
+
+   public enum AggregationType {
+      COUNT, SUM, AVG, MIN, MAX
+   }
+
+   private final AggregationType aggregationType;
+
+   private final String attributePath;
+
+   public PathExpression(AggregationType aggregationType, String attributePath) {
+      if (attributePath == null) {
+         throw new IllegalArgumentException("attributePath cannot be null");
+      }
+      this.aggregationType = aggregationType;
+      this.attributePath = attributePath;
+   }
+
+   /**
+    * @return the aggregation function or {@code null} if the path is not aggregated
+    */
+   public AggregationType getAggregationType() {
+      return aggregationType;
+   }
+
+   public String getAttributePath() {
+      return attributePath;
+   }
+
+   @Override
+   public String toString() {
+      return aggregationType != null ? aggregationType.name() + '(' + attributePath + ')' : attributePath;
+   }
+}
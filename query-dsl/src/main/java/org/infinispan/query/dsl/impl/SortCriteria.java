@@ -8,17 +8,31 @@
  */
 public class SortCriteria {
 
-   private final String attributePath;
+   private final PathExpression pathExpression;
 
    private final SortOrder sortOrder;
 
-   SortCriteria(String attributePath, SortOrder sortOrder) {
-      this.attributePath = attributePath;
+   public SortCriteria(PathExpression pathExpression, SortOrder sortOrder) {
+      if (pathExpression == null) {
+         throw new IllegalArgumentException("pathExpression cannot be null");
+      }
+      this.pathExpression = pathExpression;
       this.sortOrder = sortOrder;
    }
 
+   public PathExpression getPathExpression() {
+      return pathExpression;
+   }
+
    public String getAttributePath() {
-      return attributePath;
+      return pathExpression.getAttributePath();
+   }
+
+   /**
+    * @return the aggregation function of the sorted expression or {@code null} if the attribute path is not aggregated
+    */
+   public PathExpression.AggregationType getAggregationType() {
+      return pathExpression.getAggregationType();
    }
 
    public SortOrder getSortOrder() {
@@ -28,7 +42,7 @@ public SortOrder getSortOrder() {
    @Override
    public String toString() {
       return "SortCriteria{" +
-            "attributePath='" + attributePath + '\'' +
+            "pathExpression=" + pathExpression +
             ", sortOrder=" + sortOrder +
             '}';
    }
@@ -108,6 +108,17 @@ public interface SearchManager {
     */
    void purge(Class<?> entityType);
 
+   /**
+    * Waits until the index changes caused by the writes completed before this call are applied, so that they become
+    * visible to the following queries. Only needed when the cache is indexed asynchronously, as configured by the
+    * {@code infinispan.query.indexing.async} indexing property.
+    *
+    * @throws org.infinispan.commons.CacheException if some index changes could not be applied since the previous call
+    * @since 8.0
+    */
+   default void flushIndexWork() {
+   }
+
    /**
     * This method gives access to internal Infinispan types, and should not be normally needed.
     * The API of the internal types can (and probably will) change without notice.
@@ -0,0 +1,523 @@
+package org.infinispan.query.backend;
+
+import org.hibernate.search.backend.TransactionContext;
+import org.hibernate.search.backend.spi.Work;
+import org.hibernate.search.backend.spi.WorkType;
+import org.hibernate.search.backend.spi.Worker;
+import org.hibernate.search.spi.SearchIntegrator;
+import org.infinispan.commons.CacheException;
+import org.infinispan.query.logging.Log;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.LogFactory;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Applies index work in the background instead of inside the write invocation. The work is buffered in a bounded
+ * queue where successive updates of the same entity are coalesced, and is drained by a task running on an Infinispan
+ * managed executor in batches which are submitted to Hibernate Search as one unit of work per index.
+ * <p>
+ * Writers apply a batch themselves when the queue is full. Queries are not guaranteed to see the preceding writes
+ * until {@link #flush()} is invoked. A batch that fails is retried a few times and then dropped, and the failure is
+ * reported by the next {@link #flush()}.
+ *
+ * @since 8.0
+ */
+public final class AsyncIndexingQueue {
+
+   private static final Log log = LogFactory.getLog(AsyncIndexingQueue.class, Log.class);
+
+   /**
+    * Indexing property enabling asynchronous indexing.
+    */
+   public static final String ASYNC_PROPERTY = "infinispan.query.indexing.async";
+
+   /**
+    * Indexing property setting the maximum number of entities having pending index work.
+    */
+   public static final String QUEUE_SIZE_PROPERTY = "infinispan.query.indexing.async.queue_size";
+
+   /**
+    * Indexing property setting the maximum number of entities whose work is applied in a batch.
+    */
+   public static final String BATCH_SIZE_PROPERTY = "infinispan.query.indexing.async.batch_size";
+
+   private static final int DEFAULT_QUEUE_SIZE = 10000;
+
+   private static final int DEFAULT_BATCH_SIZE = 1000;
+
+   /**
+    * The number of times the work of an entity is submitted before it is dropped.
+    */
+   private static final int MAX_ATTEMPTS = 3;
+
+   private final SearchIntegrator searchFactory;
+
+   private final ExecutorService executor;
+
+   private final TimeService timeService;
+
+   private final int queueSize;
+
+   private final int batchSize;
+
+   private final ReentrantLock lock = new ReentrantLock();
+
+   /**
+    * Makes sure a single batch is applied at a time.
+    */
+   private final ReentrantLock drainLock = new ReentrantLock();
+
+   /**
+    * Whether a drain task was submitted to the executor and has not completed yet.
+    */
+   private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+   private final Runnable drainTask = new Runnable() {
+      @Override
+      public void run() {
+         try {
+            drain();
+         } finally {
+            drainScheduled.set(false);
+         }
+         if (running && !isEmpty()) {
+            // work enqueued while the flag was still set, or work to retry
+            scheduleDrain();
+         }
+      }
+   };
+
+   /**
+    * The pending work, in the order of the first change of each entity. Guarded by {@link #lock}.
+    */
+   private final LinkedHashMap<WorkKey, PendingWork> pending = new LinkedHashMap<WorkKey, PendingWork>();
+
+   /**
+    * Sequence number of the last enqueued work. Guarded by {@link #lock}.
+    */
+   private long enqueuedSeq;
+
+   /**
+    * Sequence number of the last applied work. Guarded by {@link #lock}.
+    */
+   private long appliedSeq;
+
+   /**
+    * The cause of the last dropped batch, not reported by {@link #flush()} yet. Guarded by {@link #lock}.
+    */
+   private RuntimeException failure;
+
+   /**
+    * The number of entities whose work was dropped since the last report. Guarded by {@link #lock}.
+    */
+   private int droppedWorkCount;
+
+   private final LongAdder coalescedWorkCount = new LongAdder();
+
+   private volatile boolean running;
+
+   public AsyncIndexingQueue(SearchIntegrator searchFactory, ExecutorService executor, TimeService timeService, int queueSize, int batchSize) {
+      if (queueSize <= 0 || batchSize <= 0) {
+         throw new IllegalArgumentException("Queue and batch sizes must be positive");
+      }
+      this.searchFactory = searchFactory;
+      this.executor = executor;
+      this.timeService = timeService;
+      this.queueSize = queueSize;
+      this.batchSize = batchSize;
+   }
+
+   /**
+    * Creates the queue if asynchronous indexing is enabled in the given indexing properties.
+    *
+    * @return the queue or {@code null} if indexing is synchronous
+    */
+   public static AsyncIndexingQueue fromProperties(SearchIntegrator searchFactory, ExecutorService executor, TimeService timeService, Properties properties) {
+      if (!Boolean.parseBoolean(properties.getProperty(ASYNC_PROPERTY))) {
+         return null;
+      }
+      int queueSize = Integer.parseInt(properties.getProperty(QUEUE_SIZE_PROPERTY, String.valueOf(DEFAULT_QUEUE_SIZE)).trim());
+      int batchSize = Integer.parseInt(properties.getProperty(BATCH_SIZE_PROPERTY, String.valueOf(DEFAULT_BATCH_SIZE)).trim());
+      return new AsyncIndexingQueue(searchFactory, executor, timeService, queueSize, batchSize);
+   }
+
+   public void start() {
+      running = true;
+   }
+
+   /**
+    * Applies the pending work. The work enqueued afterwards is applied by the writers themselves.
+    */
+   public void stop() {
+      if (!running) {
+         return;
+      }
+      try {
+         flush();
+      } catch (CacheException e) {
+         // already logged when the work was dropped
+      } finally {
+         running = false;
+      }
+   }
+
+   /**
+    * Enqueues the given work, applying a batch first if the queue is full.
+    */
+   public void enqueue(Collection<Work> works) {
+      long now = timeService.wallClockTime();
+      lock.lock();
+      try {
+         for (Work work : works) {
+            WorkKey key = new WorkKey(work);
+            if (key.id == null) {
+               // the work affects all entities of the type, so the pending work on them is superseded
+               discardPendingWork(key.entityType);
+            }
+            PendingWork previous = pending.get(key);
+            if (previous == null) {
+               while (running && pending.size() >= queueSize) {
+                  // the drain lock is always acquired before the queue lock
+                  lock.unlock();
+                  try {
+                     drain();
+                  } finally {
+                     lock.lock();
+                  }
+               }
+               pending.put(key, new PendingWork(key, work, ++enqueuedSeq, now));
+            } else {
+               previous.coalesce(work);
+               ++enqueuedSeq;
+               coalescedWorkCount.increment();
+            }
+         }
+      } finally {
+         lock.unlock();
+      }
+      if (running) {
+         scheduleDrain();
+      } else {
+         // stopped concurrently, do not leave the work behind
+         drain();
+      }
+   }
+
+   /**
+    * Waits until all the work enqueued before this call has been applied to the indexes, so that it becomes visible to
+    * queries.
+    *
+    * @throws CacheException if some work could not be applied since the previous flush
+    */
+   public void flush() {
+      lock.lock();
+      try {
+         long target = enqueuedSeq;
+         while (appliedSeq < target) {
+            lock.unlock();
+            try {
+               drain();
+            } finally {
+               lock.lock();
+            }
+         }
+         if (failure != null) {
+            CacheException e = log.asyncIndexingWorkDropped(droppedWorkCount, failure);
+            failure = null;
+            droppedWorkCount = 0;
+            throw e;
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * The number of entities having index work not yet applied.
+    */
+   public int getQueueSize() {
+      lock.lock();
+      try {
+         return pending.size();
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * The age in milliseconds of the oldest change not yet applied to the indexes, or 0 if there is none.
+    */
+   public long getIndexingLag() {
+      lock.lock();
+      try {
+         long oldest = Long.MAX_VALUE;
+         for (PendingWork w : pending.values()) {
+            oldest = Math.min(oldest, w.enqueueTime);
+         }
+         return oldest == Long.MAX_VALUE ? 0 : Math.max(0, timeService.wallClockTime() - oldest);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   public long getCoalescedWorkCount() {
+      return coalescedWorkCount.sum();
+   }
+
+   private boolean isEmpty() {
+      lock.lock();
+      try {
+         return pending.isEmpty();
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private void scheduleDrain() {
+      if (drainScheduled.compareAndSet(false, true)) {
+         try {
+            executor.execute(drainTask);
+         } catch (RejectedExecutionException e) {
+            drainScheduled.set(false);
+            // the executor is saturated or shutting down, so the writer applies the work itself
+            drain();
+         }
+      }
+   }
+
+   private void discardPendingWork(Class<?> entityType) {
+      Iterator<WorkKey> it = pending.keySet().iterator();
+      while (it.hasNext()) {
+         if (it.next().entityType == entityType) {
+            it.remove();
+            coalescedWorkCount.increment();
+         }
+      }
+   }
+
+   /**
+    * Applies the pending work, batch by batch, until the queue is empty or a batch fails.
+    */
+   private void drain() {
+      drainLock.lock();
+      try {
+         while (true) {
+            List<PendingWork> batch;
+            lock.lock();
+            try {
+               if (pending.isEmpty()) {
+                  return;
+               }
+               batch = new ArrayList<PendingWork>(Math.min(batchSize, pending.size()));
+               Iterator<PendingWork> it = pending.values().iterator();
+               while (it.hasNext() && batch.size() < batchSize) {
+                  batch.add(it.next());
+                  it.remove();
+               }
+            } finally {
+               lock.unlock();
+            }
+
+            RuntimeException batchFailure = applyBatch(batch);
+
+            lock.lock();
+            try {
+               if (batchFailure != null) {
+                  requeue(batch, batchFailure);
+               }
+               // everything older than the oldest pending change has been applied
+               long oldestPending = enqueuedSeq + 1;
+               for (PendingWork w : pending.values()) {
+                  if (w.firstSeq < oldestPending) {
+                     oldestPending = w.firstSeq;
+                  }
+               }
+               appliedSeq = Math.max(appliedSeq, oldestPending - 1);
+            } finally {
+               lock.unlock();
+            }
+            if (batchFailure != null) {
+               // retried by the next drain
+               return;
+            }
+         }
+      } finally {
+         drainLock.unlock();
+      }
+   }
+
+   /**
+    * Puts the work of a failed batch back in the queue, unless it was attempted too many times or it was superseded by
+    * work enqueued in the meantime. Must be called with {@link #lock} held.
+    */
+   private void requeue(List<PendingWork> batch, RuntimeException cause) {
+      int dropped = 0;
+      for (PendingWork w : batch) {
+         if (++w.attempts >= MAX_ATTEMPTS) {
+            dropped++;
+            continue;
+         }
+         if (w.key.id != null && pending.containsKey(new WorkKey(w.entityType, null))) {
+            // the entities of the type were purged in the meantime
+            continue;
+         }
+         PendingWork newer = pending.get(w.key);
+         if (newer == null) {
+            pending.put(w.key, w);
+         } else {
+            // the newer work replaces the failed one, which may or may not have created a document
+            newer.firstSeq = Math.min(newer.firstSeq, w.firstSeq);
+            if (newer.work.getType() == WorkType.ADD) {
+               newer.work = new Work(newer.work.getEntity(), newer.work.getId(), WorkType.UPDATE);
+            }
+         }
+      }
+      if (dropped > 0) {
+         log.asyncIndexingFailed(dropped, cause);
+         failure = cause;
+         droppedWorkCount += dropped;
+      }
+      if (dropped < batch.size()) {
+         log.debugf(cause, "Failed to apply %d asynchronous index updates, retrying", batch.size() - dropped);
+      }
+   }
+
+   /**
+    * Submits the work of each index as a single unit of work, so that the backend applies it with one commit.
+    *
+    * @return the failure, or {@code null} if the batch was applied
+    */
+   private RuntimeException applyBatch(List<PendingWork> batch) {
+      Map<Class<?>, BatchTransactionContext> contexts = new LinkedHashMap<Class<?>, BatchTransactionContext>();
+      Worker worker = searchFactory.getWorker();
+      try {
+         for (PendingWork w : batch) {
+            BatchTransactionContext context = contexts.get(w.entityType);
+            if (context == null) {
+               context = new BatchTransactionContext();
+               contexts.put(w.entityType, context);
+            }
+            worker.performWork(w.work, context);
+         }
+         for (BatchTransactionContext context : contexts.values()) {
+            context.complete();
+         }
+         return null;
+      } catch (RuntimeException e) {
+         return e;
+      }
+   }
+
+   private static final class WorkKey {
+
+      final Class<?> entityType;
+
+      final Serializable id;
+
+      WorkKey(Work work) {
+         Object entity = work.getEntity();
+         entityType = entity != null ? entity.getClass() : work.getEntityClass();
+         id = work.getId();
+      }
+
+      WorkKey(Class<?> entityType, Serializable id) {
+         this.entityType = entityType;
+         this.id = id;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o) return true;
+         if (o == null || o.getClass() != WorkKey.class) return false;
+         WorkKey other = (WorkKey) o;
+         return entityType == other.entityType && (id != null ? id.equals(other.id) : other.id == null);
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * entityType.hashCode() + (id != null ? id.hashCode() : 0);
+      }
+   }
+
+   private static final class PendingWork {
+
+      final WorkKey key;
+
+      final Class<?> entityType;
+
+      final long enqueueTime;
+
+      long firstSeq;
+
+      int attempts;
+
+      Work work;
+
+      PendingWork(WorkKey key, Work work, long seq, long enqueueTime) {
+         this.key = key;
+         this.entityType = key.entityType;
+         this.work = work;
+         this.firstSeq = seq;
+         this.enqueueTime = enqueueTime;
+      }
+
+      /**
+       * Only the last change of an entity needs to be applied, but an ADD cannot replace work that may have created a
+       * document, so it becomes an UPDATE.
+       */
+      void coalesce(Work newWork) {
+         if (newWork.getType() == WorkType.ADD && work.getType() != WorkType.ADD) {
+            newWork = new Work(newWork.getEntity(), newWork.getId(), WorkType.UPDATE);
+         }
+         work = newWork;
+      }
+   }
+
+   /**
+    * Makes the Hibernate Search worker queue the work of a batch and apply it at once when the batch completes, like it
+    * does for a transaction.
+    */
+   private static final class BatchTransactionContext implements TransactionContext {
+
+      private final List<Synchronization> synchronizations = new ArrayList<Synchronization>(1);
+
+      @Override
+      public boolean isTransactionInProgress() {
+         return true;
+      }
+
+      @Override
+      public Object getTransactionIdentifier() {
+         return this;
+      }
+
+      @Override
+      public void registerSynchronization(Synchronization synchronization) {
+         synchronizations.add(synchronization);
+      }
+
+      void complete() {
+         for (Synchronization s : synchronizations) {
+            s.beforeCompletion();
+         }
+         for (Synchronization s : synchronizations) {
+            s.afterCompletion(Status.STATUS_COMMITTED);
+         }
+      }
+   }
+}
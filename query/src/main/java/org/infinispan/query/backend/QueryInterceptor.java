@@ -21,11 +21,13 @@
 import org.infinispan.commands.LocalFlagAffectedCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.ComputeCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
@@ -48,6 +50,7 @@
 import org.infinispan.query.logging.Log;
 import org.infinispan.registry.ClusterRegistry;
 import org.infinispan.registry.ScopedKey;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.LogFactory;
 
 /**
@@ -81,6 +84,10 @@ public final class QueryInterceptor extends CommandInterceptor {
    protected TransactionManager transactionManager;
    protected TransactionSynchronizationRegistry transactionSynchronizationRegistry;
    protected ExecutorService asyncExecutor;
+   private ExecutorService indexingExecutor;
+   private Configuration cacheConfiguration;
+   private TimeService timeService;
+   private volatile AsyncIndexingQueue asyncIndexingQueue;
 
    private static final Log log = LogFactory.getLog(QueryInterceptor.class, Log.class);
 
@@ -101,10 +108,16 @@ protected void injectDependencies(TransactionManager transactionManager,
                                      Cache cache,
                                      ClusterRegistry<String, Class<?>, Boolean> clusterRegistry,
                                      DataContainer dataContainer,
-                                     @ComponentName(KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR) ExecutorService e) {
+                                     @ComponentName(KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR) ExecutorService e,
+                                     @ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR) ExecutorService indexingExecutor,
+                                     Configuration cacheConfiguration,
+                                     TimeService timeService) {
       this.transactionManager = transactionManager;
+      this.cacheConfiguration = cacheConfiguration;
+      this.timeService = timeService;
       this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
       this.asyncExecutor = e;
+      this.indexingExecutor = indexingExecutor;
       this.dataContainer = dataContainer;
       this.clusterRegistry = new ReadIntensiveClusterRegistryWrapper(clusterRegistry, "QueryKnownClasses#" + cache.getName());
       this.searchFactoryHandler = new SearchFactoryHandler(this.searchFactory, this.clusterRegistry, new TransactionHelper(transactionManager));
@@ -117,12 +130,19 @@ protected void start() {
       Class<?>[] array = keys.toArray(new Class<?>[keys.size()]);
       //Important to enable them all in a single call, much more efficient:
       enableClasses(array);
+      asyncIndexingQueue = AsyncIndexingQueue.fromProperties(searchFactory, indexingExecutor, timeService, cacheConfiguration.indexing().properties());
+      if (asyncIndexingQueue != null) {
+         asyncIndexingQueue.start();
+      }
       stopping.set(false);
    }
 
    @Stop
    protected void stop() {
       clusterRegistry.removeListener(registryListener);
+      if (asyncIndexingQueue != null) {
+         asyncIndexingQueue.stop();
+      }
    }
 
    public void prepareForStopping() {
@@ -161,6 +181,16 @@ public ExecutorService getAsyncExecutor() {
 
    @Override
    public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+      if (command instanceof ComputeCommand) {
+         // A compute returns the new value, the previous one is only in the data container
+         InternalCacheEntry internalCacheEntry = dataContainer.get(command.getKey());
+         Object previousValue = internalCacheEntry != null ? internalCacheEntry.getValue() : null;
+         Object toReturn = invokeNextInterceptor(ctx, command);
+         if (command.isSuccessful()) {
+            processPutKeyValueCommand(command, ctx, previousValue, null);
+         }
+         return toReturn;
+      }
       Object toReturn = invokeNextInterceptor(ctx, command);
       processPutKeyValueCommand(command, ctx, toReturn, null);
       return toReturn;
@@ -245,12 +275,38 @@ private void performSearchWork(Object value, Serializable id, WorkType workType,
    }
 
    private void performSearchWorks(Collection<Work> works, TransactionContext transactionContext) {
+      AsyncIndexingQueue asyncIndexingQueue = this.asyncIndexingQueue;
+      if (asyncIndexingQueue != null && !transactionContext.isTransactionInProgress()) {
+         // transactional work is already deferred until commit, and batched, by the worker
+         asyncIndexingQueue.enqueue(works);
+         return;
+      }
       Worker worker = searchFactory.getWorker();
       for (Work work : works) {
          worker.performWork(work, transactionContext);
       }
    }
 
+   /**
+    * Waits until the index work of the writes completed before this call is applied, so that it becomes visible to
+    * queries. This is a no-op unless indexing is asynchronous.
+    *
+    * @throws org.infinispan.commons.CacheException if some index work could not be applied since the previous call
+    */
+   public void flushIndexWork() {
+      AsyncIndexingQueue asyncIndexingQueue = this.asyncIndexingQueue;
+      if (asyncIndexingQueue != null) {
+         asyncIndexingQueue.flush();
+      }
+   }
+
+   /**
+    * @return the queue of the index work or {@code null} if indexing is synchronous
+    */
+   public AsyncIndexingQueue getAsyncIndexingQueue() {
+      return asyncIndexingQueue;
+   }
+
    public boolean isIndexed(final Class<?> c) {
       return searchFactoryHandler.isIndexed(c);
    }
@@ -445,6 +501,21 @@ private void processPutMapCommand(final PutMapCommand command, final InvocationC
     * @param transactionContext Optional for lazy initialization, or reuse an existing context.
     */
    private void processPutKeyValueCommand(final PutKeyValueCommand command, final InvocationContext ctx, final Object previousValue, TransactionContext transactionContext) {
+      if (command instanceof ComputeCommand) {
+         if (!((ComputeCommand) command).isComputed()) {
+            // the function was not applied on this node
+            return;
+         }
+         if (command.getValue() == null) {
+            // the function returned null and removed the entry
+            Object removed = extractValue(previousValue);
+            if (updateKnownTypesIfNeeded(removed) && shouldModifyIndexes(command, ctx)) {
+               transactionContext = transactionContext == null ? makeTransactionalEventContext() : transactionContext;
+               removeFromIndexes(removed, extractValue(command.getKey()), transactionContext);
+            }
+            return;
+         }
+      }
       final boolean usingSkipIndexCleanupFlag = usingSkipIndexCleanup(command);
       //whatever the new type, we might still need to cleanup for the previous value (and schedule removal first!)
       Object value = extractValue(command.getValue());
@@ -0,0 +1,177 @@
+package org.infinispan.query.backend;
+
+import org.infinispan.commands.tx.CommitCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.ComputeCommand;
+import org.infinispan.commands.write.EvictCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.PutMapCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.ReplaceCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.marshall.core.MarshalledValue;
+import org.infinispan.query.dsl.embedded.impl.SecondaryIndexes;
+import org.infinispan.query.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.Map;
+
+/**
+ * Keeps the {@link SecondaryIndexes} of a cache in sync with its contents. The indexes are updated after a write is
+ * applied, while the key is still locked, or when a transaction commits. Evictions do not affect the indexes as the
+ * evicted entries can still be loaded from the cache store.
+ *
+ * @since 8.0
+ */
+public final class SecondaryIndexInterceptor extends CommandInterceptor {
+
+   private static final Log log = LogFactory.getLog(SecondaryIndexInterceptor.class, Log.class);
+
+   private final SecondaryIndexes secondaryIndexes;
+
+   private DataContainer dataContainer;
+
+   public SecondaryIndexInterceptor(SecondaryIndexes secondaryIndexes) {
+      this.secondaryIndexes = secondaryIndexes;
+   }
+
+   @Inject
+   protected void injectDependencies(DataContainer dataContainer) {
+      this.dataContainer = dataContainer;
+   }
+
+   @Override
+   protected Log getLog() {
+      return log;
+   }
+
+   public SecondaryIndexes getSecondaryIndexes() {
+      return secondaryIndexes;
+   }
+
+   @Override
+   public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (!ctx.isInTxScope()) {
+         updateIndexes(command);
+      }
+      return returnValue;
+   }
+
+   @Override
+   public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (!ctx.isInTxScope()) {
+         updateIndexes(command);
+      }
+      return returnValue;
+   }
+
+   @Override
+   public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (!ctx.isInTxScope()) {
+         updateIndexes(command);
+      }
+      return returnValue;
+   }
+
+   @Override
+   public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (!ctx.isInTxScope()) {
+         updateIndexes(command);
+      }
+      return returnValue;
+   }
+
+   @Override
+   public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (!ctx.isInTxScope()) {
+         updateIndexes(command);
+      }
+      return returnValue;
+   }
+
+   @Override
+   public Object visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (command.isOnePhaseCommit() && ctx.isTransactionValid()) {
+         for (WriteCommand writeCommand : command.getModifications()) {
+            updateIndexes(writeCommand);
+         }
+      }
+      return returnValue;
+   }
+
+   @Override
+   public Object visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      for (WriteCommand writeCommand : ctx.getModifications()) {
+         updateIndexes(writeCommand);
+      }
+      return returnValue;
+   }
+
+   private void updateIndexes(WriteCommand command) {
+      if (!command.isSuccessful()) {
+         return;
+      }
+      if (command instanceof PutKeyValueCommand) {
+         PutKeyValueCommand putCommand = (PutKeyValueCommand) command;
+         if (putCommand instanceof ComputeCommand && !((ComputeCommand) putCommand).isComputed()) {
+            // the function was applied on the primary owner, which sends the result to the other owners
+            return;
+         }
+         if (putCommand.hasFlag(Flag.DELTA_WRITE)) {
+            // the command carries a delta, the resulting value is only in the data container
+            updateFromDataContainer(putCommand.getKey());
+         } else {
+            update(putCommand.getKey(), putCommand.getValue());
+         }
+      } else if (command instanceof ReplaceCommand) {
+         ReplaceCommand replaceCommand = (ReplaceCommand) command;
+         update(replaceCommand.getKey(), replaceCommand.getNewValue());
+      } else if (command instanceof EvictCommand) {
+         // the entry is still in the cache store
+      } else if (command instanceof RemoveCommand) {
+         secondaryIndexes.remove(((RemoveCommand) command).getKey());
+      } else if (command instanceof PutMapCommand) {
+         for (Map.Entry<Object, Object> e : ((PutMapCommand) command).getMap().entrySet()) {
+            update(e.getKey(), e.getValue());
+         }
+      } else if (command instanceof ClearCommand) {
+         secondaryIndexes.clear();
+      }
+   }
+
+   private void updateFromDataContainer(Object key) {
+      InternalCacheEntry entry = dataContainer.peek(key);
+      update(key, entry != null ? entry.getValue() : null);
+   }
+
+   private void update(Object key, Object value) {
+      key = extractValue(key);
+      value = extractValue(value);
+      if (value == null) {
+         secondaryIndexes.remove(key);
+      } else {
+         secondaryIndexes.update(key, value);
+      }
+   }
+
+   private Object extractValue(Object wrappedValue) {
+      if (wrappedValue instanceof MarshalledValue)
+         return ((MarshalledValue) wrappedValue).get();
+      return wrappedValue;
+   }
+}
@@ -122,9 +122,10 @@ public ResultIterator iterator(FetchOptions fetchOptions) throws SearchException
       }
    }
 
-   // number of results of each node of cluster
+   // number of results of each node of cluster: every node returns only its own top (firstResult + maxResults)
+   // docs, which are enough to merge the requested page
    private int getNodeMaxResults() {
-      return maxResults + firstResult;
+      return (int) Math.min((long) maxResults + firstResult, Integer.MAX_VALUE);
    }
 
    private HashMap<UUID, ClusteredTopDocs> broadcastQuery(ClusteredQueryCommand command) {
@@ -148,10 +149,16 @@ private HashMap<UUID, ClusteredTopDocs> broadcastQuery(ClusteredQueryCommand com
 
    @Override
    public List<Object> list() throws SearchException {
-      ResultIterator iterator = iterator(new FetchOptions().fetchMode(FetchOptions.FetchMode.EAGER));
+      // all the values are needed, so they are fetched in a single batch
+      ResultIterator iterator = iterator(new FetchOptions().fetchMode(FetchOptions.FetchMode.EAGER)
+                                               .fetchSize(Math.max(1, maxResults)));
       List<Object> values = new ArrayList<Object>();
-      while (iterator.hasNext()) {
-         values.add(iterator.next());
+      try {
+         while (iterator.hasNext()) {
+            values.add(iterator.next());
+         }
+      } finally {
+         iterator.close();
       }
 
       return values;
@@ -21,7 +21,6 @@
 public class ClusteredQueryCommand extends BaseRpcCommand implements ReplicableCommand, CustomQueryCommand {
 
    public static final byte COMMAND_ID = ModuleCommandIds.CLUSTERED_QUERY;
-   private static final Integer ZERO = Integer.valueOf(0);
 
    private ClusteredQueryCommandType commandType;
 
@@ -34,7 +33,7 @@ public class ClusteredQueryCommand extends BaseRpcCommand implements ReplicableC
    private UUID lazyQueryId;
 
    // for retrieve keys on a lazy query
-   private Integer docIndex = ZERO;
+   private int[] docIndexes;
 
    private ClusteredQueryCommand(ClusteredQueryCommandType type, String cacheName) {
       super(cacheName);
@@ -43,7 +42,7 @@ private ClusteredQueryCommand(ClusteredQueryCommandType type, String cacheName)
 
    /**
     * For CommandFactory only. To create a ClusteredQueryCommand, use createLazyIterator(),
-    * destroyLazyQuery(), getResultSize() or retrieveKeyFromLazyQuery()
+    * destroyLazyQuery(), getResultSize() or retrieveKeysFromLazyQuery()
     */
    public ClusteredQueryCommand(String cacheName) {
       super(cacheName);
@@ -79,10 +78,15 @@ public static ClusteredQueryCommand destroyLazyQuery(Cache<?, ?> cache, UUID id)
       return clQuery;
    }
 
-   public static ClusteredQueryCommand retrieveKeyFromLazyQuery(Cache<?, ?> cache, UUID id, int docIndex) {
+   /**
+    * Retrieves the values of several results of a lazy query at once.
+    *
+    * @param docIndexes the indexes of the results in the top docs returned by the target node
+    */
+   public static ClusteredQueryCommand retrieveKeysFromLazyQuery(Cache<?, ?> cache, UUID id, int[] docIndexes) {
       ClusteredQueryCommand clQuery = new ClusteredQueryCommand(ClusteredQueryCommandType.GET_SOME_KEYS, cache.getName());
       clQuery.lazyQueryId = id;
-      clQuery.docIndex = docIndex;
+      clQuery.docIndexes = docIndexes;
       return clQuery;
    }
 
@@ -107,7 +111,7 @@ public Object perform(InvocationContext context) throws Throwable {
    }
 
    public QueryResponse perform(Cache<?, ?> cache) {
-      ClusteredQueryCommandWorker worker = commandType.getCommand(cache, query, lazyQueryId, docIndex);
+      ClusteredQueryCommandWorker worker = commandType.getCommand(cache, query, lazyQueryId, docIndexes);
       return worker.perform();
    }
 
@@ -118,7 +122,7 @@ public byte getCommandId() {
 
    @Override
    public Object[] getParameters() {
-      return new Object[] { commandType, query, lazyQueryId, docIndex };
+      return new Object[] { commandType, query, lazyQueryId, docIndexes };
    }
 
    @Override
@@ -127,7 +131,7 @@ public void setParameters(int commandId, Object[] args) {
       commandType = (ClusteredQueryCommandType) args[i++];
       query = (HSQuery) args[i++];
       lazyQueryId = (UUID) args[i++];
-      docIndex = (Integer) args[i++];
+      docIndexes = (int[]) args[i++];
    }
 
    @Override
@@ -54,10 +54,10 @@ public ClusteredQueryCommandWorker getNewInstance() {
    protected abstract ClusteredQueryCommandWorker getNewInstance();
 
    public ClusteredQueryCommandWorker getCommand(Cache<?, ?> cache, HSQuery query, UUID lazyQueryId,
-            int docIndex) {
+            int[] docIndexes) {
       ClusteredQueryCommandWorker command = null;
       command = getNewInstance();
-      command.init(cache, query, lazyQueryId, docIndex);
+      command.init(cache, query, lazyQueryId, docIndexes);
       return command;
    }
 
@@ -1,6 +1,6 @@
 package org.infinispan.query.clustered;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +14,7 @@
 
 import org.hibernate.search.exception.SearchException;
 import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.remoting.rpc.ResponseMode;
@@ -45,37 +46,51 @@ public class ClusteredQueryInvoker {
    }
 
    /**
-    * Retrieves the value (using doc index) in a remote query instance
+    * Retrieves several values (using doc indexes) from remote query instances. A single command is sent to each node,
+    * and the nodes are all invoked in parallel.
     * 
-    * @param doc
-    *           Doc index of the value on remote query
-    * @param address
-    *           Address of the node who has the value
+    * @param docIndexes
+    *           Doc indexes of the values on each remote query, grouped by the address of the node who has them
     * @param queryId
     *           Id of the query
-    * @return The value of index doc of the query with queryId on node at address
+    * @return The values of the doc indexes, in the same order, grouped by address
     */
-   public Object getValue(int doc, Address address, UUID queryId) {
-      ClusteredQueryCommand clusteredQuery = ClusteredQueryCommand.retrieveKeyFromLazyQuery(
-               localCacheInstance, queryId, doc);
+   public Map<Address, Object[]> getValues(Map<Address, int[]> docIndexes, UUID queryId) {
+      Future<QueryResponse> localResponse = null;
+      Map<Address, ReplicableCommand> remoteCommands = new HashMap<Address, ReplicableCommand>();
+      for (Entry<Address, int[]> entry : docIndexes.entrySet()) {
+         ClusteredQueryCommand clusteredQuery = ClusteredQueryCommand.retrieveKeysFromLazyQuery(
+                  localCacheInstance, queryId, entry.getValue());
+         if (entry.getKey().equals(myAddress)) {
+            localResponse = localInvoke(clusteredQuery);
+         } else {
+            remoteCommands.put(entry.getKey(), clusteredQuery);
+         }
+      }
 
-      if (address.equals(myAddress)) {
-         Future<QueryResponse> localResponse = localInvoke(clusteredQuery);
+      Map<Address, Object[]> values = new HashMap<Address, Object[]>(docIndexes.size() * 2);
+      if (!remoteCommands.isEmpty()) {
+         Map<Address, Response> responses = rpcManager.invokeRemotely(remoteCommands, rpcOptions);
+         for (Entry<Address, Response> pair : responses.entrySet()) {
+            Response resp = pair.getValue();
+            if (resp instanceof SuccessfulResponse) {
+               QueryResponse response = (QueryResponse) ((SuccessfulResponse) resp).getResponseValue();
+               values.put(pair.getKey(), (Object[]) response.getFetchedValue());
+            } else {
+               throw new SearchException("Unexpected response: " + resp);
+            }
+         }
+      }
+      if (localResponse != null) {
          try {
-            return localResponse.get().getFetchedValue();
+            values.put(myAddress, (Object[]) localResponse.get().getFetchedValue());
          } catch (InterruptedException e) {
             throw new SearchException("interrupted while searching locally", e);
          } catch (ExecutionException e) {
             throw new SearchException("Exception while searching locally", e);
          }
-      } else {
-         List<Address> addresss = new ArrayList<Address>(1);
-         addresss.add(address);
-
-         Map<Address, Response> responses = rpcManager.invokeRemotely(addresss, clusteredQuery, rpcOptions);
-         List<QueryResponse> objects = cast(responses);
-         return objects.get(0).getFetchedValue();
       }
+      return values;
    }
 
    /**
@@ -9,15 +9,18 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
-import java.util.Map.Entry;
 
 /**
  * DistributedIterator.
  *
- * Iterates on a distributed query.
+ * Iterates on a distributed query. The values are fetched in batches of fetchSize results.
  *
  * @author Israel Lacerra <israeldl@gmail.com>
  * @author <a href="mailto:mluksa@redhat.com">Marko Luksa</a>
@@ -33,38 +36,52 @@ public class DistributedIterator implements ResultIterator {
    private int currentIndex = -1;
 
    private final int fetchSize;
-   private final int resultSize;
-   private final int maxResults;
-   private final int firstResult;
-   private final UUID[] clusterIDs;
    private final ClusteredTopDocs[] partialResults;
-   private final TopDocs[] partialTopDocs;
-   private final int[] partialPositionNext;
-   private final TopDocs mergedResults;
+
+   // for each result (starting at firstResult) the node having it and its position in the top docs of that node
+   private final int[] resultNodes;
+   private final int[] resultPositions;
+
+   // the values of the current batch of results
+   private Object[] fetchedValues;
+   private int fetchedStart;
 
    public DistributedIterator(Sort sort, int fetchSize, int resultSize, int maxResults, int firstResult, HashMap<UUID, ClusteredTopDocs> topDocsResponses, AdvancedCache<?, ?> cache) {
       this.fetchSize = fetchSize;
-      this.resultSize = resultSize;
-      this.maxResults = maxResults;
-      this.firstResult = firstResult;
       this.cache = cache;
       final int parallels = topDocsResponses.size();
-      this.clusterIDs = new UUID[parallels];
       this.partialResults = new ClusteredTopDocs[parallels];
-      this.partialTopDocs = new TopDocs[parallels];
-      this.partialPositionNext = new int[parallels];
+      TopDocs[] partialTopDocs = new TopDocs[parallels];
       int i=0;
-      for (Entry<UUID, ClusteredTopDocs> entry : topDocsResponses.entrySet()) {
-         clusterIDs[i] = entry.getKey();
-         partialResults[i] = entry.getValue();
-         partialTopDocs[i] = partialResults[i].getTopDocs();
+      for (ClusteredTopDocs topDocs : topDocsResponses.values()) {
+         partialResults[i] = topDocs;
+         partialTopDocs[i] = topDocs.getTopDocs();
          i++;
       }
+
+      // each node sent its own top (firstResult + maxResults) docs, they are merged from the beginning so the
+      // position of the results in the top docs of their node can be tracked
+      int topN = (int) Math.min((long) firstResult + maxResults, Integer.MAX_VALUE);
+      TopDocs mergedResults;
       try {
-         mergedResults = TopDocs.merge(sort, firstResult, maxResults, partialTopDocs);
+         mergedResults = TopDocs.merge(sort, topN, partialTopDocs);
       } catch (IOException e) {
          throw log.unexpectedIOException(e);
       }
+
+      ScoreDoc[] scoreDocs = mergedResults.scoreDocs;
+      int numResults = Math.max(0, Math.min(scoreDocs.length, resultSize) - firstResult);
+      this.resultNodes = new int[numResults];
+      this.resultPositions = new int[numResults];
+      int[] nodePositions = new int[parallels];
+      for (int j = 0; j < firstResult + numResults; j++) {
+         int node = scoreDocs[j].shardIndex;
+         int position = nodePositions[node]++;
+         if (j >= firstResult) {
+            resultNodes[j - firstResult] = node;
+            resultPositions[j - firstResult] = position;
+         }
+      }
    }
 
    @Override
@@ -77,17 +94,41 @@ public Object next() {
       if (!hasNext())
          throw new NoSuchElementException("Out of boundaries");
       currentIndex++;
-      // fetch and return the value
-      ScoreDoc scoreDoc = mergedResults.scoreDocs[currentIndex];
-      int index = scoreDoc.shardIndex;
-      int specificPosition = partialPositionNext[index];
-      partialPositionNext[index]++;
-      return fetchValue(specificPosition, partialResults[index]);
+      if (fetchedValues == null || currentIndex >= fetchedStart + fetchedValues.length) {
+         // fetch the values of the next batch of results
+         int batchSize = Math.min(fetchSize, resultNodes.length - currentIndex);
+         int[] nodes = Arrays.copyOfRange(resultNodes, currentIndex, currentIndex + batchSize);
+         int[] positions = Arrays.copyOfRange(resultPositions, currentIndex, currentIndex + batchSize);
+         fetchedValues = new Object[batchSize];
+         fetchedStart = currentIndex;
+         fetchValues(nodes, positions, fetchedValues);
+      }
+      return fetchedValues[currentIndex - fetchedStart];
    }
 
-   public Object fetchValue(int scoreIndex, ClusteredTopDocs topDoc) {
-      ISPNEagerTopDocs eagerTopDocs = (ISPNEagerTopDocs) topDoc.getTopDocs();
-      return cache.get(eagerTopDocs.keys[scoreIndex]);
+   /**
+    * Fetches the values of a batch of results.
+    *
+    * @param nodes the index in {@link #getPartialResults()} of the node having each result
+    * @param positions the position of each result in the top docs of its node
+    * @param values the array to fill with the values
+    */
+   protected void fetchValues(int[] nodes, int[] positions, Object[] values) {
+      Object[] keys = new Object[values.length];
+      Set<Object> keySet = new HashSet<Object>(values.length * 2);
+      for (int i = 0; i < values.length; i++) {
+         ISPNEagerTopDocs eagerTopDocs = (ISPNEagerTopDocs) partialResults[nodes[i]].getTopDocs();
+         keys[i] = eagerTopDocs.keys[positions[i]];
+         keySet.add(keys[i]);
+      }
+      Map<?, ?> entries = cache.getAll(keySet);
+      for (int i = 0; i < values.length; i++) {
+         values[i] = entries.get(keys[i]);
+      }
+   }
+
+   protected ClusteredTopDocs[] getPartialResults() {
+      return partialResults;
    }
 
    @Override
@@ -98,11 +139,7 @@ public final void remove() {
 
    @Override
    public final boolean hasNext() {
-      int nextIndex = currentIndex + 1;
-      if (firstResult + nextIndex >= resultSize || nextIndex >= maxResults) {
-         return false;
-      }
-      return true;
+      return currentIndex + 1 < resultNodes.length;
    }
 
 }
@@ -1,18 +1,22 @@
 package org.infinispan.query.clustered;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.lucene.search.Sort;
 import org.infinispan.AdvancedCache;
+import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 /**
  * DistributedLazyIterator.
  * 
- * Lazily iterates on a distributed query
+ * Lazily iterates on a distributed query. It acts as a cursor over the results: the query runs once on each node and
+ * the values are fetched in batches as the iteration proceeds.
  * 
  * @author Israel Lacerra <israeldl@gmail.com>
  * @since 5.1
@@ -44,15 +48,47 @@ public void close() {
       }
    }
 
+   /**
+    * The results of the batch are grouped by the node having them, and each node is asked for all its results with a
+    * single command. The query is not run again, the nodes keep its DocumentExtractor in their QueryBox until the
+    * iterator is closed.
+    */
    @Override
-   public Object fetchValue(int scoreIndex, ClusteredTopDocs topDoc) {
-      Object value = null;
+   protected void fetchValues(int[] nodes, int[] positions, Object[] values) {
+      ClusteredTopDocs[] partialResults = getPartialResults();
+      int[] nodeBatchSizes = new int[partialResults.length];
+      for (int node : nodes) {
+         nodeBatchSizes[node]++;
+      }
+
+      Map<Address, int[]> docIndexes = new HashMap<Address, int[]>();
+      int[] nodeBatchPositions = new int[partialResults.length];
+      for (int i = 0; i < nodes.length; i++) {
+         Address address = partialResults[nodes[i]].getNodeAddress();
+         int[] nodeDocIndexes = docIndexes.get(address);
+         if (nodeDocIndexes == null) {
+            nodeDocIndexes = new int[nodeBatchSizes[nodes[i]]];
+            docIndexes.put(address, nodeDocIndexes);
+         }
+         nodeDocIndexes[nodeBatchPositions[nodes[i]]++] = positions[i];
+      }
+
+      Map<Address, Object[]> nodeValues;
       try {
-         value = invoker.getValue(scoreIndex, topDoc.getNodeAddress(), queryId);
+         nodeValues = invoker.getValues(docIndexes, queryId);
       } catch (Exception e) {
-         log.error("Error while trying to remoting fetch next value: " + e.getMessage());
+         log.error("Error while trying to remoting fetch next values: " + e.getMessage());
+         return;
+      }
+
+      Arrays.fill(nodeBatchPositions, 0);
+      for (int i = 0; i < nodes.length; i++) {
+         Object[] fetched = nodeValues.get(partialResults[nodes[i]].getNodeAddress());
+         int batchPosition = nodeBatchPositions[nodes[i]]++;
+         if (fetched != null) {
+            values[i] = fetched[batchPosition];
+         }
       }
-      return value;
    }
 
 }
@@ -6,7 +6,10 @@
 import org.infinispan.query.clustered.commandworkers.QueryExtractorUtil;
 import org.infinispan.commons.util.CollectionFactory;
 
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 
@@ -44,15 +47,16 @@ public class QueryBox {
    private KeyTransformationHandler keyTransformationHandler;
 
    /**
-    * Get the "docIndex" value on the correct DocumentExtractor
+    * Get the values of several results of a DocumentExtractor at once. The values are loaded from the cache with a
+    * single bulk read, so the iterator pays for one round trip per batch instead of one per result.
     *
     * @param queryUuid
     *           The queryId, so we can get the correct DocumentExtractor
-    * @param docIndex
-    *           value index in the DocumentExtractor
-    * @return
+    * @param docIndexes
+    *           value indexes in the DocumentExtractor
+    * @return the values, in the same order as the indexes
     */
-   public Object getValue(UUID queryUuid, int docIndex) {
+   public Object[] getValues(UUID queryUuid, int[] docIndexes) {
       touch(queryUuid);
 
       DocumentExtractor extractor = queries.get(queryUuid);
@@ -61,8 +65,23 @@ public Object getValue(UUID queryUuid, int docIndex) {
          throw new IllegalStateException("Query not found!");
       }
 
-      Object key = QueryExtractorUtil.extractKey(extractor, cache, keyTransformationHandler, docIndex);
-      return cache.get(key);
+      Object[] keys = new Object[docIndexes.length];
+      Set<Object> keySet = new HashSet<Object>(docIndexes.length * 2);
+      for (int i = 0; i < docIndexes.length; i++) {
+         keys[i] = QueryExtractorUtil.extractKey(extractor, cache, keyTransformationHandler, docIndexes[i]);
+         if (keys[i] != null) {
+            keySet.add(keys[i]);
+         }
+      }
+
+      Map<?, ?> entries = cache.getAll(keySet);
+      Object[] values = new Object[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+         if (keys[i] != null) {
+            values[i] = entries.get(keys[i]);
+         }
+      }
+      return values;
    }
 
    private void touch(UUID id) {
@@ -80,7 +99,9 @@ private void touch(UUID id) {
     */
    public void kill(UUID id) {
       DocumentExtractor extractor = queries.remove(id);
-      ageOrderedQueries.remove(id);
+      synchronized (ageOrderedQueries) {
+         ageOrderedQueries.remove(id);
+      }
       if (extractor != null)
          extractor.close();
    }
@@ -94,14 +115,22 @@ public void kill(UUID id) {
     *           The query
     */
    public synchronized void put(UUID id, DocumentExtractor extractor) {
+      UUID evicted = null;
       synchronized (ageOrderedQueries) {
          if (ageOrderedQueries.size() >= BOX_LIMIT) {
-            ageOrderedQueries.removeLast();
+            evicted = ageOrderedQueries.removeLast();
          }
-         ageOrderedQueries.add(id);
+         ageOrderedQueries.addFirst(id);
       }
 
       queries.put(id, extractor);
+
+      // the least recently used query is closed, it would otherwise hold its index readers forever
+      if (evicted != null) {
+         DocumentExtractor evictedExtractor = queries.remove(evicted);
+         if (evictedExtractor != null)
+            evictedExtractor.close();
+      }
    }
 
    /**
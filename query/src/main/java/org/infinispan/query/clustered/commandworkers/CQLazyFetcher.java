@@ -6,7 +6,7 @@
 /**
  * CQLazyFetcher.
  * 
- * Fetch a new result for a lazy iterator
+ * Fetch a batch of results for a lazy iterator
  * 
  * @author Israel Lacerra <israeldl@gmail.com>
  * @since 5.1
@@ -16,8 +16,8 @@ public class CQLazyFetcher extends ClusteredQueryCommandWorker {
    @Override
    public QueryResponse perform() {
       QueryBox box = getQueryBox();
-      Object value = box.getValue(lazyQueryId, docIndex);
-      return new QueryResponse(value);
+      Object[] values = box.getValues(lazyQueryId, docIndexes);
+      return new QueryResponse(values);
    }
 
 }
@@ -29,13 +29,13 @@ public abstract class ClusteredQueryCommandWorker {
    // the query
    protected HSQuery query;
    protected UUID lazyQueryId;
-   protected int docIndex;
+   protected int[] docIndexes;
 
-   public void init(Cache<?, ?> cache, HSQuery query, UUID lazyQueryId, int docIndex) {
+   public void init(Cache<?, ?> cache, HSQuery query, UUID lazyQueryId, int[] docIndexes) {
       this.cache = cache;
       this.query = query;
       this.lazyQueryId = lazyQueryId;
-      this.docIndex = docIndex;
+      this.docIndexes = docIndexes;
    }
 
    public abstract QueryResponse perform();
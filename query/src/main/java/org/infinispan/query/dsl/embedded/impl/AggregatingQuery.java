@@ -0,0 +1,209 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.CloseableIterable;
+import org.infinispan.distexec.DefaultExecutorService;
+import org.infinispan.distexec.DistributedExecutorService;
+import org.infinispan.objectfilter.ObjectFilter;
+import org.infinispan.query.CacheQuery;
+import org.infinispan.query.ResultIterator;
+import org.infinispan.query.dsl.QueryFactory;
+import org.infinispan.query.dsl.impl.BaseQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A query having a GROUP BY clause or aggregations. It returns a row per group, and the paging applies to the groups.
+ * The matching entities are aggregated where they are found by the {@link RowSource} and only the partial aggregation
+ * states are merged here.
+ *
+ * @since 8.0
+ */
+public final class AggregatingQuery extends BaseQuery {
+
+   /**
+    * Aggregates the rows of the {@link Grouping#getRowQuery() row query} of a grouping query.
+    */
+   public interface RowSource {
+
+      void collect(Grouping.Accumulator accumulator);
+   }
+
+   private final Grouping grouping;
+
+   private final RowSource rowSource;
+
+   private final int startOffset;
+
+   private final int maxResults;
+
+   private List results;
+
+   private int resultSize;
+
+   public AggregatingQuery(QueryFactory queryFactory, String jpaQuery, Grouping grouping, RowSource rowSource,
+                           long startOffset, int maxResults) {
+      super(queryFactory, jpaQuery);
+      this.grouping = grouping;
+      this.rowSource = rowSource;
+      this.startOffset = startOffset < 0 ? 0 : (int) startOffset;
+      this.maxResults = maxResults;
+   }
+
+   /**
+    * Aggregates the entries of the cache matching the row filter. In clustered caches each node aggregates the entries
+    * it is primary owner of, and only sends back a partial row per group.
+    */
+   public static RowSource nonIndexed(AdvancedCache<?, ?> cache, JPAFilterAndConverter rowFilter, Grouping grouping) {
+      EmbeddedQuery.ensureAccessPermissions(cache);
+      return new NonIndexedRowSource(cache, rowFilter, grouping);
+   }
+
+   /**
+    * Aggregates the entities matched by a Lucene query, projecting them with a filter of the {@link
+    * Grouping#getProjectionQuery() projection query}.
+    */
+   public static RowSource indexed(CacheQuery cacheQuery, JPAFilterAndConverter projectionFilter) {
+      return new IndexedRowSource(cacheQuery, projectionFilter);
+   }
+
+   /**
+    * The number of expressions of each result row.
+    */
+   public int getProjectionSize() {
+      return grouping.getProjectionSize();
+   }
+
+   @Override
+   public <T> List<T> list() {
+      if (results == null) {
+         Grouping.Accumulator accumulator = grouping.newAccumulator();
+         rowSource.collect(accumulator);
+         List<Object[]> rows = accumulator.getRows();
+         resultSize = rows.size();
+         if (rows.size() <= startOffset) {
+            results = Collections.emptyList();
+         } else {
+            int end = maxResults == -1 ? rows.size() : (int) Math.min(rows.size(), (long) startOffset + maxResults);
+            results = rows.subList(startOffset, end);
+         }
+      }
+      return results;
+   }
+
+   @Override
+   public int getResultSize() {
+      list();
+      return resultSize;
+   }
+
+   @Override
+   public String toString() {
+      return "AggregatingQuery{" +
+            "jpaQuery=" + jpaQuery +
+            ", startOffset=" + startOffset +
+            ", maxResults=" + maxResults +
+            '}';
+   }
+
+   private static final class NonIndexedRowSource implements RowSource {
+
+      private final AdvancedCache<?, ?> cache;
+
+      private final JPAFilterAndConverter rowFilter;
+
+      private final Grouping grouping;
+
+      NonIndexedRowSource(AdvancedCache<?, ?> cache, JPAFilterAndConverter rowFilter, Grouping grouping) {
+         this.cache = cache;
+         this.rowFilter = rowFilter;
+         this.grouping = grouping;
+      }
+
+      @Override
+      public void collect(Grouping.Accumulator accumulator) {
+         int topologyId = EmbeddedQuery.pushedDownTopologyId(cache);
+         if (topologyId != -1 && collectDistributed(accumulator, topologyId)) {
+            return;
+         }
+         CloseableIterable<Map.Entry<?, ObjectFilter.FilterResult>> iterable = cache.filterEntries(rowFilter).converter(rowFilter);
+         try {
+            for (Map.Entry<?, ObjectFilter.FilterResult> e : iterable) {
+               accumulator.accumulate(e.getValue().getProjection());
+            }
+         } finally {
+            try {
+               iterable.close();
+            } catch (Exception e) {
+               // exception ignored
+            }
+         }
+      }
+
+      /**
+       * Merges the partial rows of every node into the accumulator, unless the topology changed while they were
+       * gathered.
+       *
+       * @return {@code false} if the topology changed and the accumulator was left untouched
+       */
+      private boolean collectDistributed(Grouping.Accumulator accumulator, int topologyId) {
+         List<List<Object[]>> partialRows = new ArrayList<List<Object[]>>();
+         DistributedExecutorService executor = new DefaultExecutorService(cache);
+         try {
+            List<Future<List<Object[]>>> futures = executor.submitEverywhere(new AggregatingQueryWorker(rowFilter, grouping));
+            for (Future<List<Object[]>> future : futures) {
+               partialRows.add(future.get());
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException(e);
+         } catch (ExecutionException e) {
+            throw new CacheException(e.getCause());
+         } finally {
+            executor.shutdownNow();
+         }
+         if (!EmbeddedQuery.isTopologyUnchanged(cache, topologyId)) {
+            return false;
+         }
+         for (List<Object[]> rows : partialRows) {
+            accumulator.merge(rows);
+         }
+         return true;
+      }
+   }
+
+   private static final class IndexedRowSource implements RowSource {
+
+      private final CacheQuery cacheQuery;
+
+      private final JPAFilterAndConverter projectionFilter;
+
+      IndexedRowSource(CacheQuery cacheQuery, JPAFilterAndConverter projectionFilter) {
+         this.cacheQuery = cacheQuery;
+         this.projectionFilter = projectionFilter;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public void collect(Grouping.Accumulator accumulator) {
+         // entities are loaded lazily, one at a time, and only their aggregated attributes are kept
+         ResultIterator iterator = cacheQuery.iterator();
+         try {
+            while (iterator.hasNext()) {
+               ObjectFilter.FilterResult result = projectionFilter.filterAndConvert(null, iterator.next(), null);
+               if (result != null) {
+                  accumulator.accumulate(result.getProjection());
+               }
+            }
+         } finally {
+            iterator.close();
+         }
+      }
+   }
+}
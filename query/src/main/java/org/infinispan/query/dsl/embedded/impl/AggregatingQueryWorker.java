@@ -0,0 +1,113 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.distexec.DistributedCallable;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.iteration.impl.EntryRetriever;
+import org.infinispan.marshall.core.MarshalledValue;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.objectfilter.ObjectFilter;
+import org.infinispan.query.impl.externalizers.ExternalizerIds;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Aggregates the entries a node is primary owner of for a grouping query and returns the partial aggregation state of
+ * each group, which {@link AggregatingQuery} merges on the originator.
+ *
+ * @since 8.0
+ */
+public final class AggregatingQueryWorker implements DistributedCallable<Object, Object, List<Object[]>> {
+
+   /**
+    * The filter of the {@link Grouping#getRowQuery() row query}.
+    */
+   private final JPAFilterAndConverter rowFilter;
+
+   private final Grouping grouping;
+
+   private EntryRetriever entryRetriever;
+
+   private ClusteringDependentLogic clusteringDependentLogic;
+
+   public AggregatingQueryWorker(JPAFilterAndConverter rowFilter, Grouping grouping) {
+      this.rowFilter = rowFilter;
+      this.grouping = grouping;
+   }
+
+   @Override
+   public void setEnvironment(Cache<Object, Object> cache, Set<Object> inputKeys) {
+      ComponentRegistry componentRegistry = cache.getAdvancedCache().getComponentRegistry();
+      entryRetriever = componentRegistry.getComponent(EntryRetriever.class);
+      clusteringDependentLogic = componentRegistry.getComponent(ClusteringDependentLogic.class);
+      componentRegistry.wireDependencies(rowFilter);
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public List<Object[]> call() throws Exception {
+      Grouping.Accumulator accumulator = grouping.newAccumulator();
+      try (CloseableIterator<CacheEntry<Object, Object>> iterator = entryRetriever.retrieveEntries(new PrimaryOwnerFilter(),
+            null, Util.asSet(Flag.CACHE_MODE_LOCAL), null)) {
+         while (iterator.hasNext()) {
+            CacheEntry<Object, Object> entry = iterator.next();
+            ObjectFilter.FilterResult result = rowFilter.filterAndConvert(entry.getKey(), extractValue(entry.getValue()), entry.getMetadata());
+            if (result != null) {
+               accumulator.accumulate(result.getProjection());
+            }
+         }
+      }
+      return accumulator.getPartialRows();
+   }
+
+   private Object extractValue(Object wrappedValue) {
+      if (wrappedValue instanceof MarshalledValue)
+         return ((MarshalledValue) wrappedValue).get();
+      return wrappedValue;
+   }
+
+   private class PrimaryOwnerFilter implements KeyValueFilter<Object, Object> {
+
+      @Override
+      public boolean accept(Object key, Object value, Metadata metadata) {
+         return clusteringDependentLogic.localNodeIsPrimaryOwner(key);
+      }
+   }
+
+   public static final class Externalizer extends AbstractExternalizer<AggregatingQueryWorker> {
+
+      @Override
+      public void writeObject(ObjectOutput output, AggregatingQueryWorker worker) throws IOException {
+         output.writeObject(worker.rowFilter);
+         output.writeObject(worker.grouping);
+      }
+
+      @Override
+      public AggregatingQueryWorker readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         JPAFilterAndConverter rowFilter = (JPAFilterAndConverter) input.readObject();
+         return new AggregatingQueryWorker(rowFilter, (Grouping) input.readObject());
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.AGGREGATING_QUERY_WORKER;
+      }
+
+      @Override
+      public Set<Class<? extends AggregatingQueryWorker>> getTypeClasses() {
+         return Collections.<Class<? extends AggregatingQueryWorker>>singleton(AggregatingQueryWorker.class);
+      }
+   }
+}
@@ -1,20 +1,32 @@
 package org.infinispan.query.dsl.embedded.impl;
 
 import org.infinispan.AdvancedCache;
+import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.CloseableIterable;
+import org.infinispan.distexec.DefaultExecutorService;
+import org.infinispan.distexec.DistributedExecutorService;
+import org.infinispan.objectfilter.IndexLookup;
 import org.infinispan.objectfilter.ObjectFilter;
 import org.infinispan.query.dsl.QueryFactory;
 import org.infinispan.query.dsl.impl.BaseQuery;
 import org.infinispan.security.AuthorizationManager;
 import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
 
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 
 /**
@@ -54,7 +66,7 @@ public EmbeddedQuery(QueryFactory queryFactory, AdvancedCache<?, ?> cache, JPAFi
       this.projection = filter.getObjectFilter().getProjection();
    }
 
-   private void ensureAccessPermissions(AdvancedCache<?, ?> cache) {
+   static void ensureAccessPermissions(AdvancedCache<?, ?> cache) {
       AuthorizationManager authorizationManager = SecurityActions.getCacheAuthorizationManager(cache);
       if (authorizationManager != null) {
          authorizationManager.checkPermission(AuthorizationPermission.BULK_READ);
@@ -74,54 +86,83 @@ public <T> List<T> list() {
    }
 
    private List listInternal() {
+      if (isPagingPushedDown()) {
+         List distributedResults = listDistributed();
+         if (distributedResults != null) {
+            return distributedResults;
+         }
+         // the owners changed while the partial results were gathered, fall back to a local scan
+      }
+
+      Set<Object> candidateKeys = lookupCandidateKeys();
+      if (candidateKeys != null) {
+         return collectResults(filterCandidates(candidateKeys));
+      }
+
+      final CloseableIterable<Map.Entry<?, ObjectFilter.FilterResult>> iterable = cache.filterEntries(filter).converter(filter);
+      try {
+         return collectResults(new Iterable<ObjectFilter.FilterResult>() {
+            @Override
+            public Iterator<ObjectFilter.FilterResult> iterator() {
+               final Iterator<Map.Entry<?, ObjectFilter.FilterResult>> it = iterable.iterator();
+               return new Iterator<ObjectFilter.FilterResult>() {
+                  @Override
+                  public boolean hasNext() {
+                     return it.hasNext();
+                  }
+
+                  @Override
+                  public ObjectFilter.FilterResult next() {
+                     return it.next().getValue();
+                  }
+
+                  @Override
+                  public void remove() {
+                     throw new UnsupportedOperationException();
+                  }
+               };
+            }
+         });
+      } finally {
+         try {
+            iterable.close();
+         } catch (Exception e) {
+            // exception ignored
+         }
+      }
+   }
+
+   private List collectResults(Iterable<ObjectFilter.FilterResult> filterResults) {
       List results;
 
-      CloseableIterable<Map.Entry<?, ObjectFilter.FilterResult>> iterable = cache.filterEntries(filter).converter(filter);
       Comparator<Comparable[]> comparator = filter.getObjectFilter().getComparator();
       if (comparator == null) {
          // collect unsorted results and get the requested page if any was specified
          results = new ArrayList(INITIAL_CAPACITY);
-         try {
-            for (Map.Entry<?, ObjectFilter.FilterResult> entry : iterable) {
-               resultSize++;
-               if (resultSize > startOffset && (maxResults == -1 || results.size() < maxResults)) {
-                  ObjectFilter.FilterResult r = entry.getValue();
-                  results.add(projection != null ? r.getProjection() : r.getInstance());
-               }
-            }
-         } finally {
-            try {
-               iterable.close();
-            } catch (Exception e) {
-               // exception ignored
+         for (ObjectFilter.FilterResult r : filterResults) {
+            resultSize++;
+            if (resultSize > startOffset && (maxResults == -1 || results.size() < maxResults)) {
+               results.add(projection != null ? r.getProjection() : r.getInstance());
             }
          }
       } else {
          // collect and sort results, in reverse order for now
-         PriorityQueue<ObjectFilter.FilterResult> filterResults = new PriorityQueue<ObjectFilter.FilterResult>(INITIAL_CAPACITY, new ReverseFilterResultComparator(comparator));
-         try {
-            for (Map.Entry<?, ObjectFilter.FilterResult> entry : iterable) {
-               resultSize++;
-               filterResults.add(entry.getValue());
-               if (maxResults != -1 && filterResults.size() > startOffset + maxResults) {
-                  // remove the head, which is actually the highest result
-                  filterResults.remove();
-               }
-            }
-         } finally {
-            try {
-               iterable.close();
-            } catch (Exception e) {
-               // exception ignored
+         PriorityQueue<ObjectFilter.FilterResult> sortedResults = new PriorityQueue<ObjectFilter.FilterResult>(INITIAL_CAPACITY, new ReverseFilterResultComparator(comparator));
+         for (ObjectFilter.FilterResult r : filterResults) {
+            resultSize++;
+            sortedResults.add(r);
+            if (maxResults != -1 && sortedResults.size() > startOffset + maxResults) {
+               // remove the head, which is actually the highest result
+               sortedResults.remove();
             }
          }
 
          // collect and reverse
-         if (filterResults.size() > startOffset) {
-            Object[] res = new Object[filterResults.size() - startOffset];
-            int i = filterResults.size();
+         if (sortedResults.size() > startOffset) {
+            Object[] res = new Object[sortedResults.size() - startOffset];
+            int i = sortedResults.size();
             while (i-- > startOffset) {
-               ObjectFilter.FilterResult r = filterResults.remove();
+               ObjectFilter.FilterResult r = sortedResults.remove();
                res[i - startOffset] = projection != null ? r.getProjection() : r.getInstance();
             }
             results = Arrays.asList(res);
@@ -133,6 +174,175 @@ private List listInternal() {
       return results;
    }
 
+   /**
+    * Finds the keys of the entries that may match the query using the {@link SecondaryIndexes} of the cache, if any.
+    *
+    * @return the candidate keys or {@code null} if the whole cache needs to be scanned
+    */
+   private Set<Object> lookupCandidateKeys() {
+      if (SecurityActions.getCacheAuthorizationManager(cache) != null) {
+         return null;
+      }
+      SecondaryIndexes secondaryIndexes = SecurityActions.getCacheComponentRegistry(cache).getComponent(SecondaryIndexes.class);
+      if (secondaryIndexes == null || isInTransaction()) {
+         // the indexes do not reflect the uncommitted changes of the current transaction
+         return null;
+      }
+      ObjectFilter objectFilter = filter.getObjectFilter();
+      IndexLookup indexLookup = objectFilter.getIndexLookup(secondaryIndexes.getIndexedProperties(objectFilter.getEntityTypeName()));
+      return indexLookup != null ? secondaryIndexes.lookup(objectFilter.getEntityTypeName(), indexLookup) : null;
+   }
+
+   private boolean isInTransaction() {
+      TransactionManager tm = cache.getTransactionManager();
+      try {
+         return tm != null && tm.getTransaction() != null;
+      } catch (SystemException e) {
+         throw new CacheException(e);
+      }
+   }
+
+   /**
+    * Applies the query filter to the current values of the candidate entries found in the indexes.
+    */
+   private List<ObjectFilter.FilterResult> filterCandidates(Set<Object> candidateKeys) {
+      ObjectFilter objectFilter = filter.getObjectFilter();
+      List<ObjectFilter.FilterResult> filterResults = new ArrayList<ObjectFilter.FilterResult>(candidateKeys.size());
+      for (Object key : candidateKeys) {
+         Object value = cache.get(key);
+         if (value != null) {
+            ObjectFilter.FilterResult r = objectFilter.filter(value);
+            if (r != null) {
+               filterResults.add(r);
+            }
+         }
+      }
+      return filterResults;
+   }
+
+   private boolean isPagingPushedDown() {
+      return maxResults != -1 && (long) startOffset + maxResults <= Integer.MAX_VALUE && pushedDownTopologyId(cache) != -1;
+   }
+
+   /**
+    * Whether a query can be executed by sending a task to every node, which filters the entries it is primary owner
+    * of.
+    *
+    * @return the id of the current cache topology, which must be passed to {@link #isTopologyUnchanged} once the
+    * partial results are gathered, or {@code -1} if the query cannot be pushed down
+    */
+   static int pushedDownTopologyId(AdvancedCache<?, ?> cache) {
+      if (SecurityActions.getCacheAuthorizationManager(cache) != null
+            || !cache.getCacheConfiguration().clustering().cacheMode().isClustered()) {
+         return -1;
+      }
+      // each node only looks at the entries it is primary owner of, and ownership is not stable during state transfer
+      StateTransferManager stateTransferManager = SecurityActions.getCacheComponentRegistry(cache).getComponent(StateTransferManager.class);
+      if (stateTransferManager == null || stateTransferManager.isStateTransferInProgress()) {
+         return -1;
+      }
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      return cacheTopology != null ? cacheTopology.getTopologyId() : -1;
+   }
+
+   /**
+    * Whether the primary owners did not change while the partial results of a pushed down query were gathered. When
+    * they did, an entry may have been seen by two nodes or by none, and the query must be executed again locally.
+    */
+   static boolean isTopologyUnchanged(AdvancedCache<?, ?> cache, int topologyId) {
+      StateTransferManager stateTransferManager = SecurityActions.getCacheComponentRegistry(cache).getComponent(StateTransferManager.class);
+      if (stateTransferManager.isStateTransferInProgress()) {
+         return false;
+      }
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      return cacheTopology != null && cacheTopology.getTopologyId() == topologyId;
+   }
+
+   /**
+    * Executes the query on every node, each of them returning only the first {@code startOffset + maxResults} of its
+    * matches, then merges these partial results and extracts the requested page.
+    *
+    * @return the requested page or {@code null} if the topology changed in the meantime
+    */
+   private List listDistributed() {
+      int topologyId = pushedDownTopologyId(cache);
+      List<TopKQueryWorker.NodeResult> nodeResults = new ArrayList<TopKQueryWorker.NodeResult>();
+      DistributedExecutorService executor = new DefaultExecutorService(cache);
+      try {
+         List<Future<TopKQueryWorker.NodeResult>> futures = executor.submitEverywhere(new TopKQueryWorker(filter, startOffset + maxResults));
+         for (Future<TopKQueryWorker.NodeResult> future : futures) {
+            nodeResults.add(future.get());
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      } catch (ExecutionException e) {
+         throw new CacheException(e.getCause());
+      } finally {
+         executor.shutdownNow();
+      }
+      if (topologyId == -1 || !isTopologyUnchanged(cache, topologyId)) {
+         return null;
+      }
+
+      for (TopKQueryWorker.NodeResult nodeResult : nodeResults) {
+         resultSize += nodeResult.getMatches();
+      }
+
+      Comparator<Comparable[]> comparator = filter.getObjectFilter().getComparator();
+      List<ObjectFilter.FilterResult> merged = comparator == null ? concat(nodeResults) : merge(nodeResults, comparator);
+      if (merged.size() <= startOffset) {
+         return Collections.emptyList();
+      }
+
+      int end = Math.min(merged.size(), startOffset + maxResults);
+      Object[] res = new Object[end - startOffset];
+      for (int i = startOffset; i < end; i++) {
+         ObjectFilter.FilterResult r = merged.get(i);
+         res[i - startOffset] = projection != null ? r.getProjection() : r.getInstance();
+      }
+      return Arrays.asList(res);
+   }
+
+   private List<ObjectFilter.FilterResult> concat(List<TopKQueryWorker.NodeResult> nodeResults) {
+      List<ObjectFilter.FilterResult> results = new ArrayList<ObjectFilter.FilterResult>();
+      for (TopKQueryWorker.NodeResult nodeResult : nodeResults) {
+         results.addAll(nodeResult.getResults());
+         if (results.size() >= startOffset + maxResults) {
+            break;
+         }
+      }
+      return results;
+   }
+
+   /**
+    * K-way merge of the sorted results of each node, stopping as soon as the requested page is complete.
+    */
+   private List<ObjectFilter.FilterResult> merge(List<TopKQueryWorker.NodeResult> nodeResults, final Comparator<Comparable[]> comparator) {
+      int limit = startOffset + maxResults;
+      PriorityQueue<Cursor> cursors = new PriorityQueue<Cursor>(Math.max(1, nodeResults.size()), new Comparator<Cursor>() {
+         @Override
+         public int compare(Cursor c1, Cursor c2) {
+            return comparator.compare(c1.current().getSortProjection(), c2.current().getSortProjection());
+         }
+      });
+      for (TopKQueryWorker.NodeResult nodeResult : nodeResults) {
+         if (!nodeResult.getResults().isEmpty()) {
+            cursors.add(new Cursor(nodeResult.getResults()));
+         }
+      }
+
+      List<ObjectFilter.FilterResult> results = new ArrayList<ObjectFilter.FilterResult>(Math.min(limit, INITIAL_CAPACITY));
+      while (results.size() < limit && !cursors.isEmpty()) {
+         Cursor cursor = cursors.remove();
+         results.add(cursor.current());
+         if (cursor.advance()) {
+            cursors.add(cursor);
+         }
+      }
+      return results;
+   }
+
    @Override
    public int getResultSize() {
       list();
@@ -149,11 +359,30 @@ public String toString() {
             '}';
    }
 
-   private static class ReverseFilterResultComparator implements Comparator<ObjectFilter.FilterResult> {
+   private static final class Cursor {
+
+      private final List<ObjectFilter.FilterResult> results;
+
+      private int position;
+
+      private Cursor(List<ObjectFilter.FilterResult> results) {
+         this.results = results;
+      }
+
+      ObjectFilter.FilterResult current() {
+         return results.get(position);
+      }
+
+      boolean advance() {
+         return ++position < results.size();
+      }
+   }
+
+   static final class ReverseFilterResultComparator implements Comparator<ObjectFilter.FilterResult> {
 
       private final Comparator<Comparable[]> comparator;
 
-      private ReverseFilterResultComparator(Comparator<Comparable[]> comparator) {
+      ReverseFilterResultComparator(Comparator<Comparable[]> comparator) {
          this.comparator = comparator;
       }
 
@@ -23,10 +23,16 @@ public EmbeddedQueryBuilder(EmbeddedQueryFactory queryFactory, QueryEngine query
 
    @Override
    public Query build() {
-      String jpqlString = accept(new JPAQueryGenerator());
+      JPAQueryGenerator generator = new JPAQueryGenerator();
+      String jpqlString = accept(generator);
       if (log.isTraceEnabled()) {
          log.tracef("JPQL string : %s", jpqlString);
       }
+      if (isGroupingQuery()) {
+         Grouping grouping = Grouping.create(generator.getAlias(), generator.renderFromClause(this), generator.renderWhereClause(this),
+                                             getProjection(), getGroupBy(), getSortCriteria());
+         return queryEngine.buildGroupingQuery(queryFactory, jpqlString, grouping, startOffset, maxResults);
+      }
       return queryEngine.buildQuery(queryFactory, jpqlString, startOffset, maxResults);
    }
 }
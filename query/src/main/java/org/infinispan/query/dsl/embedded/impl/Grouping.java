@@ -0,0 +1,497 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.query.dsl.SortOrder;
+import org.infinispan.query.dsl.impl.PathExpression;
+import org.infinispan.query.dsl.impl.PathExpression.AggregationType;
+import org.infinispan.query.dsl.impl.SortCriteria;
+import org.infinispan.query.impl.externalizers.ExternalizerIds;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The GROUP BY clause and the aggregations of a query. It is built from the query model (the projection, grouping and
+ * sort criteria of a query builder, or the equivalent fields of a remote query request), so no query string is parsed
+ * to find them. The filtering part of such a query is executed as a projection query selecting the grouping and
+ * aggregated attribute paths ({@link #getRowQuery()}), and the projected rows are then folded into an {@link
+ * Accumulator}.
+ * <p>
+ * Accumulators hold partial aggregation states which can be merged, so that each node aggregates its own entries and
+ * the originator only merges one partial row per group and node.
+ *
+ * @since 8.0
+ */
+public final class Grouping {
+
+   private final String alias;
+
+   private final String fromClause;
+
+   private final String whereClause;
+
+   private final PathExpression[] select;
+
+   private final String[] groupBy;
+
+   private final List<SortCriteria> sortCriteria;
+
+   /**
+    * The projection query whose rows are aggregated.
+    */
+   private final String rowQuery;
+
+   /**
+    * The row query without its SELECT clause, to find the matching entities by other means.
+    */
+   private final String filterQuery;
+
+   /**
+    * The row query without its WHERE clause, to project entities matched by other means.
+    */
+   private final String projectionQuery;
+
+   /**
+    * The row column of each grouping attribute path.
+    */
+   private final int[] groupColumns;
+
+   /**
+    * The function of each aggregation.
+    */
+   private final AggregationType[] aggregationTypes;
+
+   /**
+    * The row column of each aggregation.
+    */
+   private final int[] aggregationColumns;
+
+   /**
+    * For each selected expression, the index of its aggregation if it is aggregated, or else {@code -1 - g} where g is
+    * the index of the grouping attribute path.
+    */
+   private final int[] selectMapping;
+
+   /**
+    * For each sort criterion, the index of its aggregation or {@code -1 - g}, like {@link #selectMapping}.
+    */
+   private final int[] sortMapping;
+
+   private final boolean[] sortDescending;
+
+   private Grouping(String alias, String fromClause, String whereClause, PathExpression[] select, String[] groupBy,
+                    List<SortCriteria> sortCriteria) {
+      this.alias = alias;
+      this.fromClause = fromClause;
+      this.whereClause = whereClause;
+      this.select = select;
+      this.groupBy = groupBy;
+      this.sortCriteria = sortCriteria;
+
+      // the grouping attribute paths come first in the rows, followed by the other aggregated attribute paths
+      Map<String, Integer> columns = new LinkedHashMap<String, Integer>();
+      List<String> groupPaths = new ArrayList<String>();
+      for (String path : groupBy) {
+         if (!groupPaths.contains(path)) {
+            groupPaths.add(path);
+            columns.put(path, columns.size());
+         }
+      }
+      List<PathExpression> aggregations = new ArrayList<PathExpression>();
+      selectMapping = new int[select.length];
+      for (int i = 0; i < select.length; i++) {
+         selectMapping[i] = mapExpression(select[i], groupPaths, columns, aggregations);
+      }
+      sortMapping = new int[sortCriteria.size()];
+      sortDescending = new boolean[sortCriteria.size()];
+      for (int i = 0; i < sortMapping.length; i++) {
+         SortCriteria sc = sortCriteria.get(i);
+         sortMapping[i] = mapExpression(sc.getPathExpression(), groupPaths, columns, aggregations);
+         sortDescending[i] = sc.getSortOrder() == SortOrder.DESC;
+      }
+
+      groupColumns = new int[groupPaths.size()];
+      for (int g = 0; g < groupColumns.length; g++) {
+         groupColumns[g] = columns.get(groupPaths.get(g));
+      }
+      aggregationTypes = new AggregationType[aggregations.size()];
+      aggregationColumns = new int[aggregations.size()];
+      for (int a = 0; a < aggregationTypes.length; a++) {
+         aggregationTypes[a] = aggregations.get(a).getAggregationType();
+         aggregationColumns[a] = columns.get(aggregations.get(a).getAttributePath());
+      }
+
+      StringBuilder sb = new StringBuilder("SELECT ");
+      boolean isFirst = true;
+      for (String path : columns.keySet()) {
+         if (isFirst) {
+            isFirst = false;
+         } else {
+            sb.append(", ");
+         }
+         sb.append(alias).append('.').append(path);
+      }
+      sb.append(' ').append(fromClause);
+      projectionQuery = sb.toString();
+      filterQuery = whereClause != null ? fromClause + " WHERE " + whereClause : fromClause;
+      rowQuery = whereClause != null ? projectionQuery + " WHERE " + whereClause : projectionQuery;
+   }
+
+   /**
+    * Maps a selected or sorted expression to its aggregation, or to its grouping attribute path.
+    */
+   private static int mapExpression(PathExpression expression, List<String> groupPaths, Map<String, Integer> columns,
+                                    List<PathExpression> aggregations) {
+      String path = expression.getAttributePath();
+      if (expression.getAggregationType() == null) {
+         int groupIndex = groupPaths.indexOf(path);
+         if (groupIndex < 0) {
+            throw new IllegalArgumentException("The expression '" + path + "' must be part of the GROUP BY clause or be used in an aggregation");
+         }
+         return -1 - groupIndex;
+      }
+      for (int a = 0; a < aggregations.size(); a++) {
+         PathExpression aggregation = aggregations.get(a);
+         if (aggregation.getAggregationType() == expression.getAggregationType() && aggregation.getAttributePath().equals(path)) {
+            return a;
+         }
+      }
+      if (!columns.containsKey(path)) {
+         columns.put(path, columns.size());
+      }
+      aggregations.add(expression);
+      return aggregations.size() - 1;
+   }
+
+   /**
+    * Creates the grouping of a query from its clauses.
+    *
+    * @param alias        the alias of the queried entity in the FROM and WHERE clauses
+    * @param fromClause   the FROM clause, declaring the queried entity and its alias
+    * @param whereClause  the conditions of the WHERE clause, or {@code null} if there are none
+    * @param select       the selected expressions
+    * @param groupBy      the grouping attribute paths, possibly empty
+    * @param sortCriteria the ordering of the groups, possibly {@code null}
+    * @throws IllegalArgumentException if the query selects or sorts by attribute paths that are neither grouped nor
+    *                                  aggregated
+    */
+   public static Grouping create(String alias, String fromClause, String whereClause, PathExpression[] select,
+                                 String[] groupBy, List<SortCriteria> sortCriteria) {
+      if (select == null || select.length == 0) {
+         throw new IllegalArgumentException("Grouping queries must have a projection");
+      }
+      return new Grouping(alias, fromClause, whereClause, select, groupBy != null ? groupBy : new String[0],
+                          sortCriteria != null ? sortCriteria : Collections.<SortCriteria>emptyList());
+   }
+
+   /**
+    * The projection query to execute, selecting the columns needed by the grouping and the aggregations.
+    */
+   public String getRowQuery() {
+      return rowQuery;
+   }
+
+   /**
+    * The conditions of the row query, without its projection.
+    */
+   public String getFilterQuery() {
+      return filterQuery;
+   }
+
+   /**
+    * The projection of the row query, without its conditions.
+    */
+   public String getProjectionQuery() {
+      return projectionQuery;
+   }
+
+   /**
+    * The number of expressions of the rows returned by the query.
+    */
+   public int getProjectionSize() {
+      return selectMapping.length;
+   }
+
+   public Accumulator newAccumulator() {
+      return new Accumulator();
+   }
+
+   private static Object update(AggregationType type, Object state, Object value) {
+      if (value == null) {
+         return type == AggregationType.COUNT && state == null ? 0L : state;
+      }
+      switch (type) {
+         case COUNT:
+            return state == null ? 1L : (Long) state + 1;
+         case SUM:
+            return add((Number) state, (Number) value);
+         case AVG:
+            double[] avg = state == null ? new double[2] : (double[]) state;
+            avg[0] += ((Number) value).doubleValue();
+            avg[1]++;
+            return avg;
+         case MIN:
+            return state == null || compare(value, state) < 0 ? value : state;
+         case MAX:
+            return state == null || compare(value, state) > 0 ? value : state;
+      }
+      throw new IllegalStateException("Unexpected aggregation type " + type);
+   }
+
+   private static Object combine(AggregationType type, Object state1, Object state2) {
+      if (state1 == null) {
+         return state2;
+      }
+      if (state2 == null) {
+         return state1;
+      }
+      switch (type) {
+         case COUNT:
+            return (Long) state1 + (Long) state2;
+         case SUM:
+            return add((Number) state1, (Number) state2);
+         case AVG:
+            double[] avg1 = (double[]) state1;
+            double[] avg2 = (double[]) state2;
+            return new double[]{avg1[0] + avg2[0], avg1[1] + avg2[1]};
+         case MIN:
+            return compare(state1, state2) <= 0 ? state1 : state2;
+         case MAX:
+            return compare(state1, state2) >= 0 ? state1 : state2;
+      }
+      throw new IllegalStateException("Unexpected aggregation type " + type);
+   }
+
+   private static Object finish(AggregationType type, Object state) {
+      switch (type) {
+         case COUNT:
+            return state == null ? 0L : state;
+         case AVG:
+            double[] avg = (double[]) state;
+            return avg == null || avg[1] == 0 ? null : avg[0] / avg[1];
+         default:
+            return state;
+      }
+   }
+
+   /**
+    * Sums integral numbers as longs and the others as doubles.
+    */
+   private static Number add(Number n1, Number n2) {
+      if (n1 == null) {
+         return isIntegral(n2) ? (Number) n2.longValue() : (Number) n2.doubleValue();
+      }
+      if (isIntegral(n1) && isIntegral(n2)) {
+         return n1.longValue() + n2.longValue();
+      }
+      return n1.doubleValue() + n2.doubleValue();
+   }
+
+   private static boolean isIntegral(Number n) {
+      return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+   }
+
+   @SuppressWarnings("unchecked")
+   private static int compare(Object o1, Object o2) {
+      if (o1 == null) {
+         return o2 == null ? 0 : -1;
+      }
+      if (o2 == null) {
+         return 1;
+      }
+      return ((Comparable) o1).compareTo(o2);
+   }
+
+   /**
+    * Aggregates rows of the {@link #getRowQuery() row query} per group. Not thread safe.
+    */
+   public final class Accumulator {
+
+      private final Map<List<Object>, Object[]> groups = new HashMap<List<Object>, Object[]>();
+
+      private Accumulator() {
+      }
+
+      /**
+       * Folds a row of the {@link #getRowQuery() row query} into the state of its group.
+       */
+      public void accumulate(Object[] row) {
+         Object[] key = new Object[groupColumns.length];
+         for (int g = 0; g < key.length; g++) {
+            key[g] = row[groupColumns[g]];
+         }
+         List<Object> groupKey = Arrays.asList(key);
+         Object[] states = groups.get(groupKey);
+         if (states == null) {
+            states = new Object[aggregationTypes.length];
+            groups.put(groupKey, states);
+         }
+         for (int a = 0; a < states.length; a++) {
+            states[a] = update(aggregationTypes[a], states[a], row[aggregationColumns[a]]);
+         }
+      }
+
+      /**
+       * Merges partial rows obtained from {@link #getPartialRows()} of another accumulator.
+       */
+      public void merge(List<Object[]> partialRows) {
+         for (Object[] partialRow : partialRows) {
+            List<Object> groupKey = Arrays.asList(Arrays.copyOfRange(partialRow, 0, groupColumns.length));
+            Object[] states = groups.get(groupKey);
+            if (states == null) {
+               groups.put(groupKey, Arrays.copyOfRange(partialRow, groupColumns.length, partialRow.length));
+            } else {
+               for (int a = 0; a < states.length; a++) {
+                  states[a] = combine(aggregationTypes[a], states[a], partialRow[groupColumns.length + a]);
+               }
+            }
+         }
+      }
+
+      /**
+       * The partial aggregation state of each group, made of the group key followed by the aggregation states.
+       */
+      public List<Object[]> getPartialRows() {
+         List<Object[]> partialRows = new ArrayList<Object[]>(groups.size());
+         for (Map.Entry<List<Object>, Object[]> e : groups.entrySet()) {
+            Object[] partialRow = new Object[groupColumns.length + aggregationTypes.length];
+            e.getKey().toArray(partialRow);
+            System.arraycopy(e.getValue(), 0, partialRow, groupColumns.length, aggregationTypes.length);
+            partialRows.add(partialRow);
+         }
+         return partialRows;
+      }
+
+      /**
+       * The final rows, one per group, in the order of the query.
+       */
+      public List<Object[]> getRows() {
+         // each group is made of its key followed by its final aggregation values
+         List<Object[]> finished = new ArrayList<Object[]>(groups.size() + 1);
+         for (Map.Entry<List<Object>, Object[]> e : groups.entrySet()) {
+            finished.add(finish(e.getKey(), e.getValue()));
+         }
+         if (finished.isEmpty() && groupColumns.length == 0) {
+            // aggregations over all the entities return a row even if nothing matches
+            finished.add(finish(Collections.emptyList(), new Object[aggregationTypes.length]));
+         }
+         if (sortMapping.length != 0) {
+            Collections.sort(finished, new Comparator<Object[]>() {
+               @Override
+               public int compare(Object[] g1, Object[] g2) {
+                  for (int i = 0; i < sortMapping.length; i++) {
+                     int column = toColumn(sortMapping[i]);
+                     int c = Grouping.compare(g1[column], g2[column]);
+                     if (c != 0) {
+                        return sortDescending[i] ? -c : c;
+                     }
+                  }
+                  return 0;
+               }
+            });
+         }
+         List<Object[]> rows = new ArrayList<Object[]>(finished.size());
+         for (Object[] group : finished) {
+            Object[] row = new Object[selectMapping.length];
+            for (int i = 0; i < row.length; i++) {
+               row[i] = group[toColumn(selectMapping[i])];
+            }
+            rows.add(row);
+         }
+         return rows;
+      }
+
+      private Object[] finish(List<Object> groupKey, Object[] states) {
+         Object[] group = new Object[groupColumns.length + aggregationTypes.length];
+         groupKey.toArray(group);
+         for (int a = 0; a < aggregationTypes.length; a++) {
+            group[groupColumns.length + a] = Grouping.finish(aggregationTypes[a], states[a]);
+         }
+         return group;
+      }
+
+      /**
+       * The position in a finished group of a grouping attribute path or aggregation, as mapped by {@link
+       * #selectMapping} or {@link #sortMapping}.
+       */
+      private int toColumn(int index) {
+         return index >= 0 ? groupColumns.length + index : -1 - index;
+      }
+   }
+
+   public static final class Externalizer extends AbstractExternalizer<Grouping> {
+
+      @Override
+      public void writeObject(ObjectOutput output, Grouping grouping) throws IOException {
+         output.writeUTF(grouping.alias);
+         output.writeUTF(grouping.fromClause);
+         output.writeObject(grouping.whereClause);
+         output.writeInt(grouping.select.length);
+         for (PathExpression expression : grouping.select) {
+            writePathExpression(output, expression);
+         }
+         output.writeInt(grouping.groupBy.length);
+         for (String path : grouping.groupBy) {
+            output.writeUTF(path);
+         }
+         output.writeInt(grouping.sortCriteria.size());
+         for (SortCriteria sc : grouping.sortCriteria) {
+            writePathExpression(output, sc.getPathExpression());
+            output.writeBoolean(sc.getSortOrder() == SortOrder.DESC);
+         }
+      }
+
+      @Override
+      public Grouping readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         String alias = input.readUTF();
+         String fromClause = input.readUTF();
+         String whereClause = (String) input.readObject();
+         PathExpression[] select = new PathExpression[input.readInt()];
+         for (int i = 0; i < select.length; i++) {
+            select[i] = readPathExpression(input);
+         }
+         String[] groupBy = new String[input.readInt()];
+         for (int i = 0; i < groupBy.length; i++) {
+            groupBy[i] = input.readUTF();
+         }
+         int numSortCriteria = input.readInt();
+         List<SortCriteria> sortCriteria = new ArrayList<SortCriteria>(numSortCriteria);
+         for (int i = 0; i < numSortCriteria; i++) {
+            PathExpression expression = readPathExpression(input);
+            sortCriteria.add(new SortCriteria(expression, input.readBoolean() ? SortOrder.DESC : SortOrder.ASC));
+         }
+         return new Grouping(alias, fromClause, whereClause, select, groupBy, sortCriteria);
+      }
+
+      private static void writePathExpression(ObjectOutput output, PathExpression expression) throws IOException {
+         AggregationType type = expression.getAggregationType();
+         output.writeByte(type != null ? type.ordinal() : -1);
+         output.writeUTF(expression.getAttributePath());
+      }
+
+      private static PathExpression readPathExpression(ObjectInput input) throws IOException {
+         byte type = input.readByte();
+         return new PathExpression(type >= 0 ? AggregationType.values()[type] : null, input.readUTF());
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.GROUPING;
+      }
+
+      @Override
+      public Set<Class<? extends Grouping>> getTypeClasses() {
+         return Collections.<Class<? extends Grouping>>singleton(Grouping.class);
+      }
+   }
+}
@@ -0,0 +1,280 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.objectfilter.IndexLookup;
+import org.infinispan.objectfilter.impl.util.ReflectionHelper;
+import org.infinispan.objectfilter.impl.util.StringHelper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of the values of a single property of an entity type, mapping each value to the keys of the cache
+ * entries having that value. A hash index only supports equality lookups while a sorted index also supports interval
+ * lookups. Null values are not indexed.
+ * <p>
+ * Updates of a given key must not run concurrently, which is guaranteed by the key lock held by the caller. Updates
+ * of different keys with the same property value are serialized by a lock striped on the value.
+ *
+ * @since 8.0
+ */
+final class PropertyIndex {
+
+   private static final int LOCK_STRIPES = 64;
+
+   /**
+    * Returned by {@link #normalize} for constants that cannot be compared with the indexed values.
+    */
+   private static final Object INCOMPATIBLE = new Object();
+
+   private final String propertyPath;
+
+   private final boolean sorted;
+
+   private final List<ReflectionHelper.PropertyAccessor> accessors;
+
+   /**
+    * The type of the indexed values, primitive types being boxed.
+    */
+   private final Class<?> valueType;
+
+   private final ConcurrentMap<Object, Set<Object>> keysByValue;
+
+   private final ConcurrentMap<Object, Object> valueByKey = new ConcurrentHashMap<Object, Object>();
+
+   private final Object[] locks = new Object[LOCK_STRIPES];
+
+   /**
+    * @throws IllegalArgumentException if the property does not exist or it is a collection
+    */
+   PropertyIndex(Class<?> entityType, String propertyPath, boolean sorted) {
+      this.propertyPath = propertyPath;
+      this.sorted = sorted;
+      this.accessors = new ArrayList<ReflectionHelper.PropertyAccessor>();
+      Class<?> type = entityType;
+      for (String propertyName : StringHelper.splitPropertyPath(propertyPath)) {
+         ReflectionHelper.PropertyAccessor accessor = ReflectionHelper.getAccessor(type, propertyName);
+         if (accessor == null) {
+            throw new IllegalArgumentException("No such property: " + propertyName);
+         }
+         if (accessor.isMultiple()) {
+            throw new IllegalArgumentException("Collection and array properties cannot be indexed");
+         }
+         accessors.add(accessor);
+         type = accessor.getPropertyType();
+      }
+      if (sorted && !type.isPrimitive() && !Comparable.class.isAssignableFrom(type)) {
+         throw new IllegalArgumentException("Only Comparable properties can have a sorted index");
+      }
+      this.valueType = box(type);
+      this.keysByValue = sorted ? new ConcurrentSkipListMap<Object, Set<Object>>() : new ConcurrentHashMap<Object, Set<Object>>();
+      for (int i = 0; i < LOCK_STRIPES; i++) {
+         locks[i] = new Object();
+      }
+   }
+
+   String getPropertyPath() {
+      return propertyPath;
+   }
+
+   boolean isSorted() {
+      return sorted;
+   }
+
+   void update(Object key, Object instance) {
+      Object value = extractValue(instance);
+      Object previousValue = value == null ? valueByKey.remove(key) : valueByKey.put(key, value);
+      if (previousValue != null && !previousValue.equals(value)) {
+         removeKey(previousValue, key);
+      }
+      if (value != null && !value.equals(previousValue)) {
+         addKey(value, key);
+      }
+   }
+
+   /**
+    * Indexes the entry only if the key is not indexed yet, so that it cannot override a concurrent update.
+    */
+   void updateIfAbsent(Object key, Object instance) {
+      Object value = extractValue(instance);
+      if (value != null && valueByKey.putIfAbsent(key, value) == null) {
+         addKey(value, key);
+      }
+   }
+
+   void remove(Object key) {
+      Object previousValue = valueByKey.remove(key);
+      if (previousValue != null) {
+         removeKey(previousValue, key);
+      }
+   }
+
+   void clear() {
+      valueByKey.clear();
+      keysByValue.clear();
+   }
+
+   /**
+    * Collects the keys of the entries satisfying the given condition.
+    *
+    * @return false if this index cannot evaluate the condition
+    */
+   @SuppressWarnings("unchecked")
+   boolean collectKeys(IndexLookup.Condition condition, Collection<Object> keys) {
+      if (!condition.isRange()) {
+         for (Object constant : condition.getValues()) {
+            Object value = normalize(constant);
+            if (value == INCOMPATIBLE) {
+               return false;
+            }
+            // null means no indexed value can be equal to the constant
+            Set<Object> k = value != null ? keysByValue.get(value) : null;
+            if (k != null) {
+               keys.addAll(k);
+            }
+         }
+         return true;
+      }
+      if (!sorted) {
+         return false;
+      }
+      NavigableMap<Object, Set<Object>> range = (NavigableMap<Object, Set<Object>>) keysByValue;
+      if (condition.getLowerBound() != null) {
+         Object lowerBound = normalize(condition.getLowerBound());
+         if (lowerBound == null || lowerBound == INCOMPATIBLE) {
+            return false;
+         }
+         range = range.tailMap(lowerBound, condition.isLowerInclusive());
+      }
+      if (condition.getUpperBound() != null) {
+         Object upperBound = normalize(condition.getUpperBound());
+         if (upperBound == null || upperBound == INCOMPATIBLE) {
+            return false;
+         }
+         range = range.headMap(upperBound, condition.isUpperInclusive());
+      }
+      for (Set<Object> k : range.values()) {
+         keys.addAll(k);
+      }
+      return true;
+   }
+
+   /**
+    * Converts a constant of the query to the type of the indexed values, as the hash and sorted maps only find values
+    * of the same type. For example the constant of {@code age = 30} may be a {@code Long} while the property is an
+    * {@code int}.
+    *
+    * @return the converted constant, {@code null} if it is a number that has no exact representation in the type of
+    * the property, or {@link #INCOMPATIBLE} if the types cannot be compared
+    */
+   @SuppressWarnings("unchecked")
+   private Object normalize(Object constant) {
+      if (valueType.isInstance(constant)) {
+         return constant;
+      }
+      if (constant instanceof Number && Number.class.isAssignableFrom(valueType)) {
+         Number number = (Number) constant;
+         Number converted;
+         if (valueType == Integer.class) {
+            converted = number.intValue();
+         } else if (valueType == Long.class) {
+            converted = number.longValue();
+         } else if (valueType == Double.class) {
+            converted = number.doubleValue();
+         } else if (valueType == Float.class) {
+            converted = number.floatValue();
+         } else if (valueType == Short.class) {
+            converted = number.shortValue();
+         } else if (valueType == Byte.class) {
+            converted = number.byteValue();
+         } else {
+            return INCOMPATIBLE;
+         }
+         try {
+            return new BigDecimal(number.toString()).compareTo(new BigDecimal(converted.toString())) == 0 ? converted : null;
+         } catch (NumberFormatException e) {
+            // NaN or infinity
+            return INCOMPATIBLE;
+         }
+      }
+      if (constant instanceof String && valueType.isEnum()) {
+         try {
+            return Enum.valueOf((Class<? extends Enum>) valueType, (String) constant);
+         } catch (IllegalArgumentException e) {
+            return null;
+         }
+      }
+      return INCOMPATIBLE;
+   }
+
+   private static Class<?> box(Class<?> type) {
+      if (!type.isPrimitive()) {
+         return type;
+      }
+      if (type == int.class) {
+         return Integer.class;
+      } else if (type == long.class) {
+         return Long.class;
+      } else if (type == double.class) {
+         return Double.class;
+      } else if (type == float.class) {
+         return Float.class;
+      } else if (type == short.class) {
+         return Short.class;
+      } else if (type == byte.class) {
+         return Byte.class;
+      } else if (type == boolean.class) {
+         return Boolean.class;
+      } else {
+         return Character.class;
+      }
+   }
+
+   private Object extractValue(Object instance) {
+      Object value = instance;
+      for (ReflectionHelper.PropertyAccessor accessor : accessors) {
+         value = accessor.getValue(value);
+         if (value == null) {
+            return null;
+         }
+      }
+      return value;
+   }
+
+   private void addKey(Object value, Object key) {
+      synchronized (lockFor(value)) {
+         Set<Object> keys = keysByValue.get(value);
+         if (keys == null) {
+            keys = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+            keysByValue.put(value, keys);
+         }
+         keys.add(key);
+      }
+   }
+
+   private void removeKey(Object value, Object key) {
+      synchronized (lockFor(value)) {
+         Set<Object> keys = keysByValue.get(value);
+         if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByValue.remove(value);
+         }
+      }
+   }
+
+   private Object lockFor(Object value) {
+      int h = value.hashCode();
+      return locks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+   }
+
+   @Override
+   public String toString() {
+      return "PropertyIndex{propertyPath='" + propertyPath + "', sorted=" + sorted + ", size=" + valueByKey.size() + '}';
+   }
+}
@@ -79,6 +79,43 @@ public Query buildQuery(QueryFactory queryFactory, String jpqlString, long start
       return new EmbeddedQuery(queryFactory, cache, makeFilter(cache, jpqlString, ReflectionMatcher.class), startOffset, maxResults);
    }
 
+   /**
+    * Builds a query having a GROUP BY clause or aggregations.
+    *
+    * @param jpqlString the whole query, only used to describe it
+    * @param grouping   the grouping and aggregations of the query, built from the query model
+    */
+   public Query buildGroupingQuery(QueryFactory queryFactory, String jpqlString, Grouping grouping, long startOffset, int maxResults) {
+      if (searchManager != null) {
+         try {
+            return buildIndexedAggregatingQuery(queryFactory, jpqlString, grouping, startOffset, maxResults);
+         } catch (ParsingException e) {
+            // if the exception was due a non-indexed field we will try to execute it again with the non-indexed engine
+            if (!e.getMessage().startsWith("HQL100002")) {
+               throw e;
+            }
+         } catch (IllegalArgumentException e) {
+            // if the exception was due a non-indexed entity we will try to execute it again with the non-indexed engine
+            if (!e.getMessage().startsWith("HQL100001")) {
+               throw e;
+            }
+         }
+      }
+
+      JPAFilterAndConverter rowFilter = makeFilter(cache, grouping.getRowQuery(), ReflectionMatcher.class);
+      return new AggregatingQuery(queryFactory, jpqlString, grouping, AggregatingQuery.nonIndexed(cache, rowFilter, grouping), startOffset, maxResults);
+   }
+
+   /**
+    * Finds the entities matching a grouping query with a Lucene query and aggregates them while they are loaded.
+    */
+   private Query buildIndexedAggregatingQuery(QueryFactory queryFactory, String jpqlString, Grouping grouping, long startOffset, int maxResults) {
+      LuceneQueryParsingResult parsingResult = parseQuery(grouping.getFilterQuery());
+      CacheQuery cacheQuery = searchManager.getQuery(parsingResult.getQuery(), parsingResult.getTargetEntity());
+      JPAFilterAndConverter projectionFilter = makeFilter(cache, grouping.getProjectionQuery(), ReflectionMatcher.class);
+      return new AggregatingQuery(queryFactory, jpqlString, grouping, AggregatingQuery.indexed(cacheQuery, projectionFilter), startOffset, maxResults);
+   }
+
    private JPAFilterAndConverter makeFilter(final AdvancedCache<?, ?> cache, final String jpaQuery, final Class<? extends Matcher> matcherImplClass) {
       return SecurityActions.doPrivileged(new PrivilegedAction<JPAFilterAndConverter>() {
          @Override
@@ -97,17 +134,7 @@ public LuceneQuery buildLuceneQuery(QueryFactory queryFactory, String jpqlString
       if (searchManager == null) {
          throw new IllegalStateException("Cannot run Lucene queries on a cache that does not have indexing enabled");
       }
-      LuceneQueryParsingResult parsingResult;
-      if (queryCache != null) {
-         KeyValuePair<String, Class> queryCacheKey = new KeyValuePair<String, Class>(jpqlString, LuceneQueryParsingResult.class);
-         parsingResult = queryCache.get(queryCacheKey);
-         if (parsingResult == null) {
-            parsingResult = transformJpaToLucene(jpqlString);
-            queryCache.put(queryCacheKey, parsingResult);
-         }
-      } else {
-         parsingResult = transformJpaToLucene(jpqlString);
-      }
+      LuceneQueryParsingResult parsingResult = parseQuery(jpqlString);
 
       org.apache.lucene.search.Query luceneQuery = parsingResult.getQuery();
       if (additionalLuceneQuery != null) {
@@ -136,6 +163,21 @@ public LuceneQuery buildLuceneQuery(QueryFactory queryFactory, String jpqlString
       return new EmbeddedLuceneQuery(queryFactory, jpqlString, cacheQuery);
    }
 
+   private LuceneQueryParsingResult parseQuery(String jpqlString) {
+      LuceneQueryParsingResult parsingResult;
+      if (queryCache != null) {
+         KeyValuePair<String, Class> queryCacheKey = new KeyValuePair<String, Class>(jpqlString, LuceneQueryParsingResult.class);
+         parsingResult = queryCache.get(queryCacheKey);
+         if (parsingResult == null) {
+            parsingResult = transformJpaToLucene(jpqlString);
+            queryCache.put(queryCacheKey, parsingResult);
+         }
+      } else {
+         parsingResult = transformJpaToLucene(jpqlString);
+      }
+      return parsingResult;
+   }
+
    private LuceneQueryParsingResult transformJpaToLucene(String jpqlString) {
       LuceneProcessingChain processingChain = new LuceneProcessingChain.Builder(searchFactory, entityNamesResolver).buildProcessingChainForClassBasedEntities();
       return queryParser.parseQuery(jpqlString, processingChain);
@@ -0,0 +1,226 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.objectfilter.IndexLookup;
+import org.infinispan.query.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lightweight in-memory secondary indexes on selected properties of the values stored in a local cache that is not
+ * indexed with Hibernate Search. They allow non-indexed DSL queries having equality, IN or interval predicates on
+ * these properties to test only the candidate entries found in the indexes instead of scanning the whole cache.
+ * <p>
+ * The indexes are declared in the indexing properties of the cache, one property per entity type: the key is {@link
+ * #PROPERTY_PREFIX} followed by the fully qualified class name and the value is a comma separated list of property
+ * paths. A path followed by {@code :sorted} gets a sorted index, which supports interval predicates, while the others
+ * get a hash index, which only supports equality. For example:
+ * <pre>
+ * infinispan.query.secondary_index.com.acme.Person = name, address.postCode, age:sorted
+ * </pre>
+ * The indexes declared for a type also hold the instances of its subtypes, and the queries targeting a subtype use
+ * the indexes declared for any of its supertypes. The indexes are maintained synchronously by the {@link
+ * org.infinispan.query.backend.SecondaryIndexInterceptor}.
+ * They may contain keys whose value no longer satisfies the indexed condition, so the query filter is always applied
+ * to the candidates.
+ *
+ * @since 8.0
+ */
+public final class SecondaryIndexes {
+
+   private static final Log log = LogFactory.getLog(SecondaryIndexes.class, Log.class);
+
+   public static final String PROPERTY_PREFIX = "infinispan.query.secondary_index.";
+
+   private static final String SORTED_SUFFIX = ":sorted";
+
+   private final Map<Class<?>, List<PropertyIndex>> indexesByType;
+
+   private final ClassLoader classLoader;
+
+   /**
+    * The indexes usable by the queries targeting an entity type, by property path. Resolved on first use as the
+    * entity type may be a subtype of the declared types.
+    */
+   private final ConcurrentMap<String, Map<String, PropertyIndex>> indexesByTypeName = new ConcurrentHashMap<String, Map<String, PropertyIndex>>();
+
+   private SecondaryIndexes(Map<Class<?>, List<PropertyIndex>> indexesByType, ClassLoader classLoader) {
+      this.indexesByType = indexesByType;
+      this.classLoader = classLoader;
+   }
+
+   /**
+    * Creates the secondary indexes declared in the given indexing properties.
+    *
+    * @return the indexes or {@code null} if none is declared
+    */
+   public static SecondaryIndexes fromProperties(Properties properties, ClassLoader classLoader) {
+      Map<Class<?>, List<PropertyIndex>> indexesByType = new HashMap<Class<?>, List<PropertyIndex>>();
+      for (String name : properties.stringPropertyNames()) {
+         if (!name.startsWith(PROPERTY_PREFIX)) {
+            continue;
+         }
+         String typeName = name.substring(PROPERTY_PREFIX.length());
+         Class<?> type;
+         try {
+            type = Util.loadClassStrict(typeName, classLoader);
+         } catch (ClassNotFoundException e) {
+            throw log.invalidSecondaryIndex(typeName, properties.getProperty(name), "class not found");
+         }
+         List<PropertyIndex> indexes = new ArrayList<PropertyIndex>();
+         for (String path : new LinkedHashSet<String>(splitPaths(properties.getProperty(name)))) {
+            boolean sorted = path.endsWith(SORTED_SUFFIX);
+            if (sorted) {
+               path = path.substring(0, path.length() - SORTED_SUFFIX.length()).trim();
+            }
+            try {
+               indexes.add(new PropertyIndex(type, path, sorted));
+            } catch (IllegalArgumentException e) {
+               throw log.invalidSecondaryIndex(typeName, path, e.getMessage());
+            }
+         }
+         if (!indexes.isEmpty()) {
+            indexesByType.put(type, indexes);
+         }
+      }
+      return indexesByType.isEmpty() ? null : new SecondaryIndexes(indexesByType, classLoader);
+   }
+
+   private static List<String> splitPaths(String value) {
+      List<String> paths = new ArrayList<String>();
+      for (String path : value.split(",")) {
+         path = path.trim();
+         if (!path.isEmpty()) {
+            paths.add(path);
+         }
+      }
+      return paths;
+   }
+
+   /**
+    * Indexes the new value of an entry, replacing its previous value in the indexes.
+    */
+   public void update(Object key, Object value) {
+      for (Map.Entry<Class<?>, List<PropertyIndex>> e : indexesByType.entrySet()) {
+         boolean indexedType = e.getKey().isInstance(value);
+         for (PropertyIndex index : e.getValue()) {
+            if (indexedType) {
+               index.update(key, value);
+            } else {
+               // the previous value might have been of another type
+               index.remove(key);
+            }
+         }
+      }
+   }
+
+   /**
+    * Indexes an existing entry unless it was already indexed, e.g. when the indexes are built from the entries of a
+    * cache store while the cache is already accepting writes.
+    */
+   public void updateIfAbsent(Object key, Object value) {
+      for (Map.Entry<Class<?>, List<PropertyIndex>> e : indexesByType.entrySet()) {
+         if (e.getKey().isInstance(value)) {
+            for (PropertyIndex index : e.getValue()) {
+               index.updateIfAbsent(key, value);
+            }
+         }
+      }
+   }
+
+   public void remove(Object key) {
+      for (List<PropertyIndex> indexes : indexesByType.values()) {
+         for (PropertyIndex index : indexes) {
+            index.remove(key);
+         }
+      }
+   }
+
+   public void clear() {
+      for (List<PropertyIndex> indexes : indexesByType.values()) {
+         for (PropertyIndex index : indexes) {
+            index.clear();
+         }
+      }
+   }
+
+   /**
+    * The paths of the indexed properties of the given entity type.
+    */
+   public Set<String> getIndexedProperties(String entityTypeName) {
+      return getIndexes(entityTypeName).keySet();
+   }
+
+   /**
+    * Finds the keys of the entries that may satisfy the given lookup.
+    *
+    * @return the candidate keys, or {@code null} if the lookup cannot be performed with the available indexes
+    */
+   public Set<Object> lookup(String entityTypeName, IndexLookup lookup) {
+      Map<String, PropertyIndex> byPath = getIndexes(entityTypeName);
+      if (byPath.isEmpty()) {
+         return null;
+      }
+      Set<Object> keys = new HashSet<Object>();
+      for (IndexLookup.Condition condition : lookup.getConditions()) {
+         PropertyIndex index = byPath.get(condition.getPropertyPath());
+         try {
+            if (index == null || !index.collectKeys(condition, keys)) {
+               return null;
+            }
+         } catch (ClassCastException e) {
+            // the constant in the query does not have the type of the indexed values
+            return null;
+         }
+      }
+      return keys;
+   }
+
+   /**
+    * Collects the indexes declared for the given entity type and its supertypes. All of them hold every instance of
+    * the entity type, so any of them can serve a property declared more than once.
+    */
+   private Map<String, PropertyIndex> getIndexes(String entityTypeName) {
+      Map<String, PropertyIndex> byPath = indexesByTypeName.get(entityTypeName);
+      if (byPath == null) {
+         byPath = new HashMap<String, PropertyIndex>();
+         Class<?> entityType = null;
+         try {
+            entityType = Util.loadClassStrict(entityTypeName, classLoader);
+         } catch (ClassNotFoundException e) {
+            // not a Java type, so none of the indexes applies
+         }
+         if (entityType != null) {
+            for (Map.Entry<Class<?>, List<PropertyIndex>> e : indexesByType.entrySet()) {
+               if (e.getKey().isAssignableFrom(entityType)) {
+                  for (PropertyIndex index : e.getValue()) {
+                     if (!byPath.containsKey(index.getPropertyPath())) {
+                        byPath.put(index.getPropertyPath(), index);
+                     }
+                  }
+               }
+            }
+         }
+         Map<String, PropertyIndex> existing = indexesByTypeName.putIfAbsent(entityTypeName, byPath);
+         if (existing != null) {
+            byPath = existing;
+         }
+      }
+      return byPath;
+   }
+
+   @Override
+   public String toString() {
+      return "SecondaryIndexes" + indexesByType.values();
+   }
+}
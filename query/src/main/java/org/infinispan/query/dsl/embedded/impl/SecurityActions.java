@@ -1,9 +1,11 @@
 package org.infinispan.query.dsl.embedded.impl;
 
 import org.infinispan.AdvancedCache;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.security.AuthorizationManager;
 import org.infinispan.security.Security;
 import org.infinispan.security.actions.GetCacheAuthorizationManagerAction;
+import org.infinispan.security.actions.GetCacheComponentRegistryAction;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -25,4 +27,8 @@ static <T> T doPrivileged(PrivilegedAction<T> action) {
    static AuthorizationManager getCacheAuthorizationManager(AdvancedCache<?, ?> cache) {
       return doPrivileged(new GetCacheAuthorizationManagerAction(cache));
    }
+
+   static ComponentRegistry getCacheComponentRegistry(AdvancedCache<?, ?> cache) {
+      return doPrivileged(new GetCacheComponentRegistryAction(cache));
+   }
 }
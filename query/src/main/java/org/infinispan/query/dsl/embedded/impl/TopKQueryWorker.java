@@ -0,0 +1,202 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.distexec.DistributedCallable;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.iteration.impl.EntryRetriever;
+import org.infinispan.marshall.core.MarshalledValue;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.objectfilter.ObjectFilter;
+import org.infinispan.query.impl.externalizers.ExternalizerIds;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Runs the filtering part of a non-indexed query on the entries a node is primary owner of. Only the first
+ * {@code limit} matches are sent back, in sort order if the query has one, along with the number of matches found on
+ * the node. {@link EmbeddedQuery} uses it in clustered caches when a page of results is requested, so that the
+ * originator merges a few small sorted lists instead of receiving every matching entry.
+ *
+ * @since 8.0
+ */
+public final class TopKQueryWorker implements DistributedCallable<Object, Object, TopKQueryWorker.NodeResult> {
+
+   private static final int INITIAL_CAPACITY = 1000;
+
+   private final JPAFilterAndConverter filter;
+
+   private final int limit;
+
+   private EntryRetriever entryRetriever;
+
+   private ClusteringDependentLogic clusteringDependentLogic;
+
+   public TopKQueryWorker(JPAFilterAndConverter filter, int limit) {
+      this.filter = filter;
+      this.limit = limit;
+   }
+
+   @Override
+   public void setEnvironment(Cache<Object, Object> cache, Set<Object> inputKeys) {
+      ComponentRegistry componentRegistry = cache.getAdvancedCache().getComponentRegistry();
+      entryRetriever = componentRegistry.getComponent(EntryRetriever.class);
+      clusteringDependentLogic = componentRegistry.getComponent(ClusteringDependentLogic.class);
+      componentRegistry.wireDependencies(filter);
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public NodeResult call() throws Exception {
+      Comparator<Comparable[]> comparator = filter.getObjectFilter().getComparator();
+      int initialCapacity = Math.min(limit, INITIAL_CAPACITY) + 1;
+      List<ObjectFilter.FilterResult> firstResults = comparator == null ? new ArrayList<ObjectFilter.FilterResult>(initialCapacity) : null;
+      PriorityQueue<ObjectFilter.FilterResult> topResults = comparator == null ? null :
+            new PriorityQueue<ObjectFilter.FilterResult>(initialCapacity, new EmbeddedQuery.ReverseFilterResultComparator(comparator));
+      int matches = 0;
+
+      try (CloseableIterator<CacheEntry<Object, Object>> iterator = entryRetriever.retrieveEntries(new PrimaryOwnerFilter(),
+            null, Util.asSet(Flag.CACHE_MODE_LOCAL), null)) {
+         while (iterator.hasNext()) {
+            CacheEntry<Object, Object> entry = iterator.next();
+            ObjectFilter.FilterResult result = filter.filterAndConvert(entry.getKey(), extractValue(entry.getValue()), entry.getMetadata());
+            if (result == null) {
+               continue;
+            }
+            matches++;
+            if (comparator == null) {
+               if (firstResults.size() < limit) {
+                  firstResults.add(result);
+               }
+            } else {
+               topResults.add(result);
+               if (topResults.size() > limit) {
+                  // remove the head, which is actually the highest result
+                  topResults.remove();
+               }
+            }
+         }
+      }
+
+      if (comparator == null) {
+         return new NodeResult(matches, firstResults);
+      }
+      ObjectFilter.FilterResult[] sorted = new ObjectFilter.FilterResult[topResults.size()];
+      int i = sorted.length;
+      while (i-- > 0) {
+         sorted[i] = topResults.remove();
+      }
+      return new NodeResult(matches, Arrays.asList(sorted));
+   }
+
+   private Object extractValue(Object wrappedValue) {
+      if (wrappedValue instanceof MarshalledValue)
+         return ((MarshalledValue) wrappedValue).get();
+      return wrappedValue;
+   }
+
+   private class PrimaryOwnerFilter implements KeyValueFilter<Object, Object> {
+
+      @Override
+      public boolean accept(Object key, Object value, Metadata metadata) {
+         return clusteringDependentLogic.localNodeIsPrimaryOwner(key);
+      }
+   }
+
+   /**
+    * The matches of a single node: their total number and the first {@code limit} of them, sorted if the query
+    * specifies an order.
+    */
+   public static final class NodeResult {
+
+      private final int matches;
+
+      private final List<ObjectFilter.FilterResult> results;
+
+      public NodeResult(int matches, List<ObjectFilter.FilterResult> results) {
+         this.matches = matches;
+         this.results = results;
+      }
+
+      public int getMatches() {
+         return matches;
+      }
+
+      public List<ObjectFilter.FilterResult> getResults() {
+         return results;
+      }
+   }
+
+   public static final class Externalizer extends AbstractExternalizer<TopKQueryWorker> {
+
+      @Override
+      public void writeObject(ObjectOutput output, TopKQueryWorker worker) throws IOException {
+         output.writeObject(worker.filter);
+         output.writeInt(worker.limit);
+      }
+
+      @Override
+      public TopKQueryWorker readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         JPAFilterAndConverter filter = (JPAFilterAndConverter) input.readObject();
+         return new TopKQueryWorker(filter, input.readInt());
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.TOP_K_QUERY_WORKER;
+      }
+
+      @Override
+      public Set<Class<? extends TopKQueryWorker>> getTypeClasses() {
+         return Collections.<Class<? extends TopKQueryWorker>>singleton(TopKQueryWorker.class);
+      }
+   }
+
+   public static final class NodeResultExternalizer extends AbstractExternalizer<NodeResult> {
+
+      @Override
+      public void writeObject(ObjectOutput output, NodeResult nodeResult) throws IOException {
+         output.writeInt(nodeResult.matches);
+         output.writeInt(nodeResult.results.size());
+         for (ObjectFilter.FilterResult result : nodeResult.results) {
+            output.writeObject(result);
+         }
+      }
+
+      @Override
+      public NodeResult readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         int matches = input.readInt();
+         int size = input.readInt();
+         List<ObjectFilter.FilterResult> results = new ArrayList<ObjectFilter.FilterResult>(size);
+         for (int i = 0; i < size; i++) {
+            results.add((ObjectFilter.FilterResult) input.readObject());
+         }
+         return new NodeResult(matches, results);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.TOP_K_QUERY_RESULT;
+      }
+
+      @Override
+      public Set<Class<? extends NodeResult>> getTypeClasses() {
+         return Collections.<Class<? extends NodeResult>>singleton(NodeResult.class);
+      }
+   }
+}
@@ -1,6 +1,7 @@
 package org.infinispan.query.impl;
 
 import org.hibernate.search.spi.SearchIntegrator;
+import org.infinispan.query.backend.AsyncIndexingQueue;
 
 import java.util.Map;
 import java.util.Set;
@@ -17,6 +18,7 @@
 public class InfinispanQueryStatisticsInfo implements InfinispanQueryStatisticsInfoMBean {
 
    private final SearchIntegrator sf;
+   private final AsyncIndexingQueue asyncIndexingQueue;
    private final LongAdder searchQueryExecutionCount = new LongAdder();
    private final LongAdder searchQueryTotalTime = new LongAdder();
    private volatile long searchQueryExecutionMaxTime = 0;
@@ -26,7 +28,12 @@ public class InfinispanQueryStatisticsInfo implements InfinispanQueryStatisticsI
    private final LongAdder objectLoadedCount = new LongAdder();
 
    public InfinispanQueryStatisticsInfo(SearchIntegrator sf) {
+      this(sf, null);
+   }
+
+   public InfinispanQueryStatisticsInfo(SearchIntegrator sf, AsyncIndexingQueue asyncIndexingQueue) {
       this.sf = sf;
+      this.asyncIndexingQueue = asyncIndexingQueue;
    }
 
    @Override
@@ -139,4 +146,19 @@ public int getNumberOfIndexedEntities(String entity) {
    public Map<String, Integer> indexedEntitiesCount() {
       return sf.getStatistics().indexedEntitiesCount();
    }
+
+   @Override
+   public int getIndexingQueueSize() {
+      return asyncIndexingQueue != null ? asyncIndexingQueue.getQueueSize() : 0;
+   }
+
+   @Override
+   public long getIndexingLag() {
+      return asyncIndexingQueue != null ? asyncIndexingQueue.getIndexingLag() : 0;
+   }
+
+   @Override
+   public long getCoalescedIndexWorkCount() {
+      return asyncIndexingQueue != null ? asyncIndexingQueue.getCoalescedWorkCount() : 0;
+   }
 }
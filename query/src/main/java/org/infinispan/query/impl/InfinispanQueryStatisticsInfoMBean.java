@@ -8,4 +8,19 @@
  * @since 6.1
  */
 public interface InfinispanQueryStatisticsInfoMBean extends org.hibernate.search.jmx.StatisticsInfoMBean {
+
+   /**
+    * The number of entities whose index changes have not been applied yet. Always 0 unless indexing is asynchronous.
+    */
+   int getIndexingQueueSize();
+
+   /**
+    * The age in milliseconds of the oldest index change not applied yet. Always 0 unless indexing is asynchronous.
+    */
+   long getIndexingLag();
+
+   /**
+    * The number of index changes superseded by a later change of the same entity before being applied.
+    */
+   long getCoalescedIndexWorkCount();
 }
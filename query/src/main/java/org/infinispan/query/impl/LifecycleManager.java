@@ -24,13 +24,17 @@
 import org.infinispan.configuration.cache.InterceptorConfiguration;
 import org.infinispan.configuration.cache.InterceptorConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.factories.components.ManageableComponentMetadata;
+import org.infinispan.filter.AcceptAllKeyValueFilter;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.interceptors.locking.NonTransactionalLockingInterceptor;
 import org.infinispan.interceptors.locking.OptimisticLockingInterceptor;
 import org.infinispan.interceptors.locking.PessimisticLockingInterceptor;
+import org.infinispan.iteration.EntryIterable;
 import org.infinispan.jmx.JmxUtil;
 import org.infinispan.jmx.ResourceDMBean;
 import org.infinispan.lifecycle.AbstractModuleLifecycle;
@@ -40,10 +44,15 @@
 import org.infinispan.query.backend.IndexModificationStrategy;
 import org.infinispan.query.backend.QueryInterceptor;
 import org.infinispan.query.backend.SearchableCacheConfiguration;
+import org.infinispan.query.backend.SecondaryIndexInterceptor;
 import org.infinispan.query.clustered.QueryBox;
+import org.infinispan.query.dsl.embedded.impl.AggregatingQueryWorker;
+import org.infinispan.query.dsl.embedded.impl.Grouping;
 import org.infinispan.query.dsl.embedded.impl.JPACacheEventFilterConverter;
-import org.infinispan.query.dsl.embedded.impl.QueryCache;
 import org.infinispan.query.dsl.embedded.impl.JPAFilterAndConverter;
+import org.infinispan.query.dsl.embedded.impl.QueryCache;
+import org.infinispan.query.dsl.embedded.impl.SecondaryIndexes;
+import org.infinispan.query.dsl.embedded.impl.TopKQueryWorker;
 import org.infinispan.query.impl.externalizers.ClusteredTopDocsExternalizer;
 import org.infinispan.query.impl.externalizers.ExternalizerIds;
 import org.infinispan.query.impl.externalizers.LuceneBooleanQueryExternalizer;
@@ -102,6 +111,16 @@ public class LifecycleManager extends AbstractModuleLifecycle {
    public void cacheStarting(ComponentRegistry cr, Configuration cfg, String cacheName) {
       cr.registerComponent(new ReflectionMatcher(null), ReflectionMatcher.class);
 
+      ClassLoader classLoader = cr.getGlobalComponentRegistry().getGlobalConfiguration().classLoader();
+      SecondaryIndexes secondaryIndexes = SecondaryIndexes.fromProperties(cfg.indexing().properties(), classLoader);
+      if (secondaryIndexes != null) {
+         if (cfg.clustering().cacheMode().isClustered()) {
+            throw log.secondaryIndexesRequireLocalCache(cacheName);
+         }
+         cr.registerComponent(secondaryIndexes, SecondaryIndexes.class);
+         createSecondaryIndexInterceptorIfNeeded(cr, cfg, secondaryIndexes);
+      }
+
       if (cfg.indexing().index().isEnabled()) {
          log.registeringQueryInterceptor();
          SearchIntegrator searchFactory = getSearchFactory(cfg.indexing().properties(), cr);
@@ -135,33 +154,47 @@ private void createQueryInterceptorIfNeeded(ComponentRegistry cr, Configuration
       QueryInterceptor queryInterceptor = cr.getComponent(QueryInterceptor.class);
       if (queryInterceptor == null) {
          queryInterceptor = buildQueryInterceptor(cfg, searchFactory);
+         addInterceptorAfterLocking(cr, cfg, queryInterceptor, QueryInterceptor.class);
+      }
+   }
 
-         // Interceptor registration not needed, core configuration handling
-         // already does it for all custom interceptors - UNLESS the InterceptorChain already exists in the component registry!
-         InterceptorChain ic = cr.getComponent(InterceptorChain.class);
-
-         ConfigurationBuilder builder = new ConfigurationBuilder().read(cfg);
-         InterceptorConfigurationBuilder interceptorBuilder = builder.customInterceptors().addInterceptor();
-         interceptorBuilder.interceptor(queryInterceptor);
-
-         if (!cfg.transaction().transactionMode().isTransactional()) {
-            if (ic != null) ic.addInterceptorAfter(queryInterceptor, NonTransactionalLockingInterceptor.class);
-            interceptorBuilder.after(NonTransactionalLockingInterceptor.class);
-         } else if (cfg.transaction().lockingMode() == LockingMode.OPTIMISTIC) {
-            if (ic != null) ic.addInterceptorAfter(queryInterceptor, OptimisticLockingInterceptor.class);
-            interceptorBuilder.after(OptimisticLockingInterceptor.class);
-         } else {
-            if (ic != null) ic.addInterceptorAfter(queryInterceptor, PessimisticLockingInterceptor.class);
-            interceptorBuilder.after(PessimisticLockingInterceptor.class);
-         }
-         if (ic != null) {
-            cr.registerComponent(queryInterceptor, QueryInterceptor.class);
-            cr.registerComponent(queryInterceptor, queryInterceptor.getClass().getName(), true);
-         }
-         cfg.customInterceptors().interceptors(builder.build().customInterceptors().interceptors());
+   private void createSecondaryIndexInterceptorIfNeeded(ComponentRegistry cr, Configuration cfg, SecondaryIndexes secondaryIndexes) {
+      SecondaryIndexInterceptor secondaryIndexInterceptor = cr.getComponent(SecondaryIndexInterceptor.class);
+      if (secondaryIndexInterceptor == null) {
+         secondaryIndexInterceptor = new SecondaryIndexInterceptor(secondaryIndexes);
+         addInterceptorAfterLocking(cr, cfg, secondaryIndexInterceptor, SecondaryIndexInterceptor.class);
       }
    }
 
+   /**
+    * Adds the interceptor right after the locking interceptor, so that it runs while the keys are locked.
+    */
+   private <T extends CommandInterceptor> void addInterceptorAfterLocking(ComponentRegistry cr, Configuration cfg, T interceptor, Class<T> interceptorType) {
+      // Interceptor registration not needed, core configuration handling
+      // already does it for all custom interceptors - UNLESS the InterceptorChain already exists in the component registry!
+      InterceptorChain ic = cr.getComponent(InterceptorChain.class);
+
+      ConfigurationBuilder builder = new ConfigurationBuilder().read(cfg);
+      InterceptorConfigurationBuilder interceptorBuilder = builder.customInterceptors().addInterceptor();
+      interceptorBuilder.interceptor(interceptor);
+
+      if (!cfg.transaction().transactionMode().isTransactional()) {
+         if (ic != null) ic.addInterceptorAfter(interceptor, NonTransactionalLockingInterceptor.class);
+         interceptorBuilder.after(NonTransactionalLockingInterceptor.class);
+      } else if (cfg.transaction().lockingMode() == LockingMode.OPTIMISTIC) {
+         if (ic != null) ic.addInterceptorAfter(interceptor, OptimisticLockingInterceptor.class);
+         interceptorBuilder.after(OptimisticLockingInterceptor.class);
+      } else {
+         if (ic != null) ic.addInterceptorAfter(interceptor, PessimisticLockingInterceptor.class);
+         interceptorBuilder.after(PessimisticLockingInterceptor.class);
+      }
+      if (ic != null) {
+         cr.registerComponent(interceptor, interceptorType);
+         cr.registerComponent(interceptor, interceptor.getClass().getName(), true);
+      }
+      cfg.customInterceptors().interceptors(builder.build().customInterceptors().interceptors());
+   }
+
    private QueryInterceptor buildQueryInterceptor(Configuration cfg, SearchIntegrator searchFactory) {
       IndexModificationStrategy indexingStrategy = IndexModificationStrategy.configuredStrategy(searchFactory, cfg);
       return new QueryInterceptor(searchFactory, indexingStrategy);
@@ -170,6 +203,11 @@ private QueryInterceptor buildQueryInterceptor(Configuration cfg, SearchIntegrat
    @Override
    public void cacheStarted(ComponentRegistry cr, String cacheName) {
       Configuration configuration = cr.getComponent(Configuration.class);
+      SecondaryIndexes secondaryIndexes = cr.getComponent(SecondaryIndexes.class);
+      if (secondaryIndexes != null && configuration.persistence().usingStores()) {
+         buildSecondaryIndexes(cr.getComponent(Cache.class).getAdvancedCache(), secondaryIndexes);
+      }
+
       boolean indexingEnabled = configuration.indexing().index().isEnabled();
       if ( ! indexingEnabled ) {
          if ( verifyChainContainsQueryInterceptor(cr) ) {
@@ -196,6 +234,26 @@ public void cacheStarted(ComponentRegistry cr, String cacheName) {
       registerQueryMBeans(cache.getAdvancedCache(), cr, cacheName);
    }
 
+   /**
+    * Indexes the entries that were already in the cache stores before the cache was started.
+    */
+   private void buildSecondaryIndexes(AdvancedCache<Object, Object> cache, SecondaryIndexes secondaryIndexes) {
+      EntryIterable<Object, Object> entries = cache.filterEntries(AcceptAllKeyValueFilter.getInstance());
+      try {
+         for (CacheEntry<Object, Object> entry : entries) {
+            if (entry.getValue() != null) {
+               secondaryIndexes.updateIfAbsent(entry.getKey(), entry.getValue());
+            }
+         }
+      } finally {
+         try {
+            entries.close();
+         } catch (Exception e) {
+            // exception ignored
+         }
+      }
+   }
+
    private void registerQueryMBeans(AdvancedCache cache,
          ComponentRegistry cr, String cacheName) {
       Configuration cfg = cache.getCacheConfiguration();
@@ -213,7 +271,8 @@ private void registerQueryMBeans(AdvancedCache cache,
       jmxDomain = JmxUtil.buildJmxDomain(globalCfg, mbeanServer, queryGroupName);
 
       // Register statistics MBean, but only enable if Infinispan config says so
-      InfinispanQueryStatisticsInfo stats = new InfinispanQueryStatisticsInfo(sf);
+      QueryInterceptor queryInterceptor = ComponentRegistryUtils.getQueryInterceptor(cache);
+      InfinispanQueryStatisticsInfo stats = new InfinispanQueryStatisticsInfo(sf, queryInterceptor.getAsyncIndexingQueue());
       stats.setStatisticsEnabled(cfg.jmxStatistics().enabled());
       try {
          ObjectName statsObjName = new ObjectName(
@@ -354,6 +413,10 @@ public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguratio
       externalizerMap.put(ExternalizerIds.LUCENE_TOPFIELDDOCS, new LuceneTopFieldDocsExternalizer());
       externalizerMap.put(ExternalizerIds.LUCENE_QUERY_MATCH_ALL, new LuceneMatchAllQueryExternalizer());
       externalizerMap.put(ExternalizerIds.INDEX_WORKER, new IndexWorker.Externalizer());
+      externalizerMap.put(ExternalizerIds.TOP_K_QUERY_WORKER, new TopKQueryWorker.Externalizer());
+      externalizerMap.put(ExternalizerIds.TOP_K_QUERY_RESULT, new TopKQueryWorker.NodeResultExternalizer());
+      externalizerMap.put(ExternalizerIds.AGGREGATING_QUERY_WORKER, new AggregatingQueryWorker.Externalizer());
+      externalizerMap.put(ExternalizerIds.GROUPING, new Grouping.Externalizer());
    }
 
 }
@@ -131,6 +131,11 @@ public void purge(Class<?> entityType) {
      queryInterceptor.purgeIndex(entityType);
    }
 
+   @Override
+   public void flushIndexWork() {
+      queryInterceptor.flushIndexWork();
+   }
+
    @Override
    public <T> T unwrap(Class<T> cls) {
       if (SearchIntegrator.class.isAssignableFrom(cls)) {
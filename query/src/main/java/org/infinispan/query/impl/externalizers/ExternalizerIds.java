@@ -40,4 +40,12 @@ public interface ExternalizerIds {
    Integer INDEX_WORKER = 1613;
 
    Integer JPA_CACHE_EVENT_FILTER_CONVERTER = 1614;
+
+   Integer TOP_K_QUERY_WORKER = 1615;
+
+   Integer TOP_K_QUERY_RESULT = 1616;
+
+   Integer AGGREGATING_QUERY_WORKER = 1617;
+
+   Integer GROUPING = 1618;
 }
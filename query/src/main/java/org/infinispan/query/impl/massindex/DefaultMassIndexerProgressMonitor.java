@@ -60,6 +60,16 @@ public void addToTotalCount(long count) {
       //not known
    }
 
+   /**
+    * Reports that all the entries of a segment owned by this node have been submitted for indexing.
+    *
+    * @param segment the segment
+    * @param documents the number of entities of the segment sent to the indexes
+    */
+   public void segmentIndexed(int segment, long documents) {
+      log.indexingSegmentCompleted(documents, segment);
+   }
+
    public void indexingCompleted() {
       log.indexingEntitiesCompleted(documentsDoneCounter.get());
    }
@@ -4,27 +4,42 @@
 import org.hibernate.search.indexes.spi.IndexManager;
 import org.hibernate.search.spi.SearchIntegrator;
 import org.infinispan.AdvancedCache;
-import org.infinispan.commons.util.concurrent.Futures;
+import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFutureImpl;
+import org.infinispan.configuration.cache.ClusteringConfiguration;
 import org.infinispan.distexec.DefaultExecutorService;
 import org.infinispan.distexec.DistributedExecutorService;
 import org.infinispan.distexec.DistributedTask;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.query.MassIndexer;
 import org.infinispan.query.indexmanager.InfinispanIndexManager;
 import org.infinispan.query.logging.Log;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.StateTransferLock;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
+import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.logging.LogFactory;
 
-import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Reindexes the cache running an {@link IndexWorker} on the nodes. In distributed caches each node reindexes the
+ * segments it is primary owner of, and the segments of a node which fails or loses their ownership during the
+ * reindexing are resubmitted to their new primary owners, so that the work already done by the other nodes is kept.
+ *
  * @author gustavonalle
  * @since 7.1
  */
@@ -32,6 +47,11 @@ public class DistributedExecutorMassIndexer implements MassIndexer {
 
    private static final Log LOG = LogFactory.getLog(DistributedExecutorMassIndexer.class, Log.class);
 
+   /**
+    * How many times the reindexing of a segment is attempted.
+    */
+   private static final int MAX_ATTEMPTS = 3;
+
    private final AdvancedCache cache;
    private final SearchIntegrator searchIntegrator;
    private final IndexUpdater indexUpdater;
@@ -44,67 +64,87 @@ public DistributedExecutorMassIndexer(AdvancedCache cache, SearchIntegrator sear
       this.executor = new DefaultExecutorService(cache);
    }
 
+   /**
+    * @throws CacheException if some entries could not be reindexed
+    */
    @Override
-   @SuppressWarnings("unchecked")
    public void start() {
-      ExecutionResult<Void> executionResult = executeInternal();
-      executionResult.waitForAll();
-      executionResult.flushIfNeed();
+      ExecutionResult executionResult = executeInternal();
+      try {
+         executionResult.waitForAll();
+      } finally {
+         executionResult.flushIfNeed();
+      }
+      executionResult.checkCompleted();
    }
 
    @Override
    public NotifyingFuture<Void> startAsync() {
-      final ExecutionResult<Void> executionResult = executeInternal();
-      NotifyingFuture<?> combined = Futures.combine(executionResult.futures);
-      return Futures.andThen(combined, new Runnable() {
-         @Override
-         public void run() {
-            executionResult.flushIfNeed();
+      final NotifyingFutureImpl<Void> result = new NotifyingFutureImpl<>();
+      final ExecutorService executorService = Executors.newSingleThreadExecutor();
+      // the completion of the workers must be tracked to resubmit their segments on failures
+      Future<Void> future = executorService.submit(() -> {
+         try {
+            start();
+            result.notifyDone(null);
+         } catch (Throwable t) {
+            result.notifyException(t);
+         } finally {
+            executorService.shutdown();
          }
-      }, Executors.newSingleThreadExecutor());
+         return null;
+      });
+      result.setFuture(future);
+      return result;
    }
 
-   private ExecutionResult<Void> executeInternal() {
-      List<NotifyingFuture<Void>> futures = new ArrayList<>();
-      Deque<Class<?>> toFlush = new LinkedList<>();
-      boolean replicated = cache.getAdvancedCache().getCacheConfiguration()
-            .clustering().cacheMode().isReplicated();
+   private ExecutionResult executeInternal() {
+      ExecutionResult executionResult = new ExecutionResult();
+      ClusteringConfiguration clustering = cache.getCacheConfiguration().clustering();
+      boolean replicated = clustering.cacheMode().isReplicated();
+      boolean distributed = clustering.cacheMode().isDistributed();
 
+      Set<Class<?>> sharedTypes = new LinkedHashSet<>();
+      Set<Class<?>> localTypes = new LinkedHashSet<>();
       for (Class<?> indexedType : searchIntegrator.getIndexedTypes()) {
          EntityIndexBinding indexBinding = searchIntegrator.getIndexBinding(indexedType);
          IndexManager[] indexManagers = indexBinding.getIndexManagers();
          boolean shared = isShared(indexManagers[0]);
          boolean sharded = indexManagers.length > 1;
-         IndexWorker indexWork;
          if (shared && !sharded) {
             indexUpdater.purge(indexedType);
-            indexWork = new IndexWorker(indexedType, false);
-            toFlush.add(indexedType);
+            sharedTypes.add(indexedType);
+            executionResult.toFlush.add(indexedType);
          } else {
-            indexWork = new IndexWorker(indexedType, true);
+            localTypes.add(indexedType);
          }
-         DistributedTask task = executor
-               .createDistributedTaskBuilder(indexWork)
-               .timeout(0, TimeUnit.NANOSECONDS)
-               .build();
-         if (replicated && shared && !sharded) {
-            futures.add(executor.submit(task));
+      }
+
+      // all the entity types are reindexed in a single pass over the entries of each node
+      if (!sharedTypes.isEmpty()) {
+         if (distributed) {
+            executionResult.submitBySegments(sharedTypes, false, null, 1);
+         } else if (replicated) {
+            executionResult.submit(sharedTypes, false, false, null, cache.getRpcManager().getAddress(), 1);
          } else {
-            futures.addAll(executor.submitEverywhere(task));
+            executionResult.submitEverywhere(sharedTypes, false, false);
          }
       }
-      return new ExecutionResult<>(futures, toFlush);
-
+      if (!localTypes.isEmpty()) {
+         if (distributed) {
+            executionResult.submitBySegments(localTypes, true, null, 1);
+         } else {
+            executionResult.submitEverywhere(localTypes, true, true);
+         }
+      }
+      return executionResult;
    }
 
-   private class ExecutionResult<T> {
-      final List<NotifyingFuture<T>> futures;
-      final Queue<Class<?>> toFlush;
-
-      public ExecutionResult(List<NotifyingFuture<T>> futures, Queue<Class<?>> toFlush) {
-         this.futures = futures;
-         this.toFlush = toFlush;
-      }
+   private class ExecutionResult {
+      final Deque<Submission> submissions = new LinkedList<>();
+      final Set<Class<?>> toFlush = new LinkedHashSet<>();
+      final Set<Integer> failedSegments = new HashSet<>();
+      Throwable firstFailure;
 
       void flushIfNeed() {
          for (Class<?> type : toFlush) {
@@ -112,19 +152,153 @@ void flushIfNeed() {
          }
       }
 
+      void checkCompleted() {
+         if (firstFailure != null || !failedSegments.isEmpty()) {
+            throw LOG.massIndexingIncomplete(failedSegments, firstFailure);
+         }
+      }
+
+      private void addFailure(Throwable t) {
+         if (firstFailure == null) {
+            firstFailure = t;
+         }
+      }
+
+      private DistributedTask<Set<Integer>> createTask(IndexWorker indexWork) {
+         return executor.createDistributedTaskBuilder(indexWork)
+               .timeout(0, TimeUnit.NANOSECONDS)
+               .build();
+      }
+
+      void submitEverywhere(Set<Class<?>> types, boolean purge, boolean flush) {
+         for (Future<Set<Integer>> future : executor.submitEverywhere(createTask(new IndexWorker(types, purge, flush, null)))) {
+            submissions.add(new Submission(types, flush, null, null, future, 1));
+         }
+      }
+
+      void submit(Set<Class<?>> types, boolean purge, boolean flush, Set<Integer> segments, Address target, int attempt) {
+         Future<Set<Integer>> future = executor.submit(target, createTask(new IndexWorker(types, purge, flush, segments)));
+         submissions.add(new Submission(types, flush, segments, target, future, attempt));
+      }
+
+      /**
+       * Submits the segments to their primary owners. The indexes of all the members are purged on the first attempt,
+       * also when they are not primary owners of any segment.
+       */
+      void submitBySegments(Set<Class<?>> types, boolean local, Set<Integer> segments, int attempt) {
+         ConsistentHash ch = getReadConsistentHash();
+         Map<Address, Set<Integer>> segmentsByOwner = new HashMap<>();
+         if (segments == null) {
+            for (Address member : ch.getMembers()) {
+               segmentsByOwner.put(member, new HashSet<>(ch.getPrimarySegmentsForOwner(member)));
+            }
+         } else {
+            for (Integer segment : segments) {
+               Address owner = ch.locatePrimaryOwnerForSegment(segment);
+               Set<Integer> ownerSegments = segmentsByOwner.get(owner);
+               if (ownerSegments == null) {
+                  ownerSegments = new HashSet<>();
+                  segmentsByOwner.put(owner, ownerSegments);
+               }
+               ownerSegments.add(segment);
+            }
+         }
+         for (Map.Entry<Address, Set<Integer>> e : segmentsByOwner.entrySet()) {
+            submit(types, local && segments == null, local, e.getValue(), e.getKey(), attempt);
+         }
+      }
+
       private void waitForAll() {
-         for (Future f : futures) {
+         while (!submissions.isEmpty()) {
+            Submission submission = submissions.poll();
+            Set<Integer> indexedSegments = null;
+            Throwable failure = null;
             try {
-               f.get();
+               indexedSegments = submission.future.get();
             } catch (InterruptedException e) {
                Thread.currentThread().interrupt();
+               throw new CacheException("Interrupted while waiting for the mass indexing to complete", e);
             } catch (ExecutionException e) {
-               LOG.errorExecutingMassIndexer(e);
+               failure = e.getCause();
+            }
+            if (submission.segments == null) {
+               if (failure != null) {
+                  LOG.errorExecutingMassIndexer(failure);
+                  addFailure(failure);
+               }
+               continue;
+            }
+            Set<Integer> missingSegments = new HashSet<>(submission.segments);
+            if (indexedSegments != null) {
+               missingSegments.removeAll(indexedSegments);
+            }
+            if (missingSegments.isEmpty()) {
+               continue;
             }
+            if (submission.attempt >= MAX_ATTEMPTS) {
+               LOG.massIndexingSegmentsFailed(missingSegments, submission.target, submission.attempt, failure);
+               failedSegments.addAll(missingSegments);
+               if (failure != null) {
+                  addFailure(failure);
+               }
+               continue;
+            }
+            LOG.resubmittingMassIndexingSegments(missingSegments, submission.target, failure);
+            if (!waitForNewTopology(submission.target)) {
+               throw new CacheException("Interrupted while waiting for a new topology to resubmit the mass indexing");
+            }
+            submitBySegments(submission.types, submission.local, missingSegments, submission.attempt + 1);
          }
       }
    }
 
+   /**
+    * Waits for the topology not including the failed node, if it was not installed yet.
+    *
+    * @return {@code false} if the thread was interrupted
+    */
+   private boolean waitForNewTopology(Address failedNode) {
+      StateTransferManager stateTransferManager = cache.getComponentRegistry().getComponent(StateTransferManager.class);
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      if (!cacheTopology.getMembers().contains(failedNode) || cache.getRpcManager().getMembers().contains(failedNode)) {
+         return true;
+      }
+      StateTransferLock stateTransferLock = cache.getComponentRegistry().getComponent(StateTransferLock.class);
+      try {
+         stateTransferLock.waitForTopology(cacheTopology.getTopologyId() + 1,
+               cache.getCacheConfiguration().clustering().stateTransfer().timeout(), TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      } catch (TimeoutException e) {
+         // resubmit anyway, the segments still owned by the failed node will be retried
+      }
+      return true;
+   }
+
+   private ConsistentHash getReadConsistentHash() {
+      StateTransferManager stateTransferManager = cache.getComponentRegistry().getComponent(StateTransferManager.class);
+      return stateTransferManager.getCacheTopology().getReadConsistentHash();
+   }
+
+   private static class Submission {
+      final Set<Class<?>> types;
+      final boolean local;
+      final Set<Integer> segments;
+      final Address target;
+      final Future<Set<Integer>> future;
+      final int attempt;
+
+      Submission(Set<Class<?>> types, boolean local, Set<Integer> segments, Address target, Future<Set<Integer>> future, int attempt) {
+         this.types = types;
+         this.local = local;
+         this.segments = segments;
+         this.target = target;
+         this.future = future;
+         this.attempt = attempt;
+      }
+   }
+
    private boolean isShared(IndexManager indexManager) {
       return indexManager instanceof InfinispanIndexManager;
    }
@@ -9,7 +9,6 @@
 import org.hibernate.search.spi.SearchIntegrator;
 import org.infinispan.Cache;
 import org.infinispan.commons.util.Util;
-import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.query.backend.KeyTransformationHandler;
 import org.infinispan.query.backend.QueryInterceptor;
 import org.infinispan.query.impl.ComponentRegistryUtils;
@@ -31,11 +30,13 @@ public class IndexUpdater {
    private final ExtendedBatchBackend defaultBatchBackend;
 
    public IndexUpdater(Cache<?, ?> cache) {
+      this(cache, new DefaultMassIndexerProgressMonitor(cache.getAdvancedCache().getComponentRegistry().getTimeService()));
+   }
+
+   public IndexUpdater(Cache<?, ?> cache, DefaultMassIndexerProgressMonitor monitor) {
       QueryInterceptor queryInterceptor = ComponentRegistryUtils.getQueryInterceptor(cache);
       this.searchIntegrator = queryInterceptor.getSearchFactory();
       this.keyTransformationHandler = queryInterceptor.getKeyTransformationHandler();
-      ComponentRegistry componentRegistry = cache.getAdvancedCache().getComponentRegistry();
-      DefaultMassIndexerProgressMonitor monitor = new DefaultMassIndexerProgressMonitor(componentRegistry.getTimeService());
       this.defaultBatchBackend = new ExtendedBatchBackend(searchIntegrator, monitor);
    }
 
@@ -2,66 +2,124 @@
 
 import org.infinispan.Cache;
 import org.infinispan.commons.marshall.AbstractExternalizer;
-import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.Util;
-import org.infinispan.container.entries.CacheEntry;
-import org.infinispan.context.Flag;
+import org.infinispan.container.DataContainer;
 import org.infinispan.distexec.DistributedCallable;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.factories.ComponentRegistry;
-import org.infinispan.filter.AcceptAllKeyValueFilter;
-import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.filter.CollectionKeyFilter;
+import org.infinispan.filter.CompositeKeyFilter;
+import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
-import org.infinispan.iteration.impl.EntryRetriever;
 import org.infinispan.marshall.core.MarshalledValue;
-import org.infinispan.metadata.Metadata;
+import org.infinispan.persistence.PrimaryOwnerFilter;
+import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.query.impl.externalizers.ExternalizerIds;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
+import org.infinispan.util.TimeService;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
- * Base class for mass indexer tasks.
+ * Mass indexer task, reindexing the entries of the given types stored on a node. The entries are visited in parallel,
+ * first in the data container and then in the cache stores, and their values are indexed as they are iterated. Expired
+ * entries are skipped.
+ * <p>
+ * When a set of segments is given only the entries of these segments are indexed, and the task returns the segments
+ * which the node still owned at the end of the run, so that the caller can resubmit the other ones.
  *
  * @author gustavonalle
  * @since 7.1
  */
-public class IndexWorker implements DistributedCallable<Void, Void, Void> {
+public class IndexWorker implements DistributedCallable<Void, Void, Set<Integer>> {
 
    protected Cache<?, ?> cache;
-   protected final Class<?> entity;
+   protected final Set<Class<?>> entities;
+   private final boolean purge;
    private final boolean flush;
+   private final Set<Integer> segments;
    protected IndexUpdater indexUpdater;
 
+   private DefaultMassIndexerProgressMonitor progressMonitor;
    private ClusteringDependentLogic clusteringDependentLogic;
-   private EntryRetriever entryRetriever;
-
-   public IndexWorker(Class<?> entity, boolean flush) {
-      this.entity = entity;
+   private DataContainer<Object, Object> dataContainer;
+   private PersistenceManager persistenceManager;
+   private StateTransferManager stateTransferManager;
+   private TimeService timeService;
+
+   /**
+    * @param entities the types to reindex
+    * @param purge whether the local indexes of the types are purged before reindexing
+    * @param flush whether the local indexes of the types are flushed after reindexing
+    * @param segments the segments to reindex, or {@code null} to reindex all the entries the node is responsible for
+    */
+   public IndexWorker(Set<Class<?>> entities, boolean purge, boolean flush, Set<Integer> segments) {
+      this.entities = entities;
+      this.purge = purge;
       this.flush = flush;
+      this.segments = segments;
    }
 
    @Override
+   @SuppressWarnings("unchecked")
    public void setEnvironment(Cache<Void, Void> cache, Set<Void> inputKeys) {
       this.cache = cache;
-      this.indexUpdater = new IndexUpdater(cache);
       ComponentRegistry componentRegistry = cache.getAdvancedCache().getComponentRegistry();
-      this.entryRetriever = componentRegistry.getComponent(EntryRetriever.class);
+      this.progressMonitor = new DefaultMassIndexerProgressMonitor(componentRegistry.getTimeService());
+      this.indexUpdater = new IndexUpdater(cache, progressMonitor);
       this.clusteringDependentLogic = componentRegistry.getComponent(ClusteringDependentLogic.class);
+      this.dataContainer = componentRegistry.getComponent(DataContainer.class);
+      this.persistenceManager = componentRegistry.getComponent(PersistenceManager.class);
+      this.stateTransferManager = componentRegistry.getComponent(StateTransferManager.class);
+      this.timeService = componentRegistry.getTimeService();
    }
 
    protected void preIndex() {
-      if (flush) indexUpdater.purge(entity);
+      if (purge) {
+         for (Class<?> entity : entities) {
+            indexUpdater.purge(entity);
+         }
+      }
    }
 
    protected void postIndex() {
-      if (flush) indexUpdater.flush(entity);
+      if (flush) {
+         for (Class<?> entity : entities) {
+            indexUpdater.flush(entity);
+         }
+      }
    }
 
-   private KeyValueFilter getFilter() {
+   private ConsistentHash getConsistentHash() {
+      if (stateTransferManager == null) {
+         return null;
+      }
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      return cacheTopology != null ? cacheTopology.getReadConsistentHash() : null;
+   }
+
+   @SuppressWarnings("unchecked")
+   private KeyFilter<Object> getFilter(final ConsistentHash ch) {
+      if (ch == null) {
+         return KeyFilter.ACCEPT_ALL_FILTER;
+      }
+      if (segments != null) {
+         return new KeyFilter<Object>() {
+            @Override
+            public boolean accept(Object key) {
+               return segments.contains(ch.getSegment(key));
+            }
+         };
+      }
       boolean replicated = cache.getCacheConfiguration().clustering().cacheMode().isReplicated();
-      return replicated ? AcceptAllKeyValueFilter.getInstance() : new PrimaryOwnersKeyValueFilter();
+      return replicated ? KeyFilter.ACCEPT_ALL_FILTER : new PrimaryOwnerFilter<Object>(clusteringDependentLogic);
    }
 
    private Object extractValue(Object wrappedValue) {
@@ -70,30 +128,60 @@ private Object extractValue(Object wrappedValue) {
       return wrappedValue;
    }
 
+   private void index(ConsistentHash ch, AtomicLongArray indexedPerSegment, Object key, Object value) {
+      value = extractValue(value);
+      if (value != null && entities.contains(value.getClass())) {
+         indexUpdater.updateIndex(extractValue(key), value);
+         indexedPerSegment.incrementAndGet(ch != null ? ch.getSegment(key) : 0);
+      }
+   }
+
    @Override
    @SuppressWarnings("unchecked")
-   public Void call() throws Exception {
+   public Set<Integer> call() throws Exception {
       preIndex();
-      KeyValueFilter filter = getFilter();
-      try (CloseableIterator<CacheEntry<Object, String>> iterator = entryRetriever.retrieveEntries(filter, null, Util.asSet(Flag.CACHE_MODE_LOCAL), null)) {
-         while (iterator.hasNext()) {
-            CacheEntry<Object, String> next = iterator.next();
-            Object value = extractValue(next.getValue());
-            if (value != null && value.getClass().equals(entity))
-               indexUpdater.updateIndex(next.getKey(), value);
+      final ConsistentHash ch = getConsistentHash();
+      final AtomicLongArray indexedPerSegment = new AtomicLongArray(ch != null ? ch.getNumSegments() : 1);
+      KeyFilter<Object> filter = getFilter(ch);
+
+      final long now = timeService.wallClockTime();
+      dataContainer.executeTask(filter, (key, ice) -> {
+         if (!ice.isL1Entry() && !ice.isExpired(now)) {
+            index(ch, indexedPerSegment, key, ice.getValue());
          }
+      });
+      if (persistenceManager != null && cache.getCacheConfiguration().persistence().usingStores()) {
+         // the entries also in memory have been indexed already
+         KeyFilter<Object> storeFilter = new CompositeKeyFilter<Object>(filter, new CollectionKeyFilter<Object>(dataContainer.keySet()));
+         persistenceManager.processOnAllStores(storeFilter,
+               (marshalledEntry, taskContext) -> index(ch, indexedPerSegment, marshalledEntry.getKey(), marshalledEntry.getValue()),
+               true, false);
       }
       postIndex();
-      return null;
-   }
 
+      Set<Integer> indexedSegments = getIndexedSegments(getConsistentHash());
+      for (int segment : indexedSegments) {
+         progressMonitor.segmentIndexed(segment, indexedPerSegment.get(segment));
+      }
+      progressMonitor.indexingCompleted();
+      return segments != null ? indexedSegments : null;
+   }
 
-   private class PrimaryOwnersKeyValueFilter implements KeyValueFilter {
-
-      @Override
-      public boolean accept(Object key, Object value, Metadata metadata) {
-         return clusteringDependentLogic.localNodeIsPrimaryOwner(key);
+   /**
+    * The requested segments this node still owns after the reindexing: when ownership changed during the run, the
+    * entries of the segments it lost might not have been iterated.
+    */
+   private Set<Integer> getIndexedSegments(ConsistentHash ch) {
+      if (ch == null) {
+         return Collections.singleton(0);
+      }
+      Set<Integer> indexedSegments = new HashSet<>(ch.getSegmentsForOwner(clusteringDependentLogic.getAddress()));
+      if (segments != null) {
+         indexedSegments.retainAll(segments);
+      } else if (!cache.getCacheConfiguration().clustering().cacheMode().isReplicated()) {
+         indexedSegments.retainAll(ch.getPrimarySegmentsForOwner(clusteringDependentLogic.getAddress()));
       }
+      return indexedSegments;
    }
 
    public static class Externalizer extends AbstractExternalizer<IndexWorker> {
@@ -106,13 +194,20 @@ public Set<Class<? extends IndexWorker>> getTypeClasses() {
 
       @Override
       public void writeObject(ObjectOutput output, IndexWorker worker) throws IOException {
-         output.writeObject(worker.entity);
+         output.writeObject(worker.entities);
+         output.writeBoolean(worker.purge);
          output.writeBoolean(worker.flush);
+         output.writeObject(worker.segments);
       }
 
       @Override
+      @SuppressWarnings("unchecked")
       public IndexWorker readObject(ObjectInput input) throws IOException, ClassNotFoundException {
-         return new IndexWorker((Class<?>) input.readObject(), input.readBoolean());
+         Set<Class<?>> entities = (Set<Class<?>>) input.readObject();
+         boolean purge = input.readBoolean();
+         boolean flush = input.readBoolean();
+         Set<Integer> segments = (Set<Integer>) input.readObject();
+         return new IndexWorker(entities, purge, flush, segments);
       }
 
       @Override
@@ -2,8 +2,10 @@
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 import org.hibernate.search.backend.LuceneWork;
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.CacheException;
 import org.infinispan.remoting.transport.Address;
 import org.jboss.logging.annotations.Cause;
@@ -94,4 +96,32 @@ public interface Log extends org.infinispan.util.logging.Log {
    @LogMessage(level = ERROR)
    @Message(value = "Error executing MassIndexer", id = 14018)
    void errorExecutingMassIndexer(@Cause Throwable cause);
+
+   @Message(value = "Secondary indexes are only supported by local caches, but cache '%s' is clustered", id = 14019)
+   CacheConfigurationException secondaryIndexesRequireLocalCache(String cacheName);
+
+   @Message(value = "Cannot create a secondary index on property '%2$s' of type '%1$s': %3$s", id = 14020)
+   CacheConfigurationException invalidSecondaryIndex(String typeName, String propertyPath, String reason);
+
+   @LogMessage(level = ERROR)
+   @Message(value = "Failed to apply %d asynchronous index updates", id = 14021)
+   void asyncIndexingFailed(int workCount, @Cause Throwable cause);
+
+   @LogMessage(level = DEBUG)
+   @Message(value = "Reindexed %1$d entities of segment %2$d", id = 14022)
+   void indexingSegmentCompleted(long nbrOfEntities, int segment);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Mass indexing of segments %1$s on node %2$s did not complete, resubmitting them to their current owners", id = 14023)
+   void resubmittingMassIndexingSegments(Set<Integer> segments, Address address, @Cause Throwable cause);
+
+   @Message(value = "Failed to apply the asynchronous index updates of %d entities, the indexes may be out of date", id = 14024)
+   CacheException asyncIndexingWorkDropped(int workCount, @Cause Throwable cause);
+
+   @LogMessage(level = ERROR)
+   @Message(value = "Mass indexing of segments %1$s on node %2$s failed %3$d times, giving up", id = 14025)
+   void massIndexingSegmentsFailed(Set<Integer> segments, Address address, int attempts, @Cause Throwable cause);
+
+   @Message(value = "Mass indexing did not complete, the indexes are missing the entries of segments %s", id = 14026)
+   CacheException massIndexingIncomplete(Set<Integer> segments, @Cause Throwable cause);
 }
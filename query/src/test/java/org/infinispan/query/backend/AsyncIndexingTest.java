@@ -0,0 +1,120 @@
+package org.infinispan.query.backend;
+
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.hibernate.search.backend.TransactionContext;
+import org.hibernate.search.backend.spi.Work;
+import org.hibernate.search.backend.spi.WorkType;
+import org.hibernate.search.backend.spi.Worker;
+import org.hibernate.search.exception.SearchException;
+import org.hibernate.search.spi.SearchIntegrator;
+import org.infinispan.commons.CacheException;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.Index;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.query.Search;
+import org.infinispan.query.SearchManager;
+import org.infinispan.query.test.Person;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.DefaultTimeService;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests that asynchronous indexing makes all the writes visible to queries after a flush, and that the work which
+ * cannot be applied is retried and then reported by the flush.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "query.backend.AsyncIndexingTest")
+public class AsyncIndexingTest extends SingleCacheManagerTest {
+
+   private static final int NUM_ENTRIES = 200;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.indexing().index(Index.ALL)
+            .addProperty("default.directory_provider", "ram")
+            .addProperty(AsyncIndexingQueue.ASYNC_PROPERTY, "true")
+            .addProperty(AsyncIndexingQueue.QUEUE_SIZE_PROPERTY, "50")
+            .addProperty(AsyncIndexingQueue.BATCH_SIZE_PROPERTY, "10")
+            .addProperty("error_handler", "org.infinispan.query.helper.StaticTestingErrorHandler");
+      return TestCacheManagerFactory.createCacheManager(cfg);
+   }
+
+   public void testFlushMakesWritesVisible() {
+      SearchManager searchManager = Search.getSearchManager(cache);
+
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cache.put(i, new Person("name" + i, "blurb", i));
+         // updates of the same entity are coalesced when still queued
+         cache.put(i, new Person("name" + i, "updated blurb", i));
+      }
+      searchManager.flushIndexWork();
+      assertEquals(searchManager.getQuery(new MatchAllDocsQuery(), Person.class).getResultSize(), NUM_ENTRIES);
+
+      for (int i = 0; i < NUM_ENTRIES / 2; i++) {
+         cache.remove(i);
+      }
+      searchManager.flushIndexWork();
+      assertEquals(searchManager.getQuery(new MatchAllDocsQuery(), Person.class).getResultSize(), NUM_ENTRIES / 2);
+
+      cache.clear();
+      searchManager.flushIndexWork();
+      assertEquals(searchManager.getQuery(new MatchAllDocsQuery(), Person.class).getResultSize(), 0);
+   }
+
+   public void testFailedWorkIsRetried() {
+      Worker worker = mock(Worker.class);
+      doThrow(new SearchException("Injected failure")).doNothing()
+            .when(worker).performWork(any(Work.class), any(TransactionContext.class));
+      AsyncIndexingQueue queue = createQueue(worker);
+
+      queue.enqueue(Collections.singleton(new Work(new Person("name", "blurb", 1), "1", WorkType.ADD)));
+      queue.flush();
+
+      verify(worker, times(2)).performWork(any(Work.class), any(TransactionContext.class));
+      assertEquals(queue.getQueueSize(), 0);
+   }
+
+   public void testDroppedWorkIsReportedByFlush() {
+      Worker worker = mock(Worker.class);
+      doThrow(new SearchException("Injected failure"))
+            .when(worker).performWork(any(Work.class), any(TransactionContext.class));
+      AsyncIndexingQueue queue = createQueue(worker);
+
+      queue.enqueue(Collections.singleton(new Work(new Person("name", "blurb", 1), "1", WorkType.ADD)));
+      try {
+         queue.flush();
+         fail("The dropped work should have been reported");
+      } catch (CacheException e) {
+         // expected
+      }
+      verify(worker, times(3)).performWork(any(Work.class), any(TransactionContext.class));
+      assertEquals(queue.getQueueSize(), 0);
+
+      // the failure is only reported once
+      queue.flush();
+   }
+
+   private AsyncIndexingQueue createQueue(Worker worker) {
+      SearchIntegrator searchIntegrator = mock(SearchIntegrator.class);
+      when(searchIntegrator.getWorker()).thenReturn(worker);
+      AsyncIndexingQueue queue = new AsyncIndexingQueue(searchIntegrator, new WithinThreadExecutor(),
+            new DefaultTimeService(), 10, 10);
+      queue.start();
+      return queue;
+   }
+}
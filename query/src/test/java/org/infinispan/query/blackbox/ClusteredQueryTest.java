@@ -255,6 +255,33 @@ public void testPagination() throws ParseException {
       StaticTestingErrorHandler.assertAllGood(cacheAMachine1, cacheAMachine2);
    }
 
+   public void testLazyPaginationInBatches() throws ParseException {
+      populateCache();
+
+      // applying sort
+      SortField sortField = new SortField("age", SortField.Type.INT);
+      Sort sort = new Sort(sortField);
+      cacheQuery.sort(sort);
+      List<Object> allResults = cacheQuery.list();
+      assertEquals(4, allResults.size());
+
+      cacheQuery.firstResult(1);
+      cacheQuery.maxResults(3);
+
+      // the values of the three results are fetched in two batches
+      ResultIterator iterator = cacheQuery.iterator(new FetchOptions().fetchMode(FetchOptions.FetchMode.LAZY).fetchSize(2));
+      try {
+         for (int i = 1; i < 4; i++) {
+            assert iterator.hasNext();
+            assertEquals(allResults.get(i), iterator.next());
+         }
+         assert !iterator.hasNext();
+      } finally {
+         iterator.close();
+      }
+      StaticTestingErrorHandler.assertAllGood(cacheAMachine1, cacheAMachine2);
+   }
+
    public void testQueryAll() throws ParseException {
       populateCache();
       CacheQuery clusteredQuery = Search.getSearchManager(cacheAMachine1)
@@ -0,0 +1,136 @@
+package org.infinispan.query.distributed;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.TermQuery;
+import org.hibernate.search.annotations.Analyze;
+import org.hibernate.search.annotations.Field;
+import org.hibernate.search.annotations.Indexed;
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.api.BasicCacheContainer;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.query.Search;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests that the segments whose reindexing failed are resubmitted, that the MassIndexer fails once they were attempted
+ * too many times, and that expired entries are not reindexed.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "query.distributed.MassIndexingRetryTest")
+public class MassIndexingRetryTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_NODES = 3;
+
+   private static final int NUM_ENTRIES = 50;
+
+   private final List<Cache<Object, Object>> caches = new ArrayList<>(NUM_NODES);
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      for (int i = 0; i < NUM_NODES; i++) {
+         EmbeddedCacheManager cacheManager = TestCacheManagerFactory.fromXml("unshared-indexing-distribution.xml");
+         registerCacheManager(cacheManager);
+         caches.add(cacheManager.getCache());
+      }
+      waitForClusterToForm(BasicCacheContainer.DEFAULT_CACHE_NAME, "LuceneIndexesMetadata", "LuceneIndexesData",
+            "LuceneIndexesLocking");
+      // an indexed write makes the entity type known to all the nodes
+      caches.get(0).put("known", new FailingEntity("known"));
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void resetFailures() {
+      FailingEntity.failuresLeft.set(0);
+   }
+
+   public void testFailedSegmentsAreResubmitted() {
+      Cache<Object, Object> cache = caches.get(0);
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING).put("key" + i, new FailingEntity("retried"));
+      }
+      assertIndexed("retried", 0);
+
+      // the first worker to index an entry fails, its segments are reindexed by the second attempt
+      FailingEntity.failuresLeft.set(1);
+      Search.getSearchManager(cache).getMassIndexer().start();
+
+      assertTrue(FailingEntity.failuresLeft.get() < 1);
+      assertIndexed("retried", NUM_ENTRIES);
+   }
+
+   public void testMassIndexerFailsAfterMaxAttempts() {
+      Cache<Object, Object> cache = caches.get(0);
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING).put("failing" + i, new FailingEntity("failing"));
+      }
+
+      FailingEntity.failuresLeft.set(Integer.MAX_VALUE);
+      try {
+         Search.getSearchManager(cache).getMassIndexer().start();
+         fail("The MassIndexer should fail when segments cannot be reindexed");
+      } catch (CacheException e) {
+         // expected
+      }
+   }
+
+   public void testExpiredEntriesAreNotReindexed() {
+      Cache<Object, Object> cache = caches.get(0);
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING).put("expiring" + i, new FailingEntity("expiring"),
+               1, TimeUnit.MILLISECONDS);
+      }
+      cache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING).put("immortal", new FailingEntity("expiring"));
+      TestingUtil.sleepThread(10);
+
+      Search.getSearchManager(cache).getMassIndexer().start();
+
+      assertIndexed("expiring", 1);
+   }
+
+   private void assertIndexed(String name, int expected) {
+      for (Cache<Object, Object> cache : caches) {
+         assertEquals(expected, Search.getSearchManager(cache)
+               .getClusteredQuery(new TermQuery(new Term("name", name)), FailingEntity.class).getResultSize());
+      }
+   }
+
+   @Indexed
+   public static class FailingEntity implements Serializable {
+
+      /**
+       * How many times reading the indexed property fails. Shared by all the nodes as they run in the same JVM.
+       */
+      static final AtomicInteger failuresLeft = new AtomicInteger();
+
+      private final String name;
+
+      public FailingEntity(String name) {
+         this.name = name;
+      }
+
+      @Field(analyze = Analyze.NO)
+      public String getName() {
+         if (failuresLeft.getAndDecrement() > 0) {
+            throw new IllegalStateException("Injected failure");
+         }
+         return name;
+      }
+   }
+}
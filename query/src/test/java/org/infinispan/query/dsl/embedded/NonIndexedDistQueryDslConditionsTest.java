@@ -0,0 +1,22 @@
+package org.infinispan.query.dsl.embedded;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the non-indexed query tests on a distributed cache, where paged queries are executed by merging the partial
+ * results of each node.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "query.dsl.NonIndexedDistQueryDslConditionsTest")
+public class NonIndexedDistQueryDslConditionsTest extends NonIndexedQueryDslConditionsTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder defaultConfiguration = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      defaultConfiguration.clustering().hash().numOwners(1);
+      createClusteredCaches(3, defaultConfiguration);
+   }
+}
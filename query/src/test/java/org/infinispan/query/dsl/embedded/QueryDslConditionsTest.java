@@ -14,6 +14,7 @@
 import org.hibernate.search.spi.SearchIntegrator;
 import org.infinispan.Cache;
 import org.infinispan.query.Search;
+import org.infinispan.query.dsl.Expression;
 import org.infinispan.query.dsl.FilterConditionEndContext;
 import org.infinispan.query.dsl.Query;
 import org.infinispan.query.dsl.QueryBuilder;
@@ -1579,4 +1580,100 @@ public void testUnorderedPagination8() throws Exception {
       assertEquals(3, q.getResultSize());
       assertEquals(2, list.size());
    }
+
+   public void testGroupBy() throws Exception {
+      QueryFactory qf = getQueryFactory();
+
+      Query q = qf.from(getModelFactory().getTransactionImplClass())
+            .select(Expression.property("accountId"), Expression.count("id"), Expression.sum("amount"), Expression.max("amount"))
+            .groupBy("accountId")
+            .orderBy("accountId", SortOrder.ASC)
+            .build();
+
+      List<Object[]> list = q.list();
+      assertEquals(2, q.getResultSize());
+      assertEquals(2, list.size());
+      assertEquals(4, list.get(0).length);
+      assertEquals(1, list.get(0)[0]);
+      assertEquals(3L, list.get(0)[1]);
+      assertEquals(3323.0d, (Double) list.get(0)[2], 0.0001d);
+      assertEquals(1800.0d, (Double) list.get(0)[3], 0.0001d);
+      assertEquals(2, list.get(1)[0]);
+      assertEquals(53L, list.get(1)[1]);
+   }
+
+   public void testGlobalAggregation() throws Exception {
+      QueryFactory qf = getQueryFactory();
+
+      Query q = qf.from(getModelFactory().getTransactionImplClass())
+            .select(Expression.count("id"), Expression.min("amount"))
+            .having("accountId").eq(1)
+            .toBuilder().build();
+
+      List<Object[]> list = q.list();
+      assertEquals(1, list.size());
+      assertEquals(3L, list.get(0)[0]);
+      assertEquals(23.0d, (Double) list.get(0)[1], 0.0001d);
+   }
+
+   public void testGroupByWithPagination() throws Exception {
+      QueryFactory qf = getQueryFactory();
+
+      Query q = qf.from(getModelFactory().getTransactionImplClass())
+            .select(Expression.property("accountId"), Expression.count("id"))
+            .groupBy("accountId")
+            .orderBy("accountId", SortOrder.DESC)
+            .startOffset(1).maxResults(5)
+            .build();
+
+      List<Object[]> list = q.list();
+      assertEquals(2, q.getResultSize());
+      assertEquals(1, list.size());
+      assertEquals(1, list.get(0)[0]);
+      assertEquals(3L, list.get(0)[1]);
+   }
+
+   public void testGroupByOrderByAggregation() throws Exception {
+      QueryFactory qf = getQueryFactory();
+
+      Query q = qf.from(getModelFactory().getTransactionImplClass())
+            .select(Expression.property("accountId"), Expression.count("id"))
+            .groupBy("accountId")
+            .orderBy(Expression.count("id"), SortOrder.DESC)
+            .build();
+
+      List<Object[]> list = q.list();
+      assertEquals(2, list.size());
+      assertEquals(2, list.get(0)[0]);
+      assertEquals(53L, list.get(0)[1]);
+      assertEquals(1, list.get(1)[0]);
+      assertEquals(3L, list.get(1)[1]);
+   }
+
+   public void testGroupByOrderByUnselectedAggregation() throws Exception {
+      QueryFactory qf = getQueryFactory();
+
+      Query q = qf.from(getModelFactory().getTransactionImplClass())
+            .select(Expression.property("accountId"))
+            .groupBy("accountId")
+            .orderBy(Expression.sum("amount"), SortOrder.ASC)
+            .build();
+
+      List<Object[]> list = q.list();
+      assertEquals(2, list.size());
+      assertEquals(1, list.get(0).length);
+      assertEquals(1, list.get(0)[0]);
+      assertEquals(2, list.get(1)[0]);
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testGroupByOrderByUngroupedPath() throws Exception {
+      QueryFactory qf = getQueryFactory();
+
+      qf.from(getModelFactory().getTransactionImplClass())
+            .select(Expression.property("accountId"), Expression.count("id"))
+            .groupBy("accountId")
+            .orderBy("amount", SortOrder.ASC)
+            .build();
+   }
 }
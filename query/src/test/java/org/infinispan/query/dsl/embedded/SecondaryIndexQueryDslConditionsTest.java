@@ -0,0 +1,119 @@
+package org.infinispan.query.dsl.embedded;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.query.dsl.Query;
+import org.infinispan.query.dsl.embedded.impl.SecondaryIndexes;
+import org.infinispan.query.dsl.embedded.testdomain.User;
+import org.infinispan.query.dsl.embedded.testdomain.hsearch.UserHS;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs the non-indexed query tests on a cache having in-memory secondary indexes on some of the queried properties.
+ *
+ * @since 8.0
+ */
+@Test(groups = "functional", testName = "query.dsl.SecondaryIndexQueryDslConditionsTest")
+public class SecondaryIndexQueryDslConditionsTest extends NonIndexedQueryDslConditionsTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder cfg = TestCacheManagerFactory.getDefaultCacheConfiguration(true);
+      cfg.indexing()
+            .addProperty(SecondaryIndexes.PROPERTY_PREFIX + getModelFactory().getUserImplClass().getName(), "name, surname, gender, age:sorted")
+            .addProperty(SecondaryIndexes.PROPERTY_PREFIX + getModelFactory().getAccountImplClass().getName(), "description")
+            .addProperty(SecondaryIndexes.PROPERTY_PREFIX + getModelFactory().getTransactionImplClass().getName(), "accountId, amount:sorted, date:sorted");
+      createClusteredCaches(1, cfg);
+   }
+
+   public void testLookupUsesSecondaryIndexes() throws Exception {
+      // an entry written directly to the data container is not indexed, so only a scan can find it
+      User unindexed = getModelFactory().makeUser();
+      unindexed.setId(100);
+      unindexed.setName("John");
+      unindexed.setSurname("Unindexed");
+      DataContainer dataContainer = cache(0).getAdvancedCache().getDataContainer();
+      dataContainer.put("unindexed_user", unindexed, new EmbeddedMetadata.Builder().build());
+      try {
+         Query q = getQueryFactory().from(getModelFactory().getUserImplClass())
+               .having("name").eq("John")
+               .toBuilder().build();
+         List<User> list = q.list();
+         assertEquals(1, list.size());
+         assertEquals("Doe", list.get(0).getSurname());
+
+         // a disjunction with a LIKE predicate cannot use the indexes so the whole cache is scanned
+         q = getQueryFactory().from(getModelFactory().getUserImplClass())
+               .having("name").eq("John")
+               .or().having("surname").like("%nothing%")
+               .toBuilder().build();
+         list = q.list();
+         assertEquals(2, list.size());
+      } finally {
+         dataContainer.remove("unindexed_user");
+      }
+   }
+
+   public void testLookupWithLongConstantOnIntegerProperty() throws Exception {
+      User unindexed = getModelFactory().makeUser();
+      unindexed.setId(103);
+      unindexed.setName("Unindexed");
+      unindexed.setSurname("Unindexed");
+      unindexed.setAge(22);
+      DataContainer dataContainer = cache(0).getAdvancedCache().getDataContainer();
+      dataContainer.put("unindexed_user", unindexed, new EmbeddedMetadata.Builder().build());
+      try {
+         // the constants are converted to the type of the indexed values, otherwise the index finds nothing
+         Query q = getQueryFactory().from(getModelFactory().getUserImplClass())
+               .having("age").eq(22L)
+               .toBuilder().build();
+         List<User> list = q.list();
+         assertEquals(1, list.size());
+         assertEquals("Doe", list.get(0).getSurname());
+
+         q = getQueryFactory().from(getModelFactory().getUserImplClass())
+               .having("age").between(21L, 22L)
+               .toBuilder().build();
+         list = q.list();
+         assertEquals(1, list.size());
+         assertEquals("Doe", list.get(0).getSurname());
+      } finally {
+         dataContainer.remove("unindexed_user");
+      }
+   }
+
+   public void testSubtypeUsesSecondaryIndexes() throws Exception {
+      UserSubtype indexed = new UserSubtype();
+      indexed.setId(101);
+      indexed.setName("Subtype");
+      indexed.setSurname("Indexed");
+      UserSubtype unindexed = new UserSubtype();
+      unindexed.setId(102);
+      unindexed.setName("Subtype");
+      unindexed.setSurname("Unindexed");
+      DataContainer dataContainer = cache(0).getAdvancedCache().getDataContainer();
+      cache(0).put("indexed_subtype", indexed);
+      dataContainer.put("unindexed_subtype", unindexed, new EmbeddedMetadata.Builder().build());
+      try {
+         // the index declared for the supertype holds the instances of the subtype
+         Query q = getQueryFactory().from(UserSubtype.class)
+               .having("name").eq("Subtype")
+               .toBuilder().build();
+         List<User> list = q.list();
+         assertEquals(1, list.size());
+         assertEquals("Indexed", list.get(0).getSurname());
+      } finally {
+         cache(0).remove("indexed_subtype");
+         dataContainer.remove("unindexed_subtype");
+      }
+   }
+
+   public static class UserSubtype extends UserHS {
+   }
+}
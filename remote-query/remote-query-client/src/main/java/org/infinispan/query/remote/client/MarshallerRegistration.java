@@ -23,6 +23,7 @@ public static void registerMarshallers(SerializationContext ctx) throws IOExcept
       fileDescriptorSource.addProtoFile(MESSAGE_PROTO_RES, MarshallerRegistration.class.getResourceAsStream(MESSAGE_PROTO_RES));
       ctx.registerProtoFiles(fileDescriptorSource);
       ctx.registerMarshaller(new QueryRequest.Marshaller());
+      ctx.registerMarshaller(new QueryRequest.Expression.Marshaller());
       ctx.registerMarshaller(new QueryResponse.Marshaller());
       ctx.registerMarshaller(new FilterResult.Marshaller());
    }
@@ -3,6 +3,8 @@
 import org.infinispan.protostream.MessageMarshaller;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author anistor@redhat.com
@@ -16,6 +18,18 @@ public final class QueryRequest {
 
    private int maxResults;
 
+   private String alias;
+
+   private String fromClause;
+
+   private String whereClause;
+
+   private List<String> groupBy;
+
+   private List<Expression> select;
+
+   private List<Expression> orderBy;
+
    public String getJpqlString() {
       return jpqlString;
    }
@@ -40,6 +54,122 @@ public void setMaxResults(int maxResults) {
       this.maxResults = maxResults;
    }
 
+   /**
+    * Indicates a grouping query, whose clauses are set in addition to the query string.
+    */
+   public boolean isGroupingQuery() {
+      return fromClause != null;
+   }
+
+   public String getAlias() {
+      return alias;
+   }
+
+   public void setAlias(String alias) {
+      this.alias = alias;
+   }
+
+   public String getFromClause() {
+      return fromClause;
+   }
+
+   public void setFromClause(String fromClause) {
+      this.fromClause = fromClause;
+   }
+
+   public String getWhereClause() {
+      return whereClause;
+   }
+
+   public void setWhereClause(String whereClause) {
+      this.whereClause = whereClause;
+   }
+
+   public List<String> getGroupBy() {
+      return groupBy;
+   }
+
+   public void setGroupBy(List<String> groupBy) {
+      this.groupBy = groupBy;
+   }
+
+   public List<Expression> getSelect() {
+      return select;
+   }
+
+   public void setSelect(List<Expression> select) {
+      this.select = select;
+   }
+
+   public List<Expression> getOrderBy() {
+      return orderBy;
+   }
+
+   public void setOrderBy(List<Expression> orderBy) {
+      this.orderBy = orderBy;
+   }
+
+   /**
+    * An attribute path of the projection or of the ordering of a grouping query, optionally aggregated.
+    */
+   public static final class Expression {
+
+      private final String attributePath;
+
+      private final String aggregation;
+
+      private final boolean descending;
+
+      /**
+       * @param aggregation the name of the aggregation function, or {@code null} if the attribute path is not aggregated
+       */
+      public Expression(String attributePath, String aggregation, boolean descending) {
+         this.attributePath = attributePath;
+         this.aggregation = aggregation;
+         this.descending = descending;
+      }
+
+      public String getAttributePath() {
+         return attributePath;
+      }
+
+      public String getAggregation() {
+         return aggregation;
+      }
+
+      public boolean isDescending() {
+         return descending;
+      }
+
+      public static final class Marshaller implements MessageMarshaller<Expression> {
+
+         @Override
+         public Expression readFrom(ProtoStreamReader reader) throws IOException {
+            String attributePath = reader.readString("attributePath");
+            String aggregation = reader.readString("aggregation");
+            Boolean descending = reader.readBoolean("descending");
+            return new Expression(attributePath, aggregation, descending != null && descending);
+         }
+
+         @Override
+         public void writeTo(ProtoStreamWriter writer, Expression expression) throws IOException {
+            writer.writeString("attributePath", expression.getAttributePath());
+            writer.writeString("aggregation", expression.getAggregation());
+            writer.writeBoolean("descending", expression.isDescending());
+         }
+
+         @Override
+         public Class<Expression> getJavaClass() {
+            return Expression.class;
+         }
+
+         @Override
+         public String getTypeName() {
+            return "org.infinispan.query.remote.client.QueryRequest.Expression";
+         }
+      }
+   }
+
    public static final class Marshaller implements MessageMarshaller<QueryRequest> {
 
       @Override
@@ -48,6 +178,12 @@ public QueryRequest readFrom(ProtoStreamReader reader) throws IOException {
          queryRequest.setJpqlString(reader.readString("jpqlString"));
          queryRequest.setStartOffset(reader.readLong("startOffset"));
          queryRequest.setMaxResults(reader.readInt("maxResults"));
+         queryRequest.setAlias(reader.readString("alias"));
+         queryRequest.setFromClause(reader.readString("fromClause"));
+         queryRequest.setWhereClause(reader.readString("whereClause"));
+         queryRequest.setGroupBy(reader.readCollection("groupBy", new ArrayList<String>(), String.class));
+         queryRequest.setSelect(reader.readCollection("select", new ArrayList<Expression>(), Expression.class));
+         queryRequest.setOrderBy(reader.readCollection("orderBy", new ArrayList<Expression>(), Expression.class));
          return queryRequest;
       }
 
@@ -56,6 +192,14 @@ public void writeTo(ProtoStreamWriter writer, QueryRequest remoteQuery) throws I
          writer.writeString("jpqlString", remoteQuery.getJpqlString());
          writer.writeLong("startOffset", remoteQuery.getStartOffset());
          writer.writeInt("maxResults", remoteQuery.getMaxResults());
+         if (remoteQuery.isGroupingQuery()) {
+            writer.writeString("alias", remoteQuery.getAlias());
+            writer.writeString("fromClause", remoteQuery.getFromClause());
+            writer.writeString("whereClause", remoteQuery.getWhereClause());
+            writer.writeCollection("groupBy", remoteQuery.getGroupBy(), String.class);
+            writer.writeCollection("select", remoteQuery.getSelect(), Expression.class);
+            writer.writeCollection("orderBy", remoteQuery.getOrderBy(), Expression.class);
+         }
       }
 
       @Override
@@ -29,9 +29,14 @@
 import org.infinispan.query.CacheQuery;
 import org.infinispan.query.Search;
 import org.infinispan.query.SearchManager;
+import org.infinispan.query.dsl.SortOrder;
+import org.infinispan.query.dsl.embedded.impl.AggregatingQuery;
 import org.infinispan.query.dsl.embedded.impl.EmbeddedQuery;
+import org.infinispan.query.dsl.embedded.impl.Grouping;
 import org.infinispan.query.dsl.embedded.impl.JPAFilterAndConverter;
 import org.infinispan.query.dsl.embedded.impl.QueryCache;
+import org.infinispan.query.dsl.impl.PathExpression;
+import org.infinispan.query.dsl.impl.SortCriteria;
 import org.infinispan.query.impl.ComponentRegistryUtils;
 import org.infinispan.query.remote.client.QueryRequest;
 import org.infinispan.query.remote.client.QueryResponse;
@@ -79,25 +84,26 @@ public byte[] query(AdvancedCache<byte[], byte[]> cache, byte[] query) {
          QueryRequest request = ProtobufUtil.fromByteArray(serCtx, query, 0, query.length, QueryRequest.class);
 
          Configuration cacheConfiguration = SecurityActions.getCacheConfiguration(cache);
+         Grouping grouping = request.isGroupingQuery() ? makeGrouping(request) : null;
          QueryResponse response;
          if (cacheConfiguration.indexing().index().isEnabled()) {
             try {
-               response = executeIndexedQuery(cache, cacheConfiguration, serCtx, request);
+               response = executeIndexedQuery(cache, cacheConfiguration, serCtx, request, grouping);
             } catch (IllegalArgumentException e) {
                if (e.getMessage().contains("ISPN018002:") || e.getMessage().contains("HQL100001:")) {
-                  response = executeNonIndexedQuery(cache, cacheConfiguration, serCtx, request);
+                  response = executeNonIndexedQuery(cache, cacheConfiguration, serCtx, request, grouping);
                } else {
                   throw e;
                }
             } catch (ParsingException e) {
                if (e.getMessage().contains("HQL100002:")) {
-                  response = executeNonIndexedQuery(cache, cacheConfiguration, serCtx, request);
+                  response = executeNonIndexedQuery(cache, cacheConfiguration, serCtx, request, grouping);
                } else {
                   throw e;
                }
             }
          } else {
-            response = executeNonIndexedQuery(cache, cacheConfiguration, serCtx, request);
+            response = executeNonIndexedQuery(cache, cacheConfiguration, serCtx, request, grouping);
          }
 
          return ProtobufUtil.toByteArray(serCtx, response);
@@ -106,10 +112,46 @@ public byte[] query(AdvancedCache<byte[], byte[]> cache, byte[] query) {
       }
    }
 
-   private QueryResponse executeNonIndexedQuery(AdvancedCache<byte[], byte[]> cache, Configuration cacheConfiguration, SerializationContext serCtx, QueryRequest request) throws IOException {
+   /**
+    * Builds the grouping of a query from the clauses sent along with the query string.
+    */
+   private Grouping makeGrouping(QueryRequest request) {
+      PathExpression[] select = new PathExpression[request.getSelect().size()];
+      for (int i = 0; i < select.length; i++) {
+         select[i] = toPathExpression(request.getSelect().get(i));
+      }
+      List<SortCriteria> sortCriteria = new ArrayList<SortCriteria>(request.getOrderBy().size());
+      for (QueryRequest.Expression e : request.getOrderBy()) {
+         sortCriteria.add(new SortCriteria(toPathExpression(e), e.isDescending() ? SortOrder.DESC : SortOrder.ASC));
+      }
+      String[] groupBy = request.getGroupBy().toArray(new String[request.getGroupBy().size()]);
+      return Grouping.create(request.getAlias(), request.getFromClause(), request.getWhereClause(), select, groupBy, sortCriteria);
+   }
+
+   private PathExpression toPathExpression(QueryRequest.Expression e) {
+      PathExpression.AggregationType aggregationType = null;
+      if (e.getAggregation() != null) {
+         try {
+            aggregationType = PathExpression.AggregationType.valueOf(e.getAggregation());
+         } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown aggregation function: " + e.getAggregation());
+         }
+      }
+      return new PathExpression(aggregationType, e.getAttributePath());
+   }
+
+   private QueryResponse executeNonIndexedQuery(AdvancedCache<byte[], byte[]> cache, Configuration cacheConfiguration, SerializationContext serCtx, QueryRequest request, Grouping grouping) throws IOException {
       final boolean isIndexed = cacheConfiguration.indexing().index().isEnabled();
       final boolean isCompatMode = cacheConfiguration.compatibility().enabled();
 
+      if (grouping != null) {
+         JPAFilterAndConverter rowFilter = makeFilter(cache, isIndexed, isCompatMode, grouping.getRowQuery());
+         AggregatingQuery aq = new AggregatingQuery(null, request.getJpqlString(), grouping,
+               AggregatingQuery.nonIndexed(cache, rowFilter, grouping), request.getStartOffset(), request.getMaxResults());
+         List<?> list = aq.list();
+         return makeResponse(isCompatMode, serCtx, list, aq.getProjectionSize(), aq.getResultSize(), list.size());
+      }
+
       EmbeddedQuery eq = new EmbeddedQuery(null, cache, makeFilter(cache, isIndexed, isCompatMode, request.getJpqlString()), request.getStartOffset(), request.getMaxResults());
       List<?> list = eq.list();
 
@@ -136,23 +178,26 @@ public JPAFilterAndConverter run() {
    /**
     * Execute Lucene index query.
     */
-   private QueryResponse executeIndexedQuery(AdvancedCache<byte[], byte[]> cache, Configuration cacheConfiguration, SerializationContext serCtx, QueryRequest request) throws IOException {
+   private QueryResponse executeIndexedQuery(AdvancedCache<byte[], byte[]> cache, Configuration cacheConfiguration, SerializationContext serCtx, QueryRequest request, Grouping grouping) throws IOException {
       final SearchManager searchManager = Search.getSearchManager(cache);
       final SearchIntegrator searchFactory = searchManager.unwrap(SearchIntegrator.class);
       final QueryCache queryCache = ComponentRegistryUtils.getQueryCache(cache);  // optional component
 
+      // grouping queries only use the index to find the matching entities, which are aggregated while loaded
+      String jpqlString = grouping != null ? grouping.getFilterQuery() : request.getJpqlString();
+
       LuceneQueryParsingResult parsingResult;
       Query luceneQuery;
 
       if (queryCache != null) {
-         KeyValuePair<String, Class> queryCacheKey = new KeyValuePair<String, Class>(request.getJpqlString(), LuceneQueryParsingResult.class);
+         KeyValuePair<String, Class> queryCacheKey = new KeyValuePair<String, Class>(jpqlString, LuceneQueryParsingResult.class);
          parsingResult = queryCache.get(queryCacheKey);
          if (parsingResult == null) {
-            parsingResult = parseQuery(cacheConfiguration, serCtx, request.getJpqlString(), searchFactory);
+            parsingResult = parseQuery(cacheConfiguration, serCtx, jpqlString, searchFactory);
             queryCache.put(queryCacheKey, parsingResult);
          }
       } else {
-         parsingResult = parseQuery(cacheConfiguration, serCtx, request.getJpqlString(), searchFactory);
+         parsingResult = parseQuery(cacheConfiguration, serCtx, jpqlString, searchFactory);
       }
 
       luceneQuery = parsingResult.getQuery();
@@ -168,6 +213,15 @@ private QueryResponse executeIndexedQuery(AdvancedCache<byte[], byte[]> cache, C
 
       CacheQuery cacheQuery = searchManager.getQuery(luceneQuery, parsingResult.getTargetEntity());
 
+      if (grouping != null) {
+         // the loaded entities are the values seen by the clients, not the ones wrapped for indexing
+         JPAFilterAndConverter projectionFilter = makeFilter(cache, false, isCompatMode, grouping.getProjectionQuery());
+         AggregatingQuery aq = new AggregatingQuery(null, request.getJpqlString(), grouping,
+               AggregatingQuery.indexed(cacheQuery, projectionFilter), request.getStartOffset(), request.getMaxResults());
+         List<?> list = aq.list();
+         return makeResponse(false, serCtx, list, aq.getProjectionSize(), aq.getResultSize(), list.size());
+      }
+
       if (parsingResult.getSort() != null) {
          cacheQuery = cacheQuery.sort(parsingResult.getSort());
       }
@@ -1,5 +1,6 @@
 package org.infinispan.query.remote.filter;
 
+import org.infinispan.commons.CacheException;
 import org.infinispan.commons.marshall.AbstractExternalizer;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.objectfilter.ObjectFilter;
@@ -32,7 +33,12 @@ public ObjectFilter.FilterResult filterAndConvert(K key, ProtobufValueWrapper va
          // this is a 'pre' invocation, ignore it
          return null;
       }
-      return getObjectFilter().filter(value.getBinary());
+      try {
+         // the scanned message is cached by the wrapper, so the value is not decoded again by the next filters
+         return getObjectFilter().filter(value.getMessage());
+      } catch (IOException e) {
+         throw new CacheException(e);
+      }
    }
 
    @Override
@@ -6,6 +6,7 @@
 import org.hibernate.search.bridge.LuceneOptions;
 import org.hibernate.search.engine.impl.LuceneOptionsImpl;
 import org.hibernate.search.engine.metadata.impl.DocumentFieldMetadata;
+import org.infinispan.objectfilter.impl.util.LazyProtobufMessage;
 import org.infinispan.protostream.MessageContext;
 import org.infinispan.protostream.TagHandler;
 import org.infinispan.protostream.descriptors.Descriptor;
@@ -14,6 +15,8 @@
 import org.infinispan.protostream.descriptors.Type;
 import org.infinispan.query.remote.QueryFacadeImpl;
 
+import java.io.IOException;
+
 /**
  * Extracts and indexes all tags (fields) from a protobuf encoded message.
  *
@@ -44,6 +47,37 @@ public IndexingTagHandler(Descriptor messageDescriptor, Document document) {
       this.messageContext = new MessageContext<MessageContext>(null, null, messageDescriptor);
    }
 
+   /**
+    * Indexes a message, firing the same events a {@code ProtobufParser} would. The values of the fields that are not
+    * indexed are not decoded.
+    */
+   public void index(LazyProtobufMessage message) throws IOException {
+      onStart();
+      indexFields(message);
+      onEnd();
+   }
+
+   private void indexFields(LazyProtobufMessage message) throws IOException {
+      Descriptor messageDescriptor = messageContext.getMessageDescriptor();
+      IndexingMetadata indexingMetadata = messageDescriptor.getProcessedAnnotation(IndexingMetadata.INDEXED_ANNOTATION);
+      for (int i = 0; i < message.getNumFields(); i++) {
+         int fieldNumber = message.getFieldNumber(i);
+         FieldDescriptor fd = messageDescriptor.findFieldByNumber(fieldNumber);
+         if (fd == null) {
+            // unknown fields are not indexed
+            messageContext.markField(fieldNumber);
+         } else if (fd.getJavaType() == JavaType.MESSAGE) {
+            onStartNested(fieldNumber, fd.getName(), fd.getMessageType());
+            indexFields(message.readMessage(i));
+            onEndNested(fieldNumber, fd.getName(), fd.getMessageType());
+         } else if (indexingMetadata == null || indexingMetadata.isFieldIndexed(fieldNumber)) {
+            onTag(fieldNumber, fd.getName(), fd.getType(), fd.getJavaType(), message.readValue(i, fd.getType()));
+         } else {
+            messageContext.markField(fieldNumber);
+         }
+      }
+   }
+
    @Override
    public void onStart() {
       NOT_STORED_NOT_ANALYZED.addFieldToDocument(QueryFacadeImpl.TYPE_FIELD_NAME, messageContext.getMessageDescriptor().getFullName(), document);
@@ -2,11 +2,13 @@
 
 import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.objectfilter.impl.util.LazyProtobufMessage;
 import org.infinispan.query.remote.ExternalizerIds;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
@@ -25,6 +27,14 @@ public final class ProtobufValueWrapper {
 
    private int hashCode = 0;
 
+   /**
+    * The scanned message, lazily initialised by {@code getMessage} method. The wrapper is the value stored in the
+    * cache, so the message is only softly referenced, to avoid doubling the memory held by the data container. This
+    * is not volatile because creating it more than once is harmless and the instance is safely published by its final
+    * fields.
+    */
+   private transient SoftReference<LazyProtobufMessage> messageRef;
+
    public ProtobufValueWrapper(byte[] binary) {
       this.binary = binary;
    }
@@ -33,6 +43,20 @@ public byte[] getBinary() {
       return binary;
    }
 
+   /**
+    * Returns the binary payload as a lazily decoded message. The location of the fields is remembered until the memory
+    * is needed, so the value can usually be filtered many times without being scanned again.
+    */
+   public LazyProtobufMessage getMessage() throws IOException {
+      SoftReference<LazyProtobufMessage> messageRef = this.messageRef;
+      LazyProtobufMessage message = messageRef != null ? messageRef.get() : null;
+      if (message == null) {
+         message = new LazyProtobufMessage(binary);
+         this.messageRef = new SoftReference<LazyProtobufMessage>(message);
+      }
+      return message;
+   }
+
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
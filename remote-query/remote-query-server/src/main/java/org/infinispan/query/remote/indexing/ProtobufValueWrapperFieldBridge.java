@@ -5,10 +5,11 @@
 import org.hibernate.search.bridge.LuceneOptions;
 import org.infinispan.Cache;
 import org.infinispan.commons.CacheException;
-import org.infinispan.protostream.ProtobufParser;
+import org.infinispan.objectfilter.impl.util.LazyProtobufMessage;
 import org.infinispan.protostream.SerializationContext;
 import org.infinispan.protostream.WrappedMessage;
 import org.infinispan.protostream.descriptors.Descriptor;
+import org.infinispan.protostream.descriptors.Type;
 import org.infinispan.query.remote.ProtobufMetadataManager;
 
 import java.io.IOException;
@@ -43,10 +44,18 @@ public void set(String name, Object value, Document document, LuceneOptions luce
       }
       ProtobufValueWrapper valueWrapper = (ProtobufValueWrapper) value;
 
-      decodeAndIndex(valueWrapper.getBinary(), document, luceneOptions);
+      try {
+         decodeAndIndex(valueWrapper.getMessage(), document, luceneOptions);
+      } catch (IOException e) {
+         throw new CacheException(e);
+      }
    }
 
-   private void decodeAndIndex(byte[] bytes, Document document, LuceneOptions luceneOptions) {
+   /**
+    * Indexes the message wrapped in a {@link WrappedMessage}, or the scalar value if the wrapper contains a scalar.
+    * The wrapped message is scanned in place, without being copied out of the wrapper.
+    */
+   private void decodeAndIndex(LazyProtobufMessage wrapper, Document document, LuceneOptions luceneOptions) throws IOException {
       if (serializationContext == null) {
          serializationContext = ProtobufMetadataManager.getSerializationContextInternal(cache.getCacheManager());
       }
@@ -54,10 +63,63 @@ private void decodeAndIndex(byte[] bytes, Document document, LuceneOptions lucen
          wrapperDescriptor = serializationContext.getMessageDescriptor(WrappedMessage.PROTOBUF_TYPE_NAME);
       }
 
-      try {
-         ProtobufParser.INSTANCE.parse(new WrappedMessageTagHandler(document, luceneOptions, serializationContext), wrapperDescriptor, bytes);
-      } catch (IOException e) {
-         throw new CacheException(e);
+      Descriptor messageDescriptor = null;
+      LazyProtobufMessage message = null;
+      Number numericValue = null;
+      String stringValue = null;
+      for (int i = 0; i < wrapper.getNumFields(); i++) {
+         int fieldNumber = wrapper.getFieldNumber(i);
+         switch (fieldNumber) {
+            case WrappedMessage.WRAPPED_BOOL:
+               numericValue = Boolean.TRUE.equals(wrapper.readValue(i, Type.BOOL)) ? IndexingTagHandler.TRUE_INT : IndexingTagHandler.FALSE_INT;
+               break;
+            case WrappedMessage.WRAPPED_BYTES:
+            case WrappedMessage.WRAPPED_STRING:
+               stringValue = (String) wrapper.readValue(i, Type.STRING);
+               break;
+            case WrappedMessage.WRAPPED_ENUM:
+            case WrappedMessage.WRAPPED_DOUBLE:
+            case WrappedMessage.WRAPPED_FLOAT:
+            case WrappedMessage.WRAPPED_INT64:
+            case WrappedMessage.WRAPPED_INT32:
+            case WrappedMessage.WRAPPED_FIXED64:
+            case WrappedMessage.WRAPPED_FIXED32:
+            case WrappedMessage.WRAPPED_UINT32:
+            case WrappedMessage.WRAPPED_SFIXED32:
+            case WrappedMessage.WRAPPED_SFIXED64:
+            case WrappedMessage.WRAPPED_SINT32:
+            case WrappedMessage.WRAPPED_SINT64:
+               numericValue = (Number) wrapper.readValue(i, wrapperDescriptor.findFieldByNumber(fieldNumber).getType());
+               break;
+            case WrappedMessage.WRAPPED_DESCRIPTOR_FULL_NAME:
+               messageDescriptor = serializationContext.getMessageDescriptor((String) wrapper.readValue(i, Type.STRING));
+               break;
+            case WrappedMessage.WRAPPED_DESCRIPTOR_ID:
+               String typeName = serializationContext.getTypeNameById((Integer) wrapper.readValue(i, Type.INT32));
+               messageDescriptor = serializationContext.getMessageDescriptor(typeName);
+               break;
+            case WrappedMessage.WRAPPED_MESSAGE_BYTES:
+               message = wrapper.readMessage(i);
+               break;
+            default:
+               throw new IllegalStateException("Unexpected field : " + fieldNumber);
+         }
+      }
+
+      if (message != null) {
+         if (messageDescriptor == null) {
+            throw new IllegalStateException("Type name/id is missing");
+         }
+         IndexingMetadata indexingMetadata = messageDescriptor.getProcessedAnnotation(IndexingMetadata.INDEXED_ANNOTATION);
+         // if the message definition is not annotated at all we consider all fields indexed and stored, just to be backwards compatible
+         if (indexingMetadata == null || indexingMetadata.isIndexed()) {
+            new IndexingTagHandler(messageDescriptor, document).index(message);
+         }
+      } else if (numericValue != null) {
+         //todo [anistor] how do we index a scalar value?
+         luceneOptions.addNumericFieldToDocument("theValue", numericValue, document);
+      } else if (stringValue != null) {
+         luceneOptions.addFieldToDocument("theValue", stringValue, document);
       }
    }
 }
@@ -73,4 +73,18 @@ public interface ScriptingManager {
     */
    <T> NotifyingFuture<T> runScript(String scriptName, Cache<?, ?> cache, Bindings parameters);
 
+   /**
+    * Runs a named script which operates on a single key, using the specified user bindings and the specified cache as
+    * a "driver". When the local node is the primary owner of the key, a local script runs while holding the lock on
+    * the key, and the cache binding does not perform remote lookups. Otherwise the script runs like
+    * {@link #runScript(String, Cache, Bindings)}.
+    *
+    * @param scriptName The name of the script to run. Use {@link #addScript(String, String)} to add a script
+    * @param cache The cache the key belongs to
+    * @param key The key the script operates on, in the form it is stored in the cache
+    * @param parameters The user parameters that will be combined with the system bindings and made available to the script
+    * @return a {@link NotifyingFuture} which will return the result of the script execution
+    */
+   <T> NotifyingFuture<T> runScript(String scriptName, Cache<?, ?> cache, Object key, Bindings parameters);
+
 }
@@ -0,0 +1,52 @@
+package org.infinispan.scripting.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ScriptStatistics. Invocation counts and execution times of a script on the local node.
+ *
+ * @since 8.0
+ */
+public class ScriptStatistics {
+   private final AtomicLong invocations = new AtomicLong();
+   private final AtomicLong failures = new AtomicLong();
+   private final AtomicLong totalTimeNanos = new AtomicLong();
+   private final AtomicLong maxTimeNanos = new AtomicLong();
+
+   void record(long timeNanos, boolean failed) {
+      invocations.incrementAndGet();
+      if (failed) {
+         failures.incrementAndGet();
+      }
+      totalTimeNanos.addAndGet(timeNanos);
+      long max;
+      while ((max = maxTimeNanos.get()) < timeNanos && !maxTimeNanos.compareAndSet(max, timeNanos)) {
+      }
+   }
+
+   public long getInvocations() {
+      return invocations.get();
+   }
+
+   public long getFailures() {
+      return failures.get();
+   }
+
+   /**
+    * @return the average execution time in nanoseconds, or 0 if the script was never invoked
+    */
+   public long getAverageTimeNanos() {
+      long count = invocations.get();
+      return count == 0 ? 0 : totalTimeNanos.get() / count;
+   }
+
+   public long getMaxTimeNanos() {
+      return maxTimeNanos.get();
+   }
+
+   @Override
+   public String toString() {
+      return "ScriptStatistics [invocations=" + getInvocations() + ", failures=" + getFailures() + ", averageTimeNanos="
+            + getAverageTimeNanos() + ", maxTimeNanos=" + getMaxTimeNanos() + "]";
+   }
+}
@@ -11,6 +11,7 @@
 import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 
+import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
@@ -20,10 +21,18 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.interceptors.CacheMgmtInterceptor;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Parameter;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.registry.InternalCacheRegistry;
 import org.infinispan.scripting.ScriptingManager;
@@ -32,6 +41,7 @@
 import org.infinispan.security.AuthorizationManager;
 import org.infinispan.security.AuthorizationPermission;
 import org.infinispan.security.impl.CacheRoleImpl;
+import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.logging.LogFactory;
 
 /**
@@ -41,6 +51,7 @@
  * @since 7.2
  */
 @Scope(Scopes.GLOBAL)
+@MBean(objectName = "ScriptingManager", description = "Component that manages and runs scripts")
 public class ScriptingManagerImpl implements ScriptingManager {
    public static final String SCRIPT_MANAGER_ROLE = "___script_manager";
    public static final String SCRIPT_CACHE = "___script_cache";
@@ -52,6 +63,7 @@ public class ScriptingManagerImpl implements ScriptingManager {
    private ConcurrentMap<String, ScriptEngine> scriptEnginesByLanguage = CollectionFactory.makeConcurrentMap(2);
    Cache<String, String> scriptCache;
    ConcurrentMap<String, CompiledScript> compiledScripts = CollectionFactory.makeConcurrentMap();
+   private final ConcurrentMap<String, ScriptStatistics> statistics = CollectionFactory.makeConcurrentMap();
    private AuthorizationManager authzManager;
 
 
@@ -156,6 +168,41 @@ public <T> NotifyingFuture<T> runScript(String scriptName, Cache<?, ?> cache, Bi
       return runner.runScript(this, metadata, bindings);
    }
 
+   @Override
+   public <T> NotifyingFuture<T> runScript(String scriptName, Cache<?, ?> cache, Object key, Bindings parameters) {
+      if (authzManager != null) {
+         authzManager.checkPermission(AuthorizationPermission.EXEC);
+      }
+      ScriptMetadata metadata = getScriptMetadata(scriptName);
+      AdvancedCache<?, ?> advancedCache = cache.getAdvancedCache();
+      ComponentRegistry registry = SecurityActions.getCacheComponentRegistry(advancedCache);
+      ExecutionMode mode = ExecutionMode.valueOf(metadata.property(MetadataProperties.MODE).toUpperCase());
+      // Transactional caches lock on behalf of the transaction rather than the thread, so the script's own writes
+      // would block on a lock held by the thread
+      if (mode != ExecutionMode.LOCAL || advancedCache.getCacheConfiguration().transaction().transactionMode().isTransactional()
+            || !registry.getComponent(ClusteringDependentLogic.class).localNodeIsPrimaryOwner(key)) {
+         return runScript(scriptName, cache, parameters);
+      }
+
+      LockManager lockManager = registry.getComponent(LockManager.class);
+      InvocationContext ctx = registry.getComponent(InvocationContextFactory.class).createSingleKeyNonTxInvocationContext();
+      long lockTimeout = advancedCache.getCacheConfiguration().locking().lockAcquisitionTimeout();
+      try {
+         // records the key in the context, so that unlockAll releases it
+         lockManager.acquireLock(ctx, key, lockTimeout, false);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw log.scriptExecutionError(e);
+      }
+      try {
+         // The lock is owned by the current thread, so the writes of the script on the key acquire it again, and
+         // this node is the primary owner of the key, so reading it never needs a remote lookup
+         return runScript(scriptName, advancedCache.withFlags(Flag.SKIP_REMOTE_LOOKUP), parameters);
+      } finally {
+         lockManager.unlockAll(ctx);
+      }
+   }
+
    ScriptMetadata getScriptMetadata(String scriptName) {
       CacheEntry<String, String> scriptEntry = SecurityActions.getCacheEntry(getScriptCache().getAdvancedCache(), scriptName);
       if (scriptEntry == null) {
@@ -167,20 +214,70 @@ ScriptMetadata getScriptMetadata(String scriptName) {
 
    <T> NotifyingFuture<T> execute(ScriptMetadata metadata, Bindings bindings) {
       CompiledScript compiled = compiledScripts.get(metadata.name());
+      long start = System.nanoTime();
+      boolean failed = true;
       try {
          if (compiled != null) {
             T result = (T) compiled.eval(bindings);
+            failed = false;
             return new NoOpFuture<T>(result);
          } else {
             ScriptEngine engine = getEngineForScript(metadata);
             T result = (T) engine.eval(getScriptCache().get(metadata.name()), bindings);
+            failed = false;
             return new NoOpFuture<T>(result);
          }
       } catch (ScriptException e) {
          throw log.scriptExecutionError(e);
+      } finally {
+         getStatistics(metadata.name()).record(System.nanoTime() - start, failed);
       }
    }
 
+   /**
+    * Returns the statistics of the executions of a script on this node.
+    */
+   public ScriptStatistics getStatistics(String scriptName) {
+      ScriptStatistics scriptStatistics = statistics.get(scriptName);
+      if (scriptStatistics == null) {
+         scriptStatistics = new ScriptStatistics();
+         ScriptStatistics existing = statistics.putIfAbsent(scriptName, scriptStatistics);
+         if (existing != null) {
+            scriptStatistics = existing;
+         }
+      }
+      return scriptStatistics;
+   }
+
+   @ManagedOperation(description = "Returns the number of times a script was executed on this node", displayName = "Script invocations")
+   public long getInvocations(@Parameter(name = "scriptName", description = "The name of the script") String scriptName) {
+      ScriptStatistics scriptStatistics = statistics.get(scriptName);
+      return scriptStatistics == null ? 0 : scriptStatistics.getInvocations();
+   }
+
+   @ManagedOperation(description = "Returns the number of times a script failed on this node", displayName = "Script failures")
+   public long getFailures(@Parameter(name = "scriptName", description = "The name of the script") String scriptName) {
+      ScriptStatistics scriptStatistics = statistics.get(scriptName);
+      return scriptStatistics == null ? 0 : scriptStatistics.getFailures();
+   }
+
+   @ManagedOperation(description = "Returns the average execution time of a script on this node, in milliseconds", displayName = "Script average execution time")
+   public double getAverageExecutionTime(@Parameter(name = "scriptName", description = "The name of the script") String scriptName) {
+      ScriptStatistics scriptStatistics = statistics.get(scriptName);
+      return scriptStatistics == null ? 0 : scriptStatistics.getAverageTimeNanos() / 1000000d;
+   }
+
+   @ManagedOperation(description = "Returns the longest execution time of a script on this node, in milliseconds", displayName = "Script maximum execution time")
+   public double getMaxExecutionTime(@Parameter(name = "scriptName", description = "The name of the script") String scriptName) {
+      ScriptStatistics scriptStatistics = statistics.get(scriptName);
+      return scriptStatistics == null ? 0 : scriptStatistics.getMaxTimeNanos() / 1000000d;
+   }
+
+   @ManagedOperation(description = "Resets the statistics of all the scripts", displayName = "Reset script statistics")
+   public void resetStatistics() {
+      statistics.clear();
+   }
+
    private ScriptMetadata extractMetadataFromScript(String name, String script) {
       ScriptMetadata.Builder metadataBuilder = new ScriptMetadata.Builder();
 
@@ -5,9 +5,11 @@
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.security.Security;
+import org.infinispan.security.actions.GetCacheComponentRegistryAction;
 import org.infinispan.security.actions.GetCacheEntryAction;
 import org.infinispan.security.actions.GetGlobalComponentRegistryAction;
 
@@ -34,6 +36,11 @@ static GlobalComponentRegistry getGlobalComponentRegistry(final EmbeddedCacheMan
       return doPrivileged(action);
    }
 
+   static ComponentRegistry getCacheComponentRegistry(final AdvancedCache<?, ?> cache) {
+      GetCacheComponentRegistryAction action = new GetCacheComponentRegistryAction(cache);
+      return doPrivileged(action);
+   }
+
    static <K, V> CacheEntry<K, V> getCacheEntry(final AdvancedCache<K, V> cache, K key) {
       GetCacheEntryAction<K, V> action = new GetCacheEntryAction<K, V>(cache, key);
       return doPrivileged(action);
@@ -4,7 +4,10 @@
 
 import java.io.InputStream;
 
+import javax.script.SimpleBindings;
+
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.scripting.impl.ScriptingManagerImpl;
 import org.infinispan.test.SingleCacheManagerTest;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
@@ -35,4 +38,14 @@ public void testSimpleScript() throws Exception {
       String result = (String) scriptingManager.runScript(SCRIPT_NAME).get();
       assertEquals("a", result);
    }
+
+   public void testKeyScopedScript() throws Exception {
+      ScriptingManagerImpl impl = (ScriptingManagerImpl) scriptingManager;
+      long invocations = impl.getInvocations(SCRIPT_NAME);
+      // the script writes the key it is scoped to, so it must be able to acquire the lock held on its behalf
+      String result = (String) scriptingManager.runScript(SCRIPT_NAME, cache, "a", new SimpleBindings()).get();
+      assertEquals("a", result);
+      assertEquals(invocations + 1, impl.getInvocations(SCRIPT_NAME));
+      assertEquals(0, impl.getFailures(SCRIPT_NAME));
+   }
 }
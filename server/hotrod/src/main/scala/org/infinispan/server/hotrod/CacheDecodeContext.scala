@@ -26,7 +26,7 @@ import java.util.Set
  * Invokes operations against the cache based on the state kept during decoding process
  *
  */
-class CacheDecodeContext(server: HotRodServer) extends ServerConstants with Log {
+class CacheDecodeContext(val server: HotRodServer) extends ServerConstants with Log {
 
    type BytesResponse = Bytes => Response
 
@@ -0,0 +1,20 @@
+package org.infinispan.server.hotrod;
+
+import java.util.function.BiFunction;
+
+/**
+ * Factory for the functions applied by the compute operations of Hot Rod clients. The clients only send the name the
+ * factory was registered with in {@link HotRodServer#addComputeFunctionFactory(String, ComputeFunctionFactory)}, so
+ * the server never unmarshalls code sent by a client.
+ * <p/>
+ * The function is applied to the key and the current value by {@code compute} and {@code computeIfPresent}, to the
+ * key and {@code null} by {@code computeIfAbsent}, and to the current value and the value sent by the client by
+ * {@code merge}. The arguments and the result are unmarshalled and marshalled with the server marshaller.
+ *
+ * @since 8.0
+ */
+public interface ComputeFunctionFactory {
+
+   BiFunction<Object, Object, Object> getFunction();
+
+}
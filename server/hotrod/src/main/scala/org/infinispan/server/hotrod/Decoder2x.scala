@@ -37,6 +37,7 @@ import scala.collection.mutable
 import scala.collection.mutable.ListBuffer
 import org.infinispan.server.core.transport.SaslQopHandler
 import org.infinispan.scripting.ScriptingManager
+import org.infinispan.security.Security
 import javax.script.SimpleBindings
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller
 import java.util.{BitSet => JavaBitSet}
@@ -88,6 +89,10 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
          case 0x31 => (IterationStartRequest, false)
          case 0x33 => (IterationNextRequest, false)
          case 0x35 => (IterationEndRequest, false)
+         case 0x37 =>
+            if (version < VERSION_23) throw new HotRodUnknownOperationException(
+               "Unknown operation: " + streamOp, version, messageId)
+            (ComputeRequest, false)
          case _ => throw new HotRodUnknownOperationException(
             "Unknown operation: " + streamOp, version, messageId)
       }
@@ -312,11 +317,40 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
                val paramValue = marshaller.objectFromByteBuffer(readRangedBytes(buffer))
                params.put(paramName, paramValue)
             }
+            // Since 2.3 the request carries the key the script operates on, if any
+            val routingKey = if (h.version >= VERSION_23) readRangedBytes(buffer) else Array.emptyByteArray
+            // The script locks the key as stored, which is unmarshalled in compatibility mode
+            val compatibility = cache.getCacheConfiguration.compatibility
+            val scriptKey: AnyRef =
+               if (compatibility.enabled) HotRodTypeConverter(compatibility.marshaller).boxKey(routingKey)
+               else routingKey
             params.put("marshaller", marshaller)
             params.put("cache", cache)
             val scriptingManager = SecurityActions.getCacheGlobalComponentRegistry(cache).getComponent(classOf[ScriptingManager]);
-            val result: Any = scriptingManager.runScript(name, cache, new SimpleBindings(params)).get
-            new ExecResponse(h.version, h.messageId, h.cacheName, h.clientIntel, h.topologyId, marshaller.objectToByteBuffer(result))
+            // Scripts block, on the lock of their key or on the nodes they run on, so they never run on the I/O thread.
+            // The response is written once the script completes.
+            val subject = Security.getSubject
+            val ch = ctx.channel
+            server.getScriptExecutor.execute(new Runnable {
+               override def run(): Unit = {
+                  val response = Security.doAs(subject, new PrivilegedAction[Response] {
+                     override def run(): Response = {
+                        try {
+                           val result: Any =
+                              if (routingKey.isEmpty) scriptingManager.runScript(name, cache, new SimpleBindings(params)).get
+                              else scriptingManager.runScript(name, cache, scriptKey, new SimpleBindings(params)).get
+                           new ExecResponse(h.version, h.messageId, h.cacheName, h.clientIntel, h.topologyId, marshaller.objectToByteBuffer(result))
+                        } catch {
+                           case e: Exception =>
+                              debug(e, "Error executing script %s", name)
+                              createErrorResponse(h, e)
+                        }
+                     }
+                  })
+                  ch.writeAndFlush(response)
+               }
+            })
+            None
       }
    }
 
@@ -481,6 +515,26 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
            val results = cache.getAll(set)
            new GetAllResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
                GetAllResponse, Success, h.topologyId, immutable.Map[Bytes, Bytes]() ++ results.asScala)
+         case ComputeRequest =>
+            // The value is only sent by merge, the function is registered in the server under the name sent
+            if (hrCtx.params.valueLength > 0) buffer.readBytes(hrCtx.rawValue)
+            val mode = buffer.readUnsignedByte
+            val function = hrCtx.server.getComputeFunction(readString(buffer))
+            val metadata = hrCtx.buildMetadata
+            val k = hrCtx.key
+            val result = mode match {
+               case 0 => cache.compute(k, function, metadata)
+               case 1 => cache.computeIfPresent(k, function, metadata)
+               case 2 => cache.computeIfAbsent(k, function.asFunction, metadata)
+               case 3 => cache.merge(k, hrCtx.rawValue, function, metadata)
+               case _ => throw new RequestParsingException("Unknown compute mode: " + mode, h.version, h.messageId)
+            }
+            if (result != null)
+               new GetResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+                  ComputeResponse, Success, h.topologyId, Some(result))
+            else
+               new GetResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+                  ComputeResponse, KeyDoesNotExist, h.topologyId, None)
         case _ => null
      }
    }
@@ -571,7 +625,8 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
                  | RemoveRequest
                  | RemoveIfUnmodifiedRequest
                  | ReplaceRequest
-                 | ReplaceIfUnmodifiedRequest =>
+                 | ReplaceIfUnmodifiedRequest
+                 | ComputeRequest =>
                optCache = optCache.withFlags(SKIP_INDEXING)
             case _ =>
          }
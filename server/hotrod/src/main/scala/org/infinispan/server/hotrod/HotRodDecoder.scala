@@ -101,7 +101,7 @@ extends ReplayingDecoder[HotRodDecoderState](DECODE_HEADER) with StatsChannelHan
          case PutRequest => handleModification(ch, buffer)
          case RemoveRequest => handleModification(ch, buffer)
          case GetWithVersionRequest => writeResponse(ch, decodeCtx.get(readKey(buffer)._1))
-         case PutIfAbsentRequest | ReplaceRequest | ReplaceIfUnmodifiedRequest =>
+         case PutIfAbsentRequest | ReplaceRequest | ReplaceIfUnmodifiedRequest | ComputeRequest =>
             handleModification(ch, buffer)
          case _ => customDecodeKey(ctx, buffer)
       }
@@ -231,6 +231,7 @@ extends ReplayingDecoder[HotRodDecoderState](DECODE_HEADER) with StatsChannelHan
                case a: Bytes => ch.writeAndFlush(wrappedBuffer(a))
                case cs: CharSequence => ch.writeAndFlush(Unpooled.copiedBuffer(cs, CharsetUtil.UTF_8))
                case pr: PartialResponse => return pr
+               case None => // no response yet, it is written once the operation completes
                case _ => ch.writeAndFlush(response)
             }
          } finally {
@@ -29,4 +29,5 @@ object HotRodOperation extends Enumeration(20) {
    val IterationStartRequest = Value
    val IterationNextRequest = Value
    val IterationEndRequest = Value
+   val ComputeRequest = Value
 }
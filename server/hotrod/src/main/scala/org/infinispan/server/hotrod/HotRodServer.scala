@@ -2,6 +2,7 @@ package org.infinispan.server.hotrod
 
 import logging.Log
 import org.infinispan.commons.marshall.Marshaller
+import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller
 import org.infinispan.filter.KeyValueFilterConverterFactory
 import org.infinispan.notifications.cachelistener.filter.{CacheEventFilterConverterFactory, CacheEventConverterFactory, CacheEventFilterFactory}
 import org.infinispan.server.hotrod.iteration.{DefaultIterationManager, IterationManager}
@@ -22,6 +23,8 @@ import org.infinispan.server.core.security.SaslUtils
 import org.infinispan.factories.ComponentRegistry
 import org.infinispan.registry.InternalCacheRegistry
 import java.util.EnumSet
+import java.util.concurrent.{ThreadFactory, TimeUnit, LinkedBlockingQueue, ThreadPoolExecutor, ExecutorService}
+import java.util.concurrent.atomic.AtomicInteger
 import org.infinispan.server.hotrod.event.KeyValueWithPreviousEventConverterFactory
 
 import scala.collection.JavaConversions._
@@ -50,6 +53,9 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
    private var queryFacades: Seq[QueryFacade] = _
    private val saslMechFactories = CollectionFactory.makeConcurrentMap[String, SaslServerFactory](4, 0.9f, 16)
    private var clientListenerRegistry: ClientListenerRegistry = _
+   private var scriptExecutor: ExecutorService = _
+   private val computeFunctions = CollectionFactory.makeConcurrentMap[String, java.util.function.BiFunction[AnyRef, AnyRef, AnyRef]](4, 0.9f, 16)
+   @volatile private var computeMarshaller: Marshaller = new GenericJBossMarshaller
 
    lazy val iterationManager: IterationManager = new DefaultIterationManager(getCacheManager)
 
@@ -59,6 +65,12 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
 
    def getClientListenerRegistry: ClientListenerRegistry = clientListenerRegistry
 
+   /**
+    * Runs the scripts executed by the clients, which must not block the I/O threads. It has as many threads as the
+    * transport has workers.
+    */
+   def getScriptExecutor: ExecutorService = scriptExecutor
+
    override def getEncoder = new HotRodEncoder(getCacheManager, this)
 
    override def getDecoder : HotRodDecoder =
@@ -86,10 +98,25 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
 
       queryFacades = loadQueryFacades()
       clientListenerRegistry = new ClientListenerRegistry(configuration)
+      scriptExecutor = createScriptExecutor(configuration.workerThreads)
 
       addCacheEventConverterFactory("key-value-with-previous-converter-factory", new KeyValueWithPreviousEventConverterFactory)
    }
 
+   private def createScriptExecutor(threads: Int): ExecutorService = {
+      val counter = new AtomicInteger(0)
+      val executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue[Runnable],
+         new ThreadFactory {
+            override def newThread(r: Runnable): Thread = {
+               val th = new Thread(r, "HotRod-ScriptExecutor-" + counter.getAndIncrement)
+               th.setDaemon(true)
+               th
+            }
+         })
+      executor.allowCoreThreadTimeOut(true)
+      executor
+   }
+
    private def loadQueryFacades(): Seq[QueryFacade] =
       ServiceLoader.load(classOf[QueryFacade], getClass().getClassLoader()).toSeq
 
@@ -262,6 +289,7 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
    def setMarshaller(marshaller: Marshaller): Unit = {
       clientListenerRegistry.setEventMarshaller(Option(marshaller))
       iterationManager.setMarshaller(Option(marshaller))
+      computeMarshaller = Option(marshaller).getOrElse(new GenericJBossMarshaller)
    }
 
    def addKeyValueFilterConverterFactory[K, V, C](name: String, factory: KeyValueFilterConverterFactory[K, V, C]): Unit = {
@@ -272,8 +300,24 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
       iterationManager.removeKeyValueFilterConverterFactory(name)
    }
 
+   def addComputeFunctionFactory(name: String, factory: ComputeFunctionFactory): Unit = {
+      // The function is resolved once, it is shared by all the requests naming it
+      computeFunctions.put(name, factory.getFunction)
+   }
+
+   def removeComputeFunctionFactory(name: String): Unit = {
+      computeFunctions.remove(name)
+   }
+
+   def getComputeFunction(name: String): MarshalledFunction = {
+      val function = computeFunctions.get(name)
+      if (function == null) throw log.missingComputeFunctionFactory(name)
+      new MarshalledFunction(function, computeMarshaller)
+   }
+
    override def stop: Unit = {
       if (clientListenerRegistry != null) clientListenerRegistry.stop()
+      if (scriptExecutor != null) scriptExecutor.shutdownNow()
       super.stop
    }
 }
@@ -0,0 +1,64 @@
+package org.infinispan.server.hotrod;
+
+import java.io.IOException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.Marshaller;
+
+/**
+ * Applies a function registered with a {@link ComputeFunctionFactory} to the marshalled keys and values stored by the
+ * server: the arguments are unmarshalled with the server marshaller and the result is marshalled back.
+ * <p/>
+ * The function is resolved once, when its factory is registered, and it is not marshallable: the function can only be
+ * applied where the request is received, which is the primary owner of the key unless the topology changed in the
+ * meantime. In that case the request fails and the client retries it on the new primary owner.
+ *
+ * @since 8.0
+ */
+public class MarshalledFunction implements BiFunction<byte[], byte[], byte[]> {
+
+   private final BiFunction<Object, Object, Object> function;
+   private final Marshaller marshaller;
+
+   public MarshalledFunction(BiFunction<Object, Object, Object> function, Marshaller marshaller) {
+      this.function = function;
+      this.marshaller = marshaller;
+   }
+
+   @Override
+   public byte[] apply(byte[] arg1, byte[] arg2) {
+      return marshall(function.apply(unmarshall(arg1), unmarshall(arg2)));
+   }
+
+   /**
+    * @return the function applied by {@code computeIfAbsent}, which receives the key and {@code null}
+    */
+   public Function<byte[], byte[]> asFunction() {
+      return key -> apply(key, null);
+   }
+
+   private Object unmarshall(byte[] bytes) {
+      if (bytes == null)
+         return null;
+      try {
+         return marshaller.objectFromByteBuffer(bytes);
+      } catch (IOException | ClassNotFoundException e) {
+         throw new CacheException("Unable to unmarshall the arguments of the function", e);
+      }
+   }
+
+   private byte[] marshall(Object o) {
+      if (o == null)
+         return null;
+      try {
+         return marshaller.objectToByteBuffer(o);
+      } catch (IOException e) {
+         throw new CacheException("Unable to marshall the result of the function", e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+   }
+}
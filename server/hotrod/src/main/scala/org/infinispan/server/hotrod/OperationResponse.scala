@@ -50,6 +50,7 @@ object OperationResponse extends Enumeration {
    val IterationStartResponse = Value(0x32)
    val IterationNextResponse = Value(0x34)
    val IterationEndResponse = Value(0x36)
+   val ComputeResponse = Value(0x38)
 
    def toResponse(request: Enumeration#Value): OperationResponse = {
       request match {
@@ -76,6 +77,7 @@ object OperationResponse extends Enumeration {
          case ExecRequest => ExecResponse
          case PutAllRequest => PutAllResponse
          case GetAllRequest => GetAllResponse
+         case ComputeRequest => ComputeResponse
       }
    }
 
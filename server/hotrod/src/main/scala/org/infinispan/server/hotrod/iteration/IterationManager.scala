@@ -3,9 +3,11 @@ package org.infinispan.server.hotrod.iteration
 import java.util
 import java.util.UUID
 
+import org.infinispan.AdvancedCache
 import org.infinispan.commons.marshall.Marshaller
 import org.infinispan.commons.util.{CloseableIterator, CollectionFactory, InfinispanCollections}
 import org.infinispan.configuration.cache.CompatibilityModeConfiguration
+import org.infinispan.context.Flag
 import org.infinispan.container.entries.CacheEntry
 import org.infinispan.filter.{KeyValueFilterConverter, KeyValueFilterConverterFactory}
 import org.infinispan.iteration.impl.EntryRetriever
@@ -80,7 +82,8 @@ class DefaultIterationManager(val cacheManager: EmbeddedCacheManager) extends It
 
    override def start(cacheName: String, segments: Option[JavaBitSet], filterConverterFactory: Option[String], batch: Integer): IterationId = {
       val iterationId = UUID.randomUUID().toString
-      val entryRetriever = cacheManager.getCache(cacheName).getAdvancedCache.getComponentRegistry.getComponent(classOf[EntryRetriever[_, _]])
+      val cache = cacheManager.getCache(cacheName).getAdvancedCache
+      val entryRetriever = cache.getComponentRegistry.getComponent(classOf[EntryRetriever[_, _]])
       val segmentListener = new IterationSegmentsListener
       val compatInfo = CompatInfo(cacheManager.getCacheConfiguration(cacheName).compatibility())
 
@@ -91,13 +94,30 @@ class DefaultIterationManager(val cacheManager: EmbeddedCacheManager) extends It
          } else null
       }
 
-      val iterator = entryRetriever.retrieveEntries(filter.asInstanceOf[KeyValueFilterConverter[Any, Any, Any]], null, null, segmentListener)
+      // clients iterating in parallel ask each server for the segments it owns, which don't need to be retrieved remotely
+      val flags = segments.filter(ownsAllSegments(cache, _)).map(_ => util.EnumSet.of(Flag.CACHE_MODE_LOCAL)).orNull
+      val iterator = entryRetriever.retrieveEntries(filter.asInstanceOf[KeyValueFilterConverter[Any, Any, Any]], null, flags, segmentListener)
       val iterationState = new IterationState(segmentListener, iterator.asInstanceOf[CloseableIterator[CacheEntry[AnyRef, AnyRef]]], batch, compatInfo)
 
       iterationStateMap.put(iterationId, iterationState)
       iterationId
    }
 
+   /**
+    * Whether the local node owns all the segments, and will keep owning them as no rebalance is in progress.
+    */
+   private def ownsAllSegments(cache: AdvancedCache[_, _], segments: JavaBitSet): Boolean = {
+      val topology = Option(cache.getComponentRegistry.getStateTransferManager).flatMap(stm => Option(stm.getCacheTopology))
+      topology.exists { t =>
+         t.getPendingCH == null && {
+            val owned = t.getCurrentCH.getSegmentsForOwner(cache.getRpcManager.getAddress)
+            var segment = segments.nextSetBit(0)
+            while (segment >= 0 && owned.contains(segment)) segment = segments.nextSetBit(segment + 1)
+            segment < 0
+         }
+      }
+   }
+
    private def buildCustomFilter[K, V, Any](optName: Option[String]) = {
       optName match {
          case None => None